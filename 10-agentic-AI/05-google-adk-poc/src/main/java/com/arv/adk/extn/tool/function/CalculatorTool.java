@@ -216,10 +216,11 @@ public class CalculatorTool implements ITool {
   
   /**
    * Creates metadata for the calculator tool.
+   * Static so the tool's creator can describe it without instantiating it.
    * 
    * @return the tool metadata
    */
-  private IToolMetadata createMetadata() {
+  public static IToolMetadata createMetadata() {
     ToolMetadata meta = new ToolMetadata(TOOL_ID, TOOL_NAME, TOOL_DESCRIPTION);
     meta.setCategory(ToolCategory.UTILITY);
     meta.setReturnType(ReturnType.STRING);
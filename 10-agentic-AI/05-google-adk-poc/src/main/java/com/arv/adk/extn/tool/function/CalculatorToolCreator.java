@@ -0,0 +1,26 @@
+package com.arv.adk.extn.tool.function;
+
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.tools.AbstractToolCreator;
+import java.util.Map;
+
+/**
+ * Creates the calculator tool. Registered for ServiceLoader discovery.
+ */
+public class CalculatorToolCreator extends AbstractToolCreator {
+
+  public CalculatorToolCreator() {
+    super("calculator");
+  }
+
+  @Override
+  public ITool createTool(Map<String, Object> config) {
+    return new CalculatorTool();
+  }
+
+  @Override
+  protected IToolMetadata describeTool() {
+    return CalculatorTool.createMetadata();
+  }
+}
@@ -1,6 +1,6 @@
 package com.arv.adk.tools;
 
-import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IAsyncTool;
 import com.arv.framework.adk.interfaces.tool.IToolInput;
 import com.arv.framework.adk.interfaces.tool.IToolMetadata;
 import com.arv.framework.adk.interfaces.tool.IToolResult;
@@ -11,16 +11,12 @@ import com.arv.framework.adk.tools.Parameter;
 import com.arv.framework.adk.tools.ToolResult;
 import lombok.extern.slf4j.Slf4j;
 
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,39 +25,46 @@ import java.util.regex.Pattern;
  * Can search for current data and extract specific information like population figures.
  */
 @Slf4j
-public class GoogleSearchTool implements ITool {
+public class GoogleSearchTool implements IAsyncTool {
 
   private static final String SEARCH_API_URL = "https://www.googleapis.com/customsearch/v1";
-  private final OkHttpClient httpClient;
-  private final ObjectMapper objectMapper;
+  private static final String TOOL_ID = "google_search";
+  private static final String TOOL_NAME = "Google Search";
+  private static final String TOOL_DESCRIPTION =
+      "Search Google for current information about any topic. Can find population data, statistics, and other up-to-date facts.";
   
   // These would normally come from environment variables or config
   private static final String API_KEY = "YOUR_GOOGLE_API_KEY"; // Replace with actual API key
   private static final String CX = "YOUR_SEARCH_ENGINE_ID"; // Replace with actual Custom Search Engine ID
 
-  public GoogleSearchTool() {
-    this.httpClient = new OkHttpClient();
-    this.objectMapper = new ObjectMapper();
-  }
-
   @Override
   public String getId() {
-    return "google_search";
+    return TOOL_ID;
   }
 
   @Override
   public String getName() {
-    return "Google Search";
+    return TOOL_NAME;
   }
 
   @Override
   public String getDescription() {
-    return "Search Google for current information about any topic. Can find population data, statistics, and other up-to-date facts.";
+    return TOOL_DESCRIPTION;
   }
 
   @Override
   public IToolMetadata getMetadata() {
-    ToolMetadata meta = new ToolMetadata(getId(), getName(), getDescription());
+    return createMetadata();
+  }
+
+  /**
+   * Creates metadata for the Google search tool.
+   * Static so the tool's creator can describe it without instantiating it.
+   * 
+   * @return the tool metadata
+   */
+  public static IToolMetadata createMetadata() {
+    ToolMetadata meta = new ToolMetadata(TOOL_ID, TOOL_NAME, TOOL_DESCRIPTION);
     meta.setCategory(ToolCategory.UTILITY);
     meta.setReturnType(ReturnType.STRING);
     meta.setVersion("1.0.0");
@@ -103,6 +106,13 @@ public class GoogleSearchTool implements ITool {
     }
   }
 
+  @Override
+  public CompletableFuture<IToolResult> executeAsync(IToolInput input) {
+    // Results are simulated in memory, so there is nothing to wait for.
+    // A real Custom Search call would go through OkHttp's enqueue like WikipediaSearchTool.
+    return CompletableFuture.completedFuture(execute(input));
+  }
+
   /**
    * Simulate Google search results for population queries.
    * In a real implementation, this would call the Google Custom Search API.
@@ -0,0 +1,26 @@
+package com.arv.adk.tools;
+
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.tools.AbstractToolCreator;
+import java.util.Map;
+
+/**
+ * Creates the Google search tool. Registered for ServiceLoader discovery.
+ */
+public class GoogleSearchToolCreator extends AbstractToolCreator {
+
+  public GoogleSearchToolCreator() {
+    super("google_search");
+  }
+
+  @Override
+  public ITool createTool(Map<String, Object> config) {
+    return new GoogleSearchTool();
+  }
+
+  @Override
+  protected IToolMetadata describeTool() {
+    return GoogleSearchTool.createMetadata();
+  }
+}
@@ -2,25 +2,28 @@ package com.arv.adk.tools;
 
 import com.arv.framework.adk.interfaces.enums.ReturnType;
 import com.arv.framework.adk.interfaces.enums.ToolCategory;
-import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IBatchTool;
 import com.arv.framework.adk.interfaces.tool.IToolInput;
 import com.arv.framework.adk.interfaces.tool.IToolMetadata;
 import com.arv.framework.adk.interfaces.tool.IToolResult;
+import com.arv.framework.adk.tools.NumericArrays;
 import com.arv.framework.adk.tools.ToolMetadata;
 import com.arv.framework.adk.tools.Parameter;
 import com.arv.framework.adk.tools.ToolResult;
 
 /**
- * Multiply tool implementation for multiplying two integers.
+ * Multiply tool implementation for multiplying two integers or a batch of numbers.
  * Handles multiplication operations with proper validation and error handling.
  */
-public class MultiplyTool implements ITool {
+public class MultiplyTool implements IBatchTool {
   
   private static final String TOOL_ID = "multiply";
   private static final String TOOL_NAME = "Multiply";
   private static final String TOOL_DESCRIPTION = 
       "Multiply two integers and return the result. "
+      + "Pass a list of numbers as 'values' to multiply them all in one call. "
       + "Supports natural language queries like 'multiply 3 with 5' or 'what is 4 times 6'.";
+  private static final String VALUES_PARAM = "values";
   
   private boolean enabled;
   private IToolMetadata metadata;
@@ -55,18 +58,22 @@ public class MultiplyTool implements ITool {
     try {
       // Validate input
       if (!validateInput(input)) {
-        return ToolResult.failure("Invalid input: x and y parameters are required")
+        return ToolResult.failure("Invalid input: x and y, or values, parameters are required")
             .withExecutionTime(startTime);
       }
       
-      // Extract parameters
-      Long x = extractLongParameter(input, "x");
-      Long y = extractLongParameter(input, "y");
+      // A list of values is reduced in a single batch call
+      if (input.hasParameter(VALUES_PARAM)) {
+        return executeBatch(input.getParameter(VALUES_PARAM));
+      }
       
-      if (x == null || y == null) {
+      // Extract parameters without boxing
+      if (!input.isNumericParameter("x") || !input.isNumericParameter("y")) {
         return ToolResult.failure("Both x and y must be valid numbers")
             .withExecutionTime(startTime);
       }
+      long x = input.getLongParameter("x", 0L);
+      long y = input.getLongParameter("y", 0L);
       
       // Perform multiplication
       long result = x * y;
@@ -81,10 +88,10 @@ public class MultiplyTool implements ITool {
       
       return ToolResult.success(resultString)
           .withExecutionTime(startTime)
-          .withMetadata("x", x)
-          .withMetadata("y", y)
+          .withLongMetadata("x", x)
+          .withLongMetadata("y", y)
           .withMetadata("operation", "multiplication")
-          .withMetadata("result", result);
+          .withLongMetadata("result", result);
       
     } catch (NumberFormatException e) {
       return ToolResult.failure("Invalid number format: " + e.getMessage())
@@ -95,6 +102,53 @@ public class MultiplyTool implements ITool {
     }
   }
   
+  @Override
+  public String getBatchParameterName() {
+    return VALUES_PARAM;
+  }
+  
+  @Override
+  public IToolResult executeBatch(long[] values) {
+    long startTime = System.currentTimeMillis();
+    Number result = NumericArrays.product(values);
+    return ToolResult.success(result.toString())
+        .withExecutionTime(startTime)
+        .withMetadata("operation", "multiplication")
+        .withMetadata("count", values.length);
+  }
+  
+  @Override
+  public IToolResult executeBatch(double[] values) {
+    long startTime = System.currentTimeMillis();
+    double result = NumericArrays.product(values);
+    if (Double.isNaN(result) || Double.isInfinite(result)) {
+      return ToolResult.failure("Result overflow: multiplication result is not a finite number")
+          .withExecutionTime(startTime);
+    }
+    return ToolResult.success(NumericArrays.format(result))
+        .withExecutionTime(startTime)
+        .withMetadata("operation", "multiplication")
+        .withMetadata("count", values.length);
+  }
+  
+  /**
+   * Reduces the values parameter, using integer arithmetic when every value is integral.
+   * 
+   * @param value the values parameter
+   * @return the tool result
+   */
+  private IToolResult executeBatch(Object value) {
+    long[] longValues = NumericArrays.toLongArray(value);
+    if (longValues != null) {
+      return executeBatch(longValues);
+    }
+    double[] doubleValues = NumericArrays.toDoubleArray(value);
+    if (doubleValues != null) {
+      return executeBatch(doubleValues);
+    }
+    return ToolResult.failure("values must be a list of numbers");
+  }
+  
   @Override
   public boolean isEnabled() {
     return enabled;
@@ -116,82 +170,18 @@ public class MultiplyTool implements ITool {
       return false;
     }
     
-    // Check if both x and y parameters exist
-    return input.hasParameter("x") && input.hasParameter("y");
-  }
-  
-  /**
-   * Extracts long parameter from tool input.
-   * 
-   * @param input the tool input
-   * @param paramName the parameter name
-   * @return the long value or null if invalid
-   */
-  private Long extractLongParameter(IToolInput input, String paramName) {
-    Object value = input.getParameter(paramName);
-    
-    if (value == null) {
-      return null;
-    }
-    
-    if (value instanceof Long) {
-      return (Long) value;
-    }
-    
-    if (value instanceof Number) {
-      return ((Number) value).longValue();
-    }
-    
-    if (value instanceof String) {
-      try {
-        return Long.parseLong(((String) value).trim());
-      } catch (NumberFormatException e) {
-        return null;
-      }
-    }
-    
-    return null;
-  }
-  
-  /**
-   * Extracts integer parameter from tool input.
-   * 
-   * @param input the tool input
-   * @param paramName the parameter name
-   * @return the integer value or null if invalid
-   */
-  private Integer extractIntegerParameter(IToolInput input, String paramName) {
-    Object value = input.getParameter(paramName);
-    
-    if (value == null) {
-      return null;
-    }
-    
-    if (value instanceof Integer) {
-      return (Integer) value;
-    }
-    
-    if (value instanceof Number) {
-      return ((Number) value).intValue();
-    }
-    
-    if (value instanceof String) {
-      try {
-        return Integer.parseInt(((String) value).trim());
-      } catch (NumberFormatException e) {
-        return null;
-      }
-    }
-    
-    return null;
+    // Check for a batch of values, or both x and y parameters
+    return input.hasParameter(VALUES_PARAM)
+        || (input.hasParameter("x") && input.hasParameter("y"));
   }
   
   /**
    * Creates metadata for the multiply tool.
+   * Static so the tool's creator can describe it without instantiating it.
    * 
    * @return the tool metadata
    */
-  private IToolMetadata createMetadata() {
+  public static IToolMetadata createMetadata() {
     ToolMetadata meta = new ToolMetadata(TOOL_ID, TOOL_NAME, TOOL_DESCRIPTION);
     meta.setCategory(ToolCategory.UTILITY);
     meta.setReturnType(ReturnType.INTEGER);
@@ -201,8 +191,8 @@ public class MultiplyTool implements ITool {
     Parameter xParam = new Parameter(
         "x", 
         "integer", 
-        "First integer to multiply", 
-        true
+        "First integer to multiply (not needed when values is given)", 
+        false
     );
     meta.addParameter(xParam);
     
@@ -210,13 +200,23 @@ public class MultiplyTool implements ITool {
     Parameter yParam = new Parameter(
         "y", 
         "integer", 
-        "Second integer to multiply", 
-        true
+        "Second integer to multiply (not needed when values is given)", 
+        false
     );
     meta.addParameter(yParam);
     
+    // Add values parameter for batch calls
+    Parameter valuesParam = new Parameter(
+        VALUES_PARAM, 
+        "number[]", 
+        "List of numbers to multiply in a single call", 
+        false
+    );
+    meta.addParameter(valuesParam);
+    
     // Add tool properties
     meta.setProperty("supports_overflow_detection", true);
+    meta.setProperty("supports_batch", true);
     meta.setProperty("max_safe_value", Integer.MAX_VALUE);
     meta.setProperty("min_safe_value", Integer.MIN_VALUE);
     
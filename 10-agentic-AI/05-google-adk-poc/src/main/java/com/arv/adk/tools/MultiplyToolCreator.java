@@ -0,0 +1,26 @@
+package com.arv.adk.tools;
+
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.tools.AbstractToolCreator;
+import java.util.Map;
+
+/**
+ * Creates the multiply tool. Registered for ServiceLoader discovery.
+ */
+public class MultiplyToolCreator extends AbstractToolCreator {
+
+  public MultiplyToolCreator() {
+    super("multiply");
+  }
+
+  @Override
+  public ITool createTool(Map<String, Object> config) {
+    return new MultiplyTool();
+  }
+
+  @Override
+  protected IToolMetadata describeTool() {
+    return MultiplyTool.createMetadata();
+  }
+}
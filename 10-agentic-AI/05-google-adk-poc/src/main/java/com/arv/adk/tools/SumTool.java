@@ -2,25 +2,28 @@ package com.arv.adk.tools;
 
 import com.arv.framework.adk.interfaces.enums.ReturnType;
 import com.arv.framework.adk.interfaces.enums.ToolCategory;
-import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IBatchTool;
 import com.arv.framework.adk.interfaces.tool.IToolInput;
 import com.arv.framework.adk.interfaces.tool.IToolMetadata;
 import com.arv.framework.adk.interfaces.tool.IToolResult;
+import com.arv.framework.adk.tools.NumericArrays;
 import com.arv.framework.adk.tools.ToolMetadata;
 import com.arv.framework.adk.tools.Parameter;
 import com.arv.framework.adk.tools.ToolResult;
 
 /**
- * Sum tool implementation for adding two integers.
+ * Sum tool implementation for adding two integers or a batch of numbers.
  * Handles addition operations with proper validation and error handling.
  */
-public class SumTool implements ITool {
+public class SumTool implements IBatchTool {
   
   private static final String TOOL_ID = "sum";
   private static final String TOOL_NAME = "Sum";
   private static final String TOOL_DESCRIPTION = 
       "Add two integers and return the result. "
+      + "Pass a list of numbers as 'values' to add them all in one call. "
       + "Supports natural language queries like 'add 3 and 5' or 'what is 4 plus 6'.";
+  private static final String VALUES_PARAM = "values";
   
   private boolean enabled;
   private IToolMetadata metadata;
@@ -55,34 +58,40 @@ public class SumTool implements ITool {
     try {
       // Validate input
       if (!validateInput(input)) {
-        return ToolResult.failure("Invalid input: a and b parameters are required")
+        return ToolResult.failure("Invalid input: a and b, or values, parameters are required")
             .withExecutionTime(startTime);
       }
       
-      // Extract parameters
-      Integer a = extractIntegerParameter(input, "a");
-      Integer b = extractIntegerParameter(input, "b");
+      // A list of values is reduced in a single batch call
+      if (input.hasParameter(VALUES_PARAM)) {
+        return executeBatch(input.getParameter(VALUES_PARAM));
+      }
       
-      if (a == null || b == null) {
+      // Extract parameters without boxing
+      if (!input.isNumericParameter("a") || !input.isNumericParameter("b")) {
         return ToolResult.failure("Both a and b must be valid integers")
             .withExecutionTime(startTime);
       }
+      long a = input.getLongParameter("a", 0L);
+      long b = input.getLongParameter("b", 0L);
       
       // Perform addition
-      long result = (long) a + b;
+      long result = a + b;
       
       // Check for overflow
-      if (result > Integer.MAX_VALUE || result < Integer.MIN_VALUE) {
+      if (a > Integer.MAX_VALUE || a < Integer.MIN_VALUE
+          || b > Integer.MAX_VALUE || b < Integer.MIN_VALUE
+          || result > Integer.MAX_VALUE || result < Integer.MIN_VALUE) {
         return ToolResult.failure("Result overflow: " + result + " is outside integer range")
             .withExecutionTime(startTime);
       }
       
-      String resultString = String.valueOf((int) result);
+      String resultString = String.valueOf(result);
       
       return ToolResult.success(resultString)
           .withExecutionTime(startTime)
-          .withMetadata("a", a)
-          .withMetadata("b", b)
+          .withMetadata("a", (int) a)
+          .withMetadata("b", (int) b)
           .withMetadata("operation", "addition")
           .withMetadata("result", (int) result);
       
@@ -95,6 +104,53 @@ public class SumTool implements ITool {
     }
   }
   
+  @Override
+  public String getBatchParameterName() {
+    return VALUES_PARAM;
+  }
+  
+  @Override
+  public IToolResult executeBatch(long[] values) {
+    long startTime = System.currentTimeMillis();
+    Number result = NumericArrays.sum(values);
+    return ToolResult.success(result.toString())
+        .withExecutionTime(startTime)
+        .withMetadata("operation", "addition")
+        .withMetadata("count", values.length);
+  }
+  
+  @Override
+  public IToolResult executeBatch(double[] values) {
+    long startTime = System.currentTimeMillis();
+    double result = NumericArrays.sum(values);
+    if (Double.isNaN(result) || Double.isInfinite(result)) {
+      return ToolResult.failure("Result overflow: addition result is not a finite number")
+          .withExecutionTime(startTime);
+    }
+    return ToolResult.success(NumericArrays.format(result))
+        .withExecutionTime(startTime)
+        .withMetadata("operation", "addition")
+        .withMetadata("count", values.length);
+  }
+  
+  /**
+   * Reduces the values parameter, using integer arithmetic when every value is integral.
+   * 
+   * @param value the values parameter
+   * @return the tool result
+   */
+  private IToolResult executeBatch(Object value) {
+    long[] longValues = NumericArrays.toLongArray(value);
+    if (longValues != null) {
+      return executeBatch(longValues);
+    }
+    double[] doubleValues = NumericArrays.toDoubleArray(value);
+    if (doubleValues != null) {
+      return executeBatch(doubleValues);
+    }
+    return ToolResult.failure("values must be a list of numbers");
+  }
+  
   @Override
   public boolean isEnabled() {
     return enabled;
@@ -116,49 +172,18 @@ public class SumTool implements ITool {
       return false;
     }
     
-    // Check if both a and b parameters exist
-    return input.hasParameter("a") && input.hasParameter("b");
-  }
-  
-  /**
-   * Extracts integer parameter from tool input.
-   * 
-   * @param input the tool input
-   * @param paramName the parameter name
-   * @return the integer value or null if invalid
-   */
-  private Integer extractIntegerParameter(IToolInput input, String paramName) {
-    Object value = input.getParameter(paramName);
-    
-    if (value == null) {
-      return null;
-    }
-    
-    if (value instanceof Integer) {
-      return (Integer) value;
-    }
-    
-    if (value instanceof Number) {
-      return ((Number) value).intValue();
-    }
-    
-    if (value instanceof String) {
-      try {
-        return Integer.parseInt(((String) value).trim());
-      } catch (NumberFormatException e) {
-        return null;
-      }
-    }
-    
-    return null;
+    // Check for a batch of values, or both a and b parameters
+    return input.hasParameter(VALUES_PARAM)
+        || (input.hasParameter("a") && input.hasParameter("b"));
   }
   
   /**
    * Creates metadata for the sum tool.
+   * Static so the tool's creator can describe it without instantiating it.
    * 
    * @return the tool metadata
    */
-  private IToolMetadata createMetadata() {
+  public static IToolMetadata createMetadata() {
     ToolMetadata meta = new ToolMetadata(TOOL_ID, TOOL_NAME, TOOL_DESCRIPTION);
     meta.setCategory(ToolCategory.UTILITY);
     meta.setReturnType(ReturnType.INTEGER);
@@ -168,8 +193,8 @@ public class SumTool implements ITool {
     Parameter aParam = new Parameter(
         "a", 
         "integer", 
-        "First integer to add", 
-        true
+        "First integer to add (not needed when values is given)", 
+        false
     );
     meta.addParameter(aParam);
     
@@ -177,13 +202,23 @@ public class SumTool implements ITool {
     Parameter bParam = new Parameter(
         "b", 
         "integer", 
-        "Second integer to add", 
-        true
+        "Second integer to add (not needed when values is given)", 
+        false
     );
     meta.addParameter(bParam);
     
+    // Add values parameter for batch calls
+    Parameter valuesParam = new Parameter(
+        VALUES_PARAM, 
+        "number[]", 
+        "List of numbers to add in a single call", 
+        false
+    );
+    meta.addParameter(valuesParam);
+    
     // Add tool properties
     meta.setProperty("supports_overflow_detection", true);
+    meta.setProperty("supports_batch", true);
     meta.setProperty("max_safe_value", Integer.MAX_VALUE);
     meta.setProperty("min_safe_value", Integer.MIN_VALUE);
     
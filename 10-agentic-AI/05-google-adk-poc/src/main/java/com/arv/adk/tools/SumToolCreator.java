@@ -0,0 +1,26 @@
+package com.arv.adk.tools;
+
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.tools.AbstractToolCreator;
+import java.util.Map;
+
+/**
+ * Creates the sum tool. Registered for ServiceLoader discovery.
+ */
+public class SumToolCreator extends AbstractToolCreator {
+
+  public SumToolCreator() {
+    super("sum");
+  }
+
+  @Override
+  public ITool createTool(Map<String, Object> config) {
+    return new SumTool();
+  }
+
+  @Override
+  protected IToolMetadata describeTool() {
+    return SumTool.createMetadata();
+  }
+}
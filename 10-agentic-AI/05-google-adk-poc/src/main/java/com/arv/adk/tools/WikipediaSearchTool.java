@@ -1,6 +1,6 @@
 package com.arv.adk.tools;
 
-import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IAsyncTool;
 import com.arv.framework.adk.interfaces.tool.IToolInput;
 import com.arv.framework.adk.interfaces.tool.IToolMetadata;
 import com.arv.framework.adk.interfaces.tool.IToolResult;
@@ -11,6 +11,8 @@ import com.arv.framework.adk.tools.Parameter;
 import com.arv.framework.adk.tools.ToolResult;
 import lombok.extern.slf4j.Slf4j;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -19,43 +21,61 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Tool for searching Wikipedia articles and extracting information.
  * Can search for topics and extract specific data like population figures.
+ * Requests are sent with OkHttp's enqueue, so no thread is held while waiting for Wikipedia.
  */
 @Slf4j
-public class WikipediaSearchTool implements ITool {
+public class WikipediaSearchTool implements IAsyncTool {
 
   private static final String WIKIPEDIA_API_URL = "https://en.wikipedia.org/api/rest_v1/page/summary/";
-  private final OkHttpClient httpClient;
-  private final ObjectMapper objectMapper;
+  private static final String TOOL_ID = "wikipedia_search";
+  private static final String TOOL_NAME = "Wikipedia Search";
+  private static final String TOOL_DESCRIPTION =
+      "Search Wikipedia for information about countries, cities, or topics. Can extract population data and other facts.";
 
-  public WikipediaSearchTool() {
-    this.httpClient = new OkHttpClient();
-    this.objectMapper = new ObjectMapper();
+  /**
+   * Holds the HTTP client and JSON mapper, created on the first search rather than
+   * with the tool, and shared so every instance uses one connection pool.
+   */
+  private static final class Http {
+    static final OkHttpClient CLIENT = new OkHttpClient();
+    static final ObjectMapper MAPPER = new ObjectMapper();
   }
 
   @Override
   public String getId() {
-    return "wikipedia_search";
+    return TOOL_ID;
   }
 
   @Override
   public String getName() {
-    return "Wikipedia Search";
+    return TOOL_NAME;
   }
 
   @Override
   public String getDescription() {
-    return "Search Wikipedia for information about countries, cities, or topics. Can extract population data and other facts.";
+    return TOOL_DESCRIPTION;
   }
 
   @Override
   public IToolMetadata getMetadata() {
-    ToolMetadata meta = new ToolMetadata(getId(), getName(), getDescription());
+    return createMetadata();
+  }
+
+  /**
+   * Creates metadata for the Wikipedia search tool.
+   * Static so the tool's creator can describe it without instantiating it.
+   * 
+   * @return the tool metadata
+   */
+  public static IToolMetadata createMetadata() {
+    ToolMetadata meta = new ToolMetadata(TOOL_ID, TOOL_NAME, TOOL_DESCRIPTION);
     meta.setCategory(ToolCategory.UTILITY);
     meta.setReturnType(ReturnType.STRING);
     meta.setVersion("1.0.0");
@@ -74,13 +94,19 @@ public class WikipediaSearchTool implements ITool {
 
   @Override
   public IToolResult execute(IToolInput input) {
+    return executeAsync(input).join();
+  }
+
+  @Override
+  public CompletableFuture<IToolResult> executeAsync(IToolInput input) {
     log.info("Executing Wikipedia search tool");
     
+    Request request;
     try {
       // Get the search query parameter
       String query = (String) input.getParameter("query");
       if (query == null || query.trim().isEmpty()) {
-        return ToolResult.failure("Query parameter is required");
+        return CompletableFuture.completedFuture(ToolResult.failure("Query parameter is required"));
       }
 
       log.debug("Searching Wikipedia for: {}", query);
@@ -89,48 +115,70 @@ public class WikipediaSearchTool implements ITool {
       String cleanQuery = query.trim().replace(" ", "_");
       String url = WIKIPEDIA_API_URL + cleanQuery;
       
-      Request request = new Request.Builder()
+      request = new Request.Builder()
           .url(url)
           .addHeader("User-Agent", "ConnectADK/1.0 (Educational Purpose)")
           .build();
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.completedFuture(
+          ToolResult.failure("Invalid Wikipedia query: " + e.getMessage()));
+    } catch (Exception e) {
+      log.error("Unexpected error in Wikipedia search", e);
+      return CompletableFuture.completedFuture(
+          ToolResult.failure("Unexpected error: " + e.getMessage()));
+    }
 
-      try (Response response = httpClient.newCall(request).execute()) {
-        if (!response.isSuccessful()) {
-          log.warn("Wikipedia API returned status: {}", response.code());
-          return ToolResult.failure("Wikipedia search failed: " + response.code());
-        }
+    CompletableFuture<IToolResult> future = new CompletableFuture<>();
+    Http.CLIENT.newCall(request).enqueue(new Callback() {
+      @Override
+      public void onFailure(Call call, IOException e) {
+        log.error("Error calling Wikipedia API", e);
+        future.complete(ToolResult.failure("Failed to search Wikipedia: " + e.getMessage()));
+      }
 
-        String responseBody = response.body().string();
-        JsonNode jsonResponse = objectMapper.readTree(responseBody);
-        
-        // Extract key information
-        String title = jsonResponse.has("title") ? jsonResponse.get("title").asText() : "Unknown";
-        String extract = jsonResponse.has("extract") ? jsonResponse.get("extract").asText() : "";
-        
-        log.debug("Found Wikipedia article: {}", title);
-        
-        // Try to extract population if mentioned in the extract
-        String populationInfo = extractPopulationInfo(extract);
-        
-        StringBuilder result = new StringBuilder();
-        result.append("Wikipedia Summary for ").append(title).append(":\n\n");
-        result.append(extract);
-        
-        if (!populationInfo.isEmpty()) {
-          result.append("\n\nPopulation Information: ").append(populationInfo);
+      @Override
+      public void onResponse(Call call, Response response) {
+        try (response) {
+          future.complete(toResult(response));
+        } catch (Exception e) {
+          log.error("Unexpected error in Wikipedia search", e);
+          future.complete(ToolResult.failure("Unexpected error: " + e.getMessage()));
         }
-        
-        return ToolResult.success(result.toString());
-        
       }
-      
-    } catch (IOException e) {
-      log.error("Error calling Wikipedia API", e);
-        return ToolResult.failure("Failed to search Wikipedia: " + e.getMessage());
-    } catch (Exception e) {
-      log.error("Unexpected error in Wikipedia search", e);
-        return ToolResult.failure("Unexpected error: " + e.getMessage());
+    });
+    return future;
+  }
+
+  /**
+   * Builds the tool result from a Wikipedia summary response.
+   */
+  private IToolResult toResult(Response response) throws IOException {
+    if (!response.isSuccessful()) {
+      log.warn("Wikipedia API returned status: {}", response.code());
+      return ToolResult.failure("Wikipedia search failed: " + response.code());
+    }
+
+    String responseBody = response.body().string();
+    JsonNode jsonResponse = Http.MAPPER.readTree(responseBody);
+    
+    // Extract key information
+    String title = jsonResponse.has("title") ? jsonResponse.get("title").asText() : "Unknown";
+    String extract = jsonResponse.has("extract") ? jsonResponse.get("extract").asText() : "";
+    
+    log.debug("Found Wikipedia article: {}", title);
+    
+    // Try to extract population if mentioned in the extract
+    String populationInfo = extractPopulationInfo(extract);
+    
+    StringBuilder result = new StringBuilder();
+    result.append("Wikipedia Summary for ").append(title).append(":\n\n");
+    result.append(extract);
+    
+    if (!populationInfo.isEmpty()) {
+      result.append("\n\nPopulation Information: ").append(populationInfo);
     }
+    
+    return ToolResult.success(result.toString());
   }
 
   /**
@@ -0,0 +1,26 @@
+package com.arv.adk.tools;
+
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.tools.AbstractToolCreator;
+import java.util.Map;
+
+/**
+ * Creates the Wikipedia search tool. Registered for ServiceLoader discovery.
+ */
+public class WikipediaSearchToolCreator extends AbstractToolCreator {
+
+  public WikipediaSearchToolCreator() {
+    super("wikipedia_search");
+  }
+
+  @Override
+  public ITool createTool(Map<String, Object> config) {
+    return new WikipediaSearchTool();
+  }
+
+  @Override
+  protected IToolMetadata describeTool() {
+    return WikipediaSearchTool.createMetadata();
+  }
+}
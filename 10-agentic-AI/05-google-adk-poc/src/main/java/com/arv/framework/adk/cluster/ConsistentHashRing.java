@@ -0,0 +1,159 @@
+package com.arv.framework.adk.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent hash ring that maps keys to nodes.
+ * Each node is placed on the ring at a number of virtual points, and a key belongs to
+ * the node owning the first point at or after the key's hash. Adding or removing a node
+ * therefore only moves the keys on the arcs next to that node's points, about 1/n of
+ * all keys, and virtual points keep the arcs evenly sized. Lookups are a binary search
+ * over a sorted array.
+ */
+public final class ConsistentHashRing {
+
+  /**
+   * Default number of points per node.
+   */
+  public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+  private final int virtualNodes;
+  private final List<String> nodes;
+  private final long[] points;
+  private final String[] owners;
+
+  private ConsistentHashRing(int virtualNodes, Collection<String> nodes) {
+    if (virtualNodes <= 0) {
+      throw new IllegalArgumentException("Virtual nodes must be positive: " + virtualNodes);
+    }
+    this.virtualNodes = virtualNodes;
+    this.nodes = Collections.unmodifiableList(List.copyOf(new TreeSet<>(nodes)));
+
+    // Nodes are added in sorted order so that point collisions resolve the same way everywhere
+    TreeMap<Long, String> ring = new TreeMap<>();
+    for (String node : this.nodes) {
+      for (int i = 0; i < virtualNodes; i++) {
+        ring.putIfAbsent(hash(node + '#' + i), node);
+      }
+    }
+    this.points = new long[ring.size()];
+    this.owners = new String[ring.size()];
+    int index = 0;
+    for (Map.Entry<Long, String> entry : ring.entrySet()) {
+      points[index] = entry.getKey();
+      owners[index] = entry.getValue();
+      index++;
+    }
+  }
+
+  /**
+   * Creates a ring.
+   *
+   * @param virtualNodes the number of points per node
+   * @param nodes the node IDs
+   * @return the ring
+   */
+  public static ConsistentHashRing of(int virtualNodes, Collection<String> nodes) {
+    return new ConsistentHashRing(virtualNodes, nodes);
+  }
+
+  /**
+   * Gets a ring that also contains a node.
+   *
+   * @param node the node ID
+   * @return the new ring, or this ring if it already contains the node
+   */
+  public ConsistentHashRing withNode(String node) {
+    if (contains(node)) {
+      return this;
+    }
+    TreeSet<String> updated = new TreeSet<>(nodes);
+    updated.add(node);
+    return new ConsistentHashRing(virtualNodes, updated);
+  }
+
+  /**
+   * Gets a ring without a node.
+   *
+   * @param node the node ID
+   * @return the new ring, or this ring if it does not contain the node
+   */
+  public ConsistentHashRing withoutNode(String node) {
+    if (!contains(node)) {
+      return this;
+    }
+    TreeSet<String> updated = new TreeSet<>(nodes);
+    updated.remove(node);
+    return new ConsistentHashRing(virtualNodes, updated);
+  }
+
+  /**
+   * Gets the node that owns a key.
+   *
+   * @param key the key, such as a session ID
+   * @return the owning node ID, or null if the ring is empty
+   */
+  public String ownerOf(String key) {
+    if (points.length == 0) {
+      return null;
+    }
+    int index = Arrays.binarySearch(points, hash(key));
+    if (index < 0) {
+      index = -index - 1;
+    }
+    return owners[index < points.length ? index : 0];
+  }
+
+  /**
+   * Checks whether a node is on the ring.
+   *
+   * @param node the node ID
+   * @return true if present
+   */
+  public boolean contains(String node) {
+    return Collections.binarySearch(nodes, node) >= 0;
+  }
+
+  /**
+   * Gets the nodes on the ring.
+   *
+   * @return the node IDs in sorted order
+   */
+  public List<String> getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Gets the number of points per node.
+   *
+   * @return the virtual node count
+   */
+  public int getVirtualNodes() {
+    return virtualNodes;
+  }
+
+  /**
+   * Hashes a string to 64 bits: FNV-1a over its UTF-8 bytes followed by the
+   * MurmurHash3 finalizer, so that similar keys spread over the whole ring.
+   */
+  static long hash(String key) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,49 @@
+package com.arv.framework.adk.cluster;
+
+import com.arv.framework.adk.interfaces.cluster.ISessionTransport;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Transport that delivers requests to handlers in the same JVM.
+ * Several {@link ShardedSessionManager}s sharing one instance behave like a cluster,
+ * which makes it suitable for tests and single-process deployments. Requests are still
+ * encoded, so the same code paths run as over a network.
+ */
+public class LoopbackSessionTransport implements ISessionTransport {
+
+  private final Map<String, UnaryOperator<byte[]>> handlers = new ConcurrentHashMap<>();
+  private final LongAdder requests = new LongAdder();
+
+  @Override
+  public void bind(String nodeId, UnaryOperator<byte[]> handler) {
+    handlers.put(nodeId, handler);
+  }
+
+  @Override
+  public void unbind(String nodeId) {
+    handlers.remove(nodeId);
+  }
+
+  @Override
+  public byte[] send(String nodeId, byte[] request) {
+    UnaryOperator<byte[]> handler = handlers.get(nodeId);
+    if (handler == null) {
+      throw new IllegalStateException("Node is not reachable: " + nodeId);
+    }
+    requests.increment();
+    return handler.apply(request);
+  }
+
+  /**
+   * Gets the number of requests delivered.
+   *
+   * @return the request count
+   */
+  public long getRequestCount() {
+    return requests.sum();
+  }
+}
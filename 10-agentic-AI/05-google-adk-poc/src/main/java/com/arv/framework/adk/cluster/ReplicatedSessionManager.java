@@ -0,0 +1,503 @@
+package com.arv.framework.adk.cluster;
+
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.cluster.ISessionTransport;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.persistence.SessionCodec;
+import com.arv.framework.adk.persistence.SessionRecord;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Session manager that keeps hot standby copies of its sessions on other nodes.
+ * Every change made through the manager (creating and ending sessions, adding messages,
+ * merging context, clearing history) and every state change is numbered and queued as a
+ * {@link SessionRecord}. A background thread ships whatever has queued up to each
+ * {@link SessionStandby} as one batch, so callers never wait for the network and a
+ * standby is normally behind by no more than one round trip.
+ *
+ * <p>Each standby acknowledges the last sequence number it applied. One that missed
+ * changes, because it was unreachable or the batch arrived out of order, is sent them
+ * again from the recently shipped records; one that is further behind, or newly added,
+ * first receives a full copy of every session. Context changes made directly on an
+ * {@link ISession} object rather than through the manager are only carried by the next
+ * full copy.
+ */
+@Slf4j
+public class ReplicatedSessionManager extends SimpleSessionManager {
+
+  private static final int LOCK_STRIPES = 64;
+  private static final long CLOSE_TIMEOUT_MS = 5000L;
+  /** Acknowledged sequence of a standby that needs a full copy. */
+  private static final long NEEDS_SYNC = -1L;
+
+  /**
+   * An encoded change and its sequence number.
+   */
+  private static final class Delta {
+    private final long sequence;
+    private final byte[] record;
+
+    private Delta(long sequence, byte[] record) {
+      this.sequence = sequence;
+      this.record = record;
+    }
+  }
+
+  /**
+   * A standby node and the last sequence number it acknowledged.
+   */
+  private static final class Standby {
+    private final String nodeId;
+    private volatile long acked = NEEDS_SYNC;
+
+    private Standby(String nodeId) {
+      this.nodeId = nodeId;
+    }
+  }
+
+  private final ISessionTransport transport;
+  private final ReplicationConfig config;
+  private final Object[] locks = new Object[LOCK_STRIPES];
+  private final Object sequenceLock = new Object();
+  /** Guarded by sequenceLock. */
+  private long nextSequence = 1L;
+  private volatile long lastSequence;
+  private final BlockingQueue<Delta> queue;
+  /** The sequence number of the last change applied to each session. */
+  private final Map<String, Long> sessionSequences = new ConcurrentHashMap<>();
+  private final Map<String, Standby> standbys = new ConcurrentHashMap<>();
+  /** Recently shipped changes, without gaps; only used by the shipping thread. */
+  private final ArrayDeque<Delta> retained = new ArrayDeque<>();
+  private volatile boolean overflowed;
+  private volatile boolean running = true;
+  private final Thread shipper;
+  private final LongAdder shippedBatches = new LongAdder();
+  private final LongAdder fullCopies = new LongAdder();
+  private final LongAdder overflows = new LongAdder();
+
+  /**
+   * Creates a primary with the default configuration and no standbys yet.
+   *
+   * @param transport carries changes to the standbys
+   */
+  public ReplicatedSessionManager(ISessionTransport transport) {
+    this(transport, ReplicationConfig.defaults());
+  }
+
+  /**
+   * Creates a primary with no standbys yet.
+   *
+   * @param transport carries changes to the standbys
+   * @param config the batching and retention settings
+   */
+  public ReplicatedSessionManager(ISessionTransport transport, ReplicationConfig config) {
+    this.transport = transport;
+    this.config = config;
+    this.queue = new ArrayBlockingQueue<>(config.getMaxQueuedRecords());
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new Object();
+    }
+    this.shipper = new Thread(this::ship, "session-replication");
+    this.shipper.setDaemon(true);
+    this.shipper.start();
+  }
+
+  /**
+   * Starts replicating to a standby, beginning with a full copy of every session.
+   *
+   * @param nodeId the node the standby is bound to on the transport
+   * @return this session manager
+   */
+  public ReplicatedSessionManager addStandby(String nodeId) {
+    standbys.putIfAbsent(nodeId, new Standby(nodeId));
+    return this;
+  }
+
+  /**
+   * Stops replicating to a standby.
+   *
+   * @param nodeId the node ID
+   * @return true if it was a standby
+   */
+  public boolean removeStandby(String nodeId) {
+    return standbys.remove(nodeId) != null;
+  }
+
+  /**
+   * Gets the sequence number of the latest change.
+   *
+   * @return the sequence number, 0 before the first change
+   */
+  public long getLastSequence() {
+    return lastSequence;
+  }
+
+  /**
+   * Gets the last sequence number a standby acknowledged.
+   *
+   * @param nodeId the node ID
+   * @return the sequence number, or -1 if it has not yet received a full copy or is not a standby
+   */
+  public long getAckedSequence(String nodeId) {
+    Standby standby = standbys.get(nodeId);
+    return standby != null ? standby.acked : NEEDS_SYNC;
+  }
+
+  /**
+   * Waits until every standby has applied all changes made so far.
+   *
+   * @param timeoutMs how long to wait
+   * @return true if they all caught up in time
+   */
+  public boolean awaitReplication(long timeoutMs) {
+    long target = lastSequence;
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    while (true) {
+      boolean caughtUp = true;
+      for (Standby standby : standbys.values()) {
+        caughtUp &= standby.acked >= target;
+      }
+      if (caughtUp) {
+        return true;
+      }
+      if (System.nanoTime() >= deadline) {
+        return false;
+      }
+      try {
+        Thread.sleep(1L);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of batches sent to standbys.
+   *
+   * @return the batch count
+   */
+  public long getShippedBatchCount() {
+    return shippedBatches.sum();
+  }
+
+  /**
+   * Gets the number of full copies sent to standbys.
+   *
+   * @return the copy count
+   */
+  public long getFullCopyCount() {
+    return fullCopies.sum();
+  }
+
+  /**
+   * Gets the number of changes that did not fit in the shipping queue.
+   *
+   * @return the change count
+   */
+  public long getOverflowCount() {
+    return overflows.sum();
+  }
+
+  @Override
+  public ISession createSession(String sessionId, String userId) {
+    synchronized (lockFor(sessionId)) {
+      long now = System.currentTimeMillis();
+      record(sessionId, () -> SessionRecord.created(sessionId, userId, now));
+      return super.createSession(sessionId, userId);
+    }
+  }
+
+  @Override
+  public boolean endSession(String sessionId) {
+    synchronized (lockFor(sessionId)) {
+      return super.endSession(sessionId);
+    }
+  }
+
+  @Override
+  public boolean updateSessionContext(String sessionId, Map<String, Object> context) {
+    synchronized (lockFor(sessionId)) {
+      if (!getSession(sessionId).isPresent()) {
+        return false;
+      }
+      record(sessionId, () -> SessionRecord.contextUpdated(sessionId, context, System.currentTimeMillis()));
+      return super.updateSessionContext(sessionId, context);
+    }
+  }
+
+  @Override
+  public boolean addMessage(String sessionId, IMessage message) {
+    synchronized (lockFor(sessionId)) {
+      if (message == null || !getSession(sessionId).isPresent()) {
+        return false;
+      }
+      record(sessionId, () -> SessionRecord.messageAdded(sessionId, message, System.currentTimeMillis()));
+      return super.addMessage(sessionId, message);
+    }
+  }
+
+  @Override
+  public boolean clearHistory(String sessionId) {
+    synchronized (lockFor(sessionId)) {
+      if (!getSession(sessionId).isPresent()) {
+        return false;
+      }
+      record(sessionId, () -> SessionRecord.historyCleared(sessionId, System.currentTimeMillis()));
+      return super.clearHistory(sessionId);
+    }
+  }
+
+  @Override
+  protected boolean compactHistory(SimpleSession session, List<IMessage> summarized, IMessage summary) {
+    String sessionId = session.getId();
+    synchronized (lockFor(sessionId)) {
+      if (getSession(sessionId).orElse(null) != session
+          || !super.compactHistory(session, summarized, summary)) {
+        return false;
+      }
+      record(sessionId, () -> SessionRecord.historyCompacted(sessionId, summary, summarized.size(),
+          System.currentTimeMillis()));
+      return true;
+    }
+  }
+
+  @Override
+  protected void sessionStateChanged(ISession session, SessionState previous) {
+    // Not under the session lock: the state is read when the sequence number is taken,
+    // so the last record of a burst of changes carries the final state
+    record(session.getId(),
+        () -> SessionRecord.stateChanged(session.getId(), session.getState(), System.currentTimeMillis()));
+  }
+
+  @Override
+  protected boolean removeSession(ISession session) {
+    String sessionId = session.getId();
+    synchronized (lockFor(sessionId)) {
+      if (!super.removeSession(session)) {
+        return false;
+      }
+      record(sessionId, () -> SessionRecord.ended(sessionId, System.currentTimeMillis()));
+      sessionSequences.remove(sessionId);
+      return true;
+    }
+  }
+
+  /**
+   * Ships the changes still queued and stops replicating. Sessions stay usable locally.
+   */
+  @Override
+  public void close() {
+    super.close();
+    running = false;
+    try {
+      shipper.join(CLOSE_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Numbers a change and queues it for shipping.
+   */
+  private void record(String sessionId, Supplier<SessionRecord> change) {
+    long sequence;
+    synchronized (sequenceLock) {
+      sequence = nextSequence++;
+      if (!queue.offer(new Delta(sequence, encode(change.get())))) {
+        overflowed = true;
+        overflows.increment();
+      }
+      lastSequence = sequence;
+      sessionSequences.merge(sessionId, sequence, Math::max);
+    }
+  }
+
+  /**
+   * Body of the shipping thread.
+   */
+  private void ship() {
+    List<Delta> batch = new ArrayList<>();
+    while (running || !queue.isEmpty()) {
+      batch.clear();
+      try {
+        Delta first = queue.poll(config.getRetryIntervalMs(), TimeUnit.MILLISECONDS);
+        if (first != null) {
+          batch.add(first);
+          queue.drainTo(batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (overflowed) {
+        overflowed = false;
+        retained.clear();
+        for (Standby standby : standbys.values()) {
+          standby.acked = NEEDS_SYNC;
+        }
+        log.warn("Session replication fell {} changes behind; resending all sessions",
+            config.getMaxQueuedRecords());
+      }
+      for (Delta delta : batch) {
+        Delta last = retained.peekLast();
+        if (last != null && delta.sequence != last.sequence + 1) {
+          retained.clear();
+        }
+        retained.addLast(delta);
+      }
+      for (Standby standby : standbys.values()) {
+        try {
+          catchUp(standby);
+        } catch (IllegalStateException | UncheckedIOException e) {
+          log.debug("Could not replicate to node {}: {}", standby.nodeId, e.getMessage());
+        }
+      }
+      while (retained.size() > config.getMaxRetainedRecords()) {
+        retained.pollFirst();
+      }
+    }
+  }
+
+  /**
+   * Sends a standby the changes it has not acknowledged, or a full copy if they are no
+   * longer retained.
+   */
+  private void catchUp(Standby standby) {
+    Delta newest = retained.peekLast();
+    if (newest == null || standby.acked >= newest.sequence) {
+      if (standby.acked == NEEDS_SYNC) {
+        sendFullCopy(standby);
+      }
+      return;
+    }
+    if (standby.acked == NEEDS_SYNC || retained.peekFirst().sequence > standby.acked + 1) {
+      sendFullCopy(standby);
+    }
+    while (standby.acked < newest.sequence) {
+      List<Delta> pending = new ArrayList<>();
+      Iterator<Delta> iterator = retained.descendingIterator();
+      while (iterator.hasNext()) {
+        Delta delta = iterator.next();
+        if (delta.sequence <= standby.acked) {
+          break;
+        }
+        pending.add(delta);
+      }
+      if (pending.isEmpty()) {
+        return;
+      }
+      Collections.reverse(pending);
+      List<Delta> chunk = pending.subList(0, Math.min(pending.size(), config.getMaxBatchRecords()));
+      long acked = send(standby, out -> writeBatch(out, chunk));
+      shippedBatches.increment();
+      if (acked <= standby.acked) {
+        // The standby did not advance; leave it for the next round
+        standby.acked = acked;
+        return;
+      }
+      standby.acked = acked;
+    }
+  }
+
+  private void sendFullCopy(Standby standby) {
+    // Every change up to the copy's sequence number has its session listed, and each
+    // session is read under its lock, so the copy reflects all of those changes
+    long sequence;
+    List<String> sessionIds;
+    synchronized (sequenceLock) {
+      sequence = lastSequence;
+      sessionIds = new ArrayList<>(sessionSequences.keySet());
+    }
+    standby.acked = send(standby, out -> {
+      out.writeByte(SessionStandby.FULL_COPY);
+      out.writeLong(sequence);
+      for (String sessionId : sessionIds) {
+        synchronized (lockFor(sessionId)) {
+          Long applied = sessionSequences.get(sessionId);
+          ISession session = getSession(sessionId).orElse(null);
+          if (applied == null || session == null) {
+            continue;
+          }
+          out.writeBoolean(true);
+          out.writeLong(applied);
+          SessionCodec.writeSession(out, session);
+        }
+      }
+      out.writeBoolean(false);
+    });
+    fullCopies.increment();
+    log.debug("Sent a full copy of all sessions at sequence {} to node {}", sequence, standby.nodeId);
+  }
+
+  private static void writeBatch(DataOutputStream out, List<Delta> deltas) throws IOException {
+    out.writeByte(SessionStandby.BATCH);
+    out.writeInt(deltas.size());
+    for (Delta delta : deltas) {
+      out.writeLong(delta.sequence);
+      out.writeInt(delta.record.length);
+      out.write(delta.record);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Writer {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  /**
+   * Sends a request to a standby.
+   *
+   * @return the sequence number it acknowledged
+   */
+  private long send(Standby standby, Writer request) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      request.write(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    byte[] response = transport.send(standby.nodeId, bytes.toByteArray());
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(response))) {
+      return in.readLong();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Invalid response from node " + standby.nodeId, e);
+    }
+  }
+
+  private static byte[] encode(SessionRecord record) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    try {
+      record.writeTo(new DataOutputStream(bytes));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private Object lockFor(String sessionId) {
+    return locks[(sessionId.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+  }
+}
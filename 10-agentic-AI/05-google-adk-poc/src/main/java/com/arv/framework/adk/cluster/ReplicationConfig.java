@@ -0,0 +1,88 @@
+package com.arv.framework.adk.cluster;
+
+/**
+ * Configuration for shipping session changes to standby nodes.
+ */
+public class ReplicationConfig {
+
+  private int maxBatchRecords = 512;
+  private int maxQueuedRecords = 65_536;
+  private int maxRetainedRecords = 65_536;
+  private long retryIntervalMs = 50L;
+
+  /**
+   * Creates a configuration with default values: batches of up to 512 changes, and up to
+   * 65,536 changes queued for shipping or kept for standbys that fell behind.
+   *
+   * @return a new ReplicationConfig
+   */
+  public static ReplicationConfig defaults() {
+    return new ReplicationConfig();
+  }
+
+  /**
+   * Sets the most changes sent to a standby in one request.
+   *
+   * @param maxBatchRecords the record count
+   * @return this config for method chaining
+   */
+  public ReplicationConfig withMaxBatchRecords(int maxBatchRecords) {
+    this.maxBatchRecords = Math.max(1, maxBatchRecords);
+    return this;
+  }
+
+  /**
+   * Sets how many changes may wait to be shipped. If shipping falls further behind,
+   * queued changes are discarded and standbys are resynchronized with a full copy.
+   *
+   * @param maxQueuedRecords the record count
+   * @return this config for method chaining
+   */
+  public ReplicationConfig withMaxQueuedRecords(int maxQueuedRecords) {
+    if (maxQueuedRecords <= 0) {
+      throw new IllegalArgumentException("Queue limit must be positive: " + maxQueuedRecords);
+    }
+    this.maxQueuedRecords = maxQueuedRecords;
+    return this;
+  }
+
+  /**
+   * Sets how many shipped changes are kept to resend to a standby that missed them. A
+   * standby further behind than this receives a full copy instead.
+   *
+   * @param maxRetainedRecords the record count
+   * @return this config for method chaining
+   */
+  public ReplicationConfig withMaxRetainedRecords(int maxRetainedRecords) {
+    this.maxRetainedRecords = Math.max(0, maxRetainedRecords);
+    return this;
+  }
+
+  /**
+   * Sets how often a standby that could not be reached is retried while there are no
+   * new changes.
+   *
+   * @param retryIntervalMs the interval in milliseconds
+   * @return this config for method chaining
+   */
+  public ReplicationConfig withRetryIntervalMs(long retryIntervalMs) {
+    this.retryIntervalMs = Math.max(1L, retryIntervalMs);
+    return this;
+  }
+
+  public int getMaxBatchRecords() {
+    return maxBatchRecords;
+  }
+
+  public int getMaxQueuedRecords() {
+    return maxQueuedRecords;
+  }
+
+  public int getMaxRetainedRecords() {
+    return maxRetainedRecords;
+  }
+
+  public long getRetryIntervalMs() {
+    return retryIntervalMs;
+  }
+}
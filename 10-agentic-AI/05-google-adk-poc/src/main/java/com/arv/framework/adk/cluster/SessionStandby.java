@@ -0,0 +1,217 @@
+package com.arv.framework.adk.cluster;
+
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.cluster.ISessionTransport;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.persistence.SessionCodec;
+import com.arv.framework.adk.persistence.SessionRecord;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hot standby copy of the sessions of a {@link ReplicatedSessionManager}.
+ * The standby binds to the transport under its node ID and applies the batches of
+ * changes the primary ships, strictly in sequence order: a batch that would leave a gap
+ * is not applied, and the acknowledgement tells the primary where to resume. If the
+ * primary fails, {@link #promote()} stops replication and hands over the session
+ * manager holding the copies, which is at most one batch behind the primary.
+ */
+@Slf4j
+public class SessionStandby implements AutoCloseable {
+
+  /** Request carrying numbered changes. */
+  static final int BATCH = 0;
+  /** Request carrying every session, replacing what the standby holds. */
+  static final int FULL_COPY = 1;
+
+  private final String nodeId;
+  private final ISessionTransport transport;
+  private final SimpleSessionManager sessionManager;
+  /** The sequence number of the last change applied to each session; guarded by this. */
+  private final Map<String, Long> sessionSequences = new HashMap<>();
+  /** Guarded by this. */
+  private long appliedSequence;
+  private boolean promoted;
+
+  /**
+   * Creates a standby and binds it to the transport.
+   *
+   * @param nodeId the node ID the primary sends to
+   * @param transport the transport
+   * @param sessionManager holds the copies; it should not expire sessions itself
+   */
+  public SessionStandby(String nodeId, ISessionTransport transport, SimpleSessionManager sessionManager) {
+    this.nodeId = nodeId;
+    this.transport = transport;
+    this.sessionManager = sessionManager;
+    transport.bind(nodeId, this::handle);
+  }
+
+  /**
+   * Gets the sequence number of the last change applied.
+   *
+   * @return the sequence number, 0 before the first full copy
+   */
+  public synchronized long getAppliedSequence() {
+    return appliedSequence;
+  }
+
+  /**
+   * Gets the session manager holding the copies. Read-only until promoted.
+   *
+   * @return the session manager
+   */
+  public SimpleSessionManager getSessionManager() {
+    return sessionManager;
+  }
+
+  /**
+   * Stops accepting changes, once any batch being applied is done, so that this node can
+   * serve the sessions in place of the primary.
+   *
+   * @return the session manager holding the copies
+   */
+  public SimpleSessionManager promote() {
+    transport.unbind(nodeId);
+    synchronized (this) {
+      promoted = true;
+      log.info("Standby {} promoted at sequence {} with {} sessions", nodeId, appliedSequence,
+          sessionManager.getSessionIds().size());
+    }
+    return sessionManager;
+  }
+
+  /**
+   * Stops accepting changes.
+   */
+  @Override
+  public void close() {
+    transport.unbind(nodeId);
+  }
+
+  private synchronized byte[] handle(byte[] request) {
+    if (promoted) {
+      throw new IllegalStateException("Standby " + nodeId + " has been promoted");
+    }
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(request))) {
+      int type = in.readUnsignedByte();
+      if (type == FULL_COPY) {
+        readFullCopy(in);
+      } else if (type == BATCH) {
+        readBatch(in);
+      } else {
+        throw new IOException("Unsupported request: " + type);
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(8);
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        out.writeLong(appliedSequence);
+      }
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Invalid replication request for node " + nodeId, e);
+    }
+  }
+
+  private void readFullCopy(DataInputStream in) throws IOException {
+    long sequence = in.readLong();
+    Set<String> copied = new HashSet<>();
+    sessionSequences.clear();
+    while (in.readBoolean()) {
+      long applied = in.readLong();
+      SimpleSession session = SessionCodec.readSession(in, this::createSession);
+      copied.add(session.getId());
+      sessionSequences.put(session.getId(), applied);
+    }
+    for (String sessionId : sessionManager.getSessionIds()) {
+      if (!copied.contains(sessionId)) {
+        sessionManager.endSession(sessionId);
+      }
+    }
+    appliedSequence = sequence;
+  }
+
+  private void readBatch(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      long sequence = in.readLong();
+      byte[] payload = new byte[in.readInt()];
+      in.readFully(payload);
+      if (sequence <= appliedSequence) {
+        continue;
+      }
+      if (sequence != appliedSequence + 1) {
+        log.debug("Standby {} expected change {} but got {}", nodeId, appliedSequence + 1, sequence);
+        return;
+      }
+      apply(sequence, SessionRecord.readFrom(new DataInputStream(new ByteArrayInputStream(payload))));
+      appliedSequence = sequence;
+    }
+  }
+
+  /**
+   * Applies a change, unless the session's copy already reflects it.
+   */
+  private void apply(long sequence, SessionRecord record) {
+    String sessionId = record.getSessionId();
+    Long applied = sessionSequences.get(sessionId);
+    if (applied != null && sequence <= applied) {
+      return;
+    }
+    if (record.getType() == SessionRecord.Type.CREATED) {
+      SimpleSession session = createSession(sessionId, record.getUserId());
+      session.restoreTimestamps(record.getTimestamp(), record.getTimestamp());
+      sessionSequences.put(sessionId, sequence);
+      return;
+    }
+    ISession session = sessionManager.getSession(sessionId).orElse(null);
+    if (session == null) {
+      return;
+    }
+    if (record.getType() == SessionRecord.Type.HISTORY_COMPACTED) {
+      ((SimpleSession) session).compactHistory(record.getCompactedCount(), record.getMessage());
+      sessionSequences.put(sessionId, sequence);
+      return;
+    }
+    switch (record.getType()) {
+      case MESSAGE_ADDED:
+        session.addMessage(record.getMessage());
+        break;
+      case CONTEXT_UPDATED:
+        session.updateContext(record.getContext());
+        break;
+      case STATE_CHANGED:
+        session.setState(record.getState());
+        break;
+      case HISTORY_CLEARED:
+        session.clearHistory();
+        break;
+      default:
+        sessionManager.endSession(sessionId);
+        sessionSequences.remove(sessionId);
+        return;
+    }
+    if (session instanceof SimpleSession) {
+      ((SimpleSession) session).restoreTimestamps(session.getCreatedAt(), record.getTimestamp());
+    }
+    sessionSequences.put(sessionId, sequence);
+  }
+
+  private SimpleSession createSession(String sessionId, String userId) {
+    ISession session = sessionManager.createSession(sessionId, userId);
+    if (!(session instanceof SimpleSession)) {
+      throw new IllegalStateException("Standby session manager must create SimpleSession instances");
+    }
+    return (SimpleSession) session;
+  }
+}
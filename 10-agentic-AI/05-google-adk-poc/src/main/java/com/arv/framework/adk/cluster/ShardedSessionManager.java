@@ -0,0 +1,678 @@
+package com.arv.framework.adk.cluster;
+
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.cluster.ISessionTransport;
+import com.arv.framework.adk.interfaces.core.ISessionManager;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.persistence.SessionCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Session manager that spreads sessions over several agent nodes.
+ * Every session ID is owned by one node, chosen on a {@link ConsistentHashRing}. Calls
+ * for sessions held by this node go straight to its local {@link SimpleSessionManager};
+ * all others are encoded with {@link SessionCodec} and forwarded over the transport.
+ * When the membership changes, sessions whose owner changed are handed over to their
+ * new owner, which consistent hashing keeps to about 1/n of them.
+ *
+ * <p>Sessions returned for a remote owner, for example by {@link #getSession}, are
+ * detached copies: change them through this manager rather than directly. A node that
+ * receives a request for a session it neither owns nor holds, because the sender's view
+ * of the ring is stale, forwards it once more to the owner it knows of.
+ */
+@Slf4j
+public class ShardedSessionManager implements ISessionManager, AutoCloseable {
+
+  private static final int LOCK_STRIPES = 64;
+  private static final int HANDOVER_ATTEMPTS = 3;
+
+  private enum Operation {
+    CREATE, GET, END, IS_ACTIVE, UPDATE_CONTEXT, GET_CONTEXT, ADD_MESSAGE, GET_HISTORY,
+    GET_RECENT, CLEAR_HISTORY, MESSAGE_COUNT, ACTIVE_SESSIONS, CLEANUP, TRANSFER,
+    USER_SESSIONS, STATE_SESSIONS, STATE_COUNT, END_USER_SESSIONS
+  }
+
+  private static final Operation[] OPERATIONS = Operation.values();
+  private static final SessionState[] STATES = SessionState.values();
+
+  /** Offset of the flag marking a request that was already forwarded by another node. */
+  private static final int FORWARDED_FLAG = 1;
+
+  @FunctionalInterface
+  private interface Writer {
+    void write(DataOutput out) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface Reader<T> {
+    T read(DataInput in) throws IOException;
+  }
+
+  private final String nodeId;
+  private final ISessionTransport transport;
+  private final SimpleSessionManager local;
+  private final Object[] locks = new Object[LOCK_STRIPES];
+  private final LongAdder remoteCalls = new LongAdder();
+  private final LongAdder movedSessions = new LongAdder();
+  private volatile ConsistentHashRing ring;
+
+  /**
+   * Creates a node that is, for now, the only member of its cluster.
+   *
+   * @param nodeId the ID of this node
+   * @param transport the transport shared with the other nodes
+   */
+  public ShardedSessionManager(String nodeId, ISessionTransport transport) {
+    this(nodeId, transport, new SimpleSessionManager(), ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+  }
+
+  /**
+   * Creates a node that is, for now, the only member of its cluster.
+   *
+   * @param nodeId the ID of this node
+   * @param transport the transport shared with the other nodes
+   * @param local holds the sessions owned by this node
+   * @param virtualNodes the number of ring points per node, the same on every node
+   */
+  public ShardedSessionManager(String nodeId, ISessionTransport transport, SimpleSessionManager local,
+      int virtualNodes) {
+    this.nodeId = nodeId;
+    this.transport = transport;
+    this.local = local;
+    this.ring = ConsistentHashRing.of(virtualNodes, List.of(nodeId));
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new Object();
+    }
+    transport.bind(nodeId, this::handle);
+  }
+
+  /**
+   * Adds a node to the cluster and hands over the sessions it now owns.
+   *
+   * @param node the node ID
+   * @return the number of sessions moved off this node
+   */
+  public synchronized int addNode(String node) {
+    ring = ring.withNode(node);
+    return rebalance();
+  }
+
+  /**
+   * Removes a node from the cluster, for example one that has left or failed.
+   *
+   * @param node the node ID
+   * @return the number of sessions moved off this node
+   */
+  public synchronized int removeNode(String node) {
+    ring = ring.withoutNode(node);
+    return rebalance();
+  }
+
+  /**
+   * Replaces the cluster membership, for example from a discovery service.
+   *
+   * @param nodes the IDs of every node in the cluster
+   * @return the number of sessions moved off this node
+   */
+  public synchronized int setNodes(Collection<String> nodes) {
+    ring = ConsistentHashRing.of(ring.getVirtualNodes(), nodes);
+    return rebalance();
+  }
+
+  /**
+   * Hands every session held by this node over to the remaining nodes and stops serving.
+   * The other nodes should then {@link #removeNode remove} this one.
+   *
+   * @return the number of sessions moved off this node
+   * @throws IllegalStateException if this is the only node
+   */
+  public synchronized int leave() {
+    ConsistentHashRing remaining = ring.withoutNode(nodeId);
+    if (remaining.getNodes().isEmpty()) {
+      throw new IllegalStateException("Cannot leave: " + nodeId + " is the only node");
+    }
+    ring = remaining;
+    int moved = rebalance();
+    transport.unbind(nodeId);
+    return moved;
+  }
+
+  /**
+   * Moves every session held here but owned by another node to its owner. Sessions whose
+   * owner cannot be reached stay here and keep being served by this node.
+   *
+   * @return the number of sessions moved
+   */
+  public synchronized int rebalance() {
+    int moved = 0;
+    for (String sessionId : local.getSessionIds()) {
+      String owner = ring.ownerOf(sessionId);
+      if (owner != null && !owner.equals(nodeId) && handOver(sessionId, owner)) {
+        moved++;
+      }
+    }
+    if (moved > 0) {
+      movedSessions.add(moved);
+      log.info("Node {} handed over {} sessions", nodeId, moved);
+    }
+    return moved;
+  }
+
+  /**
+   * Gets the node that owns a session.
+   *
+   * @param sessionId the session ID
+   * @return the node ID
+   */
+  public String getOwner(String sessionId) {
+    return ring.ownerOf(sessionId);
+  }
+
+  /**
+   * Gets the ID of this node.
+   *
+   * @return the node ID
+   */
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  /**
+   * Gets this node's current view of the cluster.
+   *
+   * @return the ring
+   */
+  public ConsistentHashRing getRing() {
+    return ring;
+  }
+
+  /**
+   * Gets the manager holding this node's sessions.
+   *
+   * @return the local session manager
+   */
+  public SimpleSessionManager getLocalSessionManager() {
+    return local;
+  }
+
+  /**
+   * Gets the number of calls forwarded to other nodes.
+   *
+   * @return the call count
+   */
+  public long getRemoteCallCount() {
+    return remoteCalls.sum();
+  }
+
+  /**
+   * Gets the number of sessions handed over to other nodes.
+   *
+   * @return the session count
+   */
+  public long getMovedSessionCount() {
+    return movedSessions.sum();
+  }
+
+  /**
+   * Stops serving requests for this node; sessions held here are not handed over.
+   */
+  @Override
+  public void close() {
+    transport.unbind(nodeId);
+  }
+
+  @Override
+  public ISession createSession(String sessionId) {
+    return createSession(sessionId, null);
+  }
+
+  @Override
+  public ISession createSession(String sessionId, String userId) {
+    String owner = ring.ownerOf(sessionId);
+    if (owner == null || owner.equals(nodeId)) {
+      synchronized (lockFor(sessionId)) {
+        return local.createSession(sessionId, userId);
+      }
+    }
+    return call(owner, Operation.CREATE, sessionId,
+        out -> SessionCodec.writeString(out, userId), ShardedSessionManager::readSession);
+  }
+
+  @Override
+  public Optional<ISession> getSession(String sessionId) {
+    return route(sessionId, () -> local.getSession(sessionId), Operation.GET, null,
+        in -> in.readBoolean() ? Optional.of(readSession(in)) : Optional.empty());
+  }
+
+  @Override
+  public boolean endSession(String sessionId) {
+    return route(sessionId, () -> local.endSession(sessionId), Operation.END, null,
+        DataInput::readBoolean);
+  }
+
+  @Override
+  public boolean isSessionActive(String sessionId) {
+    return route(sessionId, () -> local.isSessionActive(sessionId), Operation.IS_ACTIVE, null,
+        DataInput::readBoolean);
+  }
+
+  @Override
+  public boolean updateSessionContext(String sessionId, Map<String, Object> context) {
+    return route(sessionId, () -> local.updateSessionContext(sessionId, context), Operation.UPDATE_CONTEXT,
+        out -> SessionCodec.writeMap(out, context), DataInput::readBoolean);
+  }
+
+  @Override
+  public Map<String, Object> getSessionContext(String sessionId) {
+    return route(sessionId, () -> local.getSessionContext(sessionId), Operation.GET_CONTEXT, null,
+        SessionCodec::readMap);
+  }
+
+  @Override
+  public boolean addMessage(String sessionId, IMessage message) {
+    if (message == null) {
+      return false;
+    }
+    return route(sessionId, () -> local.addMessage(sessionId, message), Operation.ADD_MESSAGE,
+        out -> SessionCodec.writeMessage(out, message), DataInput::readBoolean);
+  }
+
+  @Override
+  public List<IMessage> getSessionHistory(String sessionId) {
+    return route(sessionId, () -> local.getSessionHistory(sessionId), Operation.GET_HISTORY, null,
+        ShardedSessionManager::readMessages);
+  }
+
+  @Override
+  public List<IMessage> getRecentMessages(String sessionId, int count) {
+    return route(sessionId, () -> local.getRecentMessages(sessionId, count), Operation.GET_RECENT,
+        out -> out.writeInt(count), ShardedSessionManager::readMessages);
+  }
+
+  @Override
+  public boolean clearHistory(String sessionId) {
+    return route(sessionId, () -> local.clearHistory(sessionId), Operation.CLEAR_HISTORY, null,
+        DataInput::readBoolean);
+  }
+
+  @Override
+  public int getMessageCount(String sessionId) {
+    return route(sessionId, () -> local.getMessageCount(sessionId), Operation.MESSAGE_COUNT, null,
+        DataInput::readInt);
+  }
+
+  /**
+   * Gets the active sessions of every reachable node; those of other nodes are copies.
+   *
+   * @return the active sessions
+   */
+  @Override
+  public List<ISession> getActiveSessions() {
+    List<ISession> sessions = new ArrayList<>(local.getActiveSessions());
+    for (String node : ring.getNodes()) {
+      if (!node.equals(nodeId)) {
+        sessions.addAll(broadcast(node, Operation.ACTIVE_SESSIONS, ShardedSessionManager::readSessions,
+            List.of()));
+      }
+    }
+    return sessions;
+  }
+
+  /**
+   * Gets a user's sessions on every reachable node; those of other nodes are copies.
+   *
+   * @param userId the user ID
+   * @return the user's sessions
+   */
+  @Override
+  public List<ISession> getSessionsByUser(String userId) {
+    List<ISession> sessions = new ArrayList<>(local.getSessionsByUser(userId));
+    for (String node : ring.getNodes()) {
+      if (!node.equals(nodeId)) {
+        sessions.addAll(broadcast(node, Operation.USER_SESSIONS, out -> SessionCodec.writeString(out, userId),
+            ShardedSessionManager::readSessions, List.of()));
+      }
+    }
+    return sessions;
+  }
+
+  /**
+   * Gets the sessions in a state on every reachable node; those of other nodes are copies.
+   *
+   * @param state the session state
+   * @return the sessions in that state
+   */
+  @Override
+  public List<ISession> getSessionsByState(SessionState state) {
+    List<ISession> sessions = new ArrayList<>(local.getSessionsByState(state));
+    for (String node : ring.getNodes()) {
+      if (!node.equals(nodeId)) {
+        sessions.addAll(broadcast(node, Operation.STATE_SESSIONS, out -> out.writeByte(state.ordinal()),
+            ShardedSessionManager::readSessions, List.of()));
+      }
+    }
+    return sessions;
+  }
+
+  @Override
+  public int getSessionCount(SessionState state) {
+    int count = local.getSessionCount(state);
+    for (String node : ring.getNodes()) {
+      if (!node.equals(nodeId)) {
+        count += broadcast(node, Operation.STATE_COUNT, out -> out.writeByte(state.ordinal()),
+            DataInput::readInt, 0);
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int endSessionsByUser(String userId) {
+    int ended = local.endSessionsByUser(userId);
+    for (String node : ring.getNodes()) {
+      if (!node.equals(nodeId)) {
+        ended += broadcast(node, Operation.END_USER_SESSIONS, out -> SessionCodec.writeString(out, userId),
+            DataInput::readInt, 0);
+      }
+    }
+    return ended;
+  }
+
+  @Override
+  public int cleanupExpiredSessions() {
+    int removed = local.cleanupExpiredSessions();
+    for (String node : ring.getNodes()) {
+      if (!node.equals(nodeId)) {
+        removed += broadcast(node, Operation.CLEANUP, DataInput::readInt, 0);
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Runs a call locally if this node owns or still holds the session, else on its owner.
+   */
+  private <T> T route(String sessionId, Supplier<T> localCall, Operation operation, Writer arguments,
+      Reader<T> reader) {
+    String owner;
+    synchronized (lockFor(sessionId)) {
+      owner = ring.ownerOf(sessionId);
+      if (servesLocally(sessionId, owner)) {
+        return localCall.get();
+      }
+    }
+    return call(owner, operation, sessionId, arguments, reader);
+  }
+
+  private boolean servesLocally(String sessionId, String owner) {
+    return owner == null || owner.equals(nodeId) || local.getSession(sessionId).isPresent();
+  }
+
+  private <T> T call(String node, Operation operation, String sessionId, Writer arguments,
+      Reader<T> reader) {
+    return send(node, request(operation, sessionId, arguments), reader);
+  }
+
+  private static byte[] request(Operation operation, String sessionId, Writer arguments) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(operation.ordinal());
+      out.writeBoolean(false);
+      SessionCodec.writeString(out, sessionId);
+      if (arguments != null) {
+        arguments.write(out);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private <T> T send(String node, byte[] request, Reader<T> reader) {
+    remoteCalls.increment();
+    byte[] response = transport.send(node, request);
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(response))) {
+      return reader.read(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Invalid response from node " + node, e);
+    }
+  }
+
+  private <T> T broadcast(String node, Operation operation, Reader<T> reader, T fallback) {
+    return broadcast(node, operation, null, reader, fallback);
+  }
+
+  private <T> T broadcast(String node, Operation operation, Writer arguments, Reader<T> reader,
+      T fallback) {
+    try {
+      return call(node, operation, null, arguments, reader);
+    } catch (IllegalStateException e) {
+      log.warn("Node {} skipped {}: {}", node, operation, e.getMessage());
+      return fallback;
+    }
+  }
+
+  /**
+   * Copies a session to its new owner and removes it here. The copy is sent without
+   * holding the session's lock, since the owner takes its own lock to receive it and two
+   * nodes handing sessions to each other would otherwise deadlock. The session is only
+   * removed if it is unchanged since it was copied; if it changed, the newer copy is sent.
+   * A session that keeps changing, or is ended meanwhile, is withdrawn from the owner and
+   * stays here.
+   */
+  private boolean handOver(String sessionId, String owner) {
+    byte[] copy;
+    synchronized (lockFor(sessionId)) {
+      copy = transferRequest(sessionId);
+    }
+    if (copy == null) {
+      return false;
+    }
+    for (int attempt = 0; copy != null && attempt < HANDOVER_ATTEMPTS; attempt++) {
+      try {
+        if (!send(owner, copy, DataInput::readBoolean)) {
+          return false;
+        }
+      } catch (IllegalStateException e) {
+        log.warn("Could not hand session {} over to node {}: {}", sessionId, owner, e.getMessage());
+        return false;
+      }
+      synchronized (lockFor(sessionId)) {
+        byte[] current = transferRequest(sessionId);
+        if (Arrays.equals(copy, current)) {
+          local.releaseSession(sessionId);
+          return true;
+        }
+        copy = current;
+      }
+    }
+    log.debug("Session {} changed while being handed over to node {}; kept here", sessionId, owner);
+    try {
+      call(owner, Operation.END, sessionId, null, DataInput::readBoolean);
+    } catch (IllegalStateException e) {
+      log.warn("Could not withdraw session {} from node {}: {}", sessionId, owner, e.getMessage());
+    }
+    return false;
+  }
+
+  /**
+   * Encodes a TRANSFER request carrying a session held here; called under its lock.
+   *
+   * @return the request, or null if the session is not held here
+   */
+  private byte[] transferRequest(String sessionId) {
+    ISession session = local.getSession(sessionId).orElse(null);
+    if (session == null) {
+      return null;
+    }
+    return request(Operation.TRANSFER, sessionId, out -> SessionCodec.writeSession(out, session));
+  }
+
+  /**
+   * Serves a request from another node.
+   */
+  private byte[] handle(byte[] request) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(request))) {
+      Operation operation = OPERATIONS[in.readUnsignedByte()];
+      boolean forwarded = in.readBoolean();
+      String sessionId = SessionCodec.readString(in);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+      String owner;
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        if (sessionId == null) {
+          serve(operation, null, in, out);
+          out.flush();
+          return bytes.toByteArray();
+        }
+        synchronized (lockFor(sessionId)) {
+          owner = ring.ownerOf(sessionId);
+          if (forwarded || operation == Operation.TRANSFER || servesLocally(sessionId, owner)) {
+            serve(operation, sessionId, in, out);
+            out.flush();
+            return bytes.toByteArray();
+          }
+        }
+      }
+      byte[] copy = request.clone();
+      copy[FORWARDED_FLAG] = 1;
+      return transport.send(owner, copy);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Invalid request for node " + nodeId, e);
+    }
+  }
+
+  private void serve(Operation operation, String sessionId, DataInput in, DataOutput out)
+      throws IOException {
+    switch (operation) {
+      case CREATE:
+        SessionCodec.writeSession(out, local.createSession(sessionId, SessionCodec.readString(in)));
+        break;
+      case GET:
+        Optional<ISession> session = local.getSession(sessionId);
+        out.writeBoolean(session.isPresent());
+        if (session.isPresent()) {
+          SessionCodec.writeSession(out, session.get());
+        }
+        break;
+      case END:
+        out.writeBoolean(local.endSession(sessionId));
+        break;
+      case IS_ACTIVE:
+        out.writeBoolean(local.isSessionActive(sessionId));
+        break;
+      case UPDATE_CONTEXT:
+        out.writeBoolean(local.updateSessionContext(sessionId, SessionCodec.readMap(in)));
+        break;
+      case GET_CONTEXT:
+        SessionCodec.writeMap(out, local.getSessionContext(sessionId));
+        break;
+      case ADD_MESSAGE:
+        out.writeBoolean(local.addMessage(sessionId, SessionCodec.readMessage(in)));
+        break;
+      case GET_HISTORY:
+        writeMessages(out, local.getSessionHistory(sessionId));
+        break;
+      case GET_RECENT:
+        writeMessages(out, local.getRecentMessages(sessionId, in.readInt()));
+        break;
+      case CLEAR_HISTORY:
+        out.writeBoolean(local.clearHistory(sessionId));
+        break;
+      case MESSAGE_COUNT:
+        out.writeInt(local.getMessageCount(sessionId));
+        break;
+      case ACTIVE_SESSIONS:
+        writeSessions(out, local.getActiveSessions());
+        break;
+      case USER_SESSIONS:
+        writeSessions(out, local.getSessionsByUser(SessionCodec.readString(in)));
+        break;
+      case STATE_SESSIONS:
+        writeSessions(out, local.getSessionsByState(STATES[in.readUnsignedByte()]));
+        break;
+      case STATE_COUNT:
+        out.writeInt(local.getSessionCount(STATES[in.readUnsignedByte()]));
+        break;
+      case END_USER_SESSIONS:
+        out.writeInt(local.endSessionsByUser(SessionCodec.readString(in)));
+        break;
+      case CLEANUP:
+        out.writeInt(local.cleanupExpiredSessions());
+        break;
+      case TRANSFER:
+        SessionCodec.readSession(in, this::createLocalSession);
+        out.writeBoolean(true);
+        break;
+      default:
+        throw new IOException("Unsupported operation: " + operation);
+    }
+  }
+
+  private SimpleSession createLocalSession(String sessionId, String userId) {
+    ISession session = local.createSession(sessionId, userId);
+    if (!(session instanceof SimpleSession)) {
+      throw new IllegalStateException("Local session manager must create SimpleSession instances");
+    }
+    return (SimpleSession) session;
+  }
+
+  private Object lockFor(String sessionId) {
+    return locks[(sessionId.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+  }
+
+  private static ISession readSession(DataInput in) throws IOException {
+    return SessionCodec.readSession(in, SimpleSession::new);
+  }
+
+  private static void writeSessions(DataOutput out, List<ISession> sessions) throws IOException {
+    out.writeInt(sessions.size());
+    for (ISession session : sessions) {
+      SessionCodec.writeSession(out, session);
+    }
+  }
+
+  private static List<ISession> readSessions(DataInput in) throws IOException {
+    int count = in.readInt();
+    List<ISession> sessions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      sessions.add(readSession(in));
+    }
+    return sessions;
+  }
+
+  private static void writeMessages(DataOutput out, List<IMessage> messages) throws IOException {
+    out.writeInt(messages.size());
+    for (IMessage message : messages) {
+      SessionCodec.writeMessage(out, message);
+    }
+  }
+
+  private static List<IMessage> readMessages(DataInput in) throws IOException {
+    int count = in.readInt();
+    List<IMessage> messages = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      messages.add(SessionCodec.readMessage(in));
+    }
+    return messages;
+  }
+}
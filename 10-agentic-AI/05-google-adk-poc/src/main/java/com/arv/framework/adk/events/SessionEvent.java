@@ -0,0 +1,87 @@
+package com.arv.framework.adk.events;
+
+import com.arv.framework.adk.interfaces.enums.SessionEventType;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISessionEvent;
+
+/**
+ * A pre-allocated event slot of a {@link SessionEventBus}, overwritten in place on each
+ * publish. Its fields are plain: they are written before the slot's sequence is
+ * published and read after it is seen, which orders them.
+ */
+final class SessionEvent implements ISessionEvent {
+
+  private SessionEventType type;
+  private String sessionId;
+  private long timestamp;
+  private IMessage message;
+  private String toolName;
+  private SessionState previousState;
+  private SessionState state;
+  private long durationNanos;
+  private boolean success;
+
+  void set(SessionEventType type, String sessionId, IMessage message, String toolName,
+      SessionState previousState, SessionState state, long durationNanos, boolean success) {
+    this.type = type;
+    this.sessionId = sessionId;
+    this.timestamp = System.currentTimeMillis();
+    this.message = message;
+    this.toolName = toolName;
+    this.previousState = previousState;
+    this.state = state;
+    this.durationNanos = durationNanos;
+    this.success = success;
+  }
+
+  @Override
+  public SessionEventType getType() {
+    return type;
+  }
+
+  @Override
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  @Override
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  @Override
+  public IMessage getMessage() {
+    return message;
+  }
+
+  @Override
+  public String getToolName() {
+    return toolName;
+  }
+
+  @Override
+  public SessionState getPreviousState() {
+    return previousState;
+  }
+
+  @Override
+  public SessionState getState() {
+    return state;
+  }
+
+  @Override
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  @Override
+  public boolean isSuccess() {
+    return success;
+  }
+
+  @Override
+  public String toString() {
+    return type + " " + sessionId;
+  }
+}
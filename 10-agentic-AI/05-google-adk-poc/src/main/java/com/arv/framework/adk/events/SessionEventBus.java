@@ -0,0 +1,432 @@
+package com.arv.framework.adk.events;
+
+import com.arv.framework.adk.interfaces.enums.BackpressurePolicy;
+import com.arv.framework.adk.interfaces.enums.EventWaitStrategy;
+import com.arv.framework.adk.interfaces.enums.SessionEventType;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISessionEventHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ring buffer that carries session events from the request path to consumers such as
+ * analytics and audit, in the style of the LMAX Disruptor.
+ * Event slots are allocated up front and overwritten in place, so publishing allocates
+ * nothing: a publisher claims the next sequence number, fills the slot it maps to and
+ * marks the slot as holding that sequence. Each handler runs on its own thread, follows
+ * the sequence at its own pace and receives whatever has been published since it last
+ * looked as one batch. A slot is reused only once every handler has moved past it; until
+ * then the {@link BackpressurePolicy} either drops new events or holds their publisher.
+ *
+ * <p>Sessions publish from many request threads, so sequences are claimed with a
+ * compare-and-set rather than by a single producer, and each slot records the sequence
+ * it holds so that handlers never read a slot that is still being filled.
+ */
+@Slf4j
+public class SessionEventBus implements AutoCloseable {
+
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 100;
+  private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+  private static final long BLOCK_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long CLOSE_TIMEOUT_MS = 5000L;
+  private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+  private final SessionEventBusConfig config;
+  private final int mask;
+  private final SessionEvent[] slots;
+  /** The sequence each slot holds; a handler may read a slot once it holds the one it wants. */
+  private final AtomicLongArray published;
+  private final AtomicLong claimed = new AtomicLong(-1L);
+  /** Lowest handler position seen by a publisher; handler positions only grow, so it is safe to reuse. */
+  private volatile long gatingCache = -1L;
+  private volatile Subscriber[] subscribers = NO_SUBSCRIBERS;
+  private volatile boolean closed;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition publishedSignal = lock.newCondition();
+  private final AtomicInteger blockedHandlers = new AtomicInteger();
+  private final LongAdder publishedCount = new LongAdder();
+  private final LongAdder droppedCount = new LongAdder();
+  private final LongAdder failureCount = new LongAdder();
+
+  /**
+   * A handler and its position in the sequence.
+   */
+  private final class Subscriber implements Runnable {
+    private final ISessionEventHandler handler;
+    private final Thread thread;
+    /** The last sequence the handler has finished with. */
+    private volatile long sequence;
+    /** The last sequence to handle before the thread ends. */
+    private volatile long stopAt = Long.MAX_VALUE;
+
+    private Subscriber(String name, ISessionEventHandler handler, long sequence) {
+      this.handler = handler;
+      this.sequence = sequence;
+      this.thread = new Thread(this, "session-events-" + name);
+      this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try {
+        process();
+      } finally {
+        remove(this);
+      }
+    }
+
+    private void process() {
+      int maxBatch = config.getMaxBatchSize();
+      long next = sequence + 1;
+      while (next <= stopAt) {
+        long available = waitFor(this, next);
+        if (available < next) {
+          continue;
+        }
+        long end = Math.min(Math.min(available, next + maxBatch - 1), stopAt);
+        for (long current = next; current <= end; current++) {
+          try {
+            handler.onEvent(slots[(int) current & mask], current, current == end);
+          } catch (RuntimeException e) {
+            failureCount.increment();
+            log.warn("Session event handler {} failed: {}", thread.getName(), e.getMessage(), e);
+          }
+        }
+        sequence = end;
+        next = end + 1;
+      }
+    }
+  }
+
+  /**
+   * Creates an event bus.
+   *
+   * @param config the buffer, wait and backpressure settings
+   */
+  public SessionEventBus(SessionEventBusConfig config) {
+    this.config = config;
+    int size = config.getBufferSize();
+    this.mask = size - 1;
+    this.slots = new SessionEvent[size];
+    this.published = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      slots[i] = new SessionEvent();
+      published.set(i, -1L);
+    }
+  }
+
+  /**
+   * Adds a handler on a new daemon thread. It receives the events published from now on.
+   *
+   * @param name names the handler's thread
+   * @param handler the handler
+   * @return this event bus
+   */
+  public synchronized SessionEventBus subscribe(String name, ISessionEventHandler handler) {
+    if (closed) {
+      throw new IllegalStateException("Event bus is closed");
+    }
+    Subscriber subscriber = new Subscriber(name, handler, claimed.get());
+    Subscriber[] current = subscribers;
+    Subscriber[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = subscriber;
+    subscribers = updated;
+    subscriber.thread.start();
+    return this;
+  }
+
+  /**
+   * Removes a handler once it has processed the events already published.
+   *
+   * @param handler the handler
+   * @return true if it was subscribed
+   */
+  public boolean unsubscribe(ISessionEventHandler handler) {
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.handler == handler) {
+        stop(subscriber);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Publishes that a message was added to a session.
+   *
+   * @param sessionId the session ID
+   * @param message the message
+   * @return false if the event was dropped or nobody is subscribed
+   */
+  public boolean publishMessageAdded(String sessionId, IMessage message) {
+    return publish(SessionEventType.MESSAGE_ADDED, sessionId, message, null, null, null, 0L, true);
+  }
+
+  /**
+   * Publishes that a session changed state.
+   *
+   * @param sessionId the session ID
+   * @param previousState the state it left
+   * @param state the state it entered
+   * @return false if the event was dropped or nobody is subscribed
+   */
+  public boolean publishStateChanged(String sessionId, SessionState previousState, SessionState state) {
+    return publish(SessionEventType.STATE_CHANGED, sessionId, null, null, previousState, state, 0L, true);
+  }
+
+  /**
+   * Publishes that a tool was executed for a session.
+   *
+   * @param sessionId the session ID, or null
+   * @param toolName the tool name
+   * @param durationNanos how long the tool took
+   * @param success whether it succeeded
+   * @return false if the event was dropped or nobody is subscribed
+   */
+  public boolean publishToolExecuted(String sessionId, String toolName, long durationNanos, boolean success) {
+    return publish(SessionEventType.TOOL_EXECUTED, sessionId, null, toolName, null, null, durationNanos, success);
+  }
+
+  /**
+   * Gets the number of events published.
+   *
+   * @return the event count
+   */
+  public long getPublishedCount() {
+    return publishedCount.sum();
+  }
+
+  /**
+   * Gets the number of events dropped because the buffer was full.
+   *
+   * @return the event count
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /**
+   * Gets the number of events a handler threw an exception for.
+   *
+   * @return the event count
+   */
+  public long getFailureCount() {
+    return failureCount.sum();
+  }
+
+  /**
+   * Gets the number of slots free for publishing, as far as the slowest handler allows.
+   *
+   * @return the slot count
+   */
+  public long getRemainingCapacity() {
+    long current = claimed.get();
+    return config.getBufferSize() - (current - minimumSequence(current));
+  }
+
+  /**
+   * Gets the configuration.
+   *
+   * @return the configuration
+   */
+  public SessionEventBusConfig getConfig() {
+    return config;
+  }
+
+  /**
+   * Stops accepting events and waits for every handler to finish those already published.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    for (Subscriber subscriber : subscribers) {
+      stop(subscriber);
+    }
+  }
+
+  private boolean publish(SessionEventType type, String sessionId, IMessage message, String toolName,
+      SessionState previousState, SessionState state, long durationNanos, boolean success) {
+    if (closed || subscribers.length == 0) {
+      return false;
+    }
+    long sequence = claim();
+    if (sequence < 0) {
+      droppedCount.increment();
+      return false;
+    }
+    int index = (int) sequence & mask;
+    slots[index].set(type, sessionId, message, toolName, previousState, state, durationNanos, success);
+    published.lazySet(index, sequence);
+    publishedCount.increment();
+    if (blockedHandlers.get() > 0) {
+      signalHandlers();
+    }
+    return true;
+  }
+
+  /**
+   * Claims the next sequence once its slot is free.
+   *
+   * @return the sequence, or -1 if the event must be dropped
+   */
+  private long claim() {
+    int bufferSize = config.getBufferSize();
+    while (true) {
+      long current = claimed.get();
+      long next = current + 1;
+      long wrapPoint = next - bufferSize;
+      if (wrapPoint > gatingCache) {
+        long minimum = minimumSequence(current);
+        gatingCache = minimum;
+        if (wrapPoint > minimum) {
+          if (config.getBackpressurePolicy() == BackpressurePolicy.DROP || closed) {
+            return -1L;
+          }
+          LockSupport.parkNanos(1L);
+          if (Thread.currentThread().isInterrupted()) {
+            return -1L;
+          }
+          continue;
+        }
+      }
+      if (claimed.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  private long minimumSequence(long defaultValue) {
+    long minimum = defaultValue;
+    for (Subscriber subscriber : subscribers) {
+      minimum = Math.min(minimum, subscriber.sequence);
+    }
+    return minimum;
+  }
+
+  /**
+   * Waits, as the wait strategy says, for events from next on.
+   *
+   * @return the last of the events now available in order, or next - 1 if the handler
+   *     is stopping and there are none
+   */
+  private long waitFor(Subscriber subscriber, long next) {
+    EventWaitStrategy strategy = config.getWaitStrategy();
+    int tries = 0;
+    while (true) {
+      long available = highestPublished(next);
+      if (available >= next || next > subscriber.stopAt) {
+        return available;
+      }
+      switch (strategy) {
+        case BUSY_SPIN:
+          Thread.onSpinWait();
+          break;
+        case YIELDING:
+          if (++tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+          } else {
+            Thread.yield();
+          }
+          break;
+        case BLOCKING:
+          awaitPublished(subscriber, next);
+          break;
+        case SLEEPING:
+        default:
+          tries++;
+          if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+          } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+          } else {
+            LockSupport.parkNanos(SLEEP_NANOS);
+          }
+          break;
+      }
+    }
+  }
+
+  private synchronized void remove(Subscriber subscriber) {
+    Subscriber[] current = subscribers;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i] == subscriber) {
+        Subscriber[] updated = new Subscriber[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, i);
+        System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+        subscribers = updated;
+        return;
+      }
+    }
+  }
+
+  private long highestPublished(long next) {
+    long limit = next + config.getMaxBatchSize();
+    long sequence = next;
+    while (sequence < limit && published.get((int) sequence & mask) == sequence) {
+      sequence++;
+    }
+    return sequence - 1;
+  }
+
+  private void awaitPublished(Subscriber subscriber, long next) {
+    lock.lock();
+    blockedHandlers.incrementAndGet();
+    try {
+      // Checked again after counting ourselves in, so a publish in between signals us; the
+      // timeout covers a publisher that read the count before its slot became visible here
+      if (highestPublished(next) < next && next <= subscriber.stopAt) {
+        publishedSignal.awaitNanos(BLOCK_TIMEOUT_NANOS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      subscriber.stopAt = next - 1;
+    } finally {
+      blockedHandlers.decrementAndGet();
+      lock.unlock();
+    }
+  }
+
+  private void signalHandlers() {
+    lock.lock();
+    try {
+      publishedSignal.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Lets a handler finish the events claimed so far, then ends its thread.
+   */
+  private void stop(Subscriber subscriber) {
+    subscriber.stopAt = Math.min(subscriber.stopAt, claimed.get());
+    signalHandlers();
+    if (subscriber.thread == Thread.currentThread()) {
+      return;
+    }
+    try {
+      subscriber.thread.join(CLOSE_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (subscriber.thread.isAlive()) {
+      log.warn("Session event handler {} did not finish in time", subscriber.thread.getName());
+    }
+  }
+}
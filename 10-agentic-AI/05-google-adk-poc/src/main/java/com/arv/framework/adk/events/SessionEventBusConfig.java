@@ -0,0 +1,89 @@
+package com.arv.framework.adk.events;
+
+import com.arv.framework.adk.interfaces.enums.BackpressurePolicy;
+import com.arv.framework.adk.interfaces.enums.EventWaitStrategy;
+
+/**
+ * Configuration for a session event bus.
+ */
+public class SessionEventBusConfig {
+
+  private int bufferSize = 4096;
+  private EventWaitStrategy waitStrategy = EventWaitStrategy.SLEEPING;
+  private BackpressurePolicy backpressurePolicy = BackpressurePolicy.DROP;
+  private int maxBatchSize = 256;
+
+  /**
+   * Creates a configuration with default values: 4096 slots, sleeping consumers, and
+   * events dropped rather than publishers held up when a consumer falls behind.
+   *
+   * @return a new SessionEventBusConfig
+   */
+  public static SessionEventBusConfig defaults() {
+    return new SessionEventBusConfig();
+  }
+
+  /**
+   * Sets the number of event slots.
+   *
+   * @param bufferSize the slot count, a power of two
+   * @return this config for method chaining
+   */
+  public SessionEventBusConfig withBufferSize(int bufferSize) {
+    if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+      throw new IllegalArgumentException("Buffer size must be a power of two: " + bufferSize);
+    }
+    this.bufferSize = bufferSize;
+    return this;
+  }
+
+  /**
+   * Sets how consumers wait for events.
+   *
+   * @param waitStrategy the wait strategy
+   * @return this config for method chaining
+   */
+  public SessionEventBusConfig withWaitStrategy(EventWaitStrategy waitStrategy) {
+    this.waitStrategy = waitStrategy;
+    return this;
+  }
+
+  /**
+   * Sets what publishing does while the slowest consumer is a full buffer behind.
+   *
+   * @param backpressurePolicy the policy
+   * @return this config for method chaining
+   */
+  public SessionEventBusConfig withBackpressurePolicy(BackpressurePolicy backpressurePolicy) {
+    this.backpressurePolicy = backpressurePolicy;
+    return this;
+  }
+
+  /**
+   * Sets the most events handed to a consumer before its position is advanced, which
+   * frees their slots for publishers.
+   *
+   * @param maxBatchSize the event count
+   * @return this config for method chaining
+   */
+  public SessionEventBusConfig withMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    return this;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public EventWaitStrategy getWaitStrategy() {
+    return waitStrategy;
+  }
+
+  public BackpressurePolicy getBackpressurePolicy() {
+    return backpressurePolicy;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+}
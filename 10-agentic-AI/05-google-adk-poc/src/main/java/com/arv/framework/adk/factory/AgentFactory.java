@@ -1,10 +1,16 @@
 package com.arv.framework.adk.factory;
 
+import com.arv.framework.adk.impl.ConnectAgent;
+import com.arv.framework.adk.impl.ServiceLoaderToolFactory;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
 import com.arv.framework.adk.interfaces.core.IAgent;
 import com.arv.framework.adk.interfaces.core.IToolRegistry;
 import com.arv.framework.adk.interfaces.core.ISessionManager;
 import com.arv.framework.adk.interfaces.gemini.ILlmService;
 import com.arv.framework.adk.interfaces.gemini.ILlmConfig;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -13,15 +19,18 @@ import java.util.Map;
  */
 public class AgentFactory {
     
+    /**
+     * Prefix of the LLM settings in {@link #createAgent(Map)}, e.g. "llm.apiKey".
+     */
+    private static final String LLM_PREFIX = "llm.";
+    
     /**
      * Creates a default agent with basic configuration.
      * 
      * @return a new IAgent instance
      */
     public static IAgent createDefaultAgent() {
-        // TODO: Implement default agent creation
-        // return new ConnectAgent();
-        return null;
+        return createAgent(LlmServiceFactory.createDefaultLlmService());
     }
     
     /**
@@ -31,11 +40,7 @@ public class AgentFactory {
      * @return a new IAgent instance
      */
     public static IAgent createAgent(ILlmService llmService) {
-        // TODO: Implement agent creation with custom LLM service
-        // IAgent agent = new ConnectAgent();
-        // agent.setLlmService(llmService);
-        // return agent;
-        return null;
+        return createAgent(llmService, createDefaultToolRegistry(), new SimpleSessionManager());
     }
     
     /**
@@ -45,10 +50,7 @@ public class AgentFactory {
      * @return a new IAgent instance
      */
     public static IAgent createAgent(ILlmConfig llmConfig) {
-        // TODO: Implement agent creation with LLM configuration
-        // ILlmService llmService = LlmServiceFactory.createLlmService(llmConfig);
-        // return createAgent(llmService);
-        return null;
+        return createAgent(LlmServiceFactory.createLlmService(llmConfig));
     }
     
     /**
@@ -62,31 +64,24 @@ public class AgentFactory {
     public static IAgent createAgent(ILlmService llmService, 
                                    IToolRegistry toolRegistry, 
                                    ISessionManager sessionManager) {
-        // TODO: Implement agent creation with custom components
-        // IAgent agent = new ConnectAgent(llmService, toolRegistry, sessionManager);
-        // return agent;
-        return null;
+        return new ConnectAgent(llmService, new ToolExecutionEngine(toolRegistry), sessionManager);
     }
     
     /**
      * Creates an agent from configuration properties.
+     * LLM settings use the "llm." prefix, e.g. "llm.provider", "llm.apiKey" and "llm.model".
      * 
      * @param config the configuration properties
      * @return a new IAgent instance
      */
     public static IAgent createAgent(Map<String, Object> config) {
-        // TODO: Implement agent creation from configuration
-        // Extract configuration values
-        // String provider = (String) config.get("llm.provider");
-        // String apiKey = (String) config.get("llm.apiKey");
-        // String model = (String) config.get("llm.model");
-        // 
-        // ILlmConfig llmConfig = LlmConfigFactory.createConfig(provider);
-        // llmConfig.setApiKey(apiKey);
-        // llmConfig.setModel(model);
-        // 
-        // return createAgent(llmConfig);
-        return null;
+        Map<String, Object> llmProperties = new HashMap<>();
+        for (Map.Entry<String, Object> entry : config.entrySet()) {
+            if (entry.getKey().startsWith(LLM_PREFIX)) {
+                llmProperties.put(entry.getKey().substring(LLM_PREFIX.length()), entry.getValue());
+            }
+        }
+        return createAgent(LlmServiceFactory.createLlmService(llmProperties));
     }
     
     /**
@@ -98,6 +93,18 @@ public class AgentFactory {
         return new AgentBuilder();
     }
     
+    /**
+     * Creates a tool registry holding every tool found through ServiceLoader.
+     * Tools are registered lazily and only created on their first execution.
+     * 
+     * @return a new tool registry
+     */
+    public static IToolRegistry createDefaultToolRegistry() {
+        IToolRegistry toolRegistry = new SimpleToolRegistry();
+        new ServiceLoaderToolFactory().registerLazyTools(toolRegistry);
+        return toolRegistry;
+    }
+    
     /**
      * Builder class for fluent agent creation.
      */
@@ -153,7 +160,7 @@ public class AgentFactory {
         }
         
         /**
-         * Sets additional properties.
+         * Sets additional properties, applied to the LLM configuration.
          * 
          * @param properties the properties
          * @return this builder
@@ -169,27 +176,22 @@ public class AgentFactory {
          * @return a new IAgent instance
          */
         public IAgent build() {
-            // TODO: Implement agent building logic
-            // if (llmService == null && llmConfig != null) {
-            //     llmService = LlmServiceFactory.createLlmService(llmConfig);
-            // }
-            // 
-            // if (toolRegistry == null) {
-            //     toolRegistry = new DefaultToolRegistry();
-            // }
-            // 
-            // if (sessionManager == null) {
-            //     sessionManager = new DefaultSessionManager();
-            // }
-            // 
-            // IAgent agent = new ConnectAgent(llmService, toolRegistry, sessionManager);
-            // 
-            // if (properties != null) {
-            //     agent.setProperties(properties);
-            // }
-            // 
-            // return agent;
-            return null;
+            ILlmService service = llmService;
+            if (service == null && llmConfig != null) {
+                ILlmConfig config = llmConfig;
+                if (properties != null) {
+                    config = llmConfig.copy();
+                    properties.forEach(config::setProperty);
+                }
+                service = LlmServiceFactory.createLlmService(config);
+            }
+            if (service == null) {
+                service = LlmServiceFactory.createDefaultLlmService();
+            }
+            
+            return createAgent(service,
+                toolRegistry != null ? toolRegistry : createDefaultToolRegistry(),
+                sessionManager != null ? sessionManager : new SimpleSessionManager());
         }
     }
 }
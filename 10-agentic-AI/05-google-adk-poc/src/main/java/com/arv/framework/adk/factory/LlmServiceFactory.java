@@ -1,5 +1,7 @@
 package com.arv.framework.adk.factory;
 
+import com.arv.framework.adk.impl.GeminiLlmConfig;
+import com.arv.framework.adk.impl.GeminiLlmService;
 import com.arv.framework.adk.interfaces.gemini.ILlmService;
 import com.arv.framework.adk.interfaces.gemini.ILlmConfig;
 import java.util.Map;
@@ -10,6 +12,8 @@ import java.util.Map;
  */
 public class LlmServiceFactory {
     
+    private static final String GOOGLE_API_KEY = "GOOGLE_API_KEY";
+    
     /**
      * Supported LLM providers.
      */
@@ -42,6 +46,7 @@ public class LlmServiceFactory {
     
     /**
      * Creates a default LLM service (Google Gemini).
+     * The API key is read from the GOOGLE_API_KEY system property or environment variable.
      * 
      * @return a new ILlmService instance
      */
@@ -51,34 +56,20 @@ public class LlmServiceFactory {
     
     /**
      * Creates an LLM service for the specified provider.
+     * Only Google Gemini has an implementation so far; the other providers are rejected.
      * 
      * @param provider the LLM provider
      * @return a new ILlmService instance
+     * @throws IllegalArgumentException if the provider has no implementation
      */
     public static ILlmService createLlmService(LlmProvider provider) {
         switch (provider) {
             case GOOGLE_GEMINI:
-                // TODO: Implement Google Gemini service creation
-                // return new GoogleGeminiService();
-                return null;
-            case OPENAI:
-                // TODO: Implement OpenAI service creation
-                // return new OpenAiService();
-                return null;
-            case ANTHROPIC:
-                // TODO: Implement Anthropic service creation
-                // return new AnthropicService();
-                return null;
-            case AZURE_OPENAI:
-                // TODO: Implement Azure OpenAI service creation
-                // return new AzureOpenAiService();
-                return null;
-            case HUGGING_FACE:
-                // TODO: Implement Hugging Face service creation
-                // return new HuggingFaceService();
-                return null;
+                GeminiLlmConfig config = new GeminiLlmConfig();
+                config.setApiKey(System.getProperty(GOOGLE_API_KEY, System.getenv(GOOGLE_API_KEY)));
+                return new GeminiLlmService(config);
             default:
-                throw new IllegalArgumentException("Unsupported provider: " + provider);
+                throw new IllegalArgumentException("Unsupported LLM provider: " + provider);
         }
     }
     
@@ -87,6 +78,7 @@ public class LlmServiceFactory {
      * 
      * @param provider the provider name
      * @return a new ILlmService instance
+     * @throws IllegalArgumentException if the provider is unknown or has no implementation
      */
     public static ILlmService createLlmService(String provider) {
         return createLlmService(LlmProvider.fromString(provider));
@@ -109,10 +101,7 @@ public class LlmServiceFactory {
         }
         
         ILlmService service = createLlmService(provider);
-        if (service != null) {
-            service.initialize(config);
-        }
-        
+        service.initialize(config);
         return service;
     }
     
@@ -128,29 +117,31 @@ public class LlmServiceFactory {
         String apiUrl = (String) config.get("apiUrl");
         String model = (String) config.get("model");
         
-        // TODO: Create LLM configuration from properties
-        // ILlmConfig llmConfig = new DefaultLlmConfig();
-        // llmConfig.setProvider(provider);
-        // llmConfig.setApiKey(apiKey);
-        // llmConfig.setApiUrl(apiUrl);
-        // llmConfig.setModel(model);
-        // 
-        // // Set optional parameters
-        // if (config.containsKey("temperature")) {
-        //     llmConfig.setTemperature((Double) config.get("temperature"));
-        // }
-        // if (config.containsKey("maxTokens")) {
-        //     llmConfig.setMaxTokens((Integer) config.get("maxTokens"));
-        // }
-        // if (config.containsKey("timeoutMs")) {
-        //     llmConfig.setTimeoutMs((Long) config.get("timeoutMs"));
-        // }
-        // if (config.containsKey("maxRetries")) {
-        //     llmConfig.setMaxRetries((Integer) config.get("maxRetries"));
-        // }
-        // 
-        // return createLlmService(llmConfig);
-        return null;
+        ILlmConfig llmConfig = new GeminiLlmConfig();
+        llmConfig.setProvider(provider);
+        llmConfig.setApiKey(apiKey);
+        if (apiUrl != null) {
+            llmConfig.setApiUrl(apiUrl);
+        }
+        if (model != null) {
+            llmConfig.setModel(model);
+        }
+        
+        // Set optional parameters
+        if (config.containsKey("temperature")) {
+            llmConfig.setTemperature(((Number) config.get("temperature")).doubleValue());
+        }
+        if (config.containsKey("maxTokens")) {
+            llmConfig.setMaxTokens(((Number) config.get("maxTokens")).intValue());
+        }
+        if (config.containsKey("timeoutMs")) {
+            llmConfig.setTimeoutMs(((Number) config.get("timeoutMs")).longValue());
+        }
+        if (config.containsKey("maxRetries")) {
+            llmConfig.setMaxRetries(((Number) config.get("maxRetries")).intValue());
+        }
+        
+        return createLlmService(llmConfig);
     }
     
     /**
@@ -292,23 +283,25 @@ public class LlmServiceFactory {
          * @return a new ILlmService instance
          */
         public ILlmService build() {
-            // TODO: Implement LLM service building logic
-            // ILlmConfig config = new DefaultLlmConfig();
-            // config.setProvider(provider);
-            // config.setApiKey(apiKey);
-            // config.setApiUrl(apiUrl);
-            // config.setModel(model);
-            // config.setTemperature(temperature);
-            // config.setMaxTokens(maxTokens);
-            // config.setTimeoutMs(timeoutMs);
-            // config.setMaxRetries(maxRetries);
-            // 
-            // if (properties != null) {
-            //     config.setProperties(properties);
-            // }
-            // 
-            // return createLlmService(config);
-            return null;
+            ILlmConfig config = new GeminiLlmConfig();
+            config.setProvider(provider);
+            config.setApiKey(apiKey);
+            if (apiUrl != null) {
+                config.setApiUrl(apiUrl);
+            }
+            if (model != null) {
+                config.setModel(model);
+            }
+            config.setTemperature(temperature);
+            config.setMaxTokens(maxTokens);
+            config.setTimeoutMs(timeoutMs);
+            config.setMaxRetries(maxRetries);
+            
+            if (properties != null) {
+                config.setProperties(properties);
+            }
+            
+            return createLlmService(config);
         }
     }
     
@@ -0,0 +1,140 @@
+package com.arv.framework.adk.impl;
+
+/**
+ * Configuration for tool circuit breakers.
+ * Rates are percentages in the range 0-100, durations are in milliseconds.
+ */
+public class CircuitBreakerConfig {
+
+  private int slidingWindowSize = 20;
+  private int minimumNumberOfCalls = 10;
+  private double failureRateThreshold = 50.0;
+  private double slowCallRateThreshold = 80.0;
+  private long slowCallDurationMs = 5000L;
+  private long openDurationMs = 30000L;
+  private int permittedCallsInHalfOpenState = 3;
+
+  /**
+   * Creates a configuration with default values.
+   *
+   * @return a new CircuitBreakerConfig
+   */
+  public static CircuitBreakerConfig defaults() {
+    return new CircuitBreakerConfig();
+  }
+
+  /**
+   * Sets the number of most recent calls used to compute rates. A minimum number of
+   * calls larger than the window is lowered to the window size.
+   *
+   * @param slidingWindowSize the window size
+   * @return this config for method chaining
+   */
+  public CircuitBreakerConfig withSlidingWindowSize(int slidingWindowSize) {
+    if (slidingWindowSize <= 0) {
+      throw new IllegalArgumentException("Sliding window size must be positive");
+    }
+    this.slidingWindowSize = slidingWindowSize;
+    this.minimumNumberOfCalls = Math.min(minimumNumberOfCalls, slidingWindowSize);
+    return this;
+  }
+
+  /**
+   * Sets the number of calls required before rates are evaluated; it cannot exceed the
+   * sliding window size, or the circuit could never open.
+   *
+   * @param minimumNumberOfCalls the minimum number of calls
+   * @return this config for method chaining
+   */
+  public CircuitBreakerConfig withMinimumNumberOfCalls(int minimumNumberOfCalls) {
+    if (minimumNumberOfCalls > slidingWindowSize) {
+      throw new IllegalArgumentException("Minimum number of calls " + minimumNumberOfCalls
+          + " exceeds the sliding window size " + slidingWindowSize);
+    }
+    this.minimumNumberOfCalls = Math.max(1, minimumNumberOfCalls);
+    return this;
+  }
+
+  /**
+   * Sets the failure rate at or above which the circuit opens.
+   *
+   * @param failureRateThreshold the threshold percentage
+   * @return this config for method chaining
+   */
+  public CircuitBreakerConfig withFailureRateThreshold(double failureRateThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+    return this;
+  }
+
+  /**
+   * Sets the slow call rate at or above which the circuit opens.
+   *
+   * @param slowCallRateThreshold the threshold percentage
+   * @return this config for method chaining
+   */
+  public CircuitBreakerConfig withSlowCallRateThreshold(double slowCallRateThreshold) {
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    return this;
+  }
+
+  /**
+   * Sets the duration above which a call counts as slow.
+   *
+   * @param slowCallDurationMs the duration in milliseconds
+   * @return this config for method chaining
+   */
+  public CircuitBreakerConfig withSlowCallDurationMs(long slowCallDurationMs) {
+    this.slowCallDurationMs = slowCallDurationMs;
+    return this;
+  }
+
+  /**
+   * Sets how long the circuit stays open before allowing trial calls.
+   *
+   * @param openDurationMs the duration in milliseconds
+   * @return this config for method chaining
+   */
+  public CircuitBreakerConfig withOpenDurationMs(long openDurationMs) {
+    this.openDurationMs = openDurationMs;
+    return this;
+  }
+
+  /**
+   * Sets the number of trial calls allowed while half open.
+   *
+   * @param permittedCallsInHalfOpenState the number of trial calls
+   * @return this config for method chaining
+   */
+  public CircuitBreakerConfig withPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+    this.permittedCallsInHalfOpenState = Math.max(1, permittedCallsInHalfOpenState);
+    return this;
+  }
+
+  public int getSlidingWindowSize() {
+    return slidingWindowSize;
+  }
+
+  public int getMinimumNumberOfCalls() {
+    return minimumNumberOfCalls;
+  }
+
+  public double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  public double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  public long getSlowCallDurationMs() {
+    return slowCallDurationMs;
+  }
+
+  public long getOpenDurationMs() {
+    return openDurationMs;
+  }
+
+  public int getPermittedCallsInHalfOpenState() {
+    return permittedCallsInHalfOpenState;
+  }
+}
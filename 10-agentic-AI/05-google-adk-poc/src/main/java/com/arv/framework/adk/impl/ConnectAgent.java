@@ -1,18 +1,25 @@
 package com.arv.framework.adk.impl;
 
+import com.arv.framework.adk.events.SessionEventBus;
 import com.arv.framework.adk.interfaces.core.IAgent;
 import com.arv.framework.adk.interfaces.core.ISessionManager;
+import com.arv.framework.adk.interfaces.enums.BusySessionPolicy;
+import com.arv.framework.adk.interfaces.enums.SessionState;
 import com.arv.framework.adk.interfaces.gemini.ILlmService;
 import com.arv.framework.adk.interfaces.session.ISession;
 import com.arv.framework.adk.interfaces.tool.ITool;
 import com.arv.framework.adk.interfaces.tool.IToolExecutionEngine;
 import com.arv.framework.adk.interfaces.tool.IToolResult;
+import com.arv.framework.adk.interfaces.tool.IToolRetriever;
+import com.arv.framework.adk.metrics.AgentMetrics;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -22,10 +29,17 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ConnectAgent implements IAgent {
 
+  private static final SessionState[] SESSION_STATES = SessionState.values();
+
   private ILlmService llmService;
   private ISessionManager sessionManager;
   private IToolExecutionEngine toolExecutionEngine;
   private ObjectMapper objectMapper;
+  private IToolRetriever toolRetriever;
+  private SessionEventBus eventBus;
+  private AgentMetrics metrics;
+  private SessionTurnGate turnGate =
+      new SessionTurnGate(BusySessionPolicy.QUEUE, SessionTurnGate.DEFAULT_MAX_QUEUED);
 
   public ConnectAgent(ILlmService llmService, IToolExecutionEngine toolExecutionEngine,
       ISessionManager sessionManager) {
@@ -35,6 +49,51 @@ public class ConnectAgent implements IAgent {
     this.objectMapper = new ObjectMapper();
   }
 
+  /**
+   * Sends only the tools selected by a retriever instead of every available tool.
+   */
+  public ConnectAgent withToolRetriever(IToolRetriever toolRetriever) {
+    this.toolRetriever = toolRetriever;
+    return this;
+  }
+
+  /**
+   * Sets how a message is handled while its session is still processing another one.
+   * By default it waits its turn, with up to {@link SessionTurnGate#DEFAULT_MAX_QUEUED} waiting.
+   */
+  public ConnectAgent withBusySessionPolicy(BusySessionPolicy policy, int maxQueued) {
+    this.turnGate = new SessionTurnGate(policy, maxQueued);
+    return this;
+  }
+
+  /**
+   * Publishes an event for every tool executed to an event bus.
+   */
+  public ConnectAgent withEventBus(SessionEventBus eventBus) {
+    this.eventBus = eventBus;
+    return this;
+  }
+
+  /**
+   * Records message, turn, LLM and tool latencies and error counts into the given metrics,
+   * and reports the session manager's sessions in an active state as its gauge.
+   */
+  public ConnectAgent withMetrics(AgentMetrics metrics) {
+    this.metrics = metrics;
+    metrics.withActiveSessions(this::countActiveSessions);
+    return this;
+  }
+
+  private long countActiveSessions() {
+    long active = 0;
+    for (SessionState state : SESSION_STATES) {
+      if (state.isActive()) {
+        active += sessionManager.getSessionCount(state);
+      }
+    }
+    return active;
+  }
+
   @Override
   public boolean registerTool(ITool tool) {
     // Tool registration is handled by the ToolExecutionEngine's registry
@@ -51,13 +110,43 @@ public class ConnectAgent implements IAgent {
   @Override
   public Object processMessage(String message, String sessionId) {
     log.debug("Processing message for session {}: {}", sessionId, message);
+    long start = metrics != null ? metrics.onMessageStart() : 0L;
+    try {
+      if (sessionId == null) {
+        return processTurn(message, null);
+      }
+      return turnGate.process(sessionId, message, turnMessage -> processTurn(turnMessage, sessionId));
+    } finally {
+      if (metrics != null) {
+        metrics.onMessageEnd(start);
+      }
+    }
+  }
+
+  /**
+   * Processes one turn, holding the session in the PROCESSING state while it runs.
+   */
+  private Object processTurn(String message, String sessionId) {
+    ISession session = sessionId != null ? sessionManager.getSession(sessionId).orElse(null) : null;
+    if (session != null && !session.transitionTo(SessionState.PROCESSING)) {
+      log.warn("Session {} cannot process messages in state {}", sessionId, session.getState());
+      return "Sorry, this session can no longer process messages.";
+    }
 
     try {
       // Use multi-turn conversation to handle complex interactions
       return processMultiTurnConversation(message, sessionId);
     } catch (Exception e) {
       log.error("Error processing message: {}", e.getMessage(), e);
+      if (metrics != null) {
+        metrics.onError();
+      }
       return "Sorry, I encountered an error while processing your request.";
+    } finally {
+      if (session != null) {
+        session.compareAndSetState(SessionState.PROCESSING, SessionState.ACTIVE);
+        session.updateLastActivity();
+      }
     }
   }
 
@@ -75,11 +164,14 @@ public class ConnectAgent implements IAgent {
 
     while (turnCount < maxTurns) {
       turnCount++;
+      long turnStart = System.nanoTime();
       log.debug("Multi-turn conversation - Turn {}: {}", turnCount, currentMessage);
 
       // Prepare available tools for Gemini
       Map<String, Object> context = new HashMap<>();
-      List<Map<String, Object>> availableTools = toolExecutionEngine.getAvailableToolSchemas();
+      Set<String> offeredTools = new HashSet<>();
+      List<Map<String, Object>> availableTools = selectToolSchemas(
+          initialMessage + "\n" + currentMessage, offeredTools);
       if (!availableTools.isEmpty()) {
         context.put("availableTools", availableTools);
         log.debug("Sending {} tools to Gemini on turn {}", availableTools.size(), turnCount);
@@ -90,7 +182,12 @@ public class ConnectAgent implements IAgent {
         context.put("conversation_history", String.join("\n", conversationHistory));
       }
 
+      long llmStart = System.nanoTime();
       String response = llmService.generateResponse(currentMessage, context);
+      if (metrics != null) {
+        // The LLM service reports failures as responses starting with "Error:"
+        metrics.onLlmCall(llmStart, !response.startsWith("Error:"));
+      }
 
       // Check if response is a function call
       if (response.startsWith("{") && response.contains("function_call")) {
@@ -102,6 +199,9 @@ public class ConnectAgent implements IAgent {
             JsonNode arguments = functionCall.get("arguments");
 
             log.debug("Turn {} - Executing function call: {} with args: {}", turnCount, functionName, arguments);
+            if (toolRetriever != null) {
+              toolRetriever.recordToolCall(functionName, offeredTools.contains(functionName));
+            }
 
             String toolResult = executeFunctionCall(functionName, arguments, sessionId);
 
@@ -114,10 +214,12 @@ public class ConnectAgent implements IAgent {
                 "\n Please continue with original request";
 
             log.debug("Turn {} - Tool result: {}", turnCount, toolResult);
+            recordTurn(turnStart);
             continue;
           }
         } catch (Exception e) {
           log.error("Error parsing function call response on turn {}", turnCount, e);
+          recordTurn(turnStart);
           break;
         }
       }
@@ -125,6 +227,7 @@ public class ConnectAgent implements IAgent {
       // If we reach here, we have a final response
       conversationHistory.add("Assistant: " + response);
       log.debug("Multi-turn conversation completed after {} turns", turnCount);
+      recordTurn(turnStart);
       return response;
     }
 
@@ -132,6 +235,33 @@ public class ConnectAgent implements IAgent {
     return "I apologize, but I couldn't complete the request within the allowed number of steps.";
   }
 
+  private void recordTurn(long startNanos) {
+    if (metrics != null) {
+      metrics.onTurn(startNanos);
+    }
+  }
+
+  /**
+   * Gets the schemas of the tools to offer on this turn and collects their IDs, against
+   * which the retriever's hit rate is recorded. Without a retriever every available tool
+   * is offered.
+   */
+  private List<Map<String, Object>> selectToolSchemas(String query, Set<String> offeredTools) {
+    if (toolRetriever == null) {
+      return toolExecutionEngine.getAvailableToolSchemas();
+    }
+
+    List<Map<String, Object>> schemas = new ArrayList<>();
+    for (String toolId : toolRetriever.selectTools(query)) {
+      Map<String, Object> schema = toolExecutionEngine.getToolSchema(toolId);
+      if (schema != null) {
+        schemas.add(schema);
+        offeredTools.add(toolId);
+      }
+    }
+    return schemas;
+  }
+
   /**
    * Executes a function call using the ToolExecutionEngine.
    */
@@ -145,14 +275,13 @@ public class ConnectAgent implements IAgent {
         String key = entry.getKey();
         JsonNode value = entry.getValue();
 
-        if (value.isNumber()) {
-          parameters.put(key, value.asLong()); // Use Long to handle large numbers
-        } else if (value.isTextual()) {
-          parameters.put(key, value.asText());
-        } else if (value.isBoolean()) {
-          parameters.put(key, value.asBoolean());
+        if (value.isArray()) {
+          // Arrays feed batch tools; keep them as lists instead of JSON text
+          List<Object> elements = new ArrayList<>(value.size());
+          value.forEach(element -> elements.add(toParameterValue(element)));
+          parameters.put(key, elements);
         } else {
-          parameters.put(key, value.toString());
+          parameters.put(key, toParameterValue(value));
         }
       });
 
@@ -160,7 +289,15 @@ public class ConnectAgent implements IAgent {
       parameters.put("sessionId", sessionId);
 
       // Execute tool using the execution engine
+      long start = System.nanoTime();
       IToolResult result = toolExecutionEngine.executeTool(functionName, parameters);
+      if (eventBus != null) {
+        eventBus.publishToolExecuted(sessionId, functionName, System.nanoTime() - start,
+            result.isSuccess());
+      }
+      if (metrics != null) {
+        metrics.onToolCall(start, result.isSuccess());
+      }
       
       if (result.isSuccess()) {
         log.debug("Tool execution successful: {}", result.getData());
@@ -176,6 +313,22 @@ public class ConnectAgent implements IAgent {
     }
   }
 
+  /**
+   * Converts a scalar JSON argument into a tool parameter value.
+   */
+  private Object toParameterValue(JsonNode value) {
+    if (value.isIntegralNumber()) {
+      return value.asLong(); // Use Long to handle large numbers
+    } else if (value.isNumber()) {
+      return value.asDouble();
+    } else if (value.isTextual()) {
+      return value.asText();
+    } else if (value.isBoolean()) {
+      return value.asBoolean();
+    }
+    return value.toString();
+  }
+
   @Override
   public ISession startSession(String sessionId) {
     return sessionManager.createSession(sessionId);
@@ -120,13 +120,15 @@ public class GeminiLlmService implements ILlmService {
           .build();
 
       // Execute the request  
-      try {
-        // Create a copy of request body without tools for cleaner logging
-        ObjectNode logRequestBody = requestBody.deepCopy();
-        logRequestBody.remove("tools"); // Remove tools section from logs
-        log.info("Gemini Request:\n" + objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(logRequestBody));
-      } catch (Exception e) {
-        log.info("Gemini Request: " + requestBody.toString()); // Fallback to compact format
+      if (log.isDebugEnabled()) {
+        try {
+          // Create a copy of request body without tools for cleaner logging
+          ObjectNode logRequestBody = requestBody.deepCopy();
+          logRequestBody.remove("tools"); // Remove tools section from logs
+          log.debug("Gemini Request:\n" + objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(logRequestBody));
+        } catch (Exception e) {
+          log.debug("Gemini Request: " + requestBody.toString()); // Fallback to compact format
+        }
       }
       try (Response response = httpClient.newCall(request).execute()) {
         if (!response.isSuccessful()) {
@@ -137,14 +139,16 @@ public class GeminiLlmService implements ILlmService {
 
         // Parse the response
         String responseBody = response.body().string();
-        log.info("Received response from Gemini API");
+        log.debug("Received response from Gemini API");
         JsonNode jsonResponse = objectMapper.readTree(responseBody);
         
         // Log the pretty-printed response
-        try {
-          log.info("Gemini Response:\n" + objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonResponse));
-        } catch (Exception e) {
-          log.info("Gemini Response: " + responseBody); // Fallback to raw response
+        if (log.isDebugEnabled()) {
+          try {
+            log.debug("Gemini Response:\n" + objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonResponse));
+          } catch (Exception e) {
+            log.debug("Gemini Response: " + responseBody); // Fallback to raw response
+          }
         }
 
         // Extract the generated text or function calls
@@ -163,7 +167,7 @@ public class GeminiLlmService implements ILlmService {
                 String functionName = functionCall.get("name").asText();
                 JsonNode args = functionCall.get("args");
                 
-                log.info("Gemini suggested function call: {} with args: {}", functionName, args);
+                log.debug("Gemini suggested function call: {} with args: {}", functionName, args);
                 
                 // Return function call information as JSON string
                 ObjectNode result = objectMapper.createObjectNode();
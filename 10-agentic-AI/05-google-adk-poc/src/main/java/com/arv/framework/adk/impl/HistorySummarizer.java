@@ -0,0 +1,275 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.gemini.ILlmService;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compacts long session histories into a rolling summary in the background.
+ * Once a history reaches the trigger size, every message except the most recent ones
+ * is summarized by the LLM on a background thread and then replaced by a single
+ * summary message at the start of the history. A previous summary is folded into the
+ * next one, so the history always starts with at most one summary. Scheduling never
+ * blocks the caller: a session already waiting is not queued twice, and sessions that
+ * do not fit in the queue are retried on their next message. If the history changed
+ * underneath the summary (cleared or rotated), the summary is discarded.
+ */
+@Slf4j
+public class HistorySummarizer implements AutoCloseable {
+
+  /**
+   * Metadata key on a summary message holding the number of messages it covers.
+   */
+  public static final String SUMMARIZED_COUNT_KEY = "summarizedMessages";
+
+  /**
+   * Replaces the oldest messages of a session with a summary, as
+   * {@link SimpleSession#compactHistory(List, IMessage)} does. A session manager supplies
+   * its own so that it can record the compaction along with the session's other changes.
+   */
+  public interface HistoryCompactor {
+
+    /**
+     * Replaces the oldest messages of a session with a summary.
+     *
+     * @param session the session
+     * @param summarized the messages the summary covers, oldest first
+     * @param summary the summary message
+     * @return true if the history was compacted, false if it changed since summarized was read
+     */
+    boolean compact(SimpleSession session, List<IMessage> summarized, IMessage summary);
+  }
+
+  private static final String INSTRUCTION =
+      "Summarize the earlier part of the conversation below so that it can replace it. "
+      + "Keep facts, decisions, user preferences, identifiers and open questions. "
+      + "Reply with the summary only.";
+
+  private final ILlmService llmService;
+  private final SummarizationConfig config;
+  private final Executor executor;
+  private final ExecutorService ownedExecutor;
+  private final Set<SimpleSession> pending = ConcurrentHashMap.newKeySet();
+  private final LongAdder compactions = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder skipped = new LongAdder();
+
+  /**
+   * Creates a summarizer with its own background thread.
+   *
+   * @param llmService the service that writes summaries
+   * @param config the summarization configuration
+   */
+  public HistorySummarizer(ILlmService llmService, SummarizationConfig config) {
+    this(llmService, config, createDefaultExecutor(config.getMaxPendingSessions()), true);
+  }
+
+  /**
+   * Creates a summarizer that runs on the given executor.
+   *
+   * @param llmService the service that writes summaries
+   * @param config the summarization configuration
+   * @param executor runs summarizations; it may reject work when saturated
+   */
+  public HistorySummarizer(ILlmService llmService, SummarizationConfig config, Executor executor) {
+    this(llmService, config, executor, false);
+  }
+
+  private HistorySummarizer(ILlmService llmService, SummarizationConfig config, Executor executor,
+      boolean owned) {
+    this.llmService = llmService;
+    this.config = config;
+    this.executor = executor;
+    this.ownedExecutor = owned ? (ExecutorService) executor : null;
+  }
+
+  /**
+   * Schedules a summarization if the session's history has reached the trigger size.
+   * Returns immediately.
+   *
+   * @param session the session
+   * @return true if a summarization was scheduled
+   */
+  public boolean onMessageAdded(SimpleSession session) {
+    return onMessageAdded(session, SimpleSession::compactHistory);
+  }
+
+  /**
+   * Schedules a summarization if the session's history has reached the trigger size.
+   * Returns immediately.
+   *
+   * @param session the session
+   * @param compactor replaces the summarized messages
+   * @return true if a summarization was scheduled
+   */
+  public boolean onMessageAdded(SimpleSession session, HistoryCompactor compactor) {
+    if (session.getMessageCount() < config.getTriggerMessages() || !pending.add(session)) {
+      return false;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          compact(session, compactor);
+        } catch (RuntimeException e) {
+          failures.increment();
+          log.warn("Failed to summarize history of session {}: {}", session.getId(), e.getMessage());
+        } finally {
+          pending.remove(session);
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException e) {
+      pending.remove(session);
+      skipped.increment();
+      log.debug("Summarizer is saturated; session {} is retried on its next message", session.getId());
+      return false;
+    }
+  }
+
+  /**
+   * Summarizes a session's older messages on the calling thread.
+   *
+   * @param session the session
+   * @return true if older messages were replaced by a summary
+   */
+  public boolean compact(SimpleSession session) {
+    return compact(session, SimpleSession::compactHistory);
+  }
+
+  /**
+   * Summarizes a session's older messages on the calling thread.
+   *
+   * @param session the session
+   * @param compactor replaces the summarized messages
+   * @return true if older messages were replaced by a summary
+   */
+  public boolean compact(SimpleSession session, HistoryCompactor compactor) {
+    List<IMessage> history = session.getMessageHistory();
+    int count = history.size() - config.getKeepRecentMessages();
+    if (history.size() < config.getTriggerMessages() || count < 2) {
+      return false;
+    }
+    List<IMessage> older = history.subList(0, count);
+    String summary = llmService.generateResponse(buildPrompt(older), Map.of());
+    // The LLM service reports failures as responses starting with "Error:"
+    if (summary == null || summary.isBlank() || summary.startsWith("Error:")) {
+      failures.increment();
+      log.warn("No summary for session {}; history left as is: {}", session.getId(), summary);
+      return false;
+    }
+
+    SimpleMessage message = new SimpleMessage(UUID.randomUUID().toString(), SimpleMessage.SENDER_AGENT,
+        summary.trim(), older.get(count - 1).getTimestamp(), SimpleMessage.TYPE_SUMMARY);
+    message.setMetadataValue(SUMMARIZED_COUNT_KEY, summarizedCount(older));
+    if (!compactor.compact(session, older, message)) {
+      log.debug("History of session {} changed while summarizing; summary discarded", session.getId());
+      return false;
+    }
+    compactions.increment();
+    log.debug("Summarized {} messages of session {}", count, session.getId());
+    return true;
+  }
+
+  /**
+   * Gets the number of histories compacted so far.
+   *
+   * @return the compaction count
+   */
+  public long getCompactionCount() {
+    return compactions.sum();
+  }
+
+  /**
+   * Gets the number of summarizations that failed or returned nothing.
+   *
+   * @return the failure count
+   */
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  /**
+   * Gets the number of summarizations skipped because the executor was saturated.
+   *
+   * @return the skip count
+   */
+  public long getSkippedCount() {
+    return skipped.sum();
+  }
+
+  /**
+   * Gets the number of sessions waiting for or undergoing summarization.
+   *
+   * @return the session count
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Stops the summarizer's own thread; pending summaries are abandoned.
+   */
+  @Override
+  public void close() {
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdownNow();
+    }
+  }
+
+  private String buildPrompt(List<IMessage> older) {
+    StringBuilder transcript = new StringBuilder();
+    int summaryEnd = 0;
+    for (IMessage message : older) {
+      if (SimpleMessage.TYPE_SUMMARY.equals(message.getType())) {
+        transcript.append("Summary so far: ");
+      } else {
+        transcript.append(message.isFromUser() ? "User: " : "Assistant: ");
+      }
+      transcript.append(message.getContent()).append('\n');
+      if (SimpleMessage.TYPE_SUMMARY.equals(message.getType())) {
+        summaryEnd = transcript.length();
+      }
+    }
+    int maxChars = config.getMaxPromptChars();
+    int overflow = transcript.length() - maxChars;
+    if (overflow > 0) {
+      // Cut the oldest messages after the previous summary, which already condenses
+      // everything before them; a summary too long by itself loses its middle instead
+      int from = summaryEnd <= maxChars ? summaryEnd : maxChars / 2;
+      transcript.delete(from, from + overflow);
+    }
+    return INSTRUCTION + "\n\n" + transcript;
+  }
+
+  private static int summarizedCount(List<IMessage> older) {
+    int count = 0;
+    for (IMessage message : older) {
+      Object covered = message.getMetadataValue(SUMMARIZED_COUNT_KEY);
+      count += SimpleMessage.TYPE_SUMMARY.equals(message.getType()) && covered instanceof Number
+          ? ((Number) covered).intValue() : 1;
+    }
+    return count;
+  }
+
+  private static ExecutorService createDefaultExecutor(int queueSize) {
+    return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+        runnable -> {
+          Thread thread = new Thread(runnable, "session-summarizer");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+}
@@ -0,0 +1,142 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolCreator;
+import com.arv.framework.adk.interfaces.tool.IToolInput;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.interfaces.tool.IToolResult;
+import java.util.Collections;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stand-in for a tool that has not been created yet.
+ * Identity and metadata come from the tool's creator, so the tool can be registered,
+ * indexed and offered to the LLM without being instantiated. The real tool is created
+ * on the first call that needs it and used for every call after that.
+ */
+@Slf4j
+public final class LazyTool implements ITool {
+
+  private final IToolCreator creator;
+  private final Map<String, Object> config;
+  private final IToolMetadata metadata;
+  private volatile ITool delegate;
+  private volatile boolean enabled = true;
+
+  /**
+   * Creates a lazy tool with an empty configuration.
+   *
+   * @param creator the creator of the real tool
+   */
+  public LazyTool(IToolCreator creator) {
+    this(creator, Collections.emptyMap());
+  }
+
+  /**
+   * Creates a lazy tool.
+   *
+   * @param creator the creator of the real tool
+   * @param config the configuration passed to the creator
+   */
+  public LazyTool(IToolCreator creator, Map<String, Object> config) {
+    this.creator = creator;
+    this.config = config;
+    this.metadata = creator.getToolMetadata();
+  }
+
+  /**
+   * Returns the real tool behind a lazy tool, creating it if needed.
+   * Other tools are returned unchanged.
+   *
+   * @param tool the tool
+   * @return the tool to execute
+   * @throws IllegalStateException if the real tool cannot be created
+   */
+  public static ITool unwrap(ITool tool) {
+    return tool instanceof LazyTool ? ((LazyTool) tool).getDelegate() : tool;
+  }
+
+  /**
+   * Gets the real tool, creating it on the first call.
+   *
+   * @return the real tool
+   * @throws IllegalStateException if the creator fails or returns no tool
+   */
+  public ITool getDelegate() {
+    ITool tool = delegate;
+    if (tool != null) {
+      return tool;
+    }
+    synchronized (this) {
+      if (delegate == null) {
+        ITool created;
+        try {
+          created = creator.createTool(config);
+        } catch (RuntimeException e) {
+          throw new IllegalStateException(
+              "Failed to create tool " + creator.getToolType() + ": " + e.getMessage(), e);
+        }
+        if (created == null) {
+          throw new IllegalStateException("Tool creator returned no tool: " + creator.getToolType());
+        }
+        created.setEnabled(enabled);
+        log.debug("Created tool {} on first use", creator.getToolType());
+        delegate = created;
+      }
+      return delegate;
+    }
+  }
+
+  /**
+   * Checks whether the real tool has been created.
+   *
+   * @return true once the tool exists
+   */
+  public boolean isCreated() {
+    return delegate != null;
+  }
+
+  @Override
+  public String getId() {
+    return metadata.getId();
+  }
+
+  @Override
+  public String getName() {
+    return metadata.getName();
+  }
+
+  @Override
+  public String getDescription() {
+    return metadata.getDescription();
+  }
+
+  @Override
+  public IToolResult execute(IToolInput input) {
+    return getDelegate().execute(input);
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public synchronized void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    if (delegate != null) {
+      delegate.setEnabled(enabled);
+    }
+  }
+
+  @Override
+  public IToolMetadata getMetadata() {
+    return metadata;
+  }
+
+  @Override
+  public boolean validateInput(IToolInput input) {
+    return getDelegate().validateInput(input);
+  }
+}
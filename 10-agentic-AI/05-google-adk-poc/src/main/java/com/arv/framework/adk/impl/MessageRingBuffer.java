@@ -0,0 +1,155 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.session.IMessage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded message history backed by a ring buffer.
+ * Appends are O(1) and overwrite the oldest message once the buffer is full, handing
+ * it to an optional eviction callback first. Appends and clears are serialized; reads
+ * never lock. A reader copies the slots it wants and then discards any that a
+ * concurrent append may have overwritten, so reading the last k messages costs O(k).
+ */
+public final class MessageRingBuffer {
+
+  private final AtomicReferenceArray<IMessage> slots;
+  private final int capacity;
+  private final Consumer<IMessage> onEvict;
+
+  /** Number of messages ever appended; the next message goes to slot tail % capacity. */
+  private volatile long tail;
+  /** Number of appends started; runs one ahead of tail while a slot is being overwritten. */
+  private volatile long claimed;
+  /** Sequence number of the first message still part of the history after a clear. */
+  private volatile long head;
+
+  /**
+   * Creates a ring buffer that drops evicted messages.
+   *
+   * @param capacity the maximum number of messages kept
+   */
+  public MessageRingBuffer(int capacity) {
+    this(capacity, null);
+  }
+
+  /**
+   * Creates a ring buffer.
+   *
+   * @param capacity the maximum number of messages kept
+   * @param onEvict called with each message pushed out by a newer one, or null
+   */
+  public MessageRingBuffer(int capacity, Consumer<IMessage> onEvict) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.capacity = capacity;
+    this.onEvict = onEvict;
+  }
+
+  /**
+   * Appends a message, evicting the oldest one if the buffer is full.
+   *
+   * @param message the message to append
+   */
+  public synchronized void append(IMessage message) {
+    long sequence = tail;
+    int index = (int) (sequence % capacity);
+    if (sequence - head >= capacity) {
+      IMessage evicted = slots.get(index);
+      if (onEvict != null && evicted != null) {
+        onEvict.accept(evicted);
+      }
+    }
+    claimed = sequence + 1;
+    slots.set(index, message);
+    tail = sequence + 1;
+  }
+
+  /**
+   * Removes every message without passing them to the eviction callback.
+   */
+  public synchronized void clear() {
+    head = tail;
+    for (int i = 0; i < capacity; i++) {
+      slots.set(i, null);
+    }
+  }
+
+  /**
+   * Gets the number of messages held.
+   *
+   * @return the message count
+   */
+  public int size() {
+    long end = tail;
+    return (int) (end - firstRetained(end));
+  }
+
+  /**
+   * Gets the maximum number of messages held.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets the total number of messages ever appended, including evicted and cleared ones.
+   *
+   * @return the append count
+   */
+  public long getAppendCount() {
+    return tail;
+  }
+
+  /**
+   * Gets every message held, oldest first.
+   *
+   * @return an immutable list of messages
+   */
+  public List<IMessage> toList() {
+    return recent(capacity);
+  }
+
+  /**
+   * Gets the most recent messages, oldest first.
+   *
+   * @param count the maximum number of messages to return
+   * @return an immutable list of at most count messages
+   */
+  public List<IMessage> recent(int count) {
+    if (count <= 0) {
+      return Collections.emptyList();
+    }
+    long end = tail;
+    long start = Math.max(firstRetained(end), end - count);
+    if (start >= end) {
+      return Collections.emptyList();
+    }
+
+    IMessage[] copy = new IMessage[(int) (end - start)];
+    for (long sequence = start; sequence < end; sequence++) {
+      copy[(int) (sequence - start)] = slots.get((int) (sequence % capacity));
+    }
+
+    // Slots reused by appends started since tail was read may have been overwritten
+    // while copying; so may everything before a concurrent clear
+    long safeStart = Math.max(claimed - capacity, head);
+    if (safeStart > start) {
+      int skip = (int) Math.min(safeStart - start, copy.length);
+      copy = Arrays.copyOfRange(copy, skip, copy.length);
+    }
+    return Collections.unmodifiableList(Arrays.asList(copy));
+  }
+
+  private long firstRetained(long end) {
+    return Math.max(head, end - capacity);
+  }
+}
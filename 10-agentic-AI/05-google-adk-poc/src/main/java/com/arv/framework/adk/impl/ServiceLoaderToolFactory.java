@@ -0,0 +1,167 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.core.IToolRegistry;
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolCreator;
+import com.arv.framework.adk.interfaces.tool.IToolFactory;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tool factory backed by ServiceLoader.
+ * Tool creators listed in META-INF/services/com.arv.framework.adk.interfaces.tool.IToolCreator
+ * are discovered on first use. Discovery only instantiates the creators, which are cheap;
+ * tools themselves are created on demand, and {@link #registerLazyTools} registers every
+ * discovered type as a {@link LazyTool} so startup cost does not grow with the number of tools.
+ */
+@Slf4j
+public class ServiceLoaderToolFactory implements IToolFactory {
+
+  /**
+   * Configuration key naming the tool type in {@link #createTool(Map)}.
+   */
+  public static final String TYPE_KEY = "type";
+
+  private final ClassLoader classLoader;
+  private final Map<String, IToolCreator> creators = new ConcurrentHashMap<>();
+  private volatile boolean discovered;
+
+  /**
+   * Creates a factory that discovers creators through the context class loader.
+   */
+  public ServiceLoaderToolFactory() {
+    this(Thread.currentThread().getContextClassLoader());
+  }
+
+  /**
+   * Creates a factory that discovers creators through the given class loader.
+   *
+   * @param classLoader the class loader to search
+   */
+  public ServiceLoaderToolFactory(ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
+  @Override
+  public ITool createTool(Class<? extends ITool> toolClass) {
+    try {
+      return toolClass.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Cannot instantiate tool class: " + toolClass.getName(), e);
+    }
+  }
+
+  @Override
+  public ITool createTool(Map<String, Object> config) {
+    Object type = config.get(TYPE_KEY);
+    if (type == null) {
+      throw new IllegalArgumentException("Tool configuration has no " + TYPE_KEY);
+    }
+    IToolCreator creator = requireCreator(type.toString());
+    if (!creator.validateConfig(config)) {
+      throw new IllegalArgumentException("Invalid configuration for tool type: " + type);
+    }
+    return creator.createTool(config);
+  }
+
+  @Override
+  public ITool createTool(String toolType) {
+    return requireCreator(toolType).createTool(Collections.emptyMap());
+  }
+
+  /**
+   * Creates a lazy tool for a type; the real tool is created on its first execution.
+   *
+   * @param toolType the tool type
+   * @return the lazy tool
+   */
+  public LazyTool createLazyTool(String toolType) {
+    return new LazyTool(requireCreator(toolType));
+  }
+
+  /**
+   * Registers a lazy tool for every discovered tool type.
+   *
+   * @param registry the registry to populate
+   * @return the number of tools registered
+   */
+  public int registerLazyTools(IToolRegistry registry) {
+    List<ITool> tools = new ArrayList<>();
+    for (IToolCreator creator : getCreators().values()) {
+      tools.add(new LazyTool(creator));
+    }
+    return registry.registerTools(tools);
+  }
+
+  @Override
+  public void registerToolCreator(String toolType, IToolCreator creator) {
+    getCreators().put(toolType, creator);
+  }
+
+  @Override
+  public void unregisterToolCreator(String toolType) {
+    getCreators().remove(toolType);
+  }
+
+  @Override
+  public List<String> getAvailableToolTypes() {
+    return new ArrayList<>(getCreators().keySet());
+  }
+
+  @Override
+  public boolean isToolTypeSupported(String toolType) {
+    return toolType != null && getCreators().containsKey(toolType);
+  }
+
+  @Override
+  public IToolMetadata getToolMetadata(String toolType) {
+    IToolCreator creator = toolType != null ? getCreators().get(toolType) : null;
+    return creator != null ? creator.getToolMetadata() : null;
+  }
+
+  private IToolCreator requireCreator(String toolType) {
+    IToolCreator creator = toolType != null ? getCreators().get(toolType) : null;
+    if (creator == null) {
+      throw new IllegalArgumentException("Unsupported tool type: " + toolType);
+    }
+    return creator;
+  }
+
+  /**
+   * Gets the creators, running ServiceLoader discovery on the first call.
+   * Creators that fail to load are skipped so one bad jar does not hide the others.
+   *
+   * @return the creators by tool type
+   */
+  private Map<String, IToolCreator> getCreators() {
+    if (!discovered) {
+      synchronized (this) {
+        if (!discovered) {
+          Iterator<IToolCreator> loaded = ServiceLoader.load(IToolCreator.class, classLoader).iterator();
+          while (true) {
+            try {
+              if (!loaded.hasNext()) {
+                break;
+              }
+              IToolCreator creator = loaded.next();
+              creators.putIfAbsent(creator.getToolType(), creator);
+            } catch (ServiceConfigurationError e) {
+              log.warn("Skipping tool creator: {}", e.getMessage());
+            }
+          }
+          log.debug("Discovered {} tool creators", creators.size());
+          discovered = true;
+        }
+      }
+    }
+    return creators;
+  }
+}
@@ -0,0 +1,86 @@
+package com.arv.framework.adk.impl;
+
+/**
+ * Configuration for session idle passivation and expiry.
+ * Durations are in milliseconds; a duration of 0 disables that limit.
+ */
+public class SessionExpiryConfig {
+
+  private long idleTimeoutMs = 30L * 60 * 1000;
+  private long idleExpiryMs = 2L * 60 * 60 * 1000;
+  private long maxLifetimeMs = 0L;
+  private long tickMs = 1000L;
+
+  /**
+   * Creates a configuration with default values: sessions go idle after 30 minutes
+   * without activity and expire after a further 2 hours.
+   *
+   * @return a new SessionExpiryConfig
+   */
+  public static SessionExpiryConfig defaults() {
+    return new SessionExpiryConfig();
+  }
+
+  /**
+   * Sets how long a session may go without activity before it becomes IDLE.
+   *
+   * @param idleTimeoutMs the duration in milliseconds
+   * @return this config for method chaining
+   */
+  public SessionExpiryConfig withIdleTimeoutMs(long idleTimeoutMs) {
+    this.idleTimeoutMs = Math.max(0L, idleTimeoutMs);
+    return this;
+  }
+
+  /**
+   * Sets how long a session may stay IDLE before it EXPIRES.
+   *
+   * @param idleExpiryMs the duration in milliseconds
+   * @return this config for method chaining
+   */
+  public SessionExpiryConfig withIdleExpiryMs(long idleExpiryMs) {
+    this.idleExpiryMs = Math.max(0L, idleExpiryMs);
+    return this;
+  }
+
+  /**
+   * Sets the absolute lifetime of a session, measured from its creation.
+   *
+   * @param maxLifetimeMs the duration in milliseconds
+   * @return this config for method chaining
+   */
+  public SessionExpiryConfig withMaxLifetimeMs(long maxLifetimeMs) {
+    this.maxLifetimeMs = Math.max(0L, maxLifetimeMs);
+    return this;
+  }
+
+  /**
+   * Sets the resolution of the expiry timer.
+   *
+   * @param tickMs the tick length in milliseconds
+   * @return this config for method chaining
+   */
+  public SessionExpiryConfig withTickMs(long tickMs) {
+    if (tickMs <= 0) {
+      throw new IllegalArgumentException("Tick must be positive");
+    }
+    this.tickMs = tickMs;
+    return this;
+  }
+
+  public long getIdleTimeoutMs() {
+    return idleTimeoutMs;
+  }
+
+  public long getIdleExpiryMs() {
+    return idleExpiryMs;
+  }
+
+  public long getMaxLifetimeMs() {
+    return maxLifetimeMs;
+  }
+
+  public long getTickMs() {
+    return tickMs;
+  }
+}
@@ -0,0 +1,325 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.interfaces.session.ISessionExpiryListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Moves sessions to IDLE and EXPIRED on a timing wheel.
+ * Each tracked session has an inactivity timer and, if configured, a lifetime timer.
+ * Activity does not touch the wheel: when the inactivity timer fires it compares the
+ * deadline with the session's last activity and pushes itself back if the session has
+ * been used since. Tracking, untracking and each fired timer are O(1), and nothing
+ * ever scans the whole session map.
+ */
+@Slf4j
+public class SessionExpiryTracker implements AutoCloseable {
+
+  private final SessionExpiryConfig config;
+  private final LongSupplier clock;
+  private final TimingWheel<Entry> wheel;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final List<ISessionExpiryListener> listeners = new CopyOnWriteArrayList<>();
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Creates a tracker using the system clock.
+   *
+   * @param config the expiry configuration
+   */
+  public SessionExpiryTracker(SessionExpiryConfig config) {
+    this(config, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a tracker with an explicit clock.
+   *
+   * @param config the expiry configuration
+   * @param clock the time source in milliseconds, matching session timestamps
+   */
+  public SessionExpiryTracker(SessionExpiryConfig config, LongSupplier clock) {
+    this.config = config;
+    this.clock = clock;
+    this.wheel = new TimingWheel<>(config.getTickMs(), clock.getAsLong());
+  }
+
+  /**
+   * Adds a listener for idle and expiry events.
+   *
+   * @param listener the listener
+   */
+  public void addListener(ISessionExpiryListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener.
+   *
+   * @param listener the listener
+   */
+  public void removeListener(ISessionExpiryListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Starts tracking a session, replacing any earlier session with the same ID.
+   *
+   * @param session the session
+   */
+  public void track(ISession session) {
+    Entry entry = new Entry(session);
+    synchronized (wheel) {
+      Entry previous = entries.put(session.getId(), entry);
+      if (previous != null) {
+        cancel(previous);
+      }
+      long inactivityDeadline = inactivityDeadline(session.getLastActivityAt(), false);
+      if (inactivityDeadline != Long.MAX_VALUE) {
+        entry.inactivityTimer = wheel.schedule(entry, inactivityDeadline);
+      }
+      if (config.getMaxLifetimeMs() > 0) {
+        entry.lifetimeTimer = wheel.schedule(entry, session.getCreatedAt() + config.getMaxLifetimeMs());
+      }
+    }
+  }
+
+  /**
+   * Stops tracking a session.
+   *
+   * @param sessionId the session ID
+   * @return true if the session was tracked
+   */
+  public boolean untrack(String sessionId) {
+    synchronized (wheel) {
+      Entry entry = entries.remove(sessionId);
+      if (entry == null) {
+        return false;
+      }
+      cancel(entry);
+      return true;
+    }
+  }
+
+  /**
+   * Gets the number of tracked sessions.
+   *
+   * @return the number of sessions
+   */
+  public int getTrackedCount() {
+    return entries.size();
+  }
+
+  /**
+   * Advances the timers to the clock's current time.
+   *
+   * @return the number of sessions that expired
+   */
+  public int advance() {
+    return advanceTo(clock.getAsLong());
+  }
+
+  /**
+   * Advances the timers to the given time, moving due sessions to IDLE or EXPIRED
+   * and notifying listeners. Listeners run on the calling thread, outside the wheel lock.
+   *
+   * @param nowMs the current time in milliseconds
+   * @return the number of sessions that expired
+   */
+  public int advanceTo(long nowMs) {
+    List<TimingWheel.Timeout<Entry>> due = new ArrayList<>();
+    synchronized (wheel) {
+      wheel.advance(nowMs, due::add);
+    }
+
+    int expired = 0;
+    for (TimingWheel.Timeout<Entry> timeout : due) {
+      Entry entry = timeout.getItem();
+      if (timeout == entry.lifetimeTimer) {
+        expired += expire(entry) ? 1 : 0;
+      } else {
+        expired += onInactivity(entry, nowMs) ? 1 : 0;
+      }
+    }
+    return expired;
+  }
+
+  /**
+   * Starts a daemon thread that advances the timers once per tick.
+   *
+   * @return this tracker
+   */
+  public synchronized SessionExpiryTracker start() {
+    if (scheduler == null) {
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-expiry");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long tickMs = config.getTickMs();
+      scheduler.scheduleAtFixedRate(this::advanceSafely, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+    return this;
+  }
+
+  /**
+   * Stops the background thread, if started.
+   */
+  @Override
+  public synchronized void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  private void advanceSafely() {
+    try {
+      advance();
+    } catch (RuntimeException e) {
+      log.error("Error advancing session expiry timers: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Handles a fired inactivity timer: reschedules it if the session has seen activity or
+   * is processing a turn, otherwise moves the session to IDLE or expires it.
+   *
+   * @return true if the session expired
+   */
+  private boolean onInactivity(Entry entry, long nowMs) {
+    ISession session = entry.session;
+    if (session.getState().isTerminated()) {
+      untrack(session.getId());
+      return false;
+    }
+
+    long lastActivity = session.getLastActivityAt();
+    long expireAt = inactivityDeadline(lastActivity, true);
+    long idleTimeout = config.getIdleTimeoutMs();
+    if (nowMs >= expireAt) {
+      if (markExpired(session)) {
+        return expire(entry);
+      }
+      // A long turn is not inactivity; the turn updates the last activity when it ends
+      reschedule(entry, nowMs + (idleTimeout > 0 ? idleTimeout : config.getIdleExpiryMs()));
+      return false;
+    }
+    if (idleTimeout <= 0 || nowMs < lastActivity + idleTimeout) {
+      // Used since the timer was set
+      reschedule(entry, idleTimeout > 0 ? lastActivity + idleTimeout : expireAt);
+      return false;
+    }
+
+    // A session busy processing a request cannot go idle; it is checked again later
+    SessionState state = session.getState();
+    if (state != SessionState.IDLE && session.compareAndSetState(state, SessionState.IDLE)) {
+      log.debug("Session {} is idle", session.getId());
+      for (ISessionExpiryListener listener : listeners) {
+        listener.onSessionIdle(session);
+      }
+    }
+    // Without an expiry, keep checking so the session can go idle again after reactivation
+    reschedule(entry, Math.min(expireAt, nowMs + idleTimeout));
+    return false;
+  }
+
+  /**
+   * Gets when the inactivity timer should next fire.
+   *
+   * @param lastActivity the session's last activity
+   * @param idle whether the session is past its idle timeout
+   * @return the deadline, or Long.MAX_VALUE if inactivity never matters
+   */
+  private long inactivityDeadline(long lastActivity, boolean idle) {
+    long idleTimeout = config.getIdleTimeoutMs();
+    if (idleTimeout > 0 && !idle) {
+      return lastActivity + idleTimeout;
+    }
+    long idleExpiry = config.getIdleExpiryMs();
+    return idleExpiry > 0 ? lastActivity + idleTimeout + idleExpiry : Long.MAX_VALUE;
+  }
+
+  /**
+   * Moves an inactive session to EXPIRED, unless it is processing a turn. Compared and
+   * set, so a turn starting at the same time either keeps the session or is refused.
+   *
+   * @return false if the session is processing a turn
+   */
+  private static boolean markExpired(ISession session) {
+    SessionState state = session.getState();
+    while (state != SessionState.PROCESSING) {
+      if (!state.canTransitionTo(SessionState.EXPIRED)
+          || session.compareAndSetState(state, SessionState.EXPIRED)) {
+        return true;
+      }
+      state = session.getState();
+    }
+    return false;
+  }
+
+  private void reschedule(Entry entry, long deadlineMs) {
+    if (deadlineMs == Long.MAX_VALUE) {
+      return;
+    }
+    synchronized (wheel) {
+      if (entries.get(entry.session.getId()) == entry) {
+        wheel.reschedule(entry.inactivityTimer, deadlineMs);
+      }
+    }
+  }
+
+  /**
+   * Expires a session and notifies listeners, unless it was untracked meanwhile.
+   *
+   * @return true if the session expired
+   */
+  private boolean expire(Entry entry) {
+    ISession session = entry.session;
+    synchronized (wheel) {
+      if (!entries.remove(session.getId(), entry)) {
+        return false;
+      }
+      cancel(entry);
+    }
+    session.transitionTo(SessionState.EXPIRED);
+    log.debug("Session {} expired", session.getId());
+    for (ISessionExpiryListener listener : listeners) {
+      listener.onSessionExpired(session);
+    }
+    return true;
+  }
+
+  private void cancel(Entry entry) {
+    if (entry.inactivityTimer != null) {
+      wheel.cancel(entry.inactivityTimer);
+    }
+    if (entry.lifetimeTimer != null) {
+      wheel.cancel(entry.lifetimeTimer);
+    }
+  }
+
+  /**
+   * A tracked session and its timers.
+   */
+  private static final class Entry {
+
+    private final ISession session;
+    private TimingWheel.Timeout<Entry> inactivityTimer;
+    private TimingWheel.Timeout<Entry> lifetimeTimer;
+
+    Entry(ISession session) {
+      this.session = session;
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.ISession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary indexes of sessions by user ID and by state.
+ * Each session's entry is changed inside a compute on its ID, so concurrent updates for
+ * one session are applied one at a time, and the session's user and state are read under
+ * that lock. Whichever update runs last therefore leaves the session indexed as it
+ * currently is, even if the notifications of two quick state changes overtake each other.
+ * Updates only apply to the session instance that was indexed, so a session that was
+ * replaced or removed cannot put itself back.
+ */
+final class SessionIndex {
+
+  private static final SessionState[] STATES = SessionState.values();
+
+  /**
+   * What a session was indexed under.
+   */
+  private static final class Entry {
+    private final ISession session;
+    private final String userId;
+    private final SessionState state;
+
+    private Entry(ISession session) {
+      this.session = session;
+      this.userId = session.getUserId();
+      this.state = session.getState();
+    }
+  }
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> byUser = new ConcurrentHashMap<>();
+  private final Map<SessionState, Set<String>> byState = new EnumMap<>(SessionState.class);
+
+  SessionIndex() {
+    for (SessionState state : STATES) {
+      byState.put(state, ConcurrentHashMap.newKeySet());
+    }
+  }
+
+  /**
+   * Indexes a session, replacing any other session indexed under its ID.
+   *
+   * @param session the session
+   */
+  void add(ISession session) {
+    entries.compute(session.getId(), (id, old) -> relink(id, old, new Entry(session)));
+  }
+
+  /**
+   * Re-reads the user and state of an indexed session.
+   *
+   * @param session the session
+   * @return the state it was indexed under, if that changed; null otherwise
+   */
+  SessionState update(ISession session) {
+    SessionState[] previous = new SessionState[1];
+    entries.computeIfPresent(session.getId(), (id, old) -> {
+      if (old.session != session) {
+        return old;
+      }
+      Entry entry = new Entry(session);
+      if (entry.state != old.state) {
+        previous[0] = old.state;
+      }
+      return relink(id, old, entry);
+    });
+    return previous[0];
+  }
+
+  /**
+   * Removes a session, provided it is the one indexed under its ID.
+   *
+   * @param session the session
+   * @return true if it was removed
+   */
+  boolean remove(ISession session) {
+    boolean[] removed = new boolean[1];
+    entries.computeIfPresent(session.getId(), (id, old) -> {
+      if (old.session != session) {
+        return old;
+      }
+      removed[0] = true;
+      return relink(id, old, null);
+    });
+    return removed[0];
+  }
+
+  /**
+   * Removes whatever session is indexed under an ID.
+   *
+   * @param sessionId the session ID
+   */
+  void remove(String sessionId) {
+    entries.computeIfPresent(sessionId, (id, old) -> relink(id, old, null));
+  }
+
+  /**
+   * Gets the IDs of a user's sessions.
+   *
+   * @param userId the user ID
+   * @return a snapshot of the session IDs
+   */
+  List<String> getSessionIds(String userId) {
+    Set<String> ids = userId != null ? byUser.get(userId) : null;
+    return ids != null ? new ArrayList<>(ids) : Collections.emptyList();
+  }
+
+  /**
+   * Gets the IDs of the sessions in a state.
+   *
+   * @param state the state
+   * @return a snapshot of the session IDs
+   */
+  List<String> getSessionIds(SessionState state) {
+    return state != null ? new ArrayList<>(byState.get(state)) : Collections.emptyList();
+  }
+
+  /**
+   * Counts the sessions in a state.
+   *
+   * @param state the state
+   * @return the session count
+   */
+  int count(SessionState state) {
+    return state != null ? byState.get(state).size() : 0;
+  }
+
+  private Entry relink(String sessionId, Entry old, Entry entry) {
+    String oldUser = old != null ? old.userId : null;
+    String newUser = entry != null ? entry.userId : null;
+    if (oldUser != null && !oldUser.equals(newUser)) {
+      byUser.computeIfPresent(oldUser, (user, ids) -> {
+        ids.remove(sessionId);
+        return ids.isEmpty() ? null : ids;
+      });
+    }
+    if (newUser != null && !newUser.equals(oldUser)) {
+      byUser.compute(newUser, (user, ids) -> {
+        Set<String> set = ids != null ? ids : ConcurrentHashMap.newKeySet();
+        set.add(sessionId);
+        return set;
+      });
+    }
+    SessionState oldState = old != null ? old.state : null;
+    SessionState newState = entry != null ? entry.state : null;
+    if (oldState != newState) {
+      if (oldState != null) {
+        byState.get(oldState).remove(sessionId);
+      }
+      if (newState != null) {
+        byState.get(newState).add(sessionId);
+      }
+    }
+    return entry;
+  }
+}
@@ -0,0 +1,240 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.enums.BusySessionPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Lets a session process one message at a time.
+ * The first message for an idle session runs straight away on the caller's thread.
+ * Messages that arrive while it runs are queued, coalesced or rejected according to the
+ * {@link BusySessionPolicy}. A queued turn also runs on its own caller's thread once the
+ * turn ahead of it hands over, so no thread pool is needed and callers get their own
+ * response. The per-session entry is dropped when the session has nothing left to run.
+ */
+@Slf4j
+public class SessionTurnGate {
+
+  /**
+   * Response given to a message that is rejected because its session is busy.
+   */
+  public static final String BUSY_RESPONSE =
+      "This session is busy with another request. Please try again shortly.";
+
+  /**
+   * Default number of turns that may wait behind a running one.
+   */
+  public static final int DEFAULT_MAX_QUEUED = 16;
+
+  private final BusySessionPolicy policy;
+  private final int maxQueued;
+  private final Map<String, Turns> sessions = new ConcurrentHashMap<>();
+  private final LongAdder queued = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * Turns of one session. Guarded by itself.
+   */
+  private static final class Turns {
+    private final ArrayDeque<Batch> waiting = new ArrayDeque<>();
+    private boolean running;
+    /** Set once removed from the session map; callers that still see it must retry. */
+    private boolean closed;
+  }
+
+  /**
+   * Messages processed together as one turn.
+   */
+  private static final class Batch {
+    private final List<String> messages = new ArrayList<>(2);
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private boolean started;
+
+    private Batch(String message) {
+      messages.add(message);
+    }
+  }
+
+  /**
+   * Creates a gate.
+   *
+   * @param policy what to do with messages for a busy session
+   * @param maxQueued how many turns may wait behind a running one before messages are rejected
+   */
+  public SessionTurnGate(BusySessionPolicy policy, int maxQueued) {
+    if (maxQueued < 0) {
+      throw new IllegalArgumentException("Queue limit must not be negative: " + maxQueued);
+    }
+    this.policy = policy;
+    this.maxQueued = maxQueued;
+  }
+
+  /**
+   * Processes a message once its session is free.
+   *
+   * @param sessionId the session ID
+   * @param message the message
+   * @param turn processes a message, or several coalesced ones joined by newlines
+   * @return the turn's response, or {@link #BUSY_RESPONSE} if the message was rejected
+   */
+  public Object process(String sessionId, String message, Function<String, Object> turn) {
+    Turns turns;
+    Batch batch = null;
+    Batch joined = null;
+    while (true) {
+      turns = sessions.computeIfAbsent(sessionId, id -> new Turns());
+      synchronized (turns) {
+        if (turns.closed) {
+          continue;
+        }
+        if (!turns.running) {
+          turns.running = true;
+          break;
+        }
+        Batch last = turns.waiting.peekLast();
+        if (policy == BusySessionPolicy.COALESCE && last != null) {
+          last.messages.add(message);
+          coalesced.increment();
+          joined = last;
+          break;
+        }
+        if (policy == BusySessionPolicy.REJECT || turns.waiting.size() >= maxQueued) {
+          rejected.increment();
+          log.debug("Session {} is busy; message rejected", sessionId);
+          return BUSY_RESPONSE;
+        }
+        batch = new Batch(message);
+        turns.waiting.addLast(batch);
+        queued.increment();
+        if (!awaitStart(turns, batch)) {
+          return BUSY_RESPONSE;
+        }
+        break;
+      }
+    }
+    if (joined != null) {
+      return await(joined);
+    }
+
+    Object result = null;
+    RuntimeException failure = null;
+    try {
+      result = turn.apply(batch != null ? String.join("\n", batch.messages) : message);
+      return result;
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      handOver(sessionId, turns);
+      if (batch != null) {
+        if (failure != null) {
+          batch.result.completeExceptionally(failure);
+        } else {
+          batch.result.complete(result);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether a session is processing a message.
+   *
+   * @param sessionId the session ID
+   * @return true if busy
+   */
+  public boolean isBusy(String sessionId) {
+    return sessions.containsKey(sessionId);
+  }
+
+  /**
+   * Gets the number of messages that had to wait for their session.
+   *
+   * @return the message count
+   */
+  public long getQueuedCount() {
+    return queued.sum();
+  }
+
+  /**
+   * Gets the number of messages merged into a waiting turn.
+   *
+   * @return the message count
+   */
+  public long getCoalescedCount() {
+    return coalesced.sum();
+  }
+
+  /**
+   * Gets the number of messages rejected because their session was busy.
+   *
+   * @return the message count
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * Gets the policy for messages that arrive while their session is busy.
+   *
+   * @return the policy
+   */
+  public BusySessionPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Waits, holding the lock of turns, until the batch is handed the session.
+   *
+   * @return false if interrupted before the batch started; it is then withdrawn
+   */
+  private boolean awaitStart(Turns turns, Batch batch) {
+    while (!batch.started) {
+      try {
+        turns.wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        if (!batch.started) {
+          turns.waiting.remove(batch);
+          batch.result.complete(BUSY_RESPONSE);
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void handOver(String sessionId, Turns turns) {
+    synchronized (turns) {
+      Batch next = turns.waiting.pollFirst();
+      if (next != null) {
+        next.started = true;
+        turns.notifyAll();
+        return;
+      }
+      turns.running = false;
+      turns.closed = true;
+      sessions.remove(sessionId, turns);
+    }
+  }
+
+  private static Object await(Batch batch) {
+    try {
+      return batch.result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
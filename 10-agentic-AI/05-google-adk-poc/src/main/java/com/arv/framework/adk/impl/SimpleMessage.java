@@ -0,0 +1,412 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.tools.SlotMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Simple implementation of IMessage, laid out to keep long histories small.
+ * UUID message IDs are held as two longs and only formatted when asked for. Sender and
+ * type strings are interned, so every message shares a single copy of "user" or "text".
+ * Metadata is only allocated once a value is set, and numbers are stored unboxed. Content
+ * can be {@link #compactContent() compacted} to UTF-8 when that is smaller than the
+ * String, which is the case for mostly Latin text with a few wider characters such as
+ * typographic quotes.
+ */
+public class SimpleMessage implements IMessage {
+
+  /**
+   * Sender of messages typed by the user.
+   */
+  public static final String SENDER_USER = "user";
+
+  /**
+   * Sender of messages produced by the agent.
+   */
+  public static final String SENDER_AGENT = "agent";
+
+  /**
+   * Default message type.
+   */
+  public static final String TYPE_TEXT = "text";
+
+  /**
+   * Type of a message that stands in for earlier messages it summarizes.
+   */
+  public static final String TYPE_SUMMARY = "summary";
+
+  /** Bounds the intern table in case senders or types are not drawn from a small set. */
+  private static final int MAX_INTERNED = 1024;
+  private static final Map<String, String> INTERNED = new ConcurrentHashMap<>();
+
+  static {
+    for (String value : new String[] {SENDER_USER, SENDER_AGENT, TYPE_TEXT, TYPE_SUMMARY}) {
+      INTERNED.put(value, value);
+    }
+  }
+
+  private final long idHigh;
+  private final long idLow;
+  /** The ID when it is not a canonical UUID string; null otherwise. */
+  private final String customId;
+  /** A String, or its UTF-8 bytes once compacted. */
+  private Object content;
+  private int length;
+  private String sender;
+  private String type;
+  private long timestamp;
+  private int priority;
+  private volatile boolean processed;
+  /** Guarded by this message; null until a value is set. */
+  private SlotMap metadata;
+
+  /**
+   * Creates a text message with a random ID, timestamped now.
+   *
+   * @param sender the sender
+   * @param content the message content
+   */
+  public SimpleMessage(String sender, String content) {
+    UUID id = UUID.randomUUID();
+    this.idHigh = id.getMostSignificantBits();
+    this.idLow = id.getLeastSignificantBits();
+    this.customId = null;
+    this.sender = intern(sender);
+    this.type = TYPE_TEXT;
+    this.timestamp = System.currentTimeMillis();
+    setContent(content);
+  }
+
+  /**
+   * Creates a message.
+   *
+   * @param id the message ID
+   * @param sender the sender
+   * @param content the message content
+   * @param timestamp the creation timestamp
+   * @param type the message type
+   */
+  public SimpleMessage(String id, String sender, String content, long timestamp, String type) {
+    long[] uuid = parseUuid(id);
+    this.idHigh = uuid != null ? uuid[0] : 0L;
+    this.idLow = uuid != null ? uuid[1] : 0L;
+    this.customId = uuid != null ? null : id;
+    this.sender = intern(sender);
+    this.type = intern(type);
+    this.timestamp = timestamp;
+    setContent(content);
+  }
+
+  @Override
+  public String getId() {
+    return customId != null ? customId : new UUID(idHigh, idLow).toString();
+  }
+
+  @Override
+  public String getContent() {
+    Object value = content;
+    return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : (String) value;
+  }
+
+  @Override
+  public void setContent(String content) {
+    this.content = content;
+    this.length = content != null ? content.length() : 0;
+  }
+
+  /**
+   * Stores the content as UTF-8 if that takes less memory than the String, at the cost
+   * of decoding it on each {@link #getContent()}. Suited to messages that are kept
+   * around but rarely read, such as restored or archived history.
+   *
+   * @return this message
+   */
+  public SimpleMessage compactContent() {
+    Object value = content;
+    if (value instanceof String) {
+      String text = (String) value;
+      // Strings with any character above U+00FF take two bytes per character
+      if (!isLatin1(text)) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length < 2 * text.length()) {
+          content = utf8;
+        }
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Creates a message from UTF-8 content, keeping the bytes as they are when that is
+   * more compact than decoding them, as {@link #compactContent()} would.
+   *
+   * @param id the message ID
+   * @param sender the sender
+   * @param content the UTF-8 encoded content, which the message takes over
+   * @param timestamp the creation timestamp
+   * @param type the message type
+   * @return the message
+   */
+  public static SimpleMessage fromUtf8(String id, String sender, byte[] content, long timestamp,
+      String type) {
+    SimpleMessage message = new SimpleMessage(id, sender, null, timestamp, type);
+    int chars = 0;
+    boolean latin1 = true;
+    for (byte b : content) {
+      int unsigned = b & 0xFF;
+      if ((unsigned & 0xC0) != 0x80) {
+        // Lead bytes from 0xF0 start four-byte sequences, which decode to surrogate pairs
+        chars += unsigned >= 0xF0 ? 2 : 1;
+        latin1 &= unsigned < 0xC4;
+      }
+    }
+    if (!latin1 && content.length < 2 * chars) {
+      message.content = content;
+      message.length = chars;
+    } else {
+      message.setContent(new String(content, StandardCharsets.UTF_8));
+    }
+    return message;
+  }
+
+  /**
+   * Gets the content as UTF-8 without re-encoding it if the content is compacted.
+   *
+   * @return a new array with the encoded content, or null if there is no content
+   */
+  public byte[] getContentUtf8() {
+    Object value = content;
+    if (value instanceof byte[]) {
+      return ((byte[]) value).clone();
+    }
+    return value != null ? ((String) value).getBytes(StandardCharsets.UTF_8) : null;
+  }
+
+  /**
+   * Checks whether the content is held as UTF-8 bytes.
+   *
+   * @return true if compacted
+   */
+  public boolean isContentCompacted() {
+    return content instanceof byte[];
+  }
+
+  @Override
+  public String getSender() {
+    return sender;
+  }
+
+  @Override
+  public void setSender(String sender) {
+    this.sender = intern(sender);
+  }
+
+  @Override
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  @Override
+  public void setTimestamp(long timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  @Override
+  public String getType() {
+    return type;
+  }
+
+  @Override
+  public void setType(String type) {
+    this.type = intern(type);
+  }
+
+  @Override
+  public synchronized Map<String, Object> getMetadata() {
+    return metadata != null ? metadata.toUnmodifiableMap() : Collections.emptyMap();
+  }
+
+  @Override
+  public synchronized void setMetadata(Map<String, Object> metadata) {
+    if (metadata == null || metadata.isEmpty()) {
+      this.metadata = null;
+      return;
+    }
+    SlotMap slots = new SlotMap(metadata.size());
+    for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+      if (entry.getKey() != null && entry.getValue() != null) {
+        slots.put(entry.getKey(), entry.getValue());
+      }
+    }
+    this.metadata = slots;
+  }
+
+  @Override
+  public synchronized Object getMetadataValue(String key) {
+    return key != null && metadata != null ? metadata.get(key) : null;
+  }
+
+  @Override
+  public synchronized void setMetadataValue(String key, Object value) {
+    if (key == null) {
+      return;
+    }
+    if (value != null) {
+      metadataSlots().put(key, value);
+    } else if (metadata != null) {
+      metadata.remove(key);
+    }
+  }
+
+  /**
+   * Sets an integral metadata value without boxing.
+   *
+   * @param key the metadata key
+   * @param value the value
+   */
+  public synchronized void setLongMetadata(String key, long value) {
+    metadataSlots().putLong(key, value);
+  }
+
+  /**
+   * Sets a floating point metadata value without boxing.
+   *
+   * @param key the metadata key
+   * @param value the value
+   */
+  public synchronized void setDoubleMetadata(String key, double value) {
+    metadataSlots().putDouble(key, value);
+  }
+
+  /**
+   * Gets a metadata value as a long without boxing.
+   *
+   * @param key the metadata key
+   * @param defaultValue returned if the value is missing or not a number
+   * @return the value
+   */
+  public synchronized long getLongMetadata(String key, long defaultValue) {
+    return metadata != null && metadata.containsKey(key) ? metadata.getLong(key, defaultValue) : defaultValue;
+  }
+
+  /**
+   * Gets a metadata value as a double without boxing.
+   *
+   * @param key the metadata key
+   * @param defaultValue returned if the value is missing or not a number
+   * @return the value
+   */
+  public synchronized double getDoubleMetadata(String key, double defaultValue) {
+    return metadata != null && metadata.containsKey(key) ? metadata.getDouble(key, defaultValue) : defaultValue;
+  }
+
+  @Override
+  public boolean isFromUser() {
+    return SENDER_USER.equalsIgnoreCase(sender);
+  }
+
+  @Override
+  public boolean isFromAgent() {
+    return SENDER_AGENT.equalsIgnoreCase(sender);
+  }
+
+  @Override
+  public int getPriority() {
+    return priority;
+  }
+
+  @Override
+  public void setPriority(int priority) {
+    this.priority = priority;
+  }
+
+  @Override
+  public boolean isProcessed() {
+    return processed;
+  }
+
+  @Override
+  public void markAsProcessed() {
+    this.processed = true;
+  }
+
+  @Override
+  public int getLength() {
+    return length;
+  }
+
+  @Override
+  public String toString() {
+    return sender + ": " + getContent();
+  }
+
+  private SlotMap metadataSlots() {
+    if (metadata == null) {
+      metadata = new SlotMap(2);
+    }
+    return metadata;
+  }
+
+  private static String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    String interned = INTERNED.get(value);
+    if (interned != null) {
+      return interned;
+    }
+    if (INTERNED.size() >= MAX_INTERNED) {
+      return value;
+    }
+    interned = INTERNED.putIfAbsent(value, value);
+    return interned != null ? interned : value;
+  }
+
+  private static boolean isLatin1(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) > 0xFF) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parses a canonical lower-case UUID string.
+   *
+   * @return the most and least significant bits, or null if id is not one
+   */
+  private static long[] parseUuid(String id) {
+    if (id == null || id.length() != 36) {
+      return null;
+    }
+    long high = 0L;
+    long low = 0L;
+    int digits = 0;
+    for (int i = 0; i < 36; i++) {
+      char c = id.charAt(i);
+      if (i == 8 || i == 13 || i == 18 || i == 23) {
+        if (c != '-') {
+          return null;
+        }
+        continue;
+      }
+      int value = Character.digit(c, 16);
+      if (value < 0 || Character.isUpperCase(c)) {
+        return null;
+      }
+      if (digits < 16) {
+        high = (high << 4) | value;
+      } else {
+        low = (low << 4) | value;
+      }
+      digits++;
+    }
+    return new long[] {high, low};
+  }
+}
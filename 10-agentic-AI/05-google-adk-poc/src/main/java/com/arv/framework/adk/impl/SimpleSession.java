@@ -2,38 +2,77 @@ package com.arv.framework.adk.impl;
 
 import com.arv.framework.adk.interfaces.session.ISession;
 import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.IMessageArchive;
 import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.tools.PersistentHashMap;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
 
 /**
  * Simple implementation of ISession.
+ * Message history is a bounded ring buffer: adding a message is O(1) and, once the
+ * history is full, pushes the oldest message out to the optional archive.
+ * Context and metadata are persistent maps swapped atomically on each write, so reading
+ * them returns an immutable snapshot without copying. State changes are compare-and-set
+ * against the legal transitions of {@link SessionState}, and the last activity time only
+ * moves forward, so neither needs a lock. A change listener, normally the session manager,
+ * is told when the user or state changes so that it can keep its indexes current.
  */
 public class SimpleSession implements ISession {
   
+  /**
+   * Default number of messages kept in memory per session.
+   */
+  public static final int DEFAULT_HISTORY_CAPACITY = 1024;
+  
+  private static final AtomicReferenceFieldUpdater<SimpleSession, SessionState> STATE =
+      AtomicReferenceFieldUpdater.newUpdater(SimpleSession.class, SessionState.class, "state");
+  private static final AtomicLongFieldUpdater<SimpleSession> LAST_ACTIVITY =
+      AtomicLongFieldUpdater.newUpdater(SimpleSession.class, "lastActivity");
+  
   private final String sessionId;
   private String userId;
-  private SessionState state;
-  private final List<IMessage> messages;
-  private final Map<String, Object> context;
-  private final Map<String, Object> metadata;
+  private volatile SessionState state;
+  private final int historyCapacity;
+  private final Consumer<IMessage> onEvict;
+  /** Null while the history has been detached and no message has been added since. */
+  private volatile MessageRingBuffer messages;
+  private final AtomicReference<PersistentHashMap<String, Object>> context;
+  private final AtomicReference<PersistentHashMap<String, Object>> metadata;
   private long createdAt;
-  private long lastActivity;
+  private volatile long lastActivity;
+  private volatile Consumer<? super SimpleSession> changeListener;
   
   public SimpleSession(String sessionId) {
     this(sessionId, null);
   }
   
   public SimpleSession(String sessionId, String userId) {
+    this(sessionId, userId, DEFAULT_HISTORY_CAPACITY, null);
+  }
+  
+  /**
+   * Creates a session with a bounded message history.
+   * 
+   * @param sessionId the session ID
+   * @param userId the user ID, or null
+   * @param historyCapacity the maximum number of messages kept in memory
+   * @param archive receives messages pushed out of the history, or null to drop them
+   */
+  public SimpleSession(String sessionId, String userId, int historyCapacity, IMessageArchive archive) {
     this.sessionId = sessionId;
     this.userId = userId;
     this.state = SessionState.ACTIVE;
-    this.messages = new CopyOnWriteArrayList<>();
-    this.context = new ConcurrentHashMap<>();
-    this.metadata = new ConcurrentHashMap<>();
+    this.historyCapacity = historyCapacity;
+    this.onEvict = archive != null ? message -> archive.archive(sessionId, message) : null;
+    this.messages = new MessageRingBuffer(historyCapacity, onEvict);
+    this.context = new AtomicReference<>(PersistentHashMap.empty());
+    this.metadata = new AtomicReference<>(PersistentHashMap.empty());
     this.createdAt = System.currentTimeMillis();
     this.lastActivity = this.createdAt;
   }
@@ -51,6 +90,7 @@ public class SimpleSession implements ISession {
   @Override
   public void setUserId(String userId) {
     this.userId = userId;
+    changed();
   }
   
   @Override
@@ -61,63 +101,173 @@ public class SimpleSession implements ISession {
   @Override
   public void setState(SessionState state) {
     this.state = state;
+    changed();
+  }
+  
+  @Override
+  public boolean compareAndSetState(SessionState expected, SessionState state) {
+    if (expected.canTransitionTo(state) && STATE.compareAndSet(this, expected, state)) {
+      changed();
+      return true;
+    }
+    return false;
+  }
+  
+  @Override
+  public boolean transitionTo(SessionState state) {
+    while (true) {
+      SessionState current = this.state;
+      if (current == state) {
+        return true;
+      }
+      if (!current.canTransitionTo(state)) {
+        return false;
+      }
+      if (STATE.compareAndSet(this, current, state)) {
+        changed();
+        return true;
+      }
+    }
   }
   
   @Override
   public List<IMessage> getMessageHistory() {
-    return List.copyOf(messages);
+    MessageRingBuffer buffer = messages;
+    return buffer != null ? buffer.toList() : List.of();
+  }
+  
+  @Override
+  public List<IMessage> getRecentMessages(int count) {
+    MessageRingBuffer buffer = messages;
+    return buffer != null ? buffer.recent(count) : List.of();
   }
   
   @Override
   public void addMessage(IMessage message) {
     if (message != null) {
-      messages.add(message);
+      synchronized (this) {
+        if (messages == null) {
+          messages = new MessageRingBuffer(historyCapacity, onEvict);
+        }
+        messages.append(message);
+      }
       updateLastActivity();
     }
   }
   
   @Override
   public int getMessageCount() {
-    return messages.size();
+    MessageRingBuffer buffer = messages;
+    return buffer != null ? buffer.size() : 0;
   }
   
   @Override
-  public void clearHistory() {
-    messages.clear();
+  public synchronized void clearHistory() {
+    if (messages != null) {
+      messages.clear();
+    }
+  }
+  
+  /**
+   * Removes the message history and frees its buffer, for example to hold it elsewhere
+   * while the session is idle. Does not count as activity.
+   * 
+   * @return the detached messages, oldest first
+   */
+  public synchronized List<IMessage> detachHistory() {
+    List<IMessage> history = getMessageHistory();
+    messages = null;
+    return history;
+  }
+  
+  /**
+   * Puts back a detached history, ahead of any messages added since it was detached.
+   * Does not count as activity.
+   * 
+   * @param history the messages, oldest first
+   */
+  public synchronized void restoreHistory(List<IMessage> history) {
+    List<IMessage> addedSince = getMessageHistory();
+    MessageRingBuffer buffer = new MessageRingBuffer(historyCapacity, onEvict);
+    history.forEach(buffer::append);
+    addedSince.forEach(buffer::append);
+    messages = buffer;
+  }
+  
+  /**
+   * Replaces the oldest messages with a single summary message, provided they are still
+   * the oldest messages in the history. The replaced messages go to the archive, if any.
+   * Does not count as activity.
+   * 
+   * @param summarized the messages the summary covers, oldest first
+   * @param summary the summary message
+   * @return true if the history was compacted, false if it changed since summarized was read
+   */
+  public synchronized boolean compactHistory(List<IMessage> summarized, IMessage summary) {
+    List<IMessage> current = getMessageHistory();
+    int count = summarized.size();
+    if (count == 0 || current.size() < count) {
+      return false;
+    }
+    for (int i = 0; i < count; i++) {
+      if (current.get(i) != summarized.get(i)) {
+        return false;
+      }
+    }
+    MessageRingBuffer buffer = new MessageRingBuffer(historyCapacity, onEvict);
+    buffer.append(summary);
+    for (int i = count; i < current.size(); i++) {
+      buffer.append(current.get(i));
+    }
+    messages = buffer;
+    if (onEvict != null) {
+      summarized.forEach(onEvict);
+    }
+    return true;
+  }
+  
+  /**
+   * Replaces the given number of oldest messages with a summary message, repeating a
+   * compaction recorded from another copy of the session. Does not count as activity.
+   * 
+   * @param count the number of oldest messages the summary covers
+   * @param summary the summary message
+   * @return true if the history was compacted, false if it holds fewer messages
+   */
+  public synchronized boolean compactHistory(int count, IMessage summary) {
+    List<IMessage> current = getMessageHistory();
+    return count <= current.size() && compactHistory(current.subList(0, count), summary);
   }
   
   @Override
   public Map<String, Object> getContext() {
-    return Map.copyOf(context);
+    return context.get();
   }
   
   @Override
   public void setContext(Map<String, Object> context) {
-    this.context.clear();
-    if (context != null) {
-      this.context.putAll(context);
-    }
+    this.context.set(context != null ? PersistentHashMap.from(context) : PersistentHashMap.empty());
   }
   
   @Override
   public void updateContext(Map<String, Object> updates) {
-    if (updates != null) {
-      this.context.putAll(updates);
+    if (updates != null && !updates.isEmpty()) {
+      context.updateAndGet(current -> current.plusAll(updates));
     }
   }
   
   @Override
   public Object getContextValue(String key) {
-    return context.get(key);
+    return key != null ? context.get().get(key) : null;
   }
   
   @Override
   public void setContextValue(String key, Object value) {
     if (key != null) {
       if (value != null) {
-        context.put(key, value);
+        context.updateAndGet(current -> current.plus(key, value));
       } else {
-        context.remove(key);
+        context.updateAndGet(current -> current.minus(key));
       }
     }
   }
@@ -134,36 +284,64 @@ public class SimpleSession implements ISession {
   
   @Override
   public void updateLastActivity() {
-    this.lastActivity = System.currentTimeMillis();
+    LAST_ACTIVITY.accumulateAndGet(this, System.currentTimeMillis(), Math::max);
+    if (STATE.compareAndSet(this, SessionState.IDLE, SessionState.ACTIVE)) {
+      changed();
+    }
+  }
+  
+  /**
+   * Restores the timestamps of a session rebuilt from storage.
+   * 
+   * @param createdAt the original creation timestamp
+   * @param lastActivityAt the last activity timestamp
+   */
+  public void restoreTimestamps(long createdAt, long lastActivityAt) {
+    this.createdAt = createdAt;
+    this.lastActivity = lastActivityAt;
   }
   
   @Override
   public boolean isActive() {
-    return this.state == SessionState.ACTIVE;
+    return state.isActive();
   }
   
   @Override
   public void activate() {
-    setState(SessionState.ACTIVE);
+    transitionTo(SessionState.ACTIVE);
     updateLastActivity();
   }
   
   @Override
   public void deactivate() {
-    setState(SessionState.TERMINATED);
+    transitionTo(SessionState.TERMINATED);
     updateLastActivity();
   }
   
+  /**
+   * Sets the listener told after the user or state of this session changes. It is called
+   * on the thread that made the change, without any lock held.
+   * 
+   * @param changeListener the listener, or null for none
+   */
+  public void setChangeListener(Consumer<? super SimpleSession> changeListener) {
+    this.changeListener = changeListener;
+  }
+  
   @Override
   public Map<String, Object> getMetadata() {
-    return Map.copyOf(metadata);
+    return metadata.get();
   }
   
   @Override
   public void setMetadata(Map<String, Object> metadata) {
-    this.metadata.clear();
-    if (metadata != null) {
-      this.metadata.putAll(metadata);
+    this.metadata.set(metadata != null ? PersistentHashMap.from(metadata) : PersistentHashMap.empty());
+  }
+  
+  private void changed() {
+    Consumer<? super SimpleSession> listener = changeListener;
+    if (listener != null) {
+      listener.accept(this);
     }
   }
 }
@@ -1,34 +1,279 @@
 package com.arv.framework.adk.impl;
 
+import com.arv.framework.adk.events.SessionEventBus;
 import com.arv.framework.adk.interfaces.core.ISessionManager;
 import com.arv.framework.adk.interfaces.session.ISession;
 import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessageArchive;
+import com.arv.framework.adk.interfaces.session.ISessionExpiryListener;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Simple implementation of ISessionManager.
+ * Sessions are also indexed by user ID and by state. Sessions report their own user and
+ * state changes to the index, so listing a user's sessions, ending them, or counting the
+ * sessions in a state costs time in proportion to the result rather than to the number
+ * of sessions held.
  */
-public class SimpleSessionManager implements ISessionManager {
+public class SimpleSessionManager implements ISessionManager, AutoCloseable {
+
+  private static final SessionState[] STATES = SessionState.values();
 
   private final Map<String, ISession> sessions = new ConcurrentHashMap<>();
+  private final SessionIndex index = new SessionIndex();
+  private volatile int historyCapacity = SimpleSession.DEFAULT_HISTORY_CAPACITY;
+  private volatile IMessageArchive messageArchive;
+  private volatile SessionExpiryTracker expiryTracker;
+  private volatile boolean ownsExpiryTracker;
+  private volatile HistorySummarizer historySummarizer;
+  private final HistorySummarizer.HistoryCompactor historyCompactor = this::compactHistory;
+  private volatile SessionEventBus eventBus;
+
+  /**
+   * Sets how many messages each new session keeps in memory.
+   *
+   * @param historyCapacity the history capacity
+   * @return this session manager
+   */
+  public SimpleSessionManager withHistoryCapacity(int historyCapacity) {
+    if (historyCapacity <= 0) {
+      throw new IllegalArgumentException("History capacity must be positive: " + historyCapacity);
+    }
+    this.historyCapacity = historyCapacity;
+    return this;
+  }
+
+  /**
+   * Sets the archive that receives messages pushed out of a full session history.
+   *
+   * @param messageArchive the archive, or null to drop old messages
+   * @return this session manager
+   */
+  public SimpleSessionManager withMessageArchive(IMessageArchive messageArchive) {
+    this.messageArchive = messageArchive;
+    return this;
+  }
+
+  /**
+   * Summarizes long session histories in the background as messages are added.
+   *
+   * @param historySummarizer the summarizer, or null to keep histories verbatim
+   * @return this session manager
+   */
+  public SimpleSessionManager withHistorySummarizer(HistorySummarizer historySummarizer) {
+    this.historySummarizer = historySummarizer;
+    return this;
+  }
+
+  /**
+   * Publishes message and state change events of the sessions to an event bus.
+   *
+   * @param eventBus the event bus, or null to publish nothing
+   * @return this session manager
+   */
+  public SimpleSessionManager withEventBus(SessionEventBus eventBus) {
+    this.eventBus = eventBus;
+    return this;
+  }
+
+  /**
+   * Moves sessions to IDLE and EXPIRED with a tracker started on a daemon thread.
+   * The manager owns the tracker and stops it on {@link #close()}.
+   *
+   * @param config the expiry configuration
+   * @return this session manager
+   */
+  public SimpleSessionManager withSessionExpiry(SessionExpiryConfig config) {
+    withSessionExpiry(new SessionExpiryTracker(config).start());
+    ownsExpiryTracker = true;
+    return this;
+  }
+
+  /**
+   * Moves sessions to IDLE and EXPIRED with the given tracker; expired sessions are
+   * removed. Existing sessions are tracked too. The caller owns the tracker and must
+   * close it.
+   *
+   * @param tracker the expiry tracker, advanced by its own thread or by the caller
+   * @return this session manager
+   */
+  public SimpleSessionManager withSessionExpiry(SessionExpiryTracker tracker) {
+    tracker.addListener(new ISessionExpiryListener() {
+      @Override
+      public void onSessionIdle(ISession session) {
+        sessionIdle(session);
+      }
+
+      @Override
+      public void onSessionExpired(ISession session) {
+        sessionExpired(session);
+      }
+    });
+    for (ISession session : sessions.values()) {
+      tracker.track(session);
+    }
+    this.expiryTracker = tracker;
+    this.ownsExpiryTracker = false;
+    return this;
+  }
+
+  /**
+   * Called when the expiry tracker moves a session to IDLE.
+   *
+   * @param session the session
+   */
+  protected void sessionIdle(ISession session) {
+  }
+
+  /**
+   * Called when the expiry tracker expires a session; removes it.
+   *
+   * @param session the session
+   */
+  protected void sessionExpired(ISession session) {
+    removeSession(session);
+  }
+
+  /**
+   * Called after a session held by this manager changes state, on the thread that
+   * changed it.
+   *
+   * @param session the session
+   * @param previous the state it left
+   */
+  protected void sessionStateChanged(ISession session, SessionState previous) {
+  }
+
+  /**
+   * Called by the history summarizer to replace the oldest messages of a session with a
+   * summary.
+   *
+   * @param session the session
+   * @param summarized the messages the summary covers, oldest first
+   * @param summary the summary message
+   * @return true if the history was compacted, false if it changed since summarized was read
+   */
+  protected boolean compactHistory(SimpleSession session, List<IMessage> summarized, IMessage summary) {
+    return session.compactHistory(summarized, summary);
+  }
+
+  /**
+   * Gets a read-only live view of every session held, whatever its state.
+   *
+   * @return the sessions
+   */
+  protected Collection<ISession> getAllSessions() {
+    return Collections.unmodifiableCollection(sessions.values());
+  }
+
+  /**
+   * Removes a session without ending it, provided it is still the one held under its ID.
+   *
+   * @param session the session
+   * @return true if it was removed
+   */
+  protected boolean removeSession(ISession session) {
+    if (!sessions.remove(session.getId(), session)) {
+      return false;
+    }
+    index.remove(session);
+    detachListener(session);
+    return true;
+  }
+
+  /**
+   * Removes a session from memory but leaves it in the user and state indexes, for a
+   * session that lives on elsewhere, such as on disk, and is brought back through
+   * {@link #getSession}. Its user and state are frozen until it is created again.
+   *
+   * @param session the session
+   * @return true if it was removed
+   */
+  protected boolean evictSession(ISession session) {
+    if (!sessions.remove(session.getId(), session)) {
+      return false;
+    }
+    detachListener(session);
+    return true;
+  }
+
+  /**
+   * Drops a session that is no longer held in memory, such as one evicted by
+   * {@link #evictSession}, from the user and state indexes.
+   *
+   * @param sessionId the session ID
+   */
+  protected void unindexSession(String sessionId) {
+    if (!sessions.containsKey(sessionId)) {
+      index.remove(sessionId);
+    }
+  }
+
+  /**
+   * Removes every session without ending them.
+   */
+  protected void clearSessions() {
+    for (ISession session : sessions.values()) {
+      removeSession(session);
+    }
+  }
+
+  /**
+   * Gets the IDs of every session held, whatever its state.
+   *
+   * @return a snapshot of the session IDs
+   */
+  public List<String> getSessionIds() {
+    return new ArrayList<>(sessions.keySet());
+  }
+
+  /**
+   * Gets the expiry tracker, for example to add listeners.
+   *
+   * @return the tracker, or null if expiry is not enabled
+   */
+  public SessionExpiryTracker getExpiryTracker() {
+    return expiryTracker;
+  }
+
+  /**
+   * Stops the expiry tracker if this manager started it. Sessions stay usable but no
+   * longer expire.
+   */
+  @Override
+  public void close() {
+    SessionExpiryTracker tracker = expiryTracker;
+    if (tracker != null && ownsExpiryTracker) {
+      tracker.close();
+    }
+  }
 
   @Override
   public ISession createSession(String sessionId) {
-    SimpleSession session = new SimpleSession(sessionId);
-    sessions.put(sessionId, session);
-    return session;
+    return createSession(sessionId, null);
   }
 
   @Override
   public ISession createSession(String sessionId, String userId) {
-    SimpleSession session = new SimpleSession(sessionId, userId);
-    sessions.put(sessionId, session);
+    SimpleSession session = new SimpleSession(sessionId, userId, historyCapacity, messageArchive);
+    session.setChangeListener(this::sessionChanged);
+    ISession previous = sessions.put(sessionId, session);
+    if (previous != null) {
+      detachListener(previous);
+    }
+    index.add(session);
+    SessionExpiryTracker tracker = expiryTracker;
+    if (tracker != null) {
+      tracker.track(session);
+    }
     return session;
   }
 
@@ -42,11 +287,35 @@ public class SimpleSessionManager implements ISessionManager {
     ISession session = sessions.get(sessionId);
     if (session != null) {
       session.deactivate();
-      return sessions.remove(sessionId) != null;
+      SessionExpiryTracker tracker = expiryTracker;
+      if (tracker != null) {
+        tracker.untrack(sessionId);
+      }
+      return removeSession(session);
     }
     return false;
   }
 
+  /**
+   * Removes a session that lives on elsewhere, such as one handed over to another node.
+   * Unlike {@link #endSession}, the session is not deactivated, so its state is unchanged
+   * and no state change is published.
+   *
+   * @param sessionId the session ID
+   * @return true if the session was removed
+   */
+  public boolean releaseSession(String sessionId) {
+    ISession session = sessions.get(sessionId);
+    if (session == null) {
+      return false;
+    }
+    SessionExpiryTracker tracker = expiryTracker;
+    if (tracker != null) {
+      tracker.untrack(sessionId);
+    }
+    return removeSession(session);
+  }
+
   @Override
   public boolean isSessionActive(String sessionId) {
     ISession session = sessions.get(sessionId);
@@ -74,6 +343,14 @@ public class SimpleSessionManager implements ISessionManager {
     ISession session = sessions.get(sessionId);
     if (session != null && message != null) {
       session.addMessage(message);
+      SessionEventBus bus = eventBus;
+      if (bus != null) {
+        bus.publishMessageAdded(sessionId, message);
+      }
+      HistorySummarizer summarizer = historySummarizer;
+      if (summarizer != null && session instanceof SimpleSession) {
+        summarizer.onMessageAdded((SimpleSession) session, historyCompactor);
+      }
       return true;
     }
     return false;
@@ -88,15 +365,7 @@ public class SimpleSessionManager implements ISessionManager {
   @Override
   public List<IMessage> getRecentMessages(String sessionId, int count) {
     ISession session = sessions.get(sessionId);
-    if (session != null) {
-      List<IMessage> messages = session.getMessageHistory();
-      int size = messages.size();
-      if (count >= size) {
-        return messages;
-      }
-      return messages.subList(size - count, size);
-    }
-    return List.of();
+    return session != null ? session.getRecentMessages(count) : List.of();
   }
 
   @Override
@@ -117,23 +386,85 @@ public class SimpleSessionManager implements ISessionManager {
 
   @Override
   public List<ISession> getActiveSessions() {
-    return sessions.values().stream()
-        .filter(ISession::isActive)
-        .collect(Collectors.toList());
+    List<ISession> active = new ArrayList<>();
+    for (SessionState state : STATES) {
+      if (state.isActive()) {
+        active.addAll(getSessionsByState(state));
+      }
+    }
+    return active;
+  }
+
+  @Override
+  public List<ISession> getSessionsByUser(String userId) {
+    List<ISession> result = new ArrayList<>();
+    for (String sessionId : index.getSessionIds(userId)) {
+      getSession(sessionId).ifPresent(result::add);
+    }
+    return result;
+  }
+
+  @Override
+  public List<ISession> getSessionsByState(SessionState state) {
+    List<ISession> result = new ArrayList<>();
+    for (String sessionId : index.getSessionIds(state)) {
+      ISession session = getSession(sessionId).orElse(null);
+      if (session != null && session.getState() == state) {
+        result.add(session);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int getSessionCount(SessionState state) {
+    return index.count(state);
+  }
+
+  @Override
+  public int endSessionsByUser(String userId) {
+    int ended = 0;
+    for (String sessionId : index.getSessionIds(userId)) {
+      if (endSession(sessionId)) {
+        ended++;
+      }
+    }
+    return ended;
   }
 
   @Override
   public int cleanupExpiredSessions() {
-    // Simple cleanup: remove sessions that are not active
-    List<String> expiredSessions = sessions.entrySet().stream()
-        .filter(entry -> !entry.getValue().isActive())
-        .map(Map.Entry::getKey)
-        .collect(Collectors.toList());
-    
-    for (String sessionId : expiredSessions) {
-      sessions.remove(sessionId);
-    }
-    
-    return expiredSessions.size();
+    // Simple cleanup: remove sessions that are not active; idle sessions can resume
+    int removed = 0;
+    for (SessionState state : STATES) {
+      if (state.isActive() || state == SessionState.IDLE) {
+        continue;
+      }
+      for (String sessionId : index.getSessionIds(state)) {
+        ISession session = sessions.get(sessionId);
+        if (session != null && session.getState() == state && removeSession(session)) {
+          removed++;
+        }
+      }
+    }
+    return removed;
+  }
+
+  private void sessionChanged(SimpleSession session) {
+    SessionState previous = index.update(session);
+    if (previous == null) {
+      return;
+    }
+    SessionEventBus bus = eventBus;
+    if (bus != null) {
+      bus.publishStateChanged(session.getId(), previous, session.getState());
+    }
+    sessionStateChanged(session, previous);
+  }
+
+  private static void detachListener(ISession session) {
+    if (session instanceof SimpleSession) {
+      ((SimpleSession) session).setChangeListener(null);
+    }
   }
 }
\ No newline at end of file
@@ -1,107 +1,153 @@
 package com.arv.framework.adk.impl;
 
 import com.arv.framework.adk.interfaces.core.IToolRegistry;
+import com.arv.framework.adk.interfaces.enums.ReturnType;
+import com.arv.framework.adk.interfaces.enums.ToolCategory;
 import com.arv.framework.adk.interfaces.tool.ITool;
 import com.arv.framework.adk.interfaces.tool.IToolMetadata;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Simple implementation of IToolRegistry.
+ * The registry publishes an immutable ToolRegistrySnapshot through a single volatile
+ * reference. Writers build a new snapshot and swap it in, so readers never lock,
+ * never allocate and always see a consistent set of tools and enabled flags.
+ * Lookups by name, alias, category and return type go through indexes in the snapshot.
  */
 public class SimpleToolRegistry implements IToolRegistry {
   
-  private final Map<String, ITool> tools = new ConcurrentHashMap<>();
+  private volatile ToolRegistrySnapshot snapshot = ToolRegistrySnapshot.empty();
   
   @Override
-  public boolean registerTool(ITool tool) {
+  public synchronized boolean registerTool(ITool tool) {
     if (tool == null || tool.getId() == null) {
       return false;
     }
-    tools.put(tool.getId(), tool);
+    snapshot = snapshot.withTool(tool, tool.isEnabled());
     return true;
   }
   
   @Override
-  public boolean unregisterTool(String toolId) {
-    return tools.remove(toolId) != null;
+  public synchronized int registerTools(Collection<? extends ITool> newTools) {
+    List<ITool> valid = new ArrayList<>(newTools.size());
+    for (ITool tool : newTools) {
+      if (tool != null && tool.getId() != null) {
+        valid.add(tool);
+      }
+    }
+    if (!valid.isEmpty()) {
+      snapshot = snapshot.withTools(valid);
+    }
+    return valid.size();
+  }
+  
+  @Override
+  public synchronized boolean unregisterTool(String toolId) {
+    ToolRegistrySnapshot current = snapshot;
+    ToolRegistrySnapshot updated = current.withoutTool(toolId);
+    snapshot = updated;
+    return updated != current;
   }
   
   @Override
   public Optional<ITool> getTool(String toolId) {
-    return Optional.ofNullable(tools.get(toolId));
+    return Optional.ofNullable(snapshot.getTool(toolId));
   }
   
-  // Helper method for finding tools by name (not part of interface)
-  public ITool findToolByName(String toolName) {
-    return tools.values().stream()
-        .filter(tool -> tool.getName().equalsIgnoreCase(toolName))
-        .findFirst()
-        .orElse(null);
+  @Override
+  public Optional<ITool> findToolByName(String nameOrAlias) {
+    return Optional.ofNullable(snapshot.findByName(nameOrAlias));
   }
   
   @Override
   public List<ITool> getAllTools() {
-    return tools.values().stream().collect(Collectors.toList());
+    return snapshot.getAllTools();
   }
   
   @Override
   public List<ITool> getEnabledTools() {
-    return tools.values().stream()
-        .filter(ITool::isEnabled)
-        .collect(Collectors.toList());
+    return snapshot.getEnabledTools();
   }
   
   @Override
   public List<ITool> getDisabledTools() {
-    return tools.values().stream()
-        .filter(tool -> !tool.isEnabled())
-        .collect(Collectors.toList());
+    return snapshot.getDisabledTools();
+  }
+  
+  @Override
+  public List<ITool> getToolsByCategory(ToolCategory category) {
+    return snapshot.getToolsByCategory(category);
+  }
+  
+  @Override
+  public List<ITool> getToolsByReturnType(ReturnType returnType) {
+    return snapshot.getToolsByReturnType(returnType);
   }
   
   @Override
   public boolean enableTool(String toolId) {
-    ITool tool = tools.get(toolId);
-    if (tool != null) {
-      tool.setEnabled(true);
-      return true;
-    }
-    return false;
+    return setToolEnabled(toolId, true);
   }
   
   @Override
   public boolean disableTool(String toolId) {
-    ITool tool = tools.get(toolId);
-    if (tool != null) {
-      tool.setEnabled(false);
-      return true;
-    }
-    return false;
+    return setToolEnabled(toolId, false);
   }
   
   @Override
   public boolean isToolRegistered(String toolId) {
-    return tools.containsKey(toolId);
+    return snapshot.contains(toolId);
   }
   
   @Override
   public boolean isToolEnabled(String toolId) {
-    ITool tool = tools.get(toolId);
-    return tool != null && tool.isEnabled();
+    return snapshot.isEnabled(toolId);
   }
   
   @Override
   public Optional<IToolMetadata> getToolMetadata(String toolId) {
-    ITool tool = tools.get(toolId);
+    ITool tool = snapshot.getTool(toolId);
     return tool != null ? Optional.of(tool.getMetadata()) : Optional.empty();
   }
   
   @Override
   public int getToolCount() {
-    return tools.size();
+    return snapshot.size();
+  }
+  
+  @Override
+  public long getVersion() {
+    return snapshot.getVersion();
+  }
+  
+  /**
+   * Gets the current snapshot of the registry.
+   * 
+   * @return the current immutable snapshot
+   */
+  public ToolRegistrySnapshot getSnapshot() {
+    return snapshot;
+  }
+  
+  /**
+   * Changes the enabled flag of a tool in the registry.
+   * The tool's own flag is updated too, for callers that read it directly.
+   * 
+   * @param toolId the tool ID
+   * @param enabled the new enabled flag
+   * @return true if the tool is registered, false otherwise
+   */
+  private synchronized boolean setToolEnabled(String toolId, boolean enabled) {
+    ITool tool = snapshot.getTool(toolId);
+    if (tool == null) {
+      return false;
+    }
+    tool.setEnabled(enabled);
+    snapshot = snapshot.withEnabled(toolId, enabled);
+    return true;
   }
 }
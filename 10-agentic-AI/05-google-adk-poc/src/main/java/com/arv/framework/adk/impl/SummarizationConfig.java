@@ -0,0 +1,90 @@
+package com.arv.framework.adk.impl;
+
+/**
+ * Configuration for rolling summarization of long session histories.
+ */
+public class SummarizationConfig {
+
+  private int triggerMessages = 200;
+  private int keepRecentMessages = 50;
+  private int maxPendingSessions = 1024;
+  private int maxPromptChars = 64_000;
+
+  /**
+   * Creates a configuration with default values: once a history holds 200 messages,
+   * everything but the 50 most recent is summarized.
+   *
+   * @return a new SummarizationConfig
+   */
+  public static SummarizationConfig defaults() {
+    return new SummarizationConfig();
+  }
+
+  /**
+   * Sets the history size that triggers a summarization.
+   *
+   * @param triggerMessages the message count
+   * @return this config for method chaining
+   */
+  public SummarizationConfig withTriggerMessages(int triggerMessages) {
+    if (triggerMessages < 2) {
+      throw new IllegalArgumentException("Trigger must be at least 2 messages");
+    }
+    this.triggerMessages = triggerMessages;
+    return this;
+  }
+
+  /**
+   * Sets how many of the most recent messages are always kept verbatim.
+   *
+   * @param keepRecentMessages the message count
+   * @return this config for method chaining
+   */
+  public SummarizationConfig withKeepRecentMessages(int keepRecentMessages) {
+    this.keepRecentMessages = Math.max(0, keepRecentMessages);
+    return this;
+  }
+
+  /**
+   * Sets how many sessions may wait for summarization; further sessions are skipped
+   * until the next message arrives.
+   *
+   * @param maxPendingSessions the queue size
+   * @return this config for method chaining
+   */
+  public SummarizationConfig withMaxPendingSessions(int maxPendingSessions) {
+    if (maxPendingSessions <= 0) {
+      throw new IllegalArgumentException("Pending session limit must be positive");
+    }
+    this.maxPendingSessions = maxPendingSessions;
+    return this;
+  }
+
+  /**
+   * Sets the maximum length of the conversation text sent for summarization; the
+   * oldest messages after the previous summary are cut first.
+   *
+   * @param maxPromptChars the length in characters
+   * @return this config for method chaining
+   */
+  public SummarizationConfig withMaxPromptChars(int maxPromptChars) {
+    this.maxPromptChars = Math.max(1, maxPromptChars);
+    return this;
+  }
+
+  public int getTriggerMessages() {
+    return triggerMessages;
+  }
+
+  public int getKeepRecentMessages() {
+    return keepRecentMessages;
+  }
+
+  public int getMaxPendingSessions() {
+    return maxPendingSessions;
+  }
+
+  public int getMaxPromptChars() {
+    return maxPromptChars;
+  }
+}
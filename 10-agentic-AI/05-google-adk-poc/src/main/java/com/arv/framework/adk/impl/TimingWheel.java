@@ -0,0 +1,242 @@
+package com.arv.framework.adk.impl;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel.
+ * Each level has 64 buckets; a bucket at level L spans 64^L ticks. A timeout goes into
+ * the lowest level whose span covers its deadline and moves down a level each time its
+ * bucket comes round, so scheduling and cancelling are O(1) and advancing one tick only
+ * touches the timeouts that are due or cascading. Not thread-safe; callers serialize access.
+ *
+ * @param <T> the type of item attached to each timeout
+ */
+public final class TimingWheel<T> {
+
+  private static final int BITS = 6;
+  private static final int WHEEL_SIZE = 1 << BITS;
+  private static final int MASK = WHEEL_SIZE - 1;
+  private static final int LEVELS = 6;
+  private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+
+  private final long tickMs;
+  private final Timeout<T>[][] buckets;
+  private long currentTick;
+  private int size;
+
+  /**
+   * Creates a timing wheel.
+   *
+   * @param tickMs the tick length in milliseconds
+   * @param startMs the current time in milliseconds
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public TimingWheel(long tickMs, long startMs) {
+    if (tickMs <= 0) {
+      throw new IllegalArgumentException("Tick must be positive: " + tickMs);
+    }
+    this.tickMs = tickMs;
+    this.currentTick = startMs / tickMs;
+    this.buckets = new Timeout[LEVELS][WHEEL_SIZE];
+    for (int level = 0; level < LEVELS; level++) {
+      for (int index = 0; index < WHEEL_SIZE; index++) {
+        Timeout<T> sentinel = new Timeout<>(null, 0L);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        buckets[level][index] = sentinel;
+      }
+    }
+  }
+
+  /**
+   * Schedules an item.
+   *
+   * @param item the item
+   * @param deadlineMs when the item is due, in milliseconds
+   * @return the handle used to cancel or reschedule the timeout
+   */
+  public Timeout<T> schedule(T item, long deadlineMs) {
+    Timeout<T> timeout = new Timeout<>(item, deadlineMs);
+    insert(timeout);
+    size++;
+    return timeout;
+  }
+
+  /**
+   * Moves a timeout to a new deadline, scheduling it again if it has fired or been cancelled.
+   *
+   * @param timeout the timeout
+   * @param deadlineMs the new deadline in milliseconds
+   */
+  public void reschedule(Timeout<T> timeout, long deadlineMs) {
+    if (timeout.isScheduled()) {
+      timeout.unlink();
+    } else {
+      size++;
+    }
+    timeout.deadlineMs = deadlineMs;
+    insert(timeout);
+  }
+
+  /**
+   * Cancels a timeout.
+   *
+   * @param timeout the timeout
+   * @return true if it was scheduled, false if it had already fired or been cancelled
+   */
+  public boolean cancel(Timeout<T> timeout) {
+    if (!timeout.isScheduled()) {
+      return false;
+    }
+    timeout.unlink();
+    size--;
+    return true;
+  }
+
+  /**
+   * Advances the wheel to the given time, passing every timeout that falls due to the
+   * callback in deadline order by tick. Timeouts already due when scheduled fire on
+   * the next call.
+   *
+   * @param nowMs the current time in milliseconds
+   * @param onExpired receives each expired timeout
+   * @return the number of timeouts that expired
+   */
+  public int advance(long nowMs, Consumer<Timeout<T>> onExpired) {
+    long targetTick = nowMs / tickMs;
+    int expired = 0;
+    while (currentTick < targetTick) {
+      currentTick++;
+      cascade();
+      Timeout<T> sentinel = buckets[0][(int) (currentTick & MASK)];
+      while (sentinel.next != sentinel) {
+        Timeout<T> timeout = sentinel.next;
+        timeout.unlink();
+        if (toTick(timeout.deadlineMs) > currentTick) {
+          // Deadline beyond the wheel's span, parked here until it comes into range
+          insert(timeout);
+          continue;
+        }
+        size--;
+        expired++;
+        onExpired.accept(timeout);
+      }
+    }
+    return expired;
+  }
+
+  /**
+   * Gets the number of scheduled timeouts.
+   *
+   * @return the number of timeouts
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Moves the timeouts of each higher-level bucket that has come round down a level.
+   */
+  private void cascade() {
+    for (int level = 1; level < LEVELS; level++) {
+      if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+        return;
+      }
+      Timeout<T> sentinel = buckets[level][(int) ((currentTick >>> (BITS * level)) & MASK)];
+      while (sentinel.next != sentinel) {
+        Timeout<T> timeout = sentinel.next;
+        timeout.unlink();
+        // Timeouts due this tick land in the level 0 bucket about to be fired
+        insert(timeout, currentTick);
+      }
+    }
+  }
+
+  /**
+   * Puts a timeout in the lowest level whose current span contains its deadline.
+   * Timeouts that are already due go in the next tick's bucket.
+   */
+  private void insert(Timeout<T> timeout) {
+    insert(timeout, currentTick + 1);
+  }
+
+  private void insert(Timeout<T> timeout, long earliestTick) {
+    long deadlineTick = Math.max(toTick(timeout.deadlineMs), earliestTick);
+    if (deadlineTick - currentTick > MAX_DELTA) {
+      deadlineTick = currentTick + MAX_DELTA;
+    }
+    int level = 0;
+    while (level < LEVELS - 1
+        && (deadlineTick >>> (BITS * (level + 1))) != (currentTick >>> (BITS * (level + 1)))) {
+      level++;
+    }
+    int index = (int) ((deadlineTick >>> (BITS * level)) & MASK);
+    timeout.linkBefore(buckets[level][index]);
+  }
+
+  /**
+   * Converts a time to the first tick at or after it, so timeouts never fire early.
+   */
+  private long toTick(long timeMs) {
+    return -Math.floorDiv(-timeMs, tickMs);
+  }
+
+  /**
+   * Handle to a scheduled item.
+   *
+   * @param <T> the type of the item
+   */
+  public static final class Timeout<T> {
+
+    private final T item;
+    private long deadlineMs;
+    private Timeout<T> prev;
+    private Timeout<T> next;
+
+    Timeout(T item, long deadlineMs) {
+      this.item = item;
+      this.deadlineMs = deadlineMs;
+    }
+
+    /**
+     * Gets the scheduled item.
+     *
+     * @return the item
+     */
+    public T getItem() {
+      return item;
+    }
+
+    /**
+     * Gets the deadline.
+     *
+     * @return the deadline in milliseconds
+     */
+    public long getDeadlineMs() {
+      return deadlineMs;
+    }
+
+    /**
+     * Checks whether the timeout is waiting in the wheel.
+     *
+     * @return true if scheduled, false once fired or cancelled
+     */
+    public boolean isScheduled() {
+      return next != null;
+    }
+
+    private void linkBefore(Timeout<T> sentinel) {
+      prev = sentinel.prev;
+      next = sentinel;
+      sentinel.prev.next = this;
+      sentinel.prev = this;
+    }
+
+    private void unlink() {
+      prev.next = next;
+      next.prev = prev;
+      prev = null;
+      next = null;
+    }
+  }
+}
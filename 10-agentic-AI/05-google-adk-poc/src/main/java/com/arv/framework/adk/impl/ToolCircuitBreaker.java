@@ -0,0 +1,300 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.enums.CircuitState;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker for a single tool.
+ * Outcomes of the last N calls are kept in a ring; the circuit opens when the
+ * failure rate or the slow call rate reaches its threshold, rejects calls while
+ * open, and lets a few trial calls through when half open. Permits are tagged with the
+ * state they were granted in, so a call that completes after the circuit has changed
+ * state is not counted against the new state.
+ */
+@Slf4j
+public class ToolCircuitBreaker {
+
+  /**
+   * Returned by {@link #tryAcquirePermit()} when the call may not proceed.
+   */
+  public static final long NO_PERMIT = -1L;
+
+  private static final byte FAILED = 1;
+  private static final byte SLOW = 2;
+
+  private final String toolId;
+  private final CircuitBreakerConfig config;
+  private final LongSupplier clock;
+
+  private final byte[] window;
+  private int windowIndex;
+  private int windowCount;
+  private int windowFailures;
+  private int windowSlowCalls;
+
+  private volatile CircuitState state = CircuitState.CLOSED;
+  private volatile long openedAt;
+  private volatile long epoch;
+  private int halfOpenPermits;
+  private int halfOpenCalls;
+  private int halfOpenFailures;
+  private int halfOpenSlowCalls;
+
+  /**
+   * Creates a circuit breaker using the system clock.
+   *
+   * @param toolId the ID of the guarded tool
+   * @param config the breaker configuration
+   */
+  public ToolCircuitBreaker(String toolId, CircuitBreakerConfig config) {
+    this(toolId, config, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a circuit breaker with an explicit clock.
+   *
+   * @param toolId the ID of the guarded tool
+   * @param config the breaker configuration
+   * @param clock the time source in milliseconds
+   */
+  public ToolCircuitBreaker(String toolId, CircuitBreakerConfig config, LongSupplier clock) {
+    this.toolId = toolId;
+    this.config = config;
+    this.clock = clock;
+    this.window = new byte[config.getSlidingWindowSize()];
+  }
+
+  /**
+   * Gets the current state, moving from OPEN to HALF_OPEN if the open duration has elapsed.
+   *
+   * @return the circuit state
+   */
+  public CircuitState getState() {
+    if (state == CircuitState.OPEN && openDurationElapsed()) {
+      synchronized (this) {
+        if (state == CircuitState.OPEN && openDurationElapsed()) {
+          transitionTo(CircuitState.HALF_OPEN);
+        }
+      }
+    }
+    return state;
+  }
+
+  /**
+   * Checks whether calls would currently be considered, without taking a permit.
+   *
+   * @return false only while the circuit is open
+   */
+  public boolean isCallPermitted() {
+    return state != CircuitState.OPEN || openDurationElapsed();
+  }
+
+  /**
+   * Tries to obtain permission to call the tool. Every granted permission must be
+   * followed by {@link #onSuccess(long)}, {@link #onFailure(long)} or
+   * {@link #releasePermission()}, which apply to the current state; prefer
+   * {@link #tryAcquirePermit()} for calls that may outlive a state change.
+   *
+   * @return true if the call may proceed
+   */
+  public boolean tryAcquirePermission() {
+    return tryAcquirePermit() != NO_PERMIT;
+  }
+
+  /**
+   * Tries to obtain a permit to call the tool. Every permit must be passed back to
+   * {@link #onSuccess(long, long)}, {@link #onFailure(long, long)} or
+   * {@link #releasePermit(long)}; permits granted before the circuit last changed state
+   * are ignored.
+   *
+   * @return the permit, or {@link #NO_PERMIT} if the call may not proceed
+   */
+  public long tryAcquirePermit() {
+    // The epoch is read first: a state change writes the state before the epoch
+    long granted = epoch;
+    if (state == CircuitState.CLOSED) {
+      return granted;
+    }
+    synchronized (this) {
+      if (state == CircuitState.OPEN) {
+        if (!openDurationElapsed()) {
+          return NO_PERMIT;
+        }
+        transitionTo(CircuitState.HALF_OPEN);
+      }
+      if (state == CircuitState.HALF_OPEN) {
+        if (halfOpenPermits <= 0) {
+          return NO_PERMIT;
+        }
+        halfOpenPermits--;
+      }
+      return epoch;
+    }
+  }
+
+  /**
+   * Returns a permission of the current state without recording an outcome.
+   */
+  public void releasePermission() {
+    releasePermit(epoch);
+  }
+
+  /**
+   * Returns a permit without recording an outcome, e.g. when input validation failed.
+   *
+   * @param permit the permit from {@link #tryAcquirePermit()}
+   */
+  public synchronized void releasePermit(long permit) {
+    if (permit == epoch && state == CircuitState.HALF_OPEN) {
+      halfOpenPermits++;
+    }
+  }
+
+  /**
+   * Records a successful call in the current state.
+   *
+   * @param durationMs the call duration in milliseconds
+   */
+  public void onSuccess(long durationMs) {
+    onSuccess(epoch, durationMs);
+  }
+
+  /**
+   * Records a successful call.
+   *
+   * @param permit the permit from {@link #tryAcquirePermit()}
+   * @param durationMs the call duration in milliseconds
+   */
+  public void onSuccess(long permit, long durationMs) {
+    record(permit, false, durationMs);
+  }
+
+  /**
+   * Records a failed call in the current state.
+   *
+   * @param durationMs the call duration in milliseconds
+   */
+  public void onFailure(long durationMs) {
+    onFailure(epoch, durationMs);
+  }
+
+  /**
+   * Records a failed call.
+   *
+   * @param permit the permit from {@link #tryAcquirePermit()}
+   * @param durationMs the call duration in milliseconds
+   */
+  public void onFailure(long permit, long durationMs) {
+    record(permit, true, durationMs);
+  }
+
+  /**
+   * Forces the circuit back to CLOSED and clears all recorded outcomes.
+   */
+  public synchronized void reset() {
+    transitionTo(CircuitState.CLOSED);
+  }
+
+  /**
+   * Gets the ID of the guarded tool.
+   *
+   * @return the tool ID
+   */
+  public String getToolId() {
+    return toolId;
+  }
+
+  /**
+   * Records a call outcome and evaluates the thresholds.
+   *
+   * @param permit the permit the call was granted
+   * @param failed whether the call failed
+   * @param durationMs the call duration in milliseconds
+   */
+  private synchronized void record(long permit, boolean failed, long durationMs) {
+    if (permit != epoch) {
+      // Late completion of a call admitted before the circuit changed state
+      return;
+    }
+    boolean slow = durationMs >= config.getSlowCallDurationMs();
+
+    if (state == CircuitState.HALF_OPEN) {
+      halfOpenCalls++;
+      halfOpenFailures += failed ? 1 : 0;
+      halfOpenSlowCalls += slow ? 1 : 0;
+      if (halfOpenCalls >= config.getPermittedCallsInHalfOpenState()) {
+        if (exceedsThresholds(halfOpenCalls, halfOpenFailures, halfOpenSlowCalls)) {
+          transitionTo(CircuitState.OPEN);
+        } else {
+          transitionTo(CircuitState.CLOSED);
+        }
+      }
+      return;
+    }
+
+    if (state == CircuitState.OPEN) {
+      return;
+    }
+
+    if (windowCount == window.length) {
+      byte evicted = window[windowIndex];
+      windowFailures -= (evicted & FAILED) != 0 ? 1 : 0;
+      windowSlowCalls -= (evicted & SLOW) != 0 ? 1 : 0;
+    } else {
+      windowCount++;
+    }
+    window[windowIndex] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+    windowIndex = (windowIndex + 1) % window.length;
+    windowFailures += failed ? 1 : 0;
+    windowSlowCalls += slow ? 1 : 0;
+
+    if (windowCount >= config.getMinimumNumberOfCalls()
+        && exceedsThresholds(windowCount, windowFailures, windowSlowCalls)) {
+      transitionTo(CircuitState.OPEN);
+    }
+  }
+
+  private boolean exceedsThresholds(int calls, int failures, int slowCalls) {
+    double failureRate = failures * 100.0 / calls;
+    double slowCallRate = slowCalls * 100.0 / calls;
+    return failureRate >= config.getFailureRateThreshold()
+        || slowCallRate >= config.getSlowCallRateThreshold();
+  }
+
+  private boolean openDurationElapsed() {
+    return clock.getAsLong() - openedAt >= config.getOpenDurationMs();
+  }
+
+  /**
+   * Moves to a new state and resets the counters that belong to it.
+   * Callers must hold the monitor.
+   *
+   * @param newState the new state
+   */
+  private void transitionTo(CircuitState newState) {
+    CircuitState oldState = state;
+    switch (newState) {
+      case OPEN:
+        openedAt = clock.getAsLong();
+        break;
+      case HALF_OPEN:
+        halfOpenPermits = config.getPermittedCallsInHalfOpenState();
+        halfOpenCalls = 0;
+        halfOpenFailures = 0;
+        halfOpenSlowCalls = 0;
+        break;
+      default:
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        windowSlowCalls = 0;
+        break;
+    }
+    state = newState;
+    epoch++;
+    if (oldState != newState) {
+      log.info("Circuit for tool {} changed from {} to {}", toolId, oldState, newState);
+    }
+  }
+}
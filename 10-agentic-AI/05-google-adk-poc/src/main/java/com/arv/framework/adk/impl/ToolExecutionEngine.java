@@ -1,21 +1,42 @@
 package com.arv.framework.adk.impl;
 
 import com.arv.framework.adk.interfaces.core.IToolRegistry;
+import com.arv.framework.adk.interfaces.enums.CircuitState;
+import com.arv.framework.adk.interfaces.tool.IAsyncTool;
+import com.arv.framework.adk.interfaces.tool.IBatchTool;
 import com.arv.framework.adk.interfaces.tool.ITool;
 import com.arv.framework.adk.interfaces.tool.IToolExecutionEngine;
 import com.arv.framework.adk.interfaces.tool.IToolInput;
 import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.interfaces.tool.IToolPlan;
+import com.arv.framework.adk.interfaces.tool.IToolPlanStep;
 import com.arv.framework.adk.interfaces.tool.IToolResult;
 import com.arv.framework.adk.interfaces.tool.IParameter;
+import com.arv.framework.adk.metrics.AgentMetrics;
+import com.arv.framework.adk.metrics.ToolStatistics;
+import com.arv.framework.adk.metrics.ToolStatisticsRegistry;
 import com.arv.framework.adk.tools.ToolInput;
 import com.arv.framework.adk.tools.ToolResult;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Implementation of IToolExecutionEngine that uses IToolRegistry
@@ -24,26 +45,80 @@ import java.util.Optional;
 @Slf4j
 public class ToolExecutionEngine implements IToolExecutionEngine {
   
+  private static final long DEFAULT_ASYNC_TOOL_TIMEOUT_MS = 30000L;
+  
   private final IToolRegistry toolRegistry;
+  private final Executor executor;
+  private final CircuitBreakerConfig circuitBreakerConfig;
+  private final Map<String, ToolCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+  private final Map<String, String> fallbackTools = new ConcurrentHashMap<>();
+  private final ToolStatisticsRegistry statistics = new ToolStatisticsRegistry();
+  private volatile long asyncToolTimeoutMs = DEFAULT_ASYNC_TOOL_TIMEOUT_MS;
+  private volatile SchemaCache schemaCache = new SchemaCache(-1L);
+  private volatile AgentMetrics metrics;
   
   /**
    * Creates a new ToolExecutionEngine with the given tool registry.
+   * Synchronous tools called asynchronously run on a cached pool of daemon threads.
    * 
    * @param toolRegistry the tool registry to use for tool discovery
    */
   public ToolExecutionEngine(IToolRegistry toolRegistry) {
+    this(toolRegistry, createDefaultExecutor());
+  }
+  
+  /**
+   * Creates a new ToolExecutionEngine with the given tool registry and executor.
+   * 
+   * @param toolRegistry the tool registry to use for tool discovery
+   * @param executor the executor that runs synchronous tools called asynchronously
+   */
+  public ToolExecutionEngine(IToolRegistry toolRegistry, Executor executor) {
+    this(toolRegistry, executor, CircuitBreakerConfig.defaults());
+  }
+  
+  /**
+   * Creates a new ToolExecutionEngine with explicit circuit breaker settings.
+   * 
+   * @param toolRegistry the tool registry to use for tool discovery
+   * @param executor the executor that runs synchronous tools called asynchronously
+   * @param circuitBreakerConfig the configuration applied to every tool's circuit breaker
+   */
+  public ToolExecutionEngine(IToolRegistry toolRegistry, Executor executor,
+      CircuitBreakerConfig circuitBreakerConfig) {
     this.toolRegistry = toolRegistry;
+    this.executor = executor;
+    this.circuitBreakerConfig = circuitBreakerConfig;
   }
   
   @Override
   public IToolResult executeTool(String toolName, Map<String, Object> parameters) {
+    return dispatchTool(toolName, parameters, false).join();
+  }
+  
+  @Override
+  public CompletableFuture<IToolResult> executeToolAsync(String toolName,
+      Map<String, Object> parameters) {
+    return dispatchTool(toolName, parameters, true);
+  }
+  
+  /**
+   * Looks up a tool, checks that it can run and invokes it.
+   * 
+   * @param toolName the tool name
+   * @param parameters the call parameters
+   * @param async whether synchronous tools should be moved off the calling thread
+   * @return a future holding the tool result
+   */
+  private CompletableFuture<IToolResult> dispatchTool(String toolName,
+      Map<String, Object> parameters, boolean async) {
     log.debug("Executing tool: {} with parameters: {}", toolName, parameters);
     
     // Get the tool from registry
     Optional<ITool> toolOpt = toolRegistry.getTool(toolName);
     if (!toolOpt.isPresent()) {
       log.debug("Tool not found: {}", toolName);
-      return ToolResult.failure("Tool not found: " + toolName);
+      return CompletableFuture.completedFuture(ToolResult.failure("Tool not found: " + toolName));
     }
     
     ITool tool = toolOpt.get();
@@ -51,54 +126,395 @@ public class ToolExecutionEngine implements IToolExecutionEngine {
     // Check if tool is enabled
     if (!toolRegistry.isToolEnabled(toolName)) {
       log.debug("Tool is disabled: {}", toolName);
+      statistics.forTool(toolName).onRejected();
+      return CompletableFuture.completedFuture(ToolResult.failure("Tool is disabled: " + toolName));
+    }
+    
+    // Check the circuit breaker, falling back to a sibling tool while open
+    ToolCircuitBreaker circuitBreaker = getCircuitBreaker(toolName);
+    long permit = circuitBreaker.tryAcquirePermit();
+    if (permit == ToolCircuitBreaker.NO_PERMIT) {
+      statistics.forTool(toolName).onRejected();
+      return executeFallback(toolName, parameters, async);
+    }
+    
+    return createAndInvokeTool(tool, toolName, parameters, circuitBreaker, permit, async);
+  }
+  
+  @Override
+  public IToolResult executeBatch(String toolName, long[] values) {
+    return executeBatch(toolName, values.length, tool -> tool.executeBatch(values));
+  }
+  
+  @Override
+  public IToolResult executeBatch(String toolName, double[] values) {
+    return executeBatch(toolName, values.length, tool -> tool.executeBatch(values));
+  }
+  
+  /**
+   * Runs a batch call on a tool after the usual availability checks.
+   * 
+   * @param toolName the tool name
+   * @param count the number of values in the batch
+   * @param call the batch call to make
+   * @return the tool result
+   */
+  private IToolResult executeBatch(String toolName, int count, Function<IBatchTool, IToolResult> call) {
+    log.debug("Executing batch of {} values with tool: {}", count, toolName);
+    
+    Optional<ITool> toolOpt = toolRegistry.getTool(toolName);
+    if (!toolOpt.isPresent()) {
+      return ToolResult.failure("Tool not found: " + toolName);
+    }
+    ITool target;
+    try {
+      target = LazyTool.unwrap(toolOpt.get());
+    } catch (RuntimeException e) {
+      return ToolResult.failure(e.getMessage());
+    }
+    if (!(target instanceof IBatchTool)) {
+      return ToolResult.failure("Tool does not support batch execution: " + toolName);
+    }
+    if (!toolRegistry.isToolEnabled(toolName)) {
+      statistics.forTool(toolName).onRejected();
       return ToolResult.failure("Tool is disabled: " + toolName);
     }
     
+    ToolCircuitBreaker circuitBreaker = getCircuitBreaker(toolName);
+    long permit = circuitBreaker.tryAcquirePermit();
+    if (permit == ToolCircuitBreaker.NO_PERMIT) {
+      statistics.forTool(toolName).onRejected();
+      return ToolResult.failure("Tool temporarily unavailable: " + toolName);
+    }
+    IBatchTool tool = (IBatchTool) target;
+    return runGuarded(toolName, circuitBreaker, permit, () -> call.apply(tool));
+  }
+  
+  /**
+   * Creates a lazily discovered tool on its first call, then invokes it. A tool that
+   * cannot be created counts as a failed call.
+   * 
+   * @param tool the registry entry of the tool
+   * @param toolName the name the tool was requested by
+   * @param parameters the call parameters
+   * @param circuitBreaker the breaker holding the call permission
+   * @param permit the permit the breaker granted for the call
+   * @param async whether a synchronous tool should run on the executor
+   * @return a future holding the tool result
+   */
+  private CompletableFuture<IToolResult> createAndInvokeTool(ITool tool, String toolName,
+      Map<String, Object> parameters, ToolCircuitBreaker circuitBreaker, long permit,
+      boolean async) {
+    ITool target;
     try {
-      // Create tool input and set parameters
-      String sessionId = (String) parameters.get("sessionId");
-      IToolInput input = new ToolInput(sessionId);
-      
-      // Set all parameters except sessionId
-      for (Map.Entry<String, Object> entry : parameters.entrySet()) {
-        if (!"sessionId".equals(entry.getKey())) {
-          input.setParameter(entry.getKey(), entry.getValue());
-        }
-      }
+      target = LazyTool.unwrap(tool);
+    } catch (RuntimeException e) {
+      ToolStatistics toolStatistics = statistics.forTool(toolName);
+      toolStatistics.onFailure(toolStatistics.onStart());
+      circuitBreaker.onFailure(permit, 0);
+      log.error("Error creating tool {}: {}", toolName, e.getMessage(), e);
+      return CompletableFuture.completedFuture(ToolResult.failure(e.getMessage()));
+    }
+    return invokeTool(target, toolName, parameters, circuitBreaker, permit, async);
+  }
+  
+  /**
+   * Builds the tool input, validates it and executes the tool.
+   * 
+   * @param tool the tool to execute
+   * @param toolName the name the tool was requested by
+   * @param parameters the call parameters
+   * @param circuitBreaker the breaker holding the call permission
+   * @param permit the permit the breaker granted for the call
+   * @param async whether a synchronous tool should run on the executor
+   * @return a future holding the tool result
+   */
+  private CompletableFuture<IToolResult> invokeTool(ITool tool, String toolName,
+      Map<String, Object> parameters, ToolCircuitBreaker circuitBreaker, long permit,
+      boolean async) {
+    // Create and validate the tool input; sessionId is split out of the parameters
+    IToolInput input = createValidInput(tool, toolName, parameters);
+    if (input == null) {
+      log.debug("Tool input validation failed for {}", toolName);
+      circuitBreaker.releasePermit(permit);
+      statistics.forTool(toolName).onInvalidInput();
+      return CompletableFuture.completedFuture(
+          ToolResult.failure("Invalid input parameters for tool: " + toolName));
+    }
+    
+    // Execute the tool
+    log.debug("Tool validation passed, executing tool: {}", toolName);
+    if (tool instanceof IAsyncTool) {
+      IAsyncTool asyncTool = (IAsyncTool) tool;
+      return runGuardedAsync(toolName, circuitBreaker, permit, () -> asyncTool.executeAsync(input));
+    }
+    if (async) {
+      return CompletableFuture.supplyAsync(
+          () -> runGuarded(toolName, circuitBreaker, permit, () -> tool.execute(input)), executor);
+    }
+    return CompletableFuture.completedFuture(
+        runGuarded(toolName, circuitBreaker, permit, () -> tool.execute(input)));
+  }
+  
+  /**
+   * Builds the input of a tool call and validates it.
+   * 
+   * @param tool the tool to execute
+   * @param toolName the name the tool was requested by
+   * @param parameters the call parameters
+   * @return the tool input, or null if the parameters are not valid for the tool
+   */
+  private static IToolInput createValidInput(ITool tool, String toolName,
+      Map<String, Object> parameters) {
+    try {
+      IToolInput input = ToolInput.fromParameters(parameters);
+      return tool.validateInput(input) ? input : null;
+    } catch (Exception e) {
+      log.debug("Tool input validation threw for {}: {}", toolName, e.getMessage());
+      return null;
+    }
+  }
+  
+  /**
+   * Executes a tool call and records its outcome on the circuit breaker that granted it.
+   * 
+   * @param toolName the tool name
+   * @param circuitBreaker the breaker holding the call permission
+   * @param permit the permit the breaker granted for the call
+   * @param call the tool call
+   * @return the tool result
+   */
+  private IToolResult runGuarded(String toolName, ToolCircuitBreaker circuitBreaker, long permit,
+      Supplier<IToolResult> call) {
+    ToolStatistics toolStatistics = statistics.forTool(toolName);
+    long startNanos = toolStatistics.onStart();
+    long startTime = System.currentTimeMillis();
+    try {
+      IToolResult result = call.get();
       
-      // Validate input
-      boolean isValidInput = tool.validateInput(input);
-      if (!isValidInput) {
-        log.debug("Tool input validation failed for {}", toolName);
-        return ToolResult.failure("Invalid input parameters for tool: " + toolName);
+      long duration = System.currentTimeMillis() - startTime;
+      if (result.isSuccess()) {
+        circuitBreaker.onSuccess(permit, duration);
+        toolStatistics.onSuccess(startNanos);
+      } else {
+        circuitBreaker.onFailure(permit, duration);
+        toolStatistics.onFailure(startNanos);
       }
       
-      // Execute the tool
-      log.debug("Tool validation passed, executing tool: {}", toolName);
-      IToolResult result = tool.execute(input);
-      
       log.debug("Tool execution completed for {}: success={}", toolName, result.isSuccess());
       return result;
       
     } catch (Exception e) {
+      circuitBreaker.onFailure(permit, System.currentTimeMillis() - startTime);
+      toolStatistics.onFailure(startNanos);
       log.error("Error executing tool {}: {}", toolName, e.getMessage(), e);
       return ToolResult.failure("Tool execution error: " + e.getMessage());
     }
   }
   
+  /**
+   * Starts an asynchronous tool call and records its outcome on the circuit breaker
+   * once the returned future completes. Calls still running after the async tool
+   * timeout complete with a failure.
+   * 
+   * @param toolName the tool name
+   * @param circuitBreaker the breaker holding the call permission
+   * @param permit the permit the breaker granted for the call
+   * @param call starts the tool call
+   * @return a future holding the tool result
+   */
+  private CompletableFuture<IToolResult> runGuardedAsync(String toolName,
+      ToolCircuitBreaker circuitBreaker, long permit, Supplier<CompletableFuture<IToolResult>> call) {
+    ToolStatistics toolStatistics = statistics.forTool(toolName);
+    long startNanos = toolStatistics.onStart();
+    long startTime = System.currentTimeMillis();
+    long timeoutMs = asyncToolTimeoutMs;
+    CompletableFuture<IToolResult> future;
+    try {
+      future = call.get();
+    } catch (Exception e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+    if (timeoutMs > 0) {
+      // Time out a copy so the tool's own future is left untouched
+      future = future.thenApply(Function.identity()).orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+    
+    return future.handle((result, error) -> {
+      long duration = System.currentTimeMillis() - startTime;
+      if (error != null && rootCause(error) instanceof TimeoutException) {
+        circuitBreaker.onFailure(permit, duration);
+        toolStatistics.onTimeout(startNanos);
+        log.warn("Tool {} timed out after {} ms", toolName, timeoutMs);
+        return ToolResult.failure("Tool timed out after " + timeoutMs + " ms: " + toolName);
+      }
+      if (error != null || result == null) {
+        circuitBreaker.onFailure(permit, duration);
+        toolStatistics.onFailure(startNanos);
+        String message = error != null ? rootMessage(error) : "no result";
+        log.error("Error executing tool {}: {}", toolName, message);
+        return ToolResult.failure("Tool execution error: " + message);
+      }
+      if (result.isSuccess()) {
+        circuitBreaker.onSuccess(permit, duration);
+        toolStatistics.onSuccess(startNanos);
+      } else {
+        circuitBreaker.onFailure(permit, duration);
+        toolStatistics.onFailure(startNanos);
+      }
+      log.debug("Async tool execution completed for {}: success={}", toolName, result.isSuccess());
+      return result;
+    });
+  }
+  
+  /**
+   * Executes the configured fallback for a tool whose circuit is open.
+   * 
+   * @param toolName the tool whose circuit is open
+   * @param parameters the call parameters
+   * @param async whether a synchronous fallback should run on the executor
+   * @return the fallback result, or a failure if no fallback can run
+   */
+  private CompletableFuture<IToolResult> executeFallback(String toolName,
+      Map<String, Object> parameters, boolean async) {
+    String fallbackName = fallbackTools.get(toolName);
+    if (fallbackName != null && toolRegistry.isToolEnabled(fallbackName)) {
+      Optional<ITool> fallbackOpt = toolRegistry.getTool(fallbackName);
+      ToolCircuitBreaker fallbackBreaker = getCircuitBreaker(fallbackName);
+      long permit = fallbackOpt.isPresent()
+          ? fallbackBreaker.tryAcquirePermit() : ToolCircuitBreaker.NO_PERMIT;
+      if (permit != ToolCircuitBreaker.NO_PERMIT) {
+        log.debug("Circuit open for {}, using fallback tool {}", toolName, fallbackName);
+        return createAndInvokeTool(fallbackOpt.get(), fallbackName, parameters, fallbackBreaker,
+            permit, async);
+      }
+    }
+    log.debug("Circuit open for {}, rejecting call", toolName);
+    return CompletableFuture.completedFuture(
+        ToolResult.failure("Tool temporarily unavailable: " + toolName));
+  }
+  
+  /**
+   * Configures a fallback used while the circuit of a tool is open.
+   * Both tools must be registered and belong to the same ToolCategory.
+   * 
+   * @param toolName the primary tool
+   * @param fallbackToolName the fallback tool, or null to remove the fallback
+   * @return true if the fallback was configured, false otherwise
+   */
+  public boolean setFallbackTool(String toolName, String fallbackToolName) {
+    if (fallbackToolName == null) {
+      fallbackTools.remove(toolName);
+      return true;
+    }
+    Optional<IToolMetadata> primary = toolRegistry.getToolMetadata(toolName);
+    Optional<IToolMetadata> fallback = toolRegistry.getToolMetadata(fallbackToolName);
+    if (!primary.isPresent() || !fallback.isPresent() || toolName.equals(fallbackToolName)
+        || primary.get().getCategory() != fallback.get().getCategory()) {
+      log.debug("Cannot use {} as fallback for {}", fallbackToolName, toolName);
+      return false;
+    }
+    fallbackTools.put(toolName, fallbackToolName);
+    return true;
+  }
+  
+  /**
+   * Gets the circuit state of a tool.
+   * 
+   * @param toolName the tool name
+   * @return the circuit state
+   */
+  public CircuitState getCircuitState(String toolName) {
+    return getCircuitBreaker(toolName).getState();
+  }
+  
+  /**
+   * Gets the call statistics of a tool.
+   * 
+   * @param toolName the tool name
+   * @return the tool statistics, or null if the tool has never been called
+   */
+  public ToolStatistics getToolStatistics(String toolName) {
+    return statistics.get(toolName);
+  }
+  
+  /**
+   * Gets the call statistics of every tool that has been called.
+   * 
+   * @return the tool statistics
+   */
+  public List<ToolStatistics> getAllToolStatistics() {
+    return statistics.getAll();
+  }
+  
+  /**
+   * Publishes per-tool statistics as JMX MXBeans.
+   * 
+   * @param engineName distinguishes this engine's MBeans from other engines in the JVM
+   */
+  public void registerStatisticsMBeans(String engineName) {
+    statistics.registerMBeans(engineName);
+  }
+  
+  /**
+   * Sets how long an asynchronous tool may run before its call fails as timed out.
+   * 
+   * @param timeoutMs the timeout in milliseconds, or 0 to wait indefinitely
+   */
+  public void setAsyncToolTimeoutMs(long timeoutMs) {
+    this.asyncToolTimeoutMs = Math.max(0L, timeoutMs);
+  }
+  
+  /**
+   * Sets the metrics that count tool schema cache hits and misses.
+   * 
+   * @param metrics the metrics, or null to stop counting
+   */
+  public void setMetrics(AgentMetrics metrics) {
+    this.metrics = metrics;
+  }
+  
+  /**
+   * Gets or creates the circuit breaker for a tool.
+   * 
+   * @param toolName the tool name
+   * @return the circuit breaker
+   */
+  private ToolCircuitBreaker getCircuitBreaker(String toolName) {
+    ToolCircuitBreaker circuitBreaker = circuitBreakers.get(toolName);
+    if (circuitBreaker == null) {
+      circuitBreaker = circuitBreakers.computeIfAbsent(toolName,
+          name -> new ToolCircuitBreaker(name, circuitBreakerConfig));
+    }
+    return circuitBreaker;
+  }
+  
+  /**
+   * Checks whether the circuit of a tool currently lets calls through.
+   * 
+   * @param toolName the tool name
+   * @return true unless the circuit is open
+   */
+  private boolean isCircuitClosed(String toolName) {
+    ToolCircuitBreaker circuitBreaker = circuitBreakers.get(toolName);
+    return circuitBreaker == null || circuitBreaker.isCallPermitted();
+  }
+  
   @Override
   public List<Map<String, Object>> getAvailableToolSchemas() {
     log.debug("Getting available tool schemas");
     
-    List<Map<String, Object>> schemas = new ArrayList<>();
+    SchemaCache cache = currentSchemaCache();
     List<ITool> enabledTools = toolRegistry.getEnabledTools();
+    List<Map<String, Object>> schemas = new ArrayList<>(enabledTools.size());
     
     for (ITool tool : enabledTools) {
+      if (!isCircuitClosed(tool.getId())) {
+        log.debug("Omitting schema for tool {}: circuit open", tool.getId());
+        continue;
+      }
       try {
-        IToolMetadata metadata = tool.getMetadata();
-        Map<String, Object> schema = convertMetadataToSchema(metadata);
-        schemas.add(schema);
-        log.debug("Added schema for tool: {}", metadata.getId());
+        schemas.add(cache.get(tool, this::convertMetadataToSchema, metrics));
       } catch (Exception e) {
         log.warn("Failed to get schema for tool {}: {}", tool.getId(), e.getMessage());
       }
@@ -116,7 +532,9 @@ public class ToolExecutionEngine implements IToolExecutionEngine {
     List<ITool> enabledTools = toolRegistry.getEnabledTools();
     
     for (ITool tool : enabledTools) {
-      toolNames.add(tool.getId());
+      if (isCircuitClosed(tool.getId())) {
+        toolNames.add(tool.getId());
+      }
     }
     
     log.debug("Retrieved {} tool names", toolNames.size());
@@ -125,28 +543,186 @@ public class ToolExecutionEngine implements IToolExecutionEngine {
   
   @Override
   public boolean isToolAvailable(String toolName) {
-    return toolRegistry.isToolRegistered(toolName) && toolRegistry.isToolEnabled(toolName);
+    return toolRegistry.isToolRegistered(toolName) && toolRegistry.isToolEnabled(toolName)
+        && isCircuitClosed(toolName);
   }
   
   @Override
   public Map<String, Object> getToolSchema(String toolName) {
     log.debug("Getting schema for tool: {}", toolName);
     
+    SchemaCache cache = currentSchemaCache();
     Optional<ITool> toolOpt = toolRegistry.getTool(toolName);
-    if (!toolOpt.isPresent() || !toolRegistry.isToolEnabled(toolName)) {
+    if (!toolOpt.isPresent() || !toolRegistry.isToolEnabled(toolName)
+        || !isCircuitClosed(toolName)) {
       log.debug("Tool not available: {}", toolName);
       return null;
     }
     
     try {
-      IToolMetadata metadata = toolOpt.get().getMetadata();
-      return convertMetadataToSchema(metadata);
+      return cache.get(toolOpt.get(), this::convertMetadataToSchema, metrics);
     } catch (Exception e) {
       log.warn("Failed to get schema for tool {}: {}", toolName, e.getMessage());
       return null;
     }
   }
   
+  @Override
+  public Map<String, IToolResult> executePlan(IToolPlan plan, String sessionId) {
+    List<IToolPlanStep> order;
+    try {
+      order = plan.getExecutionOrder();
+    } catch (IllegalStateException e) {
+      log.debug("Rejecting invalid tool plan: {}", e.getMessage());
+      Map<String, IToolResult> results = new LinkedHashMap<>();
+      for (IToolPlanStep step : plan.getSteps()) {
+        results.put(step.getId(), ToolResult.failure("Invalid plan: " + e.getMessage()));
+      }
+      return results;
+    }
+    
+    log.debug("Executing tool plan with {} steps", order.size());
+    Map<String, IToolResult> completed = new ConcurrentHashMap<>();
+    Map<String, CompletableFuture<IToolResult>> futures = new HashMap<>();
+    
+    // Steps are visited in topological order, so every dependency future already exists
+    for (IToolPlanStep step : order) {
+      CompletableFuture<?>[] dependencies = step.getDependencies().stream()
+          .map(futures::get)
+          .toArray(CompletableFuture[]::new);
+      
+      CompletableFuture<IToolResult> future = CompletableFuture.allOf(dependencies)
+          .thenCompose(ignored -> executePlanStep(step, completed, sessionId))
+          .exceptionally(e -> ToolResult.failure("Plan step error: " + rootMessage(e)));
+      futures.put(step.getId(), future.thenApply(result -> {
+        completed.put(step.getId(), result);
+        return result;
+      }));
+    }
+    
+    Map<String, IToolResult> results = new LinkedHashMap<>();
+    for (IToolPlanStep step : order) {
+      results.put(step.getId(), futures.get(step.getId()).join());
+    }
+    log.debug("Tool plan completed with {} steps", results.size());
+    return results;
+  }
+  
+  /**
+   * Executes a single plan step once all of its dependencies have completed.
+   * 
+   * @param step the step to execute
+   * @param completed results of completed steps
+   * @param sessionId the session ID, may be null
+   * @return a future holding the step result
+   */
+  private CompletableFuture<IToolResult> executePlanStep(IToolPlanStep step, Map<String, IToolResult> completed,
+      String sessionId) {
+    for (String dependency : step.getDependencies()) {
+      IToolResult dependencyResult = completed.get(dependency);
+      if (dependencyResult == null || !dependencyResult.isSuccess()) {
+        log.debug("Skipping plan step {}: dependency {} failed", step.getId(), dependency);
+        return CompletableFuture.completedFuture(
+            ToolResult.failure("Skipped: dependency " + dependency + " failed"));
+      }
+    }
+    
+    Map<String, Object> parameters = step.resolveArguments(completed);
+    if (sessionId != null) {
+      parameters.put("sessionId", sessionId);
+    }
+    log.debug("Executing plan step {} with tool {}", step.getId(), step.getToolName());
+    return executeToolAsync(step.getToolName(), parameters);
+  }
+  
+  /**
+   * Unwraps completion exceptions to the message of the underlying cause.
+   * 
+   * @param throwable the throwable
+   * @return the most specific message available
+   */
+  private static String rootMessage(Throwable throwable) {
+    return rootCause(throwable).getMessage();
+  }
+  
+  /**
+   * Unwraps completion exceptions to the underlying cause.
+   * 
+   * @param throwable the throwable
+   * @return the underlying cause
+   */
+  private static Throwable rootCause(Throwable throwable) {
+    Throwable cause = throwable;
+    while (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause;
+  }
+  
+  /**
+   * Gets the schema cache for the current registry version, starting a new one
+   * if the registry has changed. Must be called before reading tools from the
+   * registry so a cache is never labelled newer than its contents.
+   * 
+   * @return the schema cache
+   */
+  private SchemaCache currentSchemaCache() {
+    long version = toolRegistry.getVersion();
+    SchemaCache cache = schemaCache;
+    if (cache.version != version) {
+      cache = new SchemaCache(version);
+      schemaCache = cache;
+    }
+    return cache;
+  }
+  
+  /**
+   * Tool schemas built for one version of the registry.
+   * Misses fall back to schemas shared by every engine, keyed by tool instance, so
+   * engines over registry overlays reuse the schemas built for their base tools.
+   */
+  private static final class SchemaCache {
+    
+    private static final Map<ITool, Map<String, Object>> SHARED =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    
+    private final long version;
+    private final Map<String, Map<String, Object>> schemas = new ConcurrentHashMap<>();
+    
+    SchemaCache(long version) {
+      this.version = version;
+    }
+    
+    Map<String, Object> get(ITool tool, Function<IToolMetadata, Map<String, Object>> builder,
+        AgentMetrics metrics) {
+      Map<String, Object> schema = schemas.get(tool.getId());
+      if (schema == null) {
+        if (metrics != null) {
+          metrics.onCacheMiss();
+        }
+        schema = SHARED.computeIfAbsent(tool,
+            key -> Collections.unmodifiableMap(builder.apply(key.getMetadata())));
+        schemas.put(tool.getId(), schema);
+      } else if (metrics != null) {
+        metrics.onCacheHit();
+      }
+      return schema;
+    }
+  }
+  
+  /**
+   * Creates the default executor for synchronous tools called asynchronously.
+   * 
+   * @return a cached thread pool with daemon threads
+   */
+  private static ExecutorService createDefaultExecutor() {
+    return Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "tool-executor");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+  
   /**
    * Converts tool metadata to a schema format suitable for LLM APIs.
    * 
@@ -168,7 +744,17 @@ public class ToolExecutionEngine implements IToolExecutionEngine {
     
     for (IParameter param : metadata.getParameters()) {
       Map<String, Object> paramSchema = new HashMap<>();
-      paramSchema.put("type", mapParameterType(param.getType()));
+      String type = param.getType();
+      if (type != null && type.endsWith("[]")) {
+        // Typed arrays such as "number[]" declare their element type
+        paramSchema.put("type", "array");
+        paramSchema.put("items", Map.of("type", mapParameterType(type.substring(0, type.length() - 2))));
+      } else {
+        paramSchema.put("type", mapParameterType(type));
+        if ("array".equals(paramSchema.get("type"))) {
+          paramSchema.put("items", Map.of("type", "string"));
+        }
+      }
       paramSchema.put("description", param.getDescription());
       
       properties.put(param.getName(), paramSchema);
@@ -0,0 +1,352 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.core.IToolRegistry;
+import com.arv.framework.adk.interfaces.enums.ReturnType;
+import com.arv.framework.adk.interfaces.enums.ToolCategory;
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registry view layered over a shared base registry, e.g. one per tenant or session.
+ * The overlay only records its own changes: tools added locally, base tools removed
+ * and enabled flags overridden. Everything else is read through from the base, so
+ * thousands of overlays cost little more than their changes, and engines over them
+ * share the schemas built for base tools.
+ *
+ * <p>Local changes never touch the base registry or the shared tool instances.
+ * The version is the base version plus the number of local changes, so it moves
+ * whenever either side changes.
+ */
+public class ToolRegistryOverlay implements IToolRegistry {
+
+  private final IToolRegistry base;
+  private volatile Layer layer = new Layer(ToolRegistrySnapshot.empty(),
+      Collections.emptySet(), Collections.emptyMap(), 0L);
+  private volatile View view;
+
+  /**
+   * Creates an empty overlay over a base registry.
+   *
+   * @param base the shared base registry
+   */
+  public ToolRegistryOverlay(IToolRegistry base) {
+    this.base = base;
+  }
+
+  /**
+   * Gets the base registry.
+   *
+   * @return the base registry
+   */
+  public IToolRegistry getBase() {
+    return base;
+  }
+
+  @Override
+  public synchronized boolean registerTool(ITool tool) {
+    if (tool == null || tool.getId() == null) {
+      return false;
+    }
+    Layer current = layer;
+    layer = current.with(current.added.withTool(tool, tool.isEnabled()),
+        without(current.hidden, tool.getId()), without(current.overrides, tool.getId()));
+    return true;
+  }
+
+  @Override
+  public synchronized int registerTools(Collection<? extends ITool> newTools) {
+    int count = 0;
+    for (ITool tool : newTools) {
+      if (registerTool(tool)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public synchronized boolean unregisterTool(String toolId) {
+    Layer current = layer;
+    boolean inBase = !current.hidden.contains(toolId) && base.isToolRegistered(toolId);
+    if (!current.added.contains(toolId) && !inBase) {
+      return false;
+    }
+    Set<String> hidden = current.hidden;
+    if (inBase) {
+      hidden = new HashSet<>(hidden);
+      hidden.add(toolId);
+    }
+    layer = current.with(current.added.withoutTool(toolId), hidden,
+        without(current.overrides, toolId));
+    return true;
+  }
+
+  @Override
+  public Optional<ITool> getTool(String toolId) {
+    return Optional.ofNullable(resolve(layer, toolId));
+  }
+
+  @Override
+  public Optional<ITool> findToolByName(String nameOrAlias) {
+    Layer current = layer;
+    ITool tool = current.added.findByName(nameOrAlias);
+    if (tool != null) {
+      return Optional.of(tool);
+    }
+    Optional<ITool> inherited = base.findToolByName(nameOrAlias);
+    return inherited.isPresent() && isInherited(current, inherited.get().getId())
+        ? inherited : Optional.empty();
+  }
+
+  @Override
+  public List<ITool> getToolsByCategory(ToolCategory category) {
+    Layer current = layer;
+    return merge(current, base.getToolsByCategory(category), current.added.getToolsByCategory(category));
+  }
+
+  @Override
+  public List<ITool> getToolsByReturnType(ReturnType returnType) {
+    Layer current = layer;
+    return merge(current, base.getToolsByReturnType(returnType),
+        current.added.getToolsByReturnType(returnType));
+  }
+
+  @Override
+  public List<ITool> getAllTools() {
+    return currentView().all;
+  }
+
+  @Override
+  public List<ITool> getEnabledTools() {
+    return currentView().enabled;
+  }
+
+  @Override
+  public List<ITool> getDisabledTools() {
+    return currentView().disabled;
+  }
+
+  @Override
+  public boolean enableTool(String toolId) {
+    return setToolEnabled(toolId, true);
+  }
+
+  @Override
+  public boolean disableTool(String toolId) {
+    return setToolEnabled(toolId, false);
+  }
+
+  @Override
+  public boolean isToolRegistered(String toolId) {
+    return resolve(layer, toolId) != null;
+  }
+
+  @Override
+  public boolean isToolEnabled(String toolId) {
+    return isEnabled(layer, toolId);
+  }
+
+  @Override
+  public Optional<IToolMetadata> getToolMetadata(String toolId) {
+    ITool tool = resolve(layer, toolId);
+    return tool != null ? Optional.of(tool.getMetadata()) : Optional.empty();
+  }
+
+  @Override
+  public int getToolCount() {
+    return currentView().all.size();
+  }
+
+  @Override
+  public long getVersion() {
+    return base.getVersion() + layer.version;
+  }
+
+  /**
+   * Drops every local change, making the overlay a plain view of the base again.
+   */
+  public synchronized void reset() {
+    Layer current = layer;
+    layer = current.with(ToolRegistrySnapshot.empty(), Collections.emptySet(), Collections.emptyMap());
+  }
+
+  /**
+   * Checks whether the overlay changes anything about a tool.
+   *
+   * @param toolId the tool ID
+   * @return true if the tool is added, removed or has its enabled flag overridden locally
+   */
+  public boolean isOverridden(String toolId) {
+    Layer current = layer;
+    return current.added.contains(toolId) || current.hidden.contains(toolId)
+        || current.overrides.containsKey(toolId);
+  }
+
+  /**
+   * Overrides the enabled flag of a visible tool without touching the tool itself,
+   * which may be shared with other overlays.
+   *
+   * @param toolId the tool ID
+   * @param enabled the new enabled flag
+   * @return true if the tool is visible in this overlay, false otherwise
+   */
+  private synchronized boolean setToolEnabled(String toolId, boolean enabled) {
+    Layer current = layer;
+    if (current.added.contains(toolId)) {
+      layer = current.with(current.added.withEnabled(toolId, enabled), current.hidden, current.overrides);
+      return true;
+    }
+    if (!isInherited(current, toolId) || !base.isToolRegistered(toolId)) {
+      return false;
+    }
+    Map<String, Boolean> overrides = new HashMap<>(current.overrides);
+    overrides.put(toolId, enabled);
+    layer = current.with(current.added, current.hidden, overrides);
+    return true;
+  }
+
+  private ITool resolve(Layer current, String toolId) {
+    ITool tool = current.added.getTool(toolId);
+    if (tool != null) {
+      return tool;
+    }
+    return current.hidden.contains(toolId) ? null : base.getTool(toolId).orElse(null);
+  }
+
+  private boolean isEnabled(Layer current, String toolId) {
+    if (current.added.contains(toolId)) {
+      return current.added.isEnabled(toolId);
+    }
+    if (current.hidden.contains(toolId)) {
+      return false;
+    }
+    Boolean override = current.overrides.get(toolId);
+    return override != null ? override : base.isToolEnabled(toolId);
+  }
+
+  /**
+   * Checks whether a base tool shows through the overlay, i.e. is neither removed
+   * nor replaced by a local tool with the same ID.
+   */
+  private static boolean isInherited(Layer current, String toolId) {
+    return !current.hidden.contains(toolId) && !current.added.contains(toolId);
+  }
+
+  /**
+   * Merges base tools that show through the overlay with local tools.
+   */
+  private static List<ITool> merge(Layer current, List<ITool> inherited, List<ITool> local) {
+    if (current.isEmpty()) {
+      return inherited;
+    }
+    List<ITool> merged = new ArrayList<>(inherited.size() + local.size());
+    for (ITool tool : inherited) {
+      if (isInherited(current, tool.getId())) {
+        merged.add(tool);
+      }
+    }
+    merged.addAll(local);
+    return Collections.unmodifiableList(merged);
+  }
+
+  /**
+   * Gets the merged tool lists for the current version, rebuilding them if the
+   * base or the overlay has changed. The version is read before the tools so a
+   * view is never labelled newer than its contents.
+   */
+  private View currentView() {
+    Layer current = layer;
+    long version = base.getVersion() + current.version;
+    View cached = view;
+    if (cached != null && cached.version == version) {
+      return cached;
+    }
+
+    List<ITool> all = merge(current, base.getAllTools(), current.added.getAllTools());
+    List<ITool> enabled = new ArrayList<>();
+    List<ITool> disabled = new ArrayList<>();
+    for (ITool tool : all) {
+      if (isEnabled(current, tool.getId())) {
+        enabled.add(tool);
+      } else {
+        disabled.add(tool);
+      }
+    }
+    cached = new View(version, all, Collections.unmodifiableList(enabled),
+        Collections.unmodifiableList(disabled));
+    view = cached;
+    return cached;
+  }
+
+  private static Set<String> without(Set<String> set, String toolId) {
+    if (!set.contains(toolId)) {
+      return set;
+    }
+    Set<String> copy = new HashSet<>(set);
+    copy.remove(toolId);
+    return copy;
+  }
+
+  private static Map<String, Boolean> without(Map<String, Boolean> map, String toolId) {
+    if (!map.containsKey(toolId)) {
+      return map;
+    }
+    Map<String, Boolean> copy = new HashMap<>(map);
+    copy.remove(toolId);
+    return copy;
+  }
+
+  /**
+   * Immutable set of local changes. Writers replace the whole layer.
+   */
+  private static final class Layer {
+
+    private final ToolRegistrySnapshot added;
+    private final Set<String> hidden;
+    private final Map<String, Boolean> overrides;
+    private final long version;
+
+    Layer(ToolRegistrySnapshot added, Set<String> hidden, Map<String, Boolean> overrides, long version) {
+      this.added = added;
+      this.hidden = hidden;
+      this.overrides = overrides;
+      this.version = version;
+    }
+
+    Layer with(ToolRegistrySnapshot newAdded, Set<String> newHidden, Map<String, Boolean> newOverrides) {
+      return new Layer(newAdded, newHidden, newOverrides, version + 1);
+    }
+
+    boolean isEmpty() {
+      return added.size() == 0 && hidden.isEmpty();
+    }
+  }
+
+  /**
+   * Merged tool lists for one version of the base and the overlay.
+   */
+  private static final class View {
+
+    private final long version;
+    private final List<ITool> all;
+    private final List<ITool> enabled;
+    private final List<ITool> disabled;
+
+    View(long version, List<ITool> all, List<ITool> enabled, List<ITool> disabled) {
+      this.version = version;
+      this.all = all;
+      this.enabled = enabled;
+      this.disabled = disabled;
+    }
+  }
+}
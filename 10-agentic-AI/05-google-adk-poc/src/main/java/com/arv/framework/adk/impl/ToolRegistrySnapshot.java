@@ -0,0 +1,457 @@
+package com.arv.framework.adk.impl;
+
+import com.arv.framework.adk.interfaces.enums.ReturnType;
+import com.arv.framework.adk.interfaces.enums.ToolCategory;
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.tools.PersistentHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the tools in a registry.
+ * Tools and their enabled flags are kept in arrays in registration order, and the
+ * enabled and disabled lists are computed once, so reads never allocate. Changes
+ * produce a new snapshot with the next version number.
+ * Secondary indexes map case-folded names and aliases, categories and return types
+ * to tools. Aliases come from the {@code aliases} metadata property, given as a
+ * list or a comma-separated string. Adding, replacing or removing one tool updates
+ * only the index entries of that tool, reading its metadata once.
+ */
+public final class ToolRegistrySnapshot {
+
+  private static final ToolRegistrySnapshot EMPTY =
+      new ToolRegistrySnapshot(0L, new ITool[0], new boolean[0], null);
+  
+  /**
+   * Metadata property listing alternative names of a tool.
+   */
+  public static final String ALIASES_PROPERTY = "aliases";
+
+  private final long version;
+  private final ITool[] tools;
+  private final boolean[] enabled;
+  private final Map<String, Integer> indexById;
+  private final List<ITool> allTools;
+  private final List<ITool> enabledTools;
+  private final List<ITool> disabledTools;
+  private final Indexes indexes;
+
+  private ToolRegistrySnapshot(long version, ITool[] tools, boolean[] enabled, Indexes indexes) {
+    this.version = version;
+    this.tools = tools;
+    this.enabled = enabled;
+
+    Map<String, Integer> index = new HashMap<>(tools.length * 2);
+    List<ITool> enabledList = new ArrayList<>(tools.length);
+    List<ITool> disabledList = new ArrayList<>();
+    for (int i = 0; i < tools.length; i++) {
+      index.put(tools[i].getId(), i);
+      if (enabled[i]) {
+        enabledList.add(tools[i]);
+      } else {
+        disabledList.add(tools[i]);
+      }
+    }
+    this.indexById = index;
+    this.allTools = Collections.unmodifiableList(Arrays.asList(tools));
+    this.enabledTools = Collections.unmodifiableList(enabledList);
+    this.disabledTools = Collections.unmodifiableList(disabledList);
+    this.indexes = indexes != null ? indexes : Indexes.build(tools);
+  }
+
+  /**
+   * Gets the snapshot of an empty registry.
+   *
+   * @return the empty snapshot with version 0
+   */
+  public static ToolRegistrySnapshot empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Gets the version of this snapshot. Every change increments it.
+   *
+   * @return the version number
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets a tool by ID.
+   *
+   * @param toolId the tool ID
+   * @return the tool, or null if not registered
+   */
+  public ITool getTool(String toolId) {
+    Integer index = toolId != null ? indexById.get(toolId) : null;
+    return index != null ? tools[index] : null;
+  }
+
+  /**
+   * Checks whether a tool is registered.
+   *
+   * @param toolId the tool ID
+   * @return true if registered
+   */
+  public boolean contains(String toolId) {
+    return toolId != null && indexById.containsKey(toolId);
+  }
+
+  /**
+   * Checks whether a tool is registered and enabled.
+   *
+   * @param toolId the tool ID
+   * @return true if enabled
+   */
+  public boolean isEnabled(String toolId) {
+    Integer index = toolId != null ? indexById.get(toolId) : null;
+    return index != null && enabled[index];
+  }
+
+  /**
+   * Gets all tools in registration order.
+   *
+   * @return an unmodifiable list of tools
+   */
+  public List<ITool> getAllTools() {
+    return allTools;
+  }
+
+  /**
+   * Gets the enabled tools in registration order.
+   *
+   * @return an unmodifiable list of tools
+   */
+  public List<ITool> getEnabledTools() {
+    return enabledTools;
+  }
+
+  /**
+   * Gets the disabled tools in registration order.
+   *
+   * @return an unmodifiable list of tools
+   */
+  public List<ITool> getDisabledTools() {
+    return disabledTools;
+  }
+
+  /**
+   * Finds a tool by name or alias, ignoring case.
+   *
+   * @param nameOrAlias the tool name or one of its aliases
+   * @return the tool, or null if none matches
+   */
+  public ITool findByName(String nameOrAlias) {
+    List<ITool> claimants = nameOrAlias != null ? indexes.byName.get(normalize(nameOrAlias)) : null;
+    return claimants != null ? claimants.get(0) : null;
+  }
+
+  /**
+   * Gets the tools in a category, enabled or not.
+   *
+   * @param category the category
+   * @return an unmodifiable list of tools in registration order
+   */
+  public List<ITool> getToolsByCategory(ToolCategory category) {
+    List<ITool> result = category != null ? indexes.byCategory.get(category) : null;
+    return result != null ? result : Collections.emptyList();
+  }
+
+  /**
+   * Gets the tools with a return type, enabled or not.
+   *
+   * @param returnType the return type
+   * @return an unmodifiable list of tools in registration order
+   */
+  public List<ITool> getToolsByReturnType(ReturnType returnType) {
+    List<ITool> result = returnType != null ? indexes.byReturnType.get(returnType) : null;
+    return result != null ? result : Collections.emptyList();
+  }
+
+  /**
+   * Gets the number of registered tools.
+   *
+   * @return the tool count
+   */
+  public int size() {
+    return tools.length;
+  }
+
+  /**
+   * Creates a snapshot with a tool added, or replaced if its ID is already registered.
+   *
+   * @param tool the tool
+   * @param toolEnabled whether the tool is enabled
+   * @return the new snapshot
+   */
+  ToolRegistrySnapshot withTool(ITool tool, boolean toolEnabled) {
+    Integer index = indexById.get(tool.getId());
+    if (index != null) {
+      ITool[] newTools = tools.clone();
+      boolean[] newEnabled = enabled.clone();
+      newTools[index] = tool;
+      newEnabled[index] = toolEnabled;
+      Indexes newIndexes = indexes.without(tools[index]).with(tool, index, indexById);
+      return new ToolRegistrySnapshot(version + 1, newTools, newEnabled, newIndexes);
+    }
+    ITool[] newTools = Arrays.copyOf(tools, tools.length + 1);
+    boolean[] newEnabled = Arrays.copyOf(enabled, enabled.length + 1);
+    newTools[tools.length] = tool;
+    newEnabled[tools.length] = toolEnabled;
+    Indexes newIndexes = indexes.with(tool, tools.length, indexById);
+    return new ToolRegistrySnapshot(version + 1, newTools, newEnabled, newIndexes);
+  }
+
+  /**
+   * Creates a snapshot with many tools added or replaced, rebuilding the indexes once.
+   *
+   * @param newTools the tools, with IDs already checked for null
+   * @return the new snapshot
+   */
+  ToolRegistrySnapshot withTools(Collection<ITool> newTools) {
+    Map<String, Integer> positions = new HashMap<>(indexById);
+    List<ITool> toolList = new ArrayList<>(Arrays.asList(tools));
+    boolean[] enabledFlags = Arrays.copyOf(enabled, tools.length + newTools.size());
+    for (ITool tool : newTools) {
+      Integer index = positions.get(tool.getId());
+      if (index != null) {
+        toolList.set(index, tool);
+      } else {
+        index = toolList.size();
+        positions.put(tool.getId(), index);
+        toolList.add(tool);
+      }
+      enabledFlags[index] = tool.isEnabled();
+    }
+    return new ToolRegistrySnapshot(version + 1, toolList.toArray(new ITool[0]),
+        Arrays.copyOf(enabledFlags, toolList.size()), null);
+  }
+
+  /**
+   * Creates a snapshot without a tool.
+   *
+   * @param toolId the tool ID
+   * @return the new snapshot, or this snapshot if the tool is not registered
+   */
+  ToolRegistrySnapshot withoutTool(String toolId) {
+    Integer index = indexById.get(toolId);
+    if (index == null) {
+      return this;
+    }
+    ITool[] newTools = new ITool[tools.length - 1];
+    boolean[] newEnabled = new boolean[enabled.length - 1];
+    System.arraycopy(tools, 0, newTools, 0, index);
+    System.arraycopy(tools, index + 1, newTools, index, tools.length - index - 1);
+    System.arraycopy(enabled, 0, newEnabled, 0, index);
+    System.arraycopy(enabled, index + 1, newEnabled, index, enabled.length - index - 1);
+    // Removing a tool keeps the order of the others, so only its entries change
+    return new ToolRegistrySnapshot(version + 1, newTools, newEnabled, indexes.without(tools[index]));
+  }
+
+  /**
+   * Creates a snapshot with a tool's enabled flag changed.
+   *
+   * @param toolId the tool ID
+   * @param toolEnabled the new enabled flag
+   * @return the new snapshot, or this snapshot if nothing changes
+   */
+  ToolRegistrySnapshot withEnabled(String toolId, boolean toolEnabled) {
+    Integer index = indexById.get(toolId);
+    if (index == null || enabled[index] == toolEnabled) {
+      return this;
+    }
+    boolean[] newEnabled = enabled.clone();
+    newEnabled[index] = toolEnabled;
+    // Same tools, so the indexes carry over
+    return new ToolRegistrySnapshot(version + 1, tools, newEnabled, indexes);
+  }
+
+  private static String normalize(String name) {
+    return name.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Secondary indexes over one array of tools. Never modified; changes for a single tool
+   * copy only the entries that tool is listed under.
+   * Each name maps to every tool claiming it in registration order, and the first one
+   * wins, so removing a tool hands its names to the next claimant.
+   */
+  private static final class Indexes {
+
+    private final PersistentHashMap<String, List<ITool>> byName;
+    private final Map<ToolCategory, List<ITool>> byCategory;
+    private final Map<ReturnType, List<ITool>> byReturnType;
+
+    private Indexes(PersistentHashMap<String, List<ITool>> byName,
+        Map<ToolCategory, List<ITool>> byCategory, Map<ReturnType, List<ITool>> byReturnType) {
+      this.byName = byName;
+      this.byCategory = byCategory;
+      this.byReturnType = byReturnType;
+    }
+
+    static Indexes build(ITool[] tools) {
+      Map<String, List<ITool>> names = new HashMap<>(tools.length * 2);
+      Map<ToolCategory, List<ITool>> categories = new EnumMap<>(ToolCategory.class);
+      Map<ReturnType, List<ITool>> returnTypes = new EnumMap<>(ReturnType.class);
+
+      for (ITool tool : tools) {
+        Keys keys = new Keys(tool);
+        for (String name : keys.names) {
+          names.computeIfAbsent(name, key -> new ArrayList<>()).add(tool);
+        }
+        if (keys.category != null) {
+          categories.computeIfAbsent(keys.category, key -> new ArrayList<>()).add(tool);
+        }
+        if (keys.returnType != null) {
+          returnTypes.computeIfAbsent(keys.returnType, key -> new ArrayList<>()).add(tool);
+        }
+      }
+
+      names.replaceAll((name, list) -> Collections.unmodifiableList(list));
+      categories.replaceAll((category, list) -> Collections.unmodifiableList(list));
+      returnTypes.replaceAll((returnType, list) -> Collections.unmodifiableList(list));
+      return new Indexes(PersistentHashMap.from(names), categories, returnTypes);
+    }
+
+    /**
+     * Lists a tool under its keys.
+     *
+     * @param tool the tool
+     * @param position the tool's position in registration order
+     * @param positions the positions of the tools already indexed, by ID
+     */
+    Indexes with(ITool tool, int position, Map<String, Integer> positions) {
+      Keys keys = new Keys(tool);
+      PersistentHashMap<String, List<ITool>> names = byName;
+      for (String name : keys.names) {
+        names = names.plus(name, inserted(names.get(name), tool, position, positions));
+      }
+      Map<ToolCategory, List<ITool>> categories = byCategory;
+      if (keys.category != null) {
+        categories = new EnumMap<>(byCategory);
+        categories.put(keys.category, inserted(byCategory.get(keys.category), tool, position, positions));
+      }
+      Map<ReturnType, List<ITool>> returnTypes = byReturnType;
+      if (keys.returnType != null) {
+        returnTypes = new EnumMap<>(byReturnType);
+        returnTypes.put(keys.returnType,
+            inserted(byReturnType.get(keys.returnType), tool, position, positions));
+      }
+      return new Indexes(names, categories, returnTypes);
+    }
+
+    /**
+     * Removes a tool from the entries it is listed under.
+     *
+     * @param tool the tool
+     */
+    Indexes without(ITool tool) {
+      Keys keys = new Keys(tool);
+      PersistentHashMap<String, List<ITool>> names = byName;
+      for (String name : keys.names) {
+        List<ITool> remaining = removed(names.get(name), tool);
+        names = remaining != null ? names.plus(name, remaining) : names.minus(name);
+      }
+      Map<ToolCategory, List<ITool>> categories = byCategory;
+      if (keys.category != null) {
+        categories = new EnumMap<>(byCategory);
+        List<ITool> remaining = removed(byCategory.get(keys.category), tool);
+        if (remaining != null) {
+          categories.put(keys.category, remaining);
+        } else {
+          categories.remove(keys.category);
+        }
+      }
+      Map<ReturnType, List<ITool>> returnTypes = byReturnType;
+      if (keys.returnType != null) {
+        returnTypes = new EnumMap<>(byReturnType);
+        List<ITool> remaining = removed(byReturnType.get(keys.returnType), tool);
+        if (remaining != null) {
+          returnTypes.put(keys.returnType, remaining);
+        } else {
+          returnTypes.remove(keys.returnType);
+        }
+      }
+      return new Indexes(names, categories, returnTypes);
+    }
+
+    private static List<ITool> inserted(List<ITool> list, ITool tool, int position,
+        Map<String, Integer> positions) {
+      if (list == null) {
+        return Collections.singletonList(tool);
+      }
+      int at = list.size();
+      while (at > 0 && positions.getOrDefault(list.get(at - 1).getId(), Integer.MAX_VALUE) > position) {
+        at--;
+      }
+      List<ITool> copy = new ArrayList<>(list.size() + 1);
+      copy.addAll(list);
+      copy.add(at, tool);
+      return Collections.unmodifiableList(copy);
+    }
+
+    private static List<ITool> removed(List<ITool> list, ITool tool) {
+      if (list == null) {
+        return null;
+      }
+      List<ITool> copy = new ArrayList<>(list);
+      copy.remove(tool);
+      return copy.isEmpty() ? null : Collections.unmodifiableList(copy);
+    }
+  }
+
+  /**
+   * The index keys of one tool, read from its metadata once.
+   */
+  private static final class Keys {
+
+    private final Collection<String> names = new LinkedHashSet<>();
+    private final ToolCategory category;
+    private final ReturnType returnType;
+
+    Keys(ITool tool) {
+      if (tool.getName() != null) {
+        names.add(normalize(tool.getName()));
+      }
+      IToolMetadata metadata = tool.getMetadata();
+      if (metadata == null) {
+        category = null;
+        returnType = null;
+        return;
+      }
+      for (String alias : aliases(metadata.getProperty(ALIASES_PROPERTY))) {
+        names.add(normalize(alias));
+      }
+      category = metadata.getCategory();
+      returnType = metadata.getReturnType();
+    }
+
+    private static List<String> aliases(Object value) {
+      List<String> result = new ArrayList<>();
+      if (value instanceof Collection) {
+        for (Object alias : (Collection<?>) value) {
+          if (alias != null && !alias.toString().trim().isEmpty()) {
+            result.add(alias.toString());
+          }
+        }
+      } else if (value instanceof String) {
+        for (String alias : ((String) value).split(",")) {
+          if (!alias.trim().isEmpty()) {
+            result.add(alias);
+          }
+        }
+      }
+      return result;
+    }
+  }
+}
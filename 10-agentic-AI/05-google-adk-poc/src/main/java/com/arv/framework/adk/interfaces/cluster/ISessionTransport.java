@@ -0,0 +1,37 @@
+package com.arv.framework.adk.interfaces.cluster;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Carries session requests between agent nodes.
+ * This interface defines the pluggable request/response channel used by sharded session
+ * management in the ConnectADK framework. Requests and responses are opaque byte arrays,
+ * so an implementation only has to move bytes, for example over HTTP or gRPC.
+ */
+public interface ISessionTransport {
+    
+    /**
+     * Registers the handler that serves requests addressed to a node.
+     * 
+     * @param nodeId the node ID
+     * @param handler turns a request into its response
+     */
+    void bind(String nodeId, UnaryOperator<byte[]> handler);
+    
+    /**
+     * Removes the handler of a node.
+     * 
+     * @param nodeId the node ID
+     */
+    void unbind(String nodeId);
+    
+    /**
+     * Sends a request to a node and waits for the response.
+     * 
+     * @param nodeId the target node ID
+     * @param request the encoded request
+     * @return the encoded response
+     * @throws IllegalStateException if the node cannot be reached
+     */
+    byte[] send(String nodeId, byte[] request);
+}
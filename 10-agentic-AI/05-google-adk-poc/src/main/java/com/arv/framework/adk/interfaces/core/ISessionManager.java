@@ -1,5 +1,6 @@
 package com.arv.framework.adk.interfaces.core;
 
+import com.arv.framework.adk.interfaces.enums.SessionState;
 import com.arv.framework.adk.interfaces.session.ISession;
 import com.arv.framework.adk.interfaces.session.IMessage;
 import java.util.List;
@@ -119,6 +120,38 @@ public interface ISessionManager {
      */
     List<ISession> getActiveSessions();
     
+    /**
+     * Gets all sessions of a user.
+     * 
+     * @param userId the user ID
+     * @return the list of the user's sessions
+     */
+    List<ISession> getSessionsByUser(String userId);
+    
+    /**
+     * Gets all sessions in a state.
+     * 
+     * @param state the session state
+     * @return the list of sessions in that state
+     */
+    List<ISession> getSessionsByState(SessionState state);
+    
+    /**
+     * Counts the sessions in a state.
+     * 
+     * @param state the session state
+     * @return the number of sessions in that state
+     */
+    int getSessionCount(SessionState state);
+    
+    /**
+     * Ends all sessions of a user.
+     * 
+     * @param userId the user ID
+     * @return the number of sessions ended
+     */
+    int endSessionsByUser(String userId);
+    
     /**
      * Cleans up expired sessions.
      * 
@@ -1,7 +1,10 @@
 package com.arv.framework.adk.interfaces.core;
 
+import com.arv.framework.adk.interfaces.enums.ReturnType;
+import com.arv.framework.adk.interfaces.enums.ToolCategory;
 import com.arv.framework.adk.interfaces.tool.ITool;
 import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,15 @@ public interface IToolRegistry {
      */
     boolean registerTool(ITool tool);
     
+    /**
+     * Registers many tools at once, publishing a single change.
+     * Tools without an ID are skipped.
+     * 
+     * @param tools the tools to register
+     * @return the number of tools registered
+     */
+    int registerTools(Collection<? extends ITool> tools);
+    
     /**
      * Unregisters a tool from the registry.
      * 
@@ -35,6 +47,30 @@ public interface IToolRegistry {
      */
     Optional<ITool> getTool(String toolId);
     
+    /**
+     * Finds a tool by its display name or one of its aliases, ignoring case.
+     * 
+     * @param nameOrAlias the tool name or alias
+     * @return an Optional containing the tool if found, empty otherwise
+     */
+    Optional<ITool> findToolByName(String nameOrAlias);
+    
+    /**
+     * Gets all registered tools in a category.
+     * 
+     * @param category the tool category
+     * @return the tools in the category
+     */
+    List<ITool> getToolsByCategory(ToolCategory category);
+    
+    /**
+     * Gets all registered tools with a return type.
+     * 
+     * @param returnType the return type
+     * @return the tools with the return type
+     */
+    List<ITool> getToolsByReturnType(ReturnType returnType);
+    
     /**
      * Gets all registered tools.
      * 
@@ -102,4 +138,13 @@ public interface IToolRegistry {
      * @return the number of tools
      */
     int getToolCount();
+    
+    /**
+     * Gets the version of the registry contents.
+     * The version changes whenever a tool is registered, unregistered, enabled or
+     * disabled, so callers can cache data derived from the registry.
+     * 
+     * @return the registry version
+     */
+    long getVersion();
 }
@@ -0,0 +1,38 @@
+package com.arv.framework.adk.interfaces.enums;
+
+/**
+ * Policies for publishing an event while the buffer is full of unconsumed events.
+ * This enum defines how a slow consumer affects publishers in the ConnectADK framework.
+ */
+public enum BackpressurePolicy {
+    
+    /**
+     * The event is dropped and counted, so the publisher never waits.
+     */
+    DROP("Drop"),
+    
+    /**
+     * The publisher waits until the slowest consumer frees a slot.
+     */
+    BLOCK("Block");
+    
+    private final String displayName;
+    
+    /**
+     * Constructor for BackpressurePolicy.
+     * 
+     * @param displayName the display name of the policy
+     */
+    BackpressurePolicy(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    /**
+     * Gets the display name of the policy.
+     * 
+     * @return the display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,44 @@
+package com.arv.framework.adk.interfaces.enums;
+
+/**
+ * Policies for a message that arrives while its session is still processing another.
+ * This enum defines how concurrent requests for one session are handled in the ConnectADK framework.
+ */
+public enum BusySessionPolicy {
+    
+    /**
+     * The message waits and is processed after those ahead of it, in arrival order.
+     */
+    QUEUE("Queue"),
+    
+    /**
+     * Messages that arrive while the session is busy are merged and processed as one
+     * turn, whose response every caller receives.
+     */
+    COALESCE("Coalesce"),
+    
+    /**
+     * The message is turned away with a busy response.
+     */
+    REJECT("Reject");
+    
+    private final String displayName;
+    
+    /**
+     * Constructor for BusySessionPolicy.
+     * 
+     * @param displayName the display name of the policy
+     */
+    BusySessionPolicy(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    /**
+     * Gets the display name of the policy.
+     * 
+     * @return the display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,43 @@
+package com.arv.framework.adk.interfaces.enums;
+
+/**
+ * States of a tool circuit breaker.
+ * This enum defines the states a circuit breaker can be in within the ConnectADK framework.
+ */
+public enum CircuitState {
+    
+    /**
+     * Calls flow normally and outcomes are recorded.
+     */
+    CLOSED("Closed"),
+    
+    /**
+     * Calls are rejected until the open duration has elapsed.
+     */
+    OPEN("Open"),
+    
+    /**
+     * A limited number of trial calls decide whether to close or reopen.
+     */
+    HALF_OPEN("Half Open");
+    
+    private final String displayName;
+    
+    /**
+     * Constructor for CircuitState.
+     * 
+     * @param displayName the display name of the circuit state
+     */
+    CircuitState(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    /**
+     * Gets the display name of the circuit state.
+     * 
+     * @return the display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,50 @@
+package com.arv.framework.adk.interfaces.enums;
+
+/**
+ * Ways for an event consumer to wait for events to be published.
+ * This enum trades consumer latency against CPU use in the ConnectADK framework.
+ */
+public enum EventWaitStrategy {
+    
+    /**
+     * Spins on the CPU; lowest latency, but keeps a core busy for each consumer.
+     */
+    BUSY_SPIN("Busy Spin"),
+    
+    /**
+     * Spins briefly, then yields the CPU between checks.
+     */
+    YIELDING("Yielding"),
+    
+    /**
+     * Spins, then yields, then sleeps briefly between checks; light on CPU
+     * with latency of up to a fraction of a millisecond.
+     */
+    SLEEPING("Sleeping"),
+    
+    /**
+     * Waits on a lock until the publisher signals; no CPU use while idle, at the
+     * cost of a signal on each publish while a consumer is waiting.
+     */
+    BLOCKING("Blocking");
+    
+    private final String displayName;
+    
+    /**
+     * Constructor for EventWaitStrategy.
+     * 
+     * @param displayName the display name of the wait strategy
+     */
+    EventWaitStrategy(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    /**
+     * Gets the display name of the wait strategy.
+     * 
+     * @return the display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
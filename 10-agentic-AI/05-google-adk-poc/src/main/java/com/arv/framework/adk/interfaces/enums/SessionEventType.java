@@ -0,0 +1,43 @@
+package com.arv.framework.adk.interfaces.enums;
+
+/**
+ * Types of events published about sessions.
+ * This enum defines what a session event reports in the ConnectADK framework.
+ */
+public enum SessionEventType {
+    
+    /**
+     * A message was added to the session history.
+     */
+    MESSAGE_ADDED("Message Added"),
+    
+    /**
+     * The session moved to another state.
+     */
+    STATE_CHANGED("State Changed"),
+    
+    /**
+     * A tool was executed for the session.
+     */
+    TOOL_EXECUTED("Tool Executed");
+    
+    private final String displayName;
+    
+    /**
+     * Constructor for SessionEventType.
+     * 
+     * @param displayName the display name of the event type
+     */
+    SessionEventType(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    /**
+     * Gets the display name of the event type.
+     * 
+     * @return the display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -1,5 +1,11 @@
 package com.arv.framework.adk.interfaces.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * States of user sessions.
  * This enum defines the different states that a user session can be in within the ConnectADK framework.
@@ -61,6 +67,22 @@ public enum SessionState {
      */
     UNKNOWN("Unknown");
     
+    private static final Map<SessionState, Set<SessionState>> TRANSITIONS = new EnumMap<>(SessionState.class);
+    
+    static {
+        allow(CREATING, ACTIVE, TERMINATING, TERMINATED, EXPIRED, ERROR);
+        allow(ACTIVE, PROCESSING, WAITING_FOR_INPUT, PAUSED, IDLE, TERMINATING, TERMINATED, EXPIRED, ERROR);
+        allow(PROCESSING, ACTIVE, WAITING_FOR_INPUT, TERMINATING, TERMINATED, EXPIRED, ERROR);
+        allow(WAITING_FOR_INPUT, PROCESSING, ACTIVE, PAUSED, IDLE, TERMINATING, TERMINATED, EXPIRED, ERROR);
+        allow(PAUSED, ACTIVE, IDLE, TERMINATING, TERMINATED, EXPIRED, ERROR);
+        allow(IDLE, ACTIVE, PROCESSING, TERMINATING, TERMINATED, EXPIRED, ERROR);
+        allow(TERMINATING, TERMINATED, ERROR);
+        allow(ERROR, TERMINATING, TERMINATED, EXPIRED);
+        allow(TERMINATED);
+        allow(EXPIRED);
+        TRANSITIONS.put(UNKNOWN, Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(UNKNOWN))));
+    }
+    
     private final String displayName;
     
     /**
@@ -113,4 +135,30 @@ public enum SessionState {
     public boolean isTerminated() {
         return this == TERMINATED || this == EXPIRED || this == ERROR;
     }
+    
+    /**
+     * Checks whether a session may move from this state to another.
+     * Terminal states allow no transitions; UNKNOWN may move to any known state.
+     * 
+     * @param target the next state
+     * @return true if the transition is legal
+     */
+    public boolean canTransitionTo(SessionState target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+    
+    /**
+     * Gets the states a session may move to from this state.
+     * 
+     * @return an unmodifiable set of states
+     */
+    public Set<SessionState> getAllowedTransitions() {
+        return TRANSITIONS.get(this);
+    }
+    
+    private static void allow(SessionState from, SessionState... targets) {
+        EnumSet<SessionState> allowed = EnumSet.noneOf(SessionState.class);
+        Collections.addAll(allowed, targets);
+        TRANSITIONS.put(from, Collections.unmodifiableSet(allowed));
+    }
 }
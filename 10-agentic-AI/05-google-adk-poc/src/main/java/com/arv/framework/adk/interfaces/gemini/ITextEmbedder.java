@@ -0,0 +1,17 @@
+package com.arv.framework.adk.interfaces.gemini;
+
+/**
+ * Turns text into an embedding vector for semantic matching.
+ * Implementations are expected to run locally, since they are called on every request.
+ */
+public interface ITextEmbedder {
+    
+    /**
+     * Embeds a piece of text.
+     * All vectors from one embedder must have the same dimension.
+     * 
+     * @param text the text to embed
+     * @return the embedding vector
+     */
+    float[] embed(String text);
+}
@@ -0,0 +1,18 @@
+package com.arv.framework.adk.interfaces.session;
+
+/**
+ * Receives messages that no longer fit in a session's in-memory history.
+ * This interface defines the hook for keeping older conversation turns elsewhere,
+ * such as a database or a summarizer, in the ConnectADK framework.
+ */
+public interface IMessageArchive {
+    
+    /**
+     * Archives a message evicted from a session's history.
+     * Called on the thread that added the newer message, so it should not block for long.
+     * 
+     * @param sessionId the session ID
+     * @param message the evicted message
+     */
+    void archive(String sessionId, IMessage message);
+}
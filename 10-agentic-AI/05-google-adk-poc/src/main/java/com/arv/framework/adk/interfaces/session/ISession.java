@@ -39,12 +39,32 @@ public interface ISession {
     SessionState getState();
     
     /**
-     * Sets the state of the session.
+     * Sets the state of the session without checking the transition, for example when
+     * restoring it from storage.
      * 
      * @param state the session state
      */
     void setState(SessionState state);
     
+    /**
+     * Atomically moves the session from an expected state to a new one, if that
+     * transition is legal (see {@link SessionState#canTransitionTo}).
+     * 
+     * @param expected the state the session must be in
+     * @param state the new state
+     * @return true if the state was changed
+     */
+    boolean compareAndSetState(SessionState expected, SessionState state);
+    
+    /**
+     * Atomically moves the session to a new state from whatever state it is in, if that
+     * transition is legal.
+     * 
+     * @param state the new state
+     * @return true if the session is now in that state
+     */
+    boolean transitionTo(SessionState state);
+    
     /**
      * Gets the session context.
      * 
@@ -89,6 +109,14 @@ public interface ISession {
      */
     List<IMessage> getMessageHistory();
     
+    /**
+     * Gets the most recent messages, oldest first.
+     * 
+     * @param count the maximum number of messages to return
+     * @return the list of messages
+     */
+    List<IMessage> getRecentMessages(int count);
+    
     /**
      * Adds a message to the session history.
      * 
@@ -97,7 +125,7 @@ public interface ISession {
     void addMessage(IMessage message);
     
     /**
-     * Gets the number of messages in this session.
+     * Gets the number of messages in this session's history.
      * 
      * @return the message count
      */
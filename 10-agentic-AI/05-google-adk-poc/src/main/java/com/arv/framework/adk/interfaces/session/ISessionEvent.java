@@ -0,0 +1,76 @@
+package com.arv.framework.adk.interfaces.session;
+
+import com.arv.framework.adk.interfaces.enums.SessionEventType;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+
+/**
+ * An event about a session, as seen by an event handler.
+ * This interface defines the read-only view of session events in the ConnectADK framework.
+ * Events live in reused slots: read what you need during the callback and do not keep
+ * a reference to the event itself.
+ */
+public interface ISessionEvent {
+
+    /**
+     * Gets the type of the event.
+     *
+     * @return the event type
+     */
+    SessionEventType getType();
+
+    /**
+     * Gets the ID of the session the event is about.
+     *
+     * @return the session ID, or null for a tool executed outside a session
+     */
+    String getSessionId();
+
+    /**
+     * Gets the time the event was published.
+     *
+     * @return the timestamp in milliseconds
+     */
+    long getTimestamp();
+
+    /**
+     * Gets the message that was added.
+     *
+     * @return the message for MESSAGE_ADDED events, null otherwise
+     */
+    IMessage getMessage();
+
+    /**
+     * Gets the name of the tool that was executed.
+     *
+     * @return the tool name for TOOL_EXECUTED events, null otherwise
+     */
+    String getToolName();
+
+    /**
+     * Gets the state the session was in before the change.
+     *
+     * @return the previous state for STATE_CHANGED events, null otherwise
+     */
+    SessionState getPreviousState();
+
+    /**
+     * Gets the state the session changed to.
+     *
+     * @return the new state for STATE_CHANGED events, null otherwise
+     */
+    SessionState getState();
+
+    /**
+     * Gets how long the tool took.
+     *
+     * @return the duration in nanoseconds for TOOL_EXECUTED events, 0 otherwise
+     */
+    long getDurationNanos();
+
+    /**
+     * Checks whether the tool succeeded.
+     *
+     * @return true if a TOOL_EXECUTED event reports success
+     */
+    boolean isSuccess();
+}
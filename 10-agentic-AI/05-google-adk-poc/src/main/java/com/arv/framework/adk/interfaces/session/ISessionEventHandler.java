@@ -0,0 +1,19 @@
+package com.arv.framework.adk.interfaces.session;
+
+/**
+ * Consumer of session events, such as an analytics or audit sink.
+ * This interface defines the callback that receives published session events in the ConnectADK framework.
+ */
+public interface ISessionEventHandler {
+
+    /**
+     * Called for each event, in publication order, on the handler's own thread.
+     * Events arrive in batches of whatever was published while the handler was busy;
+     * buffered work such as a bulk write is best flushed at the end of a batch.
+     *
+     * @param event the event, valid only for the duration of the call
+     * @param sequence the event's position in the stream of published events
+     * @param endOfBatch true for the last event currently available
+     */
+    void onEvent(ISessionEvent event, long sequence, boolean endOfBatch);
+}
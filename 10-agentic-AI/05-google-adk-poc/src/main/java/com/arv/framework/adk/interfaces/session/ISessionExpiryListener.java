@@ -0,0 +1,23 @@
+package com.arv.framework.adk.interfaces.session;
+
+/**
+ * Listener for session idle and expiry events.
+ * This interface defines the callbacks fired by session expiry tracking in the ConnectADK framework.
+ */
+public interface ISessionExpiryListener {
+    
+    /**
+     * Called when a session has gone without activity long enough to become IDLE.
+     * The session becomes active again on its next activity.
+     * 
+     * @param session the idle session
+     */
+    void onSessionIdle(ISession session);
+    
+    /**
+     * Called when a session has EXPIRED and been evicted.
+     * 
+     * @param session the expired session
+     */
+    void onSessionExpired(ISession session);
+}
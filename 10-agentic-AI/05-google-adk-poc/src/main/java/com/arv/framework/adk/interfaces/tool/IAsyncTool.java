@@ -0,0 +1,21 @@
+package com.arv.framework.adk.interfaces.tool;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tool that can run without blocking the calling thread.
+ * I/O-bound tools implement this so the execution engine can fan out many calls
+ * without holding a thread per in-flight request.
+ */
+public interface IAsyncTool extends ITool {
+    
+    /**
+     * Executes the tool asynchronously.
+     * Implementations must not block; failures should complete the future with a
+     * failed IToolResult rather than exceptionally.
+     * 
+     * @param input the input parameters for the tool
+     * @return a future completed with the result of the tool execution
+     */
+    CompletableFuture<IToolResult> executeAsync(IToolInput input);
+}
@@ -0,0 +1,33 @@
+package com.arv.framework.adk.interfaces.tool;
+
+/**
+ * Tool that can reduce a whole array of numbers in a single call.
+ * Batch tools accept their values through one array parameter instead of one
+ * tool call per pair, so long lists need a single LLM round trip.
+ */
+public interface IBatchTool extends ITool {
+    
+    /**
+     * Gets the name of the array parameter that carries batch values.
+     * 
+     * @return the batch parameter name
+     */
+    String getBatchParameterName();
+    
+    /**
+     * Reduces an array of integral values.
+     * Implementations must detect overflow and widen instead of wrapping.
+     * 
+     * @param values the values to reduce
+     * @return the tool result holding the single reduced value
+     */
+    IToolResult executeBatch(long[] values);
+    
+    /**
+     * Reduces an array of floating point values.
+     * 
+     * @param values the values to reduce
+     * @return the tool result holding the single reduced value
+     */
+    IToolResult executeBatch(double[] values);
+}
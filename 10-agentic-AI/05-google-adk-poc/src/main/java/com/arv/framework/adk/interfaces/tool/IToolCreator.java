@@ -23,6 +23,14 @@ public interface IToolCreator {
      */
     String getToolType();
     
+    /**
+     * Gets the metadata of the tools this creator makes, without creating one.
+     * Registries use it to list and index a tool before its first execution.
+     * 
+     * @return the tool metadata
+     */
+    IToolMetadata getToolMetadata();
+    
     /**
      * Validates the tool configuration.
      * 
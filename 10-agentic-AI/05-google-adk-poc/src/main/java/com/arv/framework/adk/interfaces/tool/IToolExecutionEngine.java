@@ -2,6 +2,7 @@ package com.arv.framework.adk.interfaces.tool;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for executing tools in a generic way.
@@ -18,6 +19,17 @@ public interface IToolExecutionEngine {
    */
   IToolResult executeTool(String toolName, Map<String, Object> parameters);
   
+  /**
+   * Execute a tool by name without blocking the caller.
+   * Tools implementing IAsyncTool run on their own non-blocking path; synchronous
+   * tools are run on the engine's executor.
+   * 
+   * @param toolName the name of the tool to execute
+   * @param parameters the parameters to pass to the tool
+   * @return a future completed with the result of tool execution
+   */
+  CompletableFuture<IToolResult> executeToolAsync(String toolName, Map<String, Object> parameters);
+  
   /**
    * Get metadata for all available tools.
    * This is used to build tool schemas for LLM function calling.
@@ -48,4 +60,33 @@ public interface IToolExecutionEngine {
    * @return tool metadata as a Map, or null if tool not found
    */
   Map<String, Object> getToolSchema(String toolName);
+  
+  /**
+   * Execute a batch tool over an array of integral values in a single call.
+   * 
+   * @param toolName the name of a tool implementing IBatchTool
+   * @param values the values to reduce
+   * @return the result of tool execution
+   */
+  IToolResult executeBatch(String toolName, long[] values);
+  
+  /**
+   * Execute a batch tool over an array of floating point values in a single call.
+   * 
+   * @param toolName the name of a tool implementing IBatchTool
+   * @param values the values to reduce
+   * @return the result of tool execution
+   */
+  IToolResult executeBatch(String toolName, double[] values);
+  
+  /**
+   * Execute a plan of dependent tool calls.
+   * Independent steps run in parallel; a step whose dependency failed is not run
+   * and gets a failure result instead.
+   * 
+   * @param plan the plan to execute
+   * @param sessionId the session the plan runs for, may be null
+   * @return the result of every step keyed by step ID, in execution order
+   */
+  Map<String, IToolResult> executePlan(IToolPlan plan, String sessionId);
 }
\ No newline at end of file
@@ -38,6 +38,34 @@ public interface IToolInput {
      */
     void setParameter(String key, Object value);
     
+    /**
+     * Gets a parameter as a long without boxing.
+     * Numbers are truncated and numeric strings are parsed.
+     * 
+     * @param key the parameter key
+     * @param defaultValue the value returned if the parameter is missing or not numeric
+     * @return the parameter value as a long
+     */
+    long getLongParameter(String key, long defaultValue);
+    
+    /**
+     * Gets a parameter as a double without boxing.
+     * Numeric strings are parsed.
+     * 
+     * @param key the parameter key
+     * @param defaultValue the value returned if the parameter is missing or not numeric
+     * @return the parameter value as a double
+     */
+    double getDoubleParameter(String key, double defaultValue);
+    
+    /**
+     * Checks if a parameter is a number or a numeric string.
+     * 
+     * @param key the parameter key
+     * @return true if the parameter is numeric, false otherwise
+     */
+    boolean isNumericParameter(String key);
+    
     /**
      * Gets the session ID associated with this input.
      * 
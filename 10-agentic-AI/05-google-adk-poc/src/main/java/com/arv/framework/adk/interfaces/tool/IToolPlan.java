@@ -0,0 +1,34 @@
+package com.arv.framework.adk.interfaces.tool;
+
+import java.util.List;
+
+/**
+ * Directed acyclic graph of tool calls.
+ * A plan lets the execution engine run independent steps in parallel and feed
+ * the output of one step into the arguments of another without an LLM round trip.
+ */
+public interface IToolPlan {
+    
+    /**
+     * Gets the steps of the plan in declaration order.
+     * 
+     * @return the list of steps
+     */
+    List<IToolPlanStep> getSteps();
+    
+    /**
+     * Gets a step by ID.
+     * 
+     * @param stepId the step ID
+     * @return the step if found, null otherwise
+     */
+    IToolPlanStep getStep(String stepId);
+    
+    /**
+     * Gets the steps ordered so that every step comes after its dependencies.
+     * 
+     * @return the topologically sorted steps
+     * @throws IllegalStateException if the plan has a cycle or an unknown dependency
+     */
+    List<IToolPlanStep> getExecutionOrder();
+}
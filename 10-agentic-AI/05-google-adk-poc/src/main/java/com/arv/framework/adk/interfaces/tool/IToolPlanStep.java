@@ -0,0 +1,49 @@
+package com.arv.framework.adk.interfaces.tool;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single node of a tool plan.
+ * A step names the tool to call, its arguments and the steps it depends on.
+ * Argument values may reference the output of earlier steps.
+ */
+public interface IToolPlanStep {
+    
+    /**
+     * Gets the unique identifier of the step within its plan.
+     * 
+     * @return the step ID
+     */
+    String getId();
+    
+    /**
+     * Gets the name of the tool this step executes.
+     * 
+     * @return the tool name
+     */
+    String getToolName();
+    
+    /**
+     * Gets the raw arguments of the step, before references are resolved.
+     * 
+     * @return the arguments map
+     */
+    Map<String, Object> getArguments();
+    
+    /**
+     * Gets the IDs of all steps that must complete before this one runs.
+     * This includes explicit dependencies and those implied by argument references.
+     * 
+     * @return the set of step IDs
+     */
+    Set<String> getDependencies();
+    
+    /**
+     * Resolves argument references against the results of completed steps.
+     * 
+     * @param completed results of completed steps keyed by step ID
+     * @return the arguments with every reference replaced by its value
+     */
+    Map<String, Object> resolveArguments(Map<String, IToolResult> completed);
+}
@@ -0,0 +1,56 @@
+package com.arv.framework.adk.interfaces.tool;
+
+import java.util.List;
+
+/**
+ * Selects the tools worth offering to the LLM for a request.
+ * Sending only relevant tool declarations keeps requests small and reduces
+ * tool-selection mistakes as the registry grows.
+ */
+public interface IToolRetriever {
+    
+    /**
+     * Selects the most relevant enabled tools for a query, plus all pinned tools.
+     * 
+     * @param query the text to match tools against, usually the user request
+     * @return the IDs of the selected tools, most relevant first
+     */
+    List<String> selectTools(String query);
+    
+    /**
+     * Pins a tool so it is always selected.
+     * 
+     * @param toolId the tool ID
+     */
+    void pinTool(String toolId);
+    
+    /**
+     * Removes a tool from the pinned set.
+     * 
+     * @param toolId the tool ID
+     */
+    void unpinTool(String toolId);
+    
+    /**
+     * Records a tool the LLM called or asked for, for hit-rate tracking. A miss means the
+     * model needed a tool that was left out of the selection.
+     * 
+     * @param toolId the tool the LLM called
+     * @param offered whether the tool was among the tools offered on that turn
+     */
+    void recordToolCall(String toolId, boolean offered);
+    
+    /**
+     * Gets the number of recorded tool calls whose tool had been offered.
+     * 
+     * @return the hit count
+     */
+    long getHitCount();
+    
+    /**
+     * Gets the number of recorded tool calls whose tool had been left out.
+     * 
+     * @return the miss count
+     */
+    long getMissCount();
+}
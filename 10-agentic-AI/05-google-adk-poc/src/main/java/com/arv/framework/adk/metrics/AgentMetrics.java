@@ -0,0 +1,370 @@
+package com.arv.framework.adk.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Latencies, counters and gauges of an agent.
+ * Messages, turns, LLM calls and tool calls each have a latency histogram in
+ * microseconds. Recording only touches striped counters, so it allocates nothing and
+ * concurrent recorders do not contend. The metrics can be pulled with {@link #snapshot()}
+ * or published as an MXBean named
+ * {@code com.arv.framework.adk:type=AgentMetrics,agent=<scope>}.
+ */
+@Slf4j
+public class AgentMetrics implements AgentMetricsMXBean {
+
+  private static final String JMX_DOMAIN = "com.arv.framework.adk";
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private final LatencyHistogram messageLatency = new LatencyHistogram();
+  private final LatencyHistogram turnLatency = new LatencyHistogram();
+  private final LatencyHistogram llmLatency = new LatencyHistogram();
+  private final LatencyHistogram toolLatency = new LatencyHistogram();
+  private final LongAdder messages = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final LongAdder inFlight = new LongAdder();
+  private volatile LongSupplier activeSessions = () -> 0L;
+  private ObjectName registeredName;
+
+  /**
+   * Reads the active session gauge from the given supplier.
+   *
+   * @param activeSessions supplies the number of active sessions
+   * @return these metrics for method chaining
+   */
+  public AgentMetrics withActiveSessions(LongSupplier activeSessions) {
+    this.activeSessions = activeSessions;
+    return this;
+  }
+
+  /**
+   * Records a message arriving.
+   *
+   * @return the start time to pass to {@link #onMessageEnd(long)}
+   */
+  public long onMessageStart() {
+    messages.increment();
+    inFlight.increment();
+    return System.nanoTime();
+  }
+
+  /**
+   * Records a message answered.
+   *
+   * @param startNanos the value returned by {@link #onMessageStart()}
+   */
+  public void onMessageEnd(long startNanos) {
+    inFlight.decrement();
+    messageLatency.record(elapsedMicros(startNanos));
+  }
+
+  /**
+   * Records a completed turn.
+   *
+   * @param startNanos the {@link System#nanoTime()} when the turn started
+   */
+  public void onTurn(long startNanos) {
+    turnLatency.record(elapsedMicros(startNanos));
+  }
+
+  /**
+   * Records a completed LLM call.
+   *
+   * @param startNanos the {@link System#nanoTime()} when the call started
+   * @param success whether the LLM returned a usable response
+   */
+  public void onLlmCall(long startNanos, boolean success) {
+    llmLatency.record(elapsedMicros(startNanos));
+    if (!success) {
+      errors.increment();
+    }
+  }
+
+  /**
+   * Records a completed tool call.
+   *
+   * @param startNanos the {@link System#nanoTime()} when the call started
+   * @param success whether the tool succeeded
+   */
+  public void onToolCall(long startNanos, boolean success) {
+    toolLatency.record(elapsedMicros(startNanos));
+    if (!success) {
+      errors.increment();
+    }
+  }
+
+  /**
+   * Records a message that failed with an exception.
+   */
+  public void onError() {
+    errors.increment();
+  }
+
+  /**
+   * Records a lookup served from a cache.
+   */
+  public void onCacheHit() {
+    cacheHits.increment();
+  }
+
+  /**
+   * Records a lookup a cache could not serve.
+   */
+  public void onCacheMiss() {
+    cacheMisses.increment();
+  }
+
+  /**
+   * Gets the message latency histogram in microseconds.
+   *
+   * @return the latency histogram
+   */
+  public LatencyHistogram getMessageLatencyHistogram() {
+    return messageLatency;
+  }
+
+  /**
+   * Gets the turn latency histogram in microseconds.
+   *
+   * @return the latency histogram
+   */
+  public LatencyHistogram getTurnLatencyHistogram() {
+    return turnLatency;
+  }
+
+  /**
+   * Gets the LLM call latency histogram in microseconds.
+   *
+   * @return the latency histogram
+   */
+  public LatencyHistogram getLlmLatencyHistogram() {
+    return llmLatency;
+  }
+
+  /**
+   * Gets the tool call latency histogram in microseconds.
+   *
+   * @return the latency histogram
+   */
+  public LatencyHistogram getToolLatencyHistogram() {
+    return toolLatency;
+  }
+
+  /**
+   * Reads every metric, for scraping by a monitoring system.
+   * Keys are dotted names such as {@code llm.p99_ms}, in a stable order.
+   *
+   * @return the metric values by name
+   */
+  public Map<String, Number> snapshot() {
+    Map<String, Number> values = new LinkedHashMap<>();
+    putLatencies(values, "message", messageLatency);
+    putLatencies(values, "turn", turnLatency);
+    putLatencies(values, "llm", llmLatency);
+    putLatencies(values, "tool", toolLatency);
+    values.put("turns_per_message", getMeanTurnsPerMessage());
+    values.put("errors", getErrorCount());
+    values.put("cache.hits", getCacheHitCount());
+    values.put("cache.misses", getCacheMissCount());
+    values.put("sessions.active", getActiveSessions());
+    values.put("requests.in_flight", getInFlightRequests());
+    return values;
+  }
+
+  /**
+   * Publishes these metrics through JMX, replacing any earlier registration.
+   *
+   * @param scope the value of the {@code agent} key, distinguishing agents in one JVM
+   */
+  public synchronized void registerMBean(String scope) {
+    unregisterMBean();
+    try {
+      ObjectName name = new ObjectName(JMX_DOMAIN + ":type=AgentMetrics,agent=" + ObjectName.quote(scope));
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+      registeredName = name;
+    } catch (JMException e) {
+      log.warn("Failed to register agent metrics MBean for {}: {}", scope, e.getMessage());
+    }
+  }
+
+  /**
+   * Removes the MBean published by {@link #registerMBean(String)}.
+   */
+  public synchronized void unregisterMBean() {
+    ObjectName name = registeredName;
+    if (name == null) {
+      return;
+    }
+    registeredName = null;
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      log.warn("Failed to unregister agent metrics MBean {}: {}", name, e.getMessage());
+    }
+  }
+
+  @Override
+  public long getMessageCount() {
+    return messages.sum();
+  }
+
+  @Override
+  public double getMessageP50LatencyMs() {
+    return millis(messageLatency, 50);
+  }
+
+  @Override
+  public double getMessageP99LatencyMs() {
+    return millis(messageLatency, 99);
+  }
+
+  @Override
+  public double getMessageP999LatencyMs() {
+    return millis(messageLatency, 99.9);
+  }
+
+  @Override
+  public long getTurnCount() {
+    return turnLatency.getCount();
+  }
+
+  @Override
+  public double getMeanTurnsPerMessage() {
+    long count = messages.sum();
+    return count == 0 ? 0.0 : (double) turnLatency.getCount() / count;
+  }
+
+  @Override
+  public double getTurnP50LatencyMs() {
+    return millis(turnLatency, 50);
+  }
+
+  @Override
+  public double getTurnP99LatencyMs() {
+    return millis(turnLatency, 99);
+  }
+
+  @Override
+  public double getTurnP999LatencyMs() {
+    return millis(turnLatency, 99.9);
+  }
+
+  @Override
+  public long getLlmCallCount() {
+    return llmLatency.getCount();
+  }
+
+  @Override
+  public double getLlmP50LatencyMs() {
+    return millis(llmLatency, 50);
+  }
+
+  @Override
+  public double getLlmP99LatencyMs() {
+    return millis(llmLatency, 99);
+  }
+
+  @Override
+  public double getLlmP999LatencyMs() {
+    return millis(llmLatency, 99.9);
+  }
+
+  @Override
+  public long getToolCallCount() {
+    return toolLatency.getCount();
+  }
+
+  @Override
+  public double getToolP50LatencyMs() {
+    return millis(toolLatency, 50);
+  }
+
+  @Override
+  public double getToolP99LatencyMs() {
+    return millis(toolLatency, 99);
+  }
+
+  @Override
+  public double getToolP999LatencyMs() {
+    return millis(toolLatency, 99.9);
+  }
+
+  @Override
+  public long getErrorCount() {
+    return errors.sum();
+  }
+
+  @Override
+  public long getCacheHitCount() {
+    return cacheHits.sum();
+  }
+
+  @Override
+  public long getCacheMissCount() {
+    return cacheMisses.sum();
+  }
+
+  @Override
+  public long getActiveSessions() {
+    return activeSessions.getAsLong();
+  }
+
+  @Override
+  public long getInFlightRequests() {
+    return inFlight.sum();
+  }
+
+  @Override
+  public void reset() {
+    messageLatency.reset();
+    turnLatency.reset();
+    llmLatency.reset();
+    toolLatency.reset();
+    messages.reset();
+    errors.reset();
+    cacheHits.reset();
+    cacheMisses.reset();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("messages=%d turns=%d llm=%d tools=%d errors=%d inFlight=%d "
+        + "message p50=%.2fms p99=%.2fms p999=%.2fms", getMessageCount(), getTurnCount(),
+        getLlmCallCount(), getToolCallCount(), getErrorCount(), getInFlightRequests(),
+        getMessageP50LatencyMs(), getMessageP99LatencyMs(), getMessageP999LatencyMs());
+  }
+
+  private static void putLatencies(Map<String, Number> values, String prefix, LatencyHistogram histogram) {
+    values.put(prefix + ".count", histogram.getCount());
+    values.put(prefix + ".mean_ms", histogram.getMean() / MICROS_PER_MILLI);
+    values.put(prefix + ".p50_ms", millis(histogram, 50));
+    values.put(prefix + ".p99_ms", millis(histogram, 99));
+    values.put(prefix + ".p999_ms", millis(histogram, 99.9));
+    values.put(prefix + ".max_ms", histogram.getMax() / MICROS_PER_MILLI);
+  }
+
+  private static double millis(LatencyHistogram histogram, double percentile) {
+    return histogram.getPercentile(percentile) / MICROS_PER_MILLI;
+  }
+
+  private static long elapsedMicros(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1000L;
+  }
+}
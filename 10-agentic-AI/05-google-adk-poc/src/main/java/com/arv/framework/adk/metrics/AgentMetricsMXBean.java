@@ -0,0 +1,168 @@
+package com.arv.framework.adk.metrics;
+
+/**
+ * JMX view of an agent's latencies, counters and gauges.
+ * Latencies are reported in milliseconds.
+ */
+public interface AgentMetricsMXBean {
+
+    /**
+     * Gets the number of messages received.
+     *
+     * @return the message count
+     */
+    long getMessageCount();
+
+    /**
+     * Gets the median time to answer a message, including waiting for its session.
+     *
+     * @return the latency in milliseconds
+     */
+    double getMessageP50LatencyMs();
+
+    /**
+     * Gets the 99th percentile time to answer a message.
+     *
+     * @return the latency in milliseconds
+     */
+    double getMessageP99LatencyMs();
+
+    /**
+     * Gets the 99.9th percentile time to answer a message.
+     *
+     * @return the latency in milliseconds
+     */
+    double getMessageP999LatencyMs();
+
+    /**
+     * Gets the number of conversation turns taken, one per LLM round trip.
+     *
+     * @return the turn count
+     */
+    long getTurnCount();
+
+    /**
+     * Gets the mean number of turns taken to answer a message.
+     *
+     * @return the mean, or 0 if no message was received
+     */
+    double getMeanTurnsPerMessage();
+
+    /**
+     * Gets the median duration of a turn, including any tool it called.
+     *
+     * @return the latency in milliseconds
+     */
+    double getTurnP50LatencyMs();
+
+    /**
+     * Gets the 99th percentile duration of a turn.
+     *
+     * @return the latency in milliseconds
+     */
+    double getTurnP99LatencyMs();
+
+    /**
+     * Gets the 99.9th percentile duration of a turn.
+     *
+     * @return the latency in milliseconds
+     */
+    double getTurnP999LatencyMs();
+
+    /**
+     * Gets the number of LLM calls.
+     *
+     * @return the call count
+     */
+    long getLlmCallCount();
+
+    /**
+     * Gets the median duration of an LLM call.
+     *
+     * @return the latency in milliseconds
+     */
+    double getLlmP50LatencyMs();
+
+    /**
+     * Gets the 99th percentile duration of an LLM call.
+     *
+     * @return the latency in milliseconds
+     */
+    double getLlmP99LatencyMs();
+
+    /**
+     * Gets the 99.9th percentile duration of an LLM call.
+     *
+     * @return the latency in milliseconds
+     */
+    double getLlmP999LatencyMs();
+
+    /**
+     * Gets the number of tool calls.
+     *
+     * @return the call count
+     */
+    long getToolCallCount();
+
+    /**
+     * Gets the median duration of a tool call.
+     *
+     * @return the latency in milliseconds
+     */
+    double getToolP50LatencyMs();
+
+    /**
+     * Gets the 99th percentile duration of a tool call.
+     *
+     * @return the latency in milliseconds
+     */
+    double getToolP99LatencyMs();
+
+    /**
+     * Gets the 99.9th percentile duration of a tool call.
+     *
+     * @return the latency in milliseconds
+     */
+    double getToolP999LatencyMs();
+
+    /**
+     * Gets the number of failed LLM calls, failed tool calls and messages that could not
+     * be answered.
+     *
+     * @return the error count
+     */
+    long getErrorCount();
+
+    /**
+     * Gets the number of lookups served from a cache.
+     *
+     * @return the hit count
+     */
+    long getCacheHitCount();
+
+    /**
+     * Gets the number of lookups a cache could not serve.
+     *
+     * @return the miss count
+     */
+    long getCacheMissCount();
+
+    /**
+     * Gets the number of sessions that are active or processing a message.
+     *
+     * @return the session count, or 0 if no session manager is attached
+     */
+    long getActiveSessions();
+
+    /**
+     * Gets the number of messages being answered or waiting for their session.
+     *
+     * @return the request count
+     */
+    long getInFlightRequests();
+
+    /**
+     * Clears the counters and latencies. Gauges are unaffected.
+     */
+    void reset();
+}
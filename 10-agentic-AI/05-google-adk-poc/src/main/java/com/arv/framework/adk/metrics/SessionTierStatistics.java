@@ -0,0 +1,127 @@
+package com.arv.framework.adk.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Hit, miss and eviction counts of a tiered session manager.
+ * Counters are striped; tier sizes are read from the manager when asked for.
+ */
+public class SessionTierStatistics implements SessionTierStatisticsMXBean {
+
+  private final LongAdder hotHits = new LongAdder();
+  private final LongAdder hotMisses = new LongAdder();
+  private final LongAdder diskHits = new LongAdder();
+  private final LongAdder diskMisses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongSupplier hotSessionCount;
+  private final LongSupplier hotEstimatedBytes;
+  private final LongSupplier diskSessionCount;
+
+  /**
+   * Creates statistics reading tier sizes from the given suppliers.
+   *
+   * @param hotSessionCount supplies the number of sessions in memory
+   * @param hotEstimatedBytes supplies the estimated bytes in memory
+   * @param diskSessionCount supplies the number of sessions on disk
+   */
+  public SessionTierStatistics(LongSupplier hotSessionCount, LongSupplier hotEstimatedBytes,
+      LongSupplier diskSessionCount) {
+    this.hotSessionCount = hotSessionCount;
+    this.hotEstimatedBytes = hotEstimatedBytes;
+    this.diskSessionCount = diskSessionCount;
+  }
+
+  /**
+   * Records a lookup served from memory.
+   */
+  public void onHotHit() {
+    hotHits.increment();
+  }
+
+  /**
+   * Records a lookup served from disk.
+   */
+  public void onDiskHit() {
+    hotMisses.increment();
+    diskHits.increment();
+  }
+
+  /**
+   * Records a lookup found in neither tier.
+   */
+  public void onMiss() {
+    hotMisses.increment();
+    diskMisses.increment();
+  }
+
+  /**
+   * Records a session moved to disk.
+   */
+  public void onEviction() {
+    evictions.increment();
+  }
+
+  @Override
+  public long getHotHits() {
+    return hotHits.sum();
+  }
+
+  @Override
+  public long getHotMisses() {
+    return hotMisses.sum();
+  }
+
+  @Override
+  public long getDiskHits() {
+    return diskHits.sum();
+  }
+
+  @Override
+  public long getDiskMisses() {
+    return diskMisses.sum();
+  }
+
+  @Override
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  @Override
+  public double getHotHitRatio() {
+    long hits = hotHits.sum();
+    long total = hits + hotMisses.sum();
+    return total == 0 ? 0.0 : (double) hits / total;
+  }
+
+  @Override
+  public long getHotSessionCount() {
+    return hotSessionCount.getAsLong();
+  }
+
+  @Override
+  public long getHotEstimatedBytes() {
+    return hotEstimatedBytes.getAsLong();
+  }
+
+  @Override
+  public long getDiskSessionCount() {
+    return diskSessionCount.getAsLong();
+  }
+
+  @Override
+  public void reset() {
+    hotHits.reset();
+    hotMisses.reset();
+    diskHits.reset();
+    diskMisses.reset();
+    evictions.reset();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("hot=%d (%d bytes) disk=%d hotHits=%d diskHits=%d misses=%d evictions=%d",
+        getHotSessionCount(), getHotEstimatedBytes(), getDiskSessionCount(), getHotHits(),
+        getDiskHits(), getDiskMisses(), getEvictions());
+  }
+}
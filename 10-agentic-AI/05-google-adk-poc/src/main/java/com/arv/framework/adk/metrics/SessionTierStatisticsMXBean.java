@@ -0,0 +1,75 @@
+package com.arv.framework.adk.metrics;
+
+/**
+ * JMX view of a tiered session manager's hit rates and tier sizes.
+ */
+public interface SessionTierStatisticsMXBean {
+
+    /**
+     * Gets the number of lookups served from memory.
+     *
+     * @return the hot tier hit count
+     */
+    long getHotHits();
+
+    /**
+     * Gets the number of lookups not found in memory.
+     *
+     * @return the hot tier miss count
+     */
+    long getHotMisses();
+
+    /**
+     * Gets the number of lookups served by reloading a session from disk.
+     *
+     * @return the disk tier hit count
+     */
+    long getDiskHits();
+
+    /**
+     * Gets the number of lookups found in neither tier.
+     *
+     * @return the disk tier miss count
+     */
+    long getDiskMisses();
+
+    /**
+     * Gets the number of sessions moved from memory to disk.
+     *
+     * @return the eviction count
+     */
+    long getEvictions();
+
+    /**
+     * Gets the fraction of lookups served from memory.
+     *
+     * @return the hot tier hit ratio between 0 and 1
+     */
+    double getHotHitRatio();
+
+    /**
+     * Gets the number of sessions in memory.
+     *
+     * @return the hot tier session count
+     */
+    long getHotSessionCount();
+
+    /**
+     * Gets the estimated heap used by sessions in memory.
+     *
+     * @return the estimate in bytes
+     */
+    long getHotEstimatedBytes();
+
+    /**
+     * Gets the number of sessions on disk.
+     *
+     * @return the disk tier session count
+     */
+    long getDiskSessionCount();
+
+    /**
+     * Clears the hit, miss and eviction counters.
+     */
+    void reset();
+}
@@ -0,0 +1,180 @@
+package com.arv.framework.adk.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counts, outcomes, latency and concurrency of a single tool.
+ * All counters are striped, so recording from many threads is cheap; readers
+ * get a best-effort view while calls are in progress.
+ */
+public class ToolStatistics implements ToolStatisticsMXBean {
+
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private final String toolName;
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder successes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder inFlight = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  /**
+   * Creates empty statistics for a tool.
+   *
+   * @param toolName the tool name
+   */
+  public ToolStatistics(String toolName) {
+    this.toolName = toolName;
+  }
+
+  /**
+   * Records the start of a call.
+   *
+   * @return the start time to pass to one of the completion methods
+   */
+  public long onStart() {
+    calls.increment();
+    inFlight.increment();
+    return System.nanoTime();
+  }
+
+  /**
+   * Records a successful call.
+   *
+   * @param startNanos the value returned by {@link #onStart()}
+   */
+  public void onSuccess(long startNanos) {
+    complete(startNanos);
+    successes.increment();
+  }
+
+  /**
+   * Records a failed call.
+   *
+   * @param startNanos the value returned by {@link #onStart()}
+   */
+  public void onFailure(long startNanos) {
+    complete(startNanos);
+    failures.increment();
+  }
+
+  /**
+   * Records a call that timed out.
+   *
+   * @param startNanos the value returned by {@link #onStart()}
+   */
+  public void onTimeout(long startNanos) {
+    complete(startNanos);
+    timeouts.increment();
+  }
+
+  /**
+   * Records a call rejected before reaching the tool, e.g. by an open circuit.
+   */
+  public void onRejected() {
+    rejections.increment();
+  }
+
+  /**
+   * Records a call that was refused because its input was invalid.
+   * It counts as a failure but has no latency.
+   */
+  public void onInvalidInput() {
+    calls.increment();
+    failures.increment();
+  }
+
+  /**
+   * Gets the latency histogram in microseconds.
+   *
+   * @return the latency histogram
+   */
+  public LatencyHistogram getLatencyHistogram() {
+    return latency;
+  }
+
+  @Override
+  public String getToolName() {
+    return toolName;
+  }
+
+  @Override
+  public long getCallCount() {
+    return calls.sum();
+  }
+
+  @Override
+  public long getSuccessCount() {
+    return successes.sum();
+  }
+
+  @Override
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  @Override
+  public long getTimeoutCount() {
+    return timeouts.sum();
+  }
+
+  @Override
+  public long getRejectionCount() {
+    return rejections.sum();
+  }
+
+  @Override
+  public long getInFlight() {
+    return inFlight.sum();
+  }
+
+  @Override
+  public double getMeanLatencyMs() {
+    return latency.getMean() / MICROS_PER_MILLI;
+  }
+
+  @Override
+  public double getP50LatencyMs() {
+    return latency.getPercentile(50) / MICROS_PER_MILLI;
+  }
+
+  @Override
+  public double getP95LatencyMs() {
+    return latency.getPercentile(95) / MICROS_PER_MILLI;
+  }
+
+  @Override
+  public double getP99LatencyMs() {
+    return latency.getPercentile(99) / MICROS_PER_MILLI;
+  }
+
+  @Override
+  public double getMaxLatencyMs() {
+    return latency.getMax() / MICROS_PER_MILLI;
+  }
+
+  @Override
+  public void reset() {
+    calls.reset();
+    successes.reset();
+    failures.reset();
+    timeouts.reset();
+    rejections.reset();
+    latency.reset();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: calls=%d success=%d failure=%d timeout=%d rejected=%d inFlight=%d "
+        + "p50=%.2fms p95=%.2fms p99=%.2fms", toolName, getCallCount(), getSuccessCount(),
+        getFailureCount(), getTimeoutCount(), getRejectionCount(), getInFlight(),
+        getP50LatencyMs(), getP95LatencyMs(), getP99LatencyMs());
+  }
+
+  private void complete(long startNanos) {
+    inFlight.decrement();
+    latency.record((System.nanoTime() - startNanos) / 1000L);
+  }
+}
@@ -0,0 +1,97 @@
+package com.arv.framework.adk.metrics;
+
+/**
+ * JMX view of the statistics of a single tool.
+ * Latencies are reported in milliseconds.
+ */
+public interface ToolStatisticsMXBean {
+
+    /**
+     * Gets the tool name.
+     *
+     * @return the tool name
+     */
+    String getToolName();
+
+    /**
+     * Gets the number of calls that reached the tool.
+     *
+     * @return the call count
+     */
+    long getCallCount();
+
+    /**
+     * Gets the number of successful calls.
+     *
+     * @return the success count
+     */
+    long getSuccessCount();
+
+    /**
+     * Gets the number of failed calls, excluding timeouts.
+     *
+     * @return the failure count
+     */
+    long getFailureCount();
+
+    /**
+     * Gets the number of calls that timed out.
+     *
+     * @return the timeout count
+     */
+    long getTimeoutCount();
+
+    /**
+     * Gets the number of calls rejected before reaching the tool.
+     *
+     * @return the rejection count
+     */
+    long getRejectionCount();
+
+    /**
+     * Gets the number of calls currently running.
+     *
+     * @return the in-flight count
+     */
+    long getInFlight();
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean latency in milliseconds
+     */
+    double getMeanLatencyMs();
+
+    /**
+     * Gets the median latency.
+     *
+     * @return the p50 latency in milliseconds
+     */
+    double getP50LatencyMs();
+
+    /**
+     * Gets the 95th percentile latency.
+     *
+     * @return the p95 latency in milliseconds
+     */
+    double getP95LatencyMs();
+
+    /**
+     * Gets the 99th percentile latency.
+     *
+     * @return the p99 latency in milliseconds
+     */
+    double getP99LatencyMs();
+
+    /**
+     * Gets the largest latency seen.
+     *
+     * @return the maximum latency in milliseconds
+     */
+    double getMaxLatencyMs();
+
+    /**
+     * Clears all counters and the latency histogram.
+     */
+    void reset();
+}
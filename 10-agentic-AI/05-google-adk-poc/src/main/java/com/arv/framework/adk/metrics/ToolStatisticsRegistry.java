@@ -0,0 +1,121 @@
+package com.arv.framework.adk.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the statistics of every tool an engine has called.
+ * Once JMX is enabled, each tool's statistics are published as an MXBean named
+ * {@code com.arv.framework.adk:type=ToolStatistics,engine=<scope>,tool=<tool>}.
+ */
+@Slf4j
+public class ToolStatisticsRegistry {
+
+  private static final String JMX_DOMAIN = "com.arv.framework.adk";
+
+  private final Map<String, ToolStatistics> statistics = new ConcurrentHashMap<>();
+  private volatile String jmxScope;
+
+  /**
+   * Gets the statistics of a tool, creating them on first use.
+   *
+   * @param toolName the tool name
+   * @return the tool statistics
+   */
+  public ToolStatistics forTool(String toolName) {
+    ToolStatistics existing = statistics.get(toolName);
+    if (existing != null) {
+      return existing;
+    }
+    return statistics.computeIfAbsent(toolName, name -> {
+      ToolStatistics created = new ToolStatistics(name);
+      String scope = jmxScope;
+      if (scope != null) {
+        register(scope, created);
+      }
+      return created;
+    });
+  }
+
+  /**
+   * Gets the statistics of a tool if it has been called.
+   *
+   * @param toolName the tool name
+   * @return the tool statistics, or null if the tool was never called
+   */
+  public ToolStatistics get(String toolName) {
+    return statistics.get(toolName);
+  }
+
+  /**
+   * Gets the statistics of every tool that has been called.
+   *
+   * @return the tool statistics
+   */
+  public List<ToolStatistics> getAll() {
+    return new ArrayList<>(statistics.values());
+  }
+
+  /**
+   * Publishes the statistics of all current and future tools through JMX.
+   *
+   * @param scope the value of the {@code engine} key, distinguishing engines in one JVM
+   */
+  public synchronized void registerMBeans(String scope) {
+    if (jmxScope != null) {
+      unregisterMBeans();
+    }
+    jmxScope = scope;
+    for (ToolStatistics toolStatistics : statistics.values()) {
+      register(scope, toolStatistics);
+    }
+  }
+
+  /**
+   * Removes all MBeans published by this registry.
+   */
+  public synchronized void unregisterMBeans() {
+    String scope = jmxScope;
+    if (scope == null) {
+      return;
+    }
+    jmxScope = null;
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (ToolStatistics toolStatistics : statistics.values()) {
+      try {
+        ObjectName name = objectName(scope, toolStatistics.getToolName());
+        if (server.isRegistered(name)) {
+          server.unregisterMBean(name);
+        }
+      } catch (JMException e) {
+        log.warn("Failed to unregister statistics MBean for {}: {}",
+            toolStatistics.getToolName(), e.getMessage());
+      }
+    }
+  }
+
+  private static void register(String scope, ToolStatistics toolStatistics) {
+    try {
+      ObjectName name = objectName(scope, toolStatistics.getToolName());
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (!server.isRegistered(name)) {
+        server.registerMBean(toolStatistics, name);
+      }
+    } catch (JMException e) {
+      log.warn("Failed to register statistics MBean for {}: {}",
+          toolStatistics.getToolName(), e.getMessage());
+    }
+  }
+
+  private static ObjectName objectName(String scope, String toolName) throws JMException {
+    return new ObjectName(JMX_DOMAIN + ":type=ToolStatistics,engine=" + ObjectName.quote(scope)
+        + ",tool=" + ObjectName.quote(toolName));
+  }
+}
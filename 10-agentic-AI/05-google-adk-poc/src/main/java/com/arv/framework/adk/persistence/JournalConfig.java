@@ -0,0 +1,90 @@
+package com.arv.framework.adk.persistence;
+
+/**
+ * Configuration for the session journal.
+ */
+public class JournalConfig {
+
+  private int segmentSizeBytes = 64 * 1024 * 1024;
+  private boolean syncOnCommit = true;
+  private long flushIntervalMs = 10L;
+  private long snapshotEveryRecords = 1_000_000L;
+
+  /**
+   * Creates a configuration with default values: 64 MB segments, each change synced to
+   * disk before it is acknowledged, and a snapshot every million records.
+   *
+   * @return a new JournalConfig
+   */
+  public static JournalConfig defaults() {
+    return new JournalConfig();
+  }
+
+  /**
+   * Sets the size of each memory-mapped journal segment.
+   *
+   * @param segmentSizeBytes the segment size in bytes
+   * @return this config for method chaining
+   */
+  public JournalConfig withSegmentSizeBytes(int segmentSizeBytes) {
+    if (segmentSizeBytes < 4096) {
+      throw new IllegalArgumentException("Segment size must be at least 4096 bytes");
+    }
+    this.segmentSizeBytes = segmentSizeBytes;
+    return this;
+  }
+
+  /**
+   * Sets whether each change waits for the journal to reach disk before returning.
+   * Concurrent writers share one sync. When off, changes are synced in the background
+   * and the last flush interval's worth can be lost in a crash.
+   *
+   * @param syncOnCommit true to wait for each change to be durable
+   * @return this config for method chaining
+   */
+  public JournalConfig withSyncOnCommit(boolean syncOnCommit) {
+    this.syncOnCommit = syncOnCommit;
+    return this;
+  }
+
+  /**
+   * Sets how often unsynced changes are flushed in the background.
+   *
+   * @param flushIntervalMs the interval in milliseconds
+   * @return this config for method chaining
+   */
+  public JournalConfig withFlushIntervalMs(long flushIntervalMs) {
+    if (flushIntervalMs <= 0) {
+      throw new IllegalArgumentException("Flush interval must be positive");
+    }
+    this.flushIntervalMs = flushIntervalMs;
+    return this;
+  }
+
+  /**
+   * Sets how many records are written between snapshots; 0 disables automatic snapshots.
+   *
+   * @param snapshotEveryRecords the number of records
+   * @return this config for method chaining
+   */
+  public JournalConfig withSnapshotEveryRecords(long snapshotEveryRecords) {
+    this.snapshotEveryRecords = Math.max(0L, snapshotEveryRecords);
+    return this;
+  }
+
+  public int getSegmentSizeBytes() {
+    return segmentSizeBytes;
+  }
+
+  public boolean isSyncOnCommit() {
+    return syncOnCommit;
+  }
+
+  public long getFlushIntervalMs() {
+    return flushIntervalMs;
+  }
+
+  public long getSnapshotEveryRecords() {
+    return snapshotEveryRecords;
+  }
+}
@@ -0,0 +1,425 @@
+package com.arv.framework.adk.persistence;
+
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Session manager that survives restarts.
+ * Every change made through the manager (creating and ending sessions, adding messages,
+ * updating context, clearing history and state changes) is written to a
+ * {@link SessionJournal} before it is applied, and the call returns once the journal has
+ * synced it. Histories compacted by a {@link com.arv.framework.adk.impl.HistorySummarizer}
+ * are journaled too, once compacted, so summaries are not recomputed after a restart.
+ * Snapshots of all sessions are taken in the background every
+ * {@link JournalConfig#getSnapshotEveryRecords()} records, after which the journal segments
+ * they cover are deleted, so recovery reads one snapshot and a bounded tail of journal.
+ *
+ * <p>Snapshots are taken while writes continue. Each session remembers the sequence number
+ * of the last record applied to it, and records already reflected in the snapshot are
+ * skipped on replay. Changes made directly on an {@link ISession} object rather than
+ * through the manager are only saved by the next snapshot.
+ */
+@Slf4j
+public class JournaledSessionManager extends SimpleSessionManager {
+
+  private static final int LOCK_STRIPES = 64;
+
+  private final JournalConfig config;
+  private final SessionJournal journal;
+  private final SessionSnapshotStore snapshots;
+  private final Map<String, Long> appliedSequences = new ConcurrentHashMap<>();
+  private final Object[] locks = new Object[LOCK_STRIPES];
+  private final Object sequenceLock = new Object();
+  private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+  private final ExecutorService snapshotExecutor;
+  private volatile long lastSnapshotSequence;
+
+  /**
+   * Opens a journaled session manager with the default configuration and recovers its sessions.
+   *
+   * @param directory the directory holding the journal and snapshots
+   * @throws IOException if the journal cannot be opened or recovered
+   */
+  public JournaledSessionManager(Path directory) throws IOException {
+    this(directory, JournalConfig.defaults());
+  }
+
+  /**
+   * Opens a journaled session manager and recovers its sessions.
+   *
+   * @param directory the directory holding the journal and snapshots
+   * @param config the journal configuration
+   * @throws IOException if the journal cannot be opened or recovered
+   */
+  public JournaledSessionManager(Path directory, JournalConfig config) throws IOException {
+    this.config = config;
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new Object();
+    }
+    this.snapshots = new SessionSnapshotStore(directory);
+    this.journal = new SessionJournal(directory, config);
+    this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "session-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    });
+    recover();
+  }
+
+  @Override
+  public ISession createSession(String sessionId, String userId) {
+    long now = System.currentTimeMillis();
+    long sequence;
+    ISession session;
+    synchronized (lockFor(sessionId)) {
+      sequence = append(SessionRecord.created(sessionId, userId, now));
+      session = super.createSession(sessionId, userId);
+    }
+    journal.commit(sequence);
+    return session;
+  }
+
+  @Override
+  public boolean endSession(String sessionId) {
+    long sequence;
+    synchronized (lockFor(sessionId)) {
+      if (!getSession(sessionId).isPresent()) {
+        return false;
+      }
+      sequence = append(SessionRecord.ended(sessionId, System.currentTimeMillis()));
+      super.endSession(sessionId);
+      appliedSequences.remove(sessionId);
+    }
+    journal.commit(sequence);
+    return true;
+  }
+
+  @Override
+  public boolean updateSessionContext(String sessionId, Map<String, Object> context) {
+    long sequence;
+    synchronized (lockFor(sessionId)) {
+      if (!getSession(sessionId).isPresent()) {
+        return false;
+      }
+      sequence = append(SessionRecord.contextUpdated(sessionId, context, System.currentTimeMillis()));
+      super.updateSessionContext(sessionId, context);
+    }
+    journal.commit(sequence);
+    return true;
+  }
+
+  @Override
+  public boolean addMessage(String sessionId, IMessage message) {
+    if (message == null) {
+      return false;
+    }
+    long sequence;
+    synchronized (lockFor(sessionId)) {
+      if (!getSession(sessionId).isPresent()) {
+        return false;
+      }
+      sequence = append(SessionRecord.messageAdded(sessionId, message, System.currentTimeMillis()));
+      super.addMessage(sessionId, message);
+    }
+    journal.commit(sequence);
+    return true;
+  }
+
+  @Override
+  public boolean clearHistory(String sessionId) {
+    long sequence;
+    synchronized (lockFor(sessionId)) {
+      if (!getSession(sessionId).isPresent()) {
+        return false;
+      }
+      sequence = append(SessionRecord.historyCleared(sessionId, System.currentTimeMillis()));
+      super.clearHistory(sessionId);
+    }
+    journal.commit(sequence);
+    return true;
+  }
+
+  /**
+   * Changes the state of a session.
+   *
+   * @param sessionId the session ID
+   * @param state the new state
+   * @return true if the session exists
+   */
+  public boolean setSessionState(String sessionId, SessionState state) {
+    long sequence;
+    synchronized (lockFor(sessionId)) {
+      ISession session = getSession(sessionId).orElse(null);
+      if (session == null) {
+        return false;
+      }
+      sequence = append(SessionRecord.stateChanged(sessionId, state, System.currentTimeMillis()));
+      session.setState(state);
+    }
+    journal.commit(sequence);
+    return true;
+  }
+
+  @Override
+  protected boolean compactHistory(SimpleSession session, List<IMessage> summarized, IMessage summary) {
+    String sessionId = session.getId();
+    long sequence;
+    synchronized (lockFor(sessionId)) {
+      // Appended after the change, since the history may have moved on since it was summarized
+      if (getSession(sessionId).orElse(null) != session
+          || !super.compactHistory(session, summarized, summary)) {
+        return false;
+      }
+      sequence = append(SessionRecord.historyCompacted(sessionId, summary, summarized.size(),
+          System.currentTimeMillis()));
+    }
+    journal.commit(sequence);
+    return true;
+  }
+
+  @Override
+  public int cleanupExpiredSessions() {
+    List<String> removed = new ArrayList<>();
+    long sequence = 0L;
+    for (ISession session : getAllSessions()) {
+      String sessionId = session.getId();
+      synchronized (lockFor(sessionId)) {
+        if (session.isActive() || session.getState() == SessionState.IDLE
+            || getSession(sessionId).orElse(null) != session) {
+          continue;
+        }
+        sequence = append(SessionRecord.ended(sessionId, System.currentTimeMillis()));
+        removeSession(session);
+        appliedSequences.remove(sessionId);
+        removed.add(sessionId);
+      }
+    }
+    journal.commit(sequence);
+    return removed.size();
+  }
+
+  @Override
+  protected void sessionIdle(ISession session) {
+    String sessionId = session.getId();
+    long sequence;
+    synchronized (lockFor(sessionId)) {
+      if (getSession(sessionId).orElse(null) != session) {
+        return;
+      }
+      sequence = append(SessionRecord.stateChanged(sessionId, SessionState.IDLE, System.currentTimeMillis()));
+    }
+    journal.commit(sequence);
+  }
+
+  @Override
+  protected void sessionExpired(ISession session) {
+    String sessionId = session.getId();
+    long sequence;
+    synchronized (lockFor(sessionId)) {
+      if (getSession(sessionId).orElse(null) != session) {
+        return;
+      }
+      sequence = append(SessionRecord.ended(sessionId, System.currentTimeMillis()));
+      super.sessionExpired(session);
+      appliedSequences.remove(sessionId);
+    }
+    journal.commit(sequence);
+  }
+
+  /**
+   * Writes a snapshot of every session and deletes the journal segments it makes redundant.
+   *
+   * @return the journal sequence number the snapshot covers
+   * @throws IOException if the snapshot cannot be written
+   */
+  public synchronized long snapshot() throws IOException {
+    // Every record up to the snapshot's sequence number has its session listed, and each
+    // session is written under its lock, so the snapshot reflects all of those records
+    long sequence;
+    List<String> sessionIds;
+    synchronized (sequenceLock) {
+      sequence = journal.getLastSequence();
+      sessionIds = new ArrayList<>(appliedSequences.keySet());
+    }
+    long oldestKept = snapshots.write(sequence, out -> writeSessions(out, sessionIds));
+    lastSnapshotSequence = sequence;
+    int deleted = journal.deleteSegmentsUpTo(oldestKept);
+    log.debug("Wrote session snapshot at sequence {}, deleted {} journal segments", sequence, deleted);
+    return sequence;
+  }
+
+  /**
+   * Gets the journal, for example to inspect its sequence numbers.
+   *
+   * @return the journal
+   */
+  public SessionJournal getJournal() {
+    return journal;
+  }
+
+  /**
+   * Stops background snapshots and syncs and closes the journal.
+   */
+  @Override
+  public void close() {
+    super.close();
+    snapshotExecutor.shutdown();
+    try {
+      snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    journal.close();
+  }
+
+  private void recover() throws IOException {
+    long start = System.nanoTime();
+    long snapshotSequence = snapshots.read(this::readSessions);
+    int restored = getAllSessions().size();
+    long last = journal.recover(snapshotSequence, (payload, sequence) -> replay(sequence, decode(payload)));
+    lastSnapshotSequence = snapshotSequence;
+    log.info("Recovered {} sessions ({} from snapshot at sequence {}, journal up to {}) in {} ms",
+        getAllSessions().size(), restored, snapshotSequence, last,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  /**
+   * Applies a journal record during recovery, unless the snapshot already reflects it.
+   */
+  private void replay(long sequence, SessionRecord record) {
+    String sessionId = record.getSessionId();
+    Long applied = appliedSequences.get(sessionId);
+    if (applied != null && sequence <= applied) {
+      return;
+    }
+    if (record.getType() == SessionRecord.Type.CREATED) {
+      SimpleSession session = (SimpleSession) super.createSession(sessionId, record.getUserId());
+      session.restoreTimestamps(record.getTimestamp(), record.getTimestamp());
+      appliedSequences.put(sessionId, sequence);
+      return;
+    }
+    ISession session = getSession(sessionId).orElse(null);
+    if (session == null) {
+      return;
+    }
+    if (record.getType() == SessionRecord.Type.HISTORY_COMPACTED) {
+      // Not activity, so the session's timestamps stay as they are
+      ((SimpleSession) session).compactHistory(record.getCompactedCount(), record.getMessage());
+      appliedSequences.put(sessionId, sequence);
+      return;
+    }
+    switch (record.getType()) {
+      case MESSAGE_ADDED:
+        session.addMessage(record.getMessage());
+        break;
+      case CONTEXT_UPDATED:
+        session.updateContext(record.getContext());
+        break;
+      case STATE_CHANGED:
+        session.setState(record.getState());
+        break;
+      case HISTORY_CLEARED:
+        session.clearHistory();
+        break;
+      default:
+        super.endSession(sessionId);
+        appliedSequences.remove(sessionId);
+        return;
+    }
+    if (session instanceof SimpleSession) {
+      ((SimpleSession) session).restoreTimestamps(session.getCreatedAt(), record.getTimestamp());
+    }
+    appliedSequences.put(sessionId, sequence);
+  }
+
+  private long append(SessionRecord record) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    try {
+      record.writeTo(new DataOutputStream(bytes));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    byte[] payload = bytes.toByteArray();
+    long sequence;
+    synchronized (sequenceLock) {
+      sequence = journal.append(payload);
+      appliedSequences.put(record.getSessionId(), sequence);
+    }
+    long every = config.getSnapshotEveryRecords();
+    if (every > 0 && sequence - lastSnapshotSequence >= every && snapshotScheduled.compareAndSet(false, true)) {
+      snapshotExecutor.execute(this::snapshotInBackground);
+    }
+    return sequence;
+  }
+
+  private void snapshotInBackground() {
+    try {
+      snapshot();
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to write session snapshot: {}", e.getMessage(), e);
+    } finally {
+      snapshotScheduled.set(false);
+    }
+  }
+
+  private static SessionRecord decode(byte[] payload) {
+    try {
+      return SessionRecord.readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Malformed journal record", e);
+    }
+  }
+
+  private void writeSessions(DataOutput out, List<String> sessionIds) throws IOException {
+    for (String sessionId : sessionIds) {
+      synchronized (lockFor(sessionId)) {
+        Long applied = appliedSequences.get(sessionId);
+        ISession session = getSession(sessionId).orElse(null);
+        if (applied == null || session == null) {
+          continue;
+        }
+        out.writeBoolean(true);
+        out.writeLong(applied);
+        SessionCodec.writeSession(out, session);
+      }
+    }
+    out.writeBoolean(false);
+  }
+
+  private void readSessions(DataInput in) throws IOException {
+    clearSessions();
+    appliedSequences.clear();
+    while (in.readBoolean()) {
+      long applied = in.readLong();
+      SimpleSession session = SessionCodec.readSession(in,
+          (sessionId, userId) -> (SimpleSession) super.createSession(sessionId, userId));
+      appliedSequences.put(session.getId(), applied);
+    }
+  }
+
+  private Object lockFor(String sessionId) {
+    return locks[(sessionId.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+  }
+}
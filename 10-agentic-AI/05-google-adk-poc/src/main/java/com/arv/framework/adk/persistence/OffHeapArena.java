@@ -0,0 +1,199 @@
+package com.arv.framework.adk.persistence;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bump-pointer allocator over direct byte buffers outside the Java heap.
+ * Blocks are carved out of fixed-size chunks; a chunk is dropped once every block in it
+ * has been freed, and its memory goes back to the operating system when the buffer is
+ * collected. Blocks larger than a chunk get a chunk of their own. The arena never grows
+ * beyond its byte limit; {@link #store} returns null instead.
+ */
+public final class OffHeapArena {
+
+  /**
+   * Default chunk size.
+   */
+  public static final int DEFAULT_CHUNK_BYTES = 4 * 1024 * 1024;
+
+  private final int chunkBytes;
+  private final long maxBytes;
+  private Chunk current;
+  private long reservedBytes;
+  private long usedBytes;
+  private int blockCount;
+  private int chunkCount;
+
+  /**
+   * Creates an arena with default chunks and no byte limit.
+   */
+  public OffHeapArena() {
+    this(DEFAULT_CHUNK_BYTES, Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates an arena.
+   *
+   * @param chunkBytes the size of each chunk
+   * @param maxBytes the most off-heap memory the arena may reserve
+   */
+  public OffHeapArena(int chunkBytes, long maxBytes) {
+    if (chunkBytes <= 0 || maxBytes <= 0) {
+      throw new IllegalArgumentException("Chunk size and limit must be positive");
+    }
+    this.chunkBytes = chunkBytes;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Copies data into the arena.
+   *
+   * @param data the bytes to store
+   * @return the block holding them, or null if the arena is full
+   */
+  public synchronized Block store(byte[] data) {
+    int length = data.length;
+    Chunk chunk = current;
+    if (chunk == null || chunk.buffer.capacity() - chunk.top < length) {
+      int capacity = Math.max(chunkBytes, length);
+      if (reservedBytes + capacity > maxBytes) {
+        return null;
+      }
+      chunk = new Chunk(ByteBuffer.allocateDirect(capacity));
+      reservedBytes += capacity;
+      chunkCount++;
+      if (length <= chunkBytes) {
+        retire(current);
+        current = chunk;
+      }
+    }
+
+    int offset = chunk.top;
+    ByteBuffer target = chunk.buffer.duplicate();
+    target.position(offset);
+    target.put(data);
+    chunk.top += length;
+    chunk.liveBytes += length;
+    usedBytes += length;
+    blockCount++;
+    return new Block(chunk, offset, length);
+  }
+
+  /**
+   * Copies a block's bytes back onto the heap.
+   *
+   * @param block the block
+   * @return the stored bytes
+   */
+  public byte[] read(Block block) {
+    if (block.freed) {
+      throw new IllegalStateException("Block has been freed");
+    }
+    byte[] data = new byte[block.length];
+    ByteBuffer source = block.chunk.buffer.duplicate();
+    source.position(block.offset);
+    source.get(data);
+    return data;
+  }
+
+  /**
+   * Frees a block. Freeing a block twice has no effect.
+   *
+   * @param block the block
+   */
+  public synchronized void free(Block block) {
+    if (block.freed) {
+      return;
+    }
+    block.freed = true;
+    Chunk chunk = block.chunk;
+    chunk.liveBytes -= block.length;
+    usedBytes -= block.length;
+    blockCount--;
+    if (chunk != current) {
+      retire(chunk);
+    }
+  }
+
+  /**
+   * Gets the off-heap memory reserved in chunks, including space not yet used or freed
+   * but not reclaimable until the rest of its chunk is freed.
+   *
+   * @return the number of bytes
+   */
+  public synchronized long getReservedBytes() {
+    return reservedBytes;
+  }
+
+  /**
+   * Gets the bytes held in live blocks.
+   *
+   * @return the number of bytes
+   */
+  public synchronized long getUsedBytes() {
+    return usedBytes;
+  }
+
+  /**
+   * Gets the number of live blocks.
+   *
+   * @return the block count
+   */
+  public synchronized int getBlockCount() {
+    return blockCount;
+  }
+
+  /**
+   * Gets the number of chunks reserved.
+   *
+   * @return the chunk count
+   */
+  public synchronized int getChunkCount() {
+    return chunkCount;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  private void retire(Chunk chunk) {
+    if (chunk != null && chunk.liveBytes == 0 && !chunk.released) {
+      chunk.released = true;
+      reservedBytes -= chunk.buffer.capacity();
+      chunkCount--;
+    }
+  }
+
+  /**
+   * A region of an arena chunk.
+   */
+  public static final class Block {
+
+    private final Chunk chunk;
+    private final int offset;
+    private final int length;
+    private boolean freed;
+
+    private Block(Chunk chunk, int offset, int length) {
+      this.chunk = chunk;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public int getLength() {
+      return length;
+    }
+  }
+
+  private static final class Chunk {
+
+    private final ByteBuffer buffer;
+    private int top;
+    private int liveBytes;
+    private boolean released;
+
+    Chunk(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+  }
+}
@@ -0,0 +1,317 @@
+package com.arv.framework.adk.persistence;
+
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session manager that moves the history, context and metadata of idle sessions off the heap.
+ * When a session goes IDLE (see {@link #withSessionExpiry}) or is passivated explicitly,
+ * its data is encoded with {@link SessionCodec} into an {@link OffHeapArena} and only a small
+ * block handle stays on the heap. The data is decoded back the next time the session is
+ * used through the manager, including {@link #getSession}. Anything added to the session
+ * object while it is passivated is kept and ordered after the restored data.
+ */
+@Slf4j
+public class OffHeapSessionManager extends SimpleSessionManager {
+
+  private final OffHeapArena arena;
+  private final Map<String, OffHeapArena.Block> passivated = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a session manager with an unbounded arena.
+   */
+  public OffHeapSessionManager() {
+    this(new OffHeapArena());
+  }
+
+  /**
+   * Creates a session manager.
+   *
+   * @param arena the arena holding passivated sessions
+   */
+  public OffHeapSessionManager(OffHeapArena arena) {
+    this.arena = arena;
+  }
+
+  /**
+   * Moves a session's history, context and metadata off the heap.
+   *
+   * @param sessionId the session ID
+   * @return true if the session was passivated, false if it does not exist, has ended,
+   *     is already passivated, holds values {@link SessionCodec} cannot store exactly or
+   *     the arena is full
+   */
+  public boolean passivate(String sessionId) {
+    ISession session = super.getSession(sessionId).orElse(null);
+    return session instanceof SimpleSession && passivate((SimpleSession) session);
+  }
+
+  /**
+   * Passivates every session in the IDLE state.
+   *
+   * @return the number of sessions passivated
+   */
+  public int passivateIdleSessions() {
+    int count = 0;
+    for (ISession session : getAllSessions()) {
+      if (session.getState() == SessionState.IDLE && session instanceof SimpleSession
+          && passivate((SimpleSession) session)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Checks whether a session's data is currently off the heap.
+   *
+   * @param sessionId the session ID
+   * @return true if passivated
+   */
+  public boolean isPassivated(String sessionId) {
+    return passivated.containsKey(sessionId);
+  }
+
+  /**
+   * Gets the number of passivated sessions.
+   *
+   * @return the session count
+   */
+  public int getPassivatedCount() {
+    return passivated.size();
+  }
+
+  /**
+   * Gets the arena, for example to check its memory use.
+   *
+   * @return the arena
+   */
+  public OffHeapArena getArena() {
+    return arena;
+  }
+
+  @Override
+  public ISession createSession(String sessionId, String userId) {
+    discard(sessionId);
+    return super.createSession(sessionId, userId);
+  }
+
+  @Override
+  public Optional<ISession> getSession(String sessionId) {
+    rehydrate(sessionId);
+    return super.getSession(sessionId);
+  }
+
+  @Override
+  public boolean endSession(String sessionId) {
+    discard(sessionId);
+    return super.endSession(sessionId);
+  }
+
+  @Override
+  public boolean releaseSession(String sessionId) {
+    discard(sessionId);
+    return super.releaseSession(sessionId);
+  }
+
+  @Override
+  public boolean updateSessionContext(String sessionId, Map<String, Object> context) {
+    rehydrate(sessionId);
+    return super.updateSessionContext(sessionId, context);
+  }
+
+  @Override
+  public Map<String, Object> getSessionContext(String sessionId) {
+    rehydrate(sessionId);
+    return super.getSessionContext(sessionId);
+  }
+
+  @Override
+  public boolean addMessage(String sessionId, IMessage message) {
+    rehydrate(sessionId);
+    return super.addMessage(sessionId, message);
+  }
+
+  @Override
+  public List<IMessage> getSessionHistory(String sessionId) {
+    rehydrate(sessionId);
+    return super.getSessionHistory(sessionId);
+  }
+
+  @Override
+  public List<IMessage> getRecentMessages(String sessionId, int count) {
+    rehydrate(sessionId);
+    return super.getRecentMessages(sessionId, count);
+  }
+
+  @Override
+  public boolean clearHistory(String sessionId) {
+    rehydrate(sessionId);
+    return super.clearHistory(sessionId);
+  }
+
+  @Override
+  public int getMessageCount(String sessionId) {
+    rehydrate(sessionId);
+    return super.getMessageCount(sessionId);
+  }
+
+  @Override
+  public int cleanupExpiredSessions() {
+    int removed = super.cleanupExpiredSessions();
+    if (removed > 0) {
+      passivated.entrySet().removeIf(entry -> {
+        if (super.getSession(entry.getKey()).isPresent()) {
+          return false;
+        }
+        arena.free(entry.getValue());
+        return true;
+      });
+    }
+    return removed;
+  }
+
+  @Override
+  protected void sessionIdle(ISession session) {
+    super.sessionIdle(session);
+    if (session instanceof SimpleSession) {
+      passivate((SimpleSession) session);
+    }
+  }
+
+  @Override
+  protected void sessionExpired(ISession session) {
+    super.sessionExpired(session);
+    if (!super.getSession(session.getId()).isPresent()) {
+      discard(session.getId());
+    }
+  }
+
+  private boolean passivate(SimpleSession session) {
+    String sessionId = session.getId();
+    synchronized (session) {
+      if (passivated.containsKey(sessionId) || session.getState().isTerminated()
+          || super.getSession(sessionId).orElse(null) != session) {
+        return false;
+      }
+      List<IMessage> history = session.getMessageHistory();
+      Map<String, Object> context = session.getContext();
+      Map<String, Object> metadata = session.getMetadata();
+      if (!isLossless(history, context, metadata)) {
+        log.debug("Session {} holds values the codec cannot store exactly; it stays on the heap",
+            sessionId);
+        return false;
+      }
+      OffHeapArena.Block block = arena.store(encode(history, context, metadata));
+      if (block == null) {
+        log.debug("Off-heap arena is full; session {} stays on the heap", sessionId);
+        return false;
+      }
+      session.detachHistory();
+      session.setContext(null);
+      session.setMetadata(null);
+      passivated.put(sessionId, block);
+      return true;
+    }
+  }
+
+  /**
+   * Puts a passivated session's data back on the heap.
+   */
+  private void rehydrate(String sessionId) {
+    if (!passivated.containsKey(sessionId)) {
+      return;
+    }
+    ISession session = super.getSession(sessionId).orElse(null);
+    if (!(session instanceof SimpleSession)) {
+      discard(sessionId);
+      return;
+    }
+    SimpleSession simpleSession = (SimpleSession) session;
+    synchronized (simpleSession) {
+      OffHeapArena.Block block = passivated.remove(sessionId);
+      if (block == null) {
+        return;
+      }
+      byte[] bytes = arena.read(block);
+      arena.free(block);
+      try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+        int count = in.readInt();
+        List<IMessage> history = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+          history.add(SessionCodec.readMessage(in));
+        }
+        simpleSession.restoreHistory(history);
+        simpleSession.setContext(merge(SessionCodec.readMap(in), simpleSession.getContext()));
+        simpleSession.setMetadata(merge(SessionCodec.readMap(in), simpleSession.getMetadata()));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to restore session " + sessionId, e);
+      }
+    }
+  }
+
+  private void discard(String sessionId) {
+    OffHeapArena.Block block = passivated.remove(sessionId);
+    if (block != null) {
+      arena.free(block);
+    }
+  }
+
+  private static boolean isLossless(List<IMessage> history, Map<String, Object> context,
+      Map<String, Object> metadata) {
+    if (!SessionCodec.isLossless(context) || !SessionCodec.isLossless(metadata)) {
+      return false;
+    }
+    for (IMessage message : history) {
+      if (!SessionCodec.isLossless(message.getMetadata())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static byte[] encode(List<IMessage> history, Map<String, Object> context,
+      Map<String, Object> metadata) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(history.size());
+      for (IMessage message : history) {
+        SessionCodec.writeMessage(out, message);
+      }
+      SessionCodec.writeMap(out, context);
+      SessionCodec.writeMap(out, metadata);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Merges restored values with any set while the session was passivated; the latter win.
+   */
+  private static Map<String, Object> merge(Map<String, Object> restored, Map<String, Object> current) {
+    if (current.isEmpty()) {
+      return restored;
+    }
+    Map<String, Object> merged = new HashMap<>(restored);
+    merged.putAll(current);
+    return merged;
+  }
+}
@@ -0,0 +1,339 @@
+package com.arv.framework.adk.persistence;
+
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Compact binary encoding of sessions, messages and context maps.
+ * Strings are length-prefixed UTF-8 with no size limit. Map and list values are tagged
+ * with their type; values of other types are stored as their string form.
+ */
+public final class SessionCodec {
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte BOOLEAN = 5;
+  private static final byte MAP = 6;
+  private static final byte LIST = 7;
+  private static final SessionState[] STATES = SessionState.values();
+
+  private SessionCodec() {
+  }
+
+  /**
+   * Writes a string, which may be null.
+   *
+   * @param out the output
+   * @param value the string
+   * @throws IOException if writing fails
+   */
+  public static void writeString(DataOutput out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+    if (bytes == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string written by {@link #writeString}.
+   *
+   * @param in the input
+   * @return the string, or null
+   * @throws IOException if reading fails
+   */
+  public static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes a message, including its metadata.
+   *
+   * @param out the output
+   * @param message the message
+   * @throws IOException if writing fails
+   */
+  public static void writeMessage(DataOutput out, IMessage message) throws IOException {
+    writeString(out, message.getId());
+    writeString(out, message.getSender());
+    writeString(out, message.getType());
+    out.writeLong(message.getTimestamp());
+    out.writeInt(message.getPriority());
+    out.writeBoolean(message.isProcessed());
+    if (message instanceof SimpleMessage) {
+      writeBytes(out, ((SimpleMessage) message).getContentUtf8());
+    } else {
+      writeString(out, message.getContent());
+    }
+    writeMap(out, message.getMetadata());
+  }
+
+  /**
+   * Reads a message written by {@link #writeMessage}. Content that is more compact as
+   * UTF-8 stays encoded (see {@link SimpleMessage#compactContent()}).
+   *
+   * @param in the input
+   * @return the message
+   * @throws IOException if reading fails
+   */
+  public static IMessage readMessage(DataInput in) throws IOException {
+    String id = readString(in);
+    String sender = readString(in);
+    String type = readString(in);
+    long timestamp = in.readLong();
+    int priority = in.readInt();
+    boolean processed = in.readBoolean();
+    int length = in.readInt();
+    SimpleMessage message;
+    if (length < 0) {
+      message = new SimpleMessage(id, sender, null, timestamp, type);
+    } else {
+      byte[] content = new byte[length];
+      in.readFully(content);
+      message = SimpleMessage.fromUtf8(id, sender, content, timestamp, type);
+    }
+    message.setPriority(priority);
+    if (processed) {
+      message.markAsProcessed();
+    }
+    message.setMetadata(readMap(in));
+    return message;
+  }
+
+  /**
+   * Writes a session's identity, state, timestamps, context, metadata and history.
+   *
+   * @param out the output
+   * @param session the session
+   * @throws IOException if writing fails
+   */
+  public static void writeSession(DataOutput out, ISession session) throws IOException {
+    writeString(out, session.getId());
+    writeString(out, session.getUserId());
+    out.writeByte(session.getState().ordinal());
+    out.writeLong(session.getCreatedAt());
+    out.writeLong(session.getLastActivityAt());
+    writeMap(out, session.getContext());
+    writeMap(out, session.getMetadata());
+    List<IMessage> history = session.getMessageHistory();
+    out.writeInt(history.size());
+    for (IMessage message : history) {
+      writeMessage(out, message);
+    }
+  }
+
+  /**
+   * Reads a session written by {@link #writeSession}.
+   *
+   * @param in the input
+   * @param factory creates an empty session from its ID and user ID
+   * @return the restored session
+   * @throws IOException if reading fails
+   */
+  public static SimpleSession readSession(DataInput in,
+      BiFunction<String, String, SimpleSession> factory) throws IOException {
+    String sessionId = readString(in);
+    String userId = readString(in);
+    SessionState state = STATES[in.readUnsignedByte()];
+    long createdAt = in.readLong();
+    long lastActivity = in.readLong();
+    Map<String, Object> context = readMap(in);
+    Map<String, Object> metadata = readMap(in);
+    int count = in.readInt();
+    List<IMessage> history = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      history.add(readMessage(in));
+    }
+    SimpleSession session = factory.apply(sessionId, userId);
+    session.setContext(context);
+    session.setMetadata(metadata);
+    session.restoreHistory(history);
+    session.setState(state);
+    session.restoreTimestamps(createdAt, lastActivity);
+    return session;
+  }
+
+  /**
+   * Writes a map with string keys, which may be null.
+   *
+   * @param out the output
+   * @param map the map
+   * @throws IOException if writing fails
+   */
+  public static void writeMap(DataOutput out, Map<String, ?> map) throws IOException {
+    if (map == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(map.size());
+    for (Map.Entry<String, ?> entry : map.entrySet()) {
+      writeString(out, entry.getKey());
+      writeValue(out, entry.getValue());
+    }
+  }
+
+  /**
+   * Reads a map written by {@link #writeMap}.
+   *
+   * @param in the input
+   * @return a mutable map in the written order, or null
+   * @throws IOException if reading fails
+   */
+  public static Map<String, Object> readMap(DataInput in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+    Map<String, Object> map = new LinkedHashMap<>(Math.max(4, size * 4 / 3 + 1));
+    for (int i = 0; i < size; i++) {
+      String key = readString(in);
+      map.put(key, readValue(in));
+    }
+    return map;
+  }
+
+  /**
+   * Checks whether every value of a map is read back by {@link #readMap} as an equal
+   * value of the same type. Values of other types, floats and maps with keys that are
+   * not strings are written in a lossy form.
+   *
+   * @param map the map, which may be null
+   * @return true if the map survives a round trip unchanged
+   */
+  public static boolean isLossless(Map<String, ?> map) {
+    if (map == null) {
+      return true;
+    }
+    for (Object value : map.values()) {
+      if (!isLosslessValue(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isLosslessValue(Object value) {
+    if (value == null || value instanceof String || value instanceof Integer
+        || value instanceof Long || value instanceof Double || value instanceof Boolean) {
+      return true;
+    }
+    if (value instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        if (!(entry.getKey() instanceof String) || !isLosslessValue(entry.getValue())) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (value instanceof List) {
+      for (Object element : (List<?>) value) {
+        if (!isLosslessValue(element)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private static void writeValue(DataOutput out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(INTEGER);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Double || value instanceof Float) {
+      out.writeByte(DOUBLE);
+      out.writeDouble(((Number) value).doubleValue());
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Map) {
+      out.writeByte(MAP);
+      Map<?, ?> map = (Map<?, ?>) value;
+      out.writeInt(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        writeString(out, String.valueOf(entry.getKey()));
+        writeValue(out, entry.getValue());
+      }
+    } else if (value instanceof List) {
+      out.writeByte(LIST);
+      List<?> list = (List<?>) value;
+      out.writeInt(list.size());
+      for (Object element : list) {
+        writeValue(out, element);
+      }
+    } else {
+      out.writeByte(STRING);
+      writeString(out, value.toString());
+    }
+  }
+
+  private static Object readValue(DataInput in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return readString(in);
+      case INTEGER:
+        return in.readInt();
+      case LONG:
+        return in.readLong();
+      case DOUBLE:
+        return in.readDouble();
+      case BOOLEAN:
+        return in.readBoolean();
+      case MAP:
+        return readMap(in);
+      case LIST:
+        int size = in.readInt();
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readValue(in));
+        }
+        return list;
+      default:
+        throw new IOException("Unknown value tag: " + tag);
+    }
+  }
+}
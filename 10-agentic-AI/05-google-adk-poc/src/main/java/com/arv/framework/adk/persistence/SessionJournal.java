@@ -0,0 +1,382 @@
+package com.arv.framework.adk.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal split into fixed-size memory-mapped segments.
+ * Each record is framed as {@code [length][crc32c][sequence][payload]}, where the CRC
+ * covers the sequence number and payload. Segments are named after the sequence number
+ * of their first record, so whole segments can be dropped once a snapshot covers them.
+ *
+ * <p>Appending copies the record into the mapped segment and returns its sequence number.
+ * {@link #commit} then waits until a background thread has forced the segment to disk;
+ * every writer that commits while a force is in progress is covered by the next one, so
+ * concurrent writers share syncs (group commit).
+ *
+ * <p>The journal must be {@link #recover recovered} once before the first append. Recovery
+ * replays every intact record and cuts the journal off at the first torn or corrupt one.
+ */
+@Slf4j
+public class SessionJournal implements AutoCloseable {
+
+  private static final int HEADER_BYTES = 16;
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  private final Path directory;
+  private final JournalConfig config;
+  private final NavigableMap<Long, Path> segments = new TreeMap<>();
+  private final CRC32C crc = new CRC32C();
+  private final ByteBuffer sequenceBytes = ByteBuffer.allocate(Long.BYTES);
+  private final Object flushLock = new Object();
+
+  private MappedByteBuffer active;
+  private FileChannel activeChannel;
+  private volatile long lastSequence;
+  private volatile long durableSequence;
+  private long syncRequested;
+  private volatile IOException flushFailure;
+  private volatile boolean closed;
+  private Thread flusher;
+
+  /**
+   * Opens the journal in a directory, creating the directory if needed.
+   *
+   * @param directory the journal directory
+   * @param config the journal configuration
+   * @throws IOException if the directory cannot be read
+   */
+  public SessionJournal(Path directory, JournalConfig config) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.config = config;
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+      for (Path path : stream) {
+        String name = path.getFileName().toString();
+        try {
+          segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), path);
+        } catch (NumberFormatException e) {
+          log.warn("Ignoring unexpected file in journal directory: {}", path);
+        }
+      }
+    }
+  }
+
+  /**
+   * Replays the journal and prepares it for appending.
+   *
+   * @param afterSequence records up to and including this sequence number are skipped
+   * @param handler receives the payload and sequence number of each replayed record
+   * @return the sequence number of the last record in the journal
+   * @throws IOException if a segment cannot be read
+   */
+  public synchronized long recover(long afterSequence, ObjLongConsumer<byte[]> handler)
+      throws IOException {
+    if (active != null) {
+      throw new IllegalStateException("Journal already recovered");
+    }
+    long last = 0L;
+    Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Long, Path> segment = iterator.next();
+      FileChannel channel = FileChannel.open(segment.getValue(),
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+      long expected = last == 0L ? segment.getKey() : last + 1;
+      int position = 0;
+      boolean torn = false;
+      while (position + HEADER_BYTES <= buffer.capacity()) {
+        int length = buffer.getInt(position);
+        if (length == 0) {
+          break;
+        }
+        if (length < 0 || length > buffer.capacity() - position - HEADER_BYTES) {
+          torn = true;
+          break;
+        }
+        int storedCrc = buffer.getInt(position + 4);
+        long sequence = buffer.getLong(position + 8);
+        byte[] payload = new byte[length];
+        ByteBuffer frame = buffer.duplicate();
+        frame.position(position + HEADER_BYTES);
+        frame.get(payload);
+        if (sequence != expected || storedCrc != checksum(sequence, payload)) {
+          torn = true;
+          break;
+        }
+        if (sequence > afterSequence) {
+          handler.accept(payload, sequence);
+        }
+        last = sequence;
+        expected = sequence + 1;
+        position += HEADER_BYTES + length;
+      }
+
+      boolean lastSegment = !iterator.hasNext() || torn;
+      if (torn) {
+        log.warn("Journal segment {} is torn at offset {}; discarding the rest of the journal",
+            segment.getValue().getFileName(), position);
+        zeroFrom(buffer, position);
+        buffer.force();
+        while (iterator.hasNext()) {
+          Files.deleteIfExists(iterator.next().getValue());
+          iterator.remove();
+        }
+      }
+      if (lastSegment) {
+        buffer.position(position);
+        active = buffer;
+        activeChannel = channel;
+      } else {
+        channel.close();
+      }
+    }
+
+    last = Math.max(last, afterSequence);
+    lastSequence = last;
+    durableSequence = last;
+    syncRequested = last;
+    if (active == null) {
+      openSegment(last + 1);
+    }
+    flusher = new Thread(this::flushLoop, "session-journal-flush");
+    flusher.setDaemon(true);
+    flusher.start();
+    return last;
+  }
+
+  /**
+   * Appends a record. The record is not guaranteed to be on disk until {@link #commit} returns.
+   *
+   * @param payload the record payload
+   * @return the record's sequence number
+   */
+  public synchronized long append(byte[] payload) {
+    if (active == null || closed) {
+      throw new IllegalStateException("Journal is not open for appending");
+    }
+    int frameBytes = HEADER_BYTES + payload.length;
+    if (frameBytes > config.getSegmentSizeBytes()) {
+      throw new IllegalArgumentException("Record of " + payload.length
+          + " bytes does not fit in a journal segment");
+    }
+    long sequence = lastSequence + 1;
+    if (active.remaining() < frameBytes) {
+      try {
+        active.force();
+        activeChannel.close();
+        openSegment(sequence);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to roll journal segment", e);
+      }
+    }
+    active.putInt(payload.length);
+    active.putInt(checksum(sequence, payload));
+    active.putLong(sequence);
+    active.put(payload);
+    lastSequence = sequence;
+    return sequence;
+  }
+
+  /**
+   * Waits until a record is on disk, if the journal is configured to sync on commit.
+   *
+   * @param sequence the record's sequence number
+   */
+  public void commit(long sequence) {
+    if (!config.isSyncOnCommit() || durableSequence >= sequence) {
+      return;
+    }
+    synchronized (flushLock) {
+      if (sequence > syncRequested) {
+        syncRequested = sequence;
+        flushLock.notifyAll();
+      }
+      while (durableSequence < sequence) {
+        if (flushFailure != null) {
+          throw new UncheckedIOException("Journal sync failed", flushFailure);
+        }
+        if (closed) {
+          throw new IllegalStateException("Journal closed before record " + sequence + " was synced");
+        }
+        try {
+          flushLock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the sequence number of the last record appended.
+   *
+   * @return the sequence number, or 0 if the journal is empty
+   */
+  public long getLastSequence() {
+    return lastSequence;
+  }
+
+  /**
+   * Gets the sequence number up to which records are known to be on disk.
+   *
+   * @return the sequence number
+   */
+  public long getDurableSequence() {
+    return durableSequence;
+  }
+
+  /**
+   * Gets the number of segment files.
+   *
+   * @return the number of segments
+   */
+  public synchronized int getSegmentCount() {
+    return segments.size();
+  }
+
+  /**
+   * Deletes the segments whose records all have a sequence number at or below the given one.
+   * The segment being appended to is always kept.
+   *
+   * @param sequence the sequence number covered by a snapshot
+   * @return the number of segments deleted
+   * @throws IOException if a segment cannot be deleted
+   */
+  public synchronized int deleteSegmentsUpTo(long sequence) throws IOException {
+    int deleted = 0;
+    Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Long, Path> segment = iterator.next();
+      Long next = segments.higherKey(segment.getKey());
+      if (next == null || next > sequence + 1) {
+        break;
+      }
+      Files.deleteIfExists(segment.getValue());
+      iterator.remove();
+      deleted++;
+    }
+    return deleted;
+  }
+
+  /**
+   * Syncs outstanding records and closes the journal.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    if (flusher != null) {
+      flusher.interrupt();
+      try {
+        flusher.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    synchronized (this) {
+      if (active != null) {
+        flush();
+        try {
+          activeChannel.close();
+        } catch (IOException e) {
+          log.warn("Failed to close journal segment: {}", e.getMessage());
+        }
+      }
+    }
+    synchronized (flushLock) {
+      flushLock.notifyAll();
+    }
+  }
+
+  private void flushLoop() {
+    while (!closed && flushFailure == null) {
+      synchronized (flushLock) {
+        if (syncRequested <= durableSequence) {
+          try {
+            flushLock.wait(config.getFlushIntervalMs());
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+      }
+      flush();
+    }
+  }
+
+  /**
+   * Forces everything appended so far to disk and wakes the writers waiting for it.
+   */
+  private void flush() {
+    long target;
+    MappedByteBuffer buffer;
+    synchronized (this) {
+      target = lastSequence;
+      buffer = active;
+    }
+    if (target <= durableSequence) {
+      return;
+    }
+    try {
+      // Earlier segments were forced when they filled up
+      buffer.force();
+    } catch (UncheckedIOException e) {
+      log.error("Failed to sync session journal: {}", e.getMessage(), e);
+      flushFailure = e.getCause();
+    }
+    synchronized (flushLock) {
+      if (flushFailure == null) {
+        durableSequence = target;
+      }
+      flushLock.notifyAll();
+    }
+  }
+
+  private void openSegment(long firstSequence) throws IOException {
+    Path path = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+    activeChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, config.getSegmentSizeBytes());
+    segments.put(firstSequence, path);
+  }
+
+  private int checksum(long sequence, byte[] payload) {
+    crc.reset();
+    sequenceBytes.clear();
+    sequenceBytes.putLong(sequence).flip();
+    crc.update(sequenceBytes);
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Clears the rest of a segment so stale frames past a torn record can never be read back.
+   */
+  private static void zeroFrom(MappedByteBuffer buffer, int position) {
+    byte[] zeros = new byte[8192];
+    ByteBuffer target = buffer.duplicate();
+    target.position(position);
+    while (target.hasRemaining()) {
+      target.put(zeros, 0, Math.min(zeros.length, target.remaining()));
+    }
+  }
+}
@@ -0,0 +1,248 @@
+package com.arv.framework.adk.persistence;
+
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A single change to a session, as written to the journal.
+ * Which fields are set depends on the type; the others are null.
+ */
+public final class SessionRecord {
+
+  /**
+   * Kinds of session change.
+   */
+  public enum Type {
+    /** A session was created; carries the user ID. */
+    CREATED,
+    /** A message was added; carries the message. */
+    MESSAGE_ADDED,
+    /** Context values were merged in; carries the updates. */
+    CONTEXT_UPDATED,
+    /** The session changed state; carries the new state. */
+    STATE_CHANGED,
+    /** The message history was cleared. */
+    HISTORY_CLEARED,
+    /** The session was ended or expired and removed. */
+    ENDED,
+    /** The oldest messages were replaced by a summary; carries the summary and how many it replaced. */
+    HISTORY_COMPACTED
+  }
+
+  private static final Type[] TYPES = Type.values();
+
+  private final Type type;
+  private final String sessionId;
+  private final long timestamp;
+  private final String userId;
+  private final IMessage message;
+  private final Map<String, Object> context;
+  private final SessionState state;
+  private final int compactedCount;
+
+  private SessionRecord(Type type, String sessionId, long timestamp, String userId,
+      IMessage message, Map<String, Object> context, SessionState state, int compactedCount) {
+    this.type = type;
+    this.sessionId = sessionId;
+    this.timestamp = timestamp;
+    this.userId = userId;
+    this.message = message;
+    this.context = context;
+    this.state = state;
+    this.compactedCount = compactedCount;
+  }
+
+  /**
+   * Creates a record for a new session.
+   *
+   * @param sessionId the session ID
+   * @param userId the user ID, or null
+   * @param createdAt the creation timestamp
+   * @return the record
+   */
+  public static SessionRecord created(String sessionId, String userId, long createdAt) {
+    return new SessionRecord(Type.CREATED, sessionId, createdAt, userId, null, null, null, 0);
+  }
+
+  /**
+   * Creates a record for an added message.
+   *
+   * @param sessionId the session ID
+   * @param message the message
+   * @param timestamp when the message was added
+   * @return the record
+   */
+  public static SessionRecord messageAdded(String sessionId, IMessage message, long timestamp) {
+    return new SessionRecord(Type.MESSAGE_ADDED, sessionId, timestamp, null, message, null, null, 0);
+  }
+
+  /**
+   * Creates a record for a context update.
+   *
+   * @param sessionId the session ID
+   * @param updates the context values merged in
+   * @param timestamp when the update was made
+   * @return the record
+   */
+  public static SessionRecord contextUpdated(String sessionId, Map<String, Object> updates,
+      long timestamp) {
+    return new SessionRecord(Type.CONTEXT_UPDATED, sessionId, timestamp, null, null, updates, null, 0);
+  }
+
+  /**
+   * Creates a record for a state change.
+   *
+   * @param sessionId the session ID
+   * @param state the new state
+   * @param timestamp when the state changed
+   * @return the record
+   */
+  public static SessionRecord stateChanged(String sessionId, SessionState state, long timestamp) {
+    return new SessionRecord(Type.STATE_CHANGED, sessionId, timestamp, null, null, null, state, 0);
+  }
+
+  /**
+   * Creates a record for a cleared history.
+   *
+   * @param sessionId the session ID
+   * @param timestamp when the history was cleared
+   * @return the record
+   */
+  public static SessionRecord historyCleared(String sessionId, long timestamp) {
+    return new SessionRecord(Type.HISTORY_CLEARED, sessionId, timestamp, null, null, null, null, 0);
+  }
+
+  /**
+   * Creates a record for a removed session.
+   *
+   * @param sessionId the session ID
+   * @param timestamp when the session was removed
+   * @return the record
+   */
+  public static SessionRecord ended(String sessionId, long timestamp) {
+    return new SessionRecord(Type.ENDED, sessionId, timestamp, null, null, null, null, 0);
+  }
+
+  /**
+   * Creates a record for a compacted history.
+   *
+   * @param sessionId the session ID
+   * @param summary the summary message now at the start of the history
+   * @param compactedCount the number of oldest messages the summary replaced
+   * @param timestamp when the history was compacted
+   * @return the record
+   */
+  public static SessionRecord historyCompacted(String sessionId, IMessage summary, int compactedCount,
+      long timestamp) {
+    return new SessionRecord(Type.HISTORY_COMPACTED, sessionId, timestamp, null, summary, null, null,
+        compactedCount);
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public IMessage getMessage() {
+    return message;
+  }
+
+  public Map<String, Object> getContext() {
+    return context;
+  }
+
+  public SessionState getState() {
+    return state;
+  }
+
+  public int getCompactedCount() {
+    return compactedCount;
+  }
+
+  /**
+   * Writes the record in binary form.
+   *
+   * @param out the output
+   * @throws IOException if writing fails
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeByte(type.ordinal());
+    SessionCodec.writeString(out, sessionId);
+    out.writeLong(timestamp);
+    switch (type) {
+      case CREATED:
+        SessionCodec.writeString(out, userId);
+        break;
+      case MESSAGE_ADDED:
+        SessionCodec.writeMessage(out, message);
+        break;
+      case CONTEXT_UPDATED:
+        SessionCodec.writeMap(out, context);
+        break;
+      case STATE_CHANGED:
+        out.writeByte(state.ordinal());
+        break;
+      case HISTORY_COMPACTED:
+        out.writeInt(compactedCount);
+        SessionCodec.writeMessage(out, message);
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Reads a record written by {@link #writeTo}.
+   *
+   * @param in the input
+   * @return the record
+   * @throws IOException if reading fails or the record is malformed
+   */
+  public static SessionRecord readFrom(DataInput in) throws IOException {
+    int ordinal = in.readUnsignedByte();
+    if (ordinal >= TYPES.length) {
+      throw new IOException("Unknown record type: " + ordinal);
+    }
+    Type type = TYPES[ordinal];
+    String sessionId = SessionCodec.readString(in);
+    long timestamp = in.readLong();
+    switch (type) {
+      case CREATED:
+        return created(sessionId, SessionCodec.readString(in), timestamp);
+      case MESSAGE_ADDED:
+        return messageAdded(sessionId, SessionCodec.readMessage(in), timestamp);
+      case CONTEXT_UPDATED:
+        return contextUpdated(sessionId, SessionCodec.readMap(in), timestamp);
+      case STATE_CHANGED:
+        return stateChanged(sessionId, SessionState.values()[in.readUnsignedByte()], timestamp);
+      case HISTORY_CLEARED:
+        return historyCleared(sessionId, timestamp);
+      case HISTORY_COMPACTED:
+        int compactedCount = in.readInt();
+        return historyCompacted(sessionId, SessionCodec.readMessage(in), compactedCount, timestamp);
+      default:
+        return ended(sessionId, timestamp);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return type + "(" + sessionId + ")";
+  }
+}
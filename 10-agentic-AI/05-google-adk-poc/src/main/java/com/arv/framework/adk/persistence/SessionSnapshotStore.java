@@ -0,0 +1,169 @@
+package com.arv.framework.adk.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Stores compacted snapshots of session state next to the journal.
+ * A snapshot is written to a temporary file, synced and then renamed into place, so a
+ * crash never leaves a half-written snapshot behind. Each snapshot ends with a CRC of its
+ * contents. The two most recent snapshots are kept so recovery can fall back to the older
+ * one if the newer one is damaged.
+ */
+@Slf4j
+public class SessionSnapshotStore {
+
+  private static final int MAGIC = 0x534E4150;
+  private static final int VERSION = 1;
+  private static final String PREFIX = "snapshot-";
+  private static final String SUFFIX = ".snap";
+  private static final int RETAINED = 2;
+
+  private final Path directory;
+
+  /**
+   * Writes the body of a snapshot.
+   */
+  @FunctionalInterface
+  public interface BodyWriter {
+
+    /**
+     * Writes the snapshot body.
+     *
+     * @param out the output
+     * @throws IOException if writing fails
+     */
+    void write(DataOutput out) throws IOException;
+  }
+
+  /**
+   * Reads the body of a snapshot.
+   */
+  @FunctionalInterface
+  public interface BodyReader {
+
+    /**
+     * Reads the snapshot body. May be called again with an older snapshot if the
+     * body turns out to be damaged, so it should discard anything read before.
+     *
+     * @param in the input
+     * @throws IOException if reading fails
+     */
+    void read(DataInput in) throws IOException;
+  }
+
+  /**
+   * Creates a snapshot store.
+   *
+   * @param directory the directory holding the snapshots
+   * @throws IOException if the directory cannot be created
+   */
+  public SessionSnapshotStore(Path directory) throws IOException {
+    this.directory = Files.createDirectories(directory);
+  }
+
+  /**
+   * Writes a snapshot and deletes all but the most recent ones.
+   *
+   * @param sequence the journal sequence number the snapshot covers
+   * @param writer writes the snapshot body
+   * @return the sequence number of the oldest snapshot still kept; journal records up
+   *     to it are no longer needed
+   * @throws IOException if the snapshot cannot be written
+   */
+  public long write(long sequence, BodyWriter writer) throws IOException {
+    Path target = pathFor(sequence);
+    Path temp = directory.resolve(target.getFileName() + ".tmp");
+    try (FileOutputStream file = new FileOutputStream(temp.toFile());
+        BufferedOutputStream buffered = new BufferedOutputStream(file, 1 << 16)) {
+      CheckedOutputStream checked = new CheckedOutputStream(buffered, new CRC32C());
+      DataOutputStream out = new DataOutputStream(checked);
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(sequence);
+      writer.write(out);
+      out.flush();
+      new DataOutputStream(buffered).writeInt((int) checked.getChecksum().getValue());
+      buffered.flush();
+      file.getFD().sync();
+    }
+    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+    List<Long> sequences = listSequences();
+    for (int i = RETAINED; i < sequences.size(); i++) {
+      Files.deleteIfExists(pathFor(sequences.get(i)));
+    }
+    return sequences.get(Math.min(RETAINED, sequences.size()) - 1);
+  }
+
+  /**
+   * Reads the most recent intact snapshot.
+   *
+   * @param reader reads the snapshot body
+   * @return the journal sequence number the snapshot covers, or 0 if there is none
+   * @throws IOException if the directory cannot be listed
+   */
+  public long read(BodyReader reader) throws IOException {
+    for (long sequence : listSequences()) {
+      Path path = pathFor(sequence);
+      try (InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+        CheckedInputStream checked = new CheckedInputStream(file, new CRC32C());
+        DataInputStream in = new DataInputStream(checked);
+        if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != sequence) {
+          throw new IOException("Bad snapshot header");
+        }
+        reader.read(in);
+        int expected = (int) checked.getChecksum().getValue();
+        if (new DataInputStream(file).readInt() != expected) {
+          throw new IOException("Checksum mismatch");
+        }
+        return sequence;
+      } catch (IOException | RuntimeException e) {
+        log.warn("Skipping damaged snapshot {}: {}", path.getFileName(), e.getMessage());
+      }
+    }
+    return 0L;
+  }
+
+  /**
+   * Gets the sequence numbers of the stored snapshots, newest first.
+   */
+  private List<Long> listSequences() throws IOException {
+    List<Long> sequences = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+      for (Path path : stream) {
+        String name = path.getFileName().toString();
+        try {
+          sequences.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+        } catch (NumberFormatException e) {
+          log.warn("Ignoring unexpected file in snapshot directory: {}", path);
+        }
+      }
+    }
+    sequences.sort(Collections.reverseOrder());
+    return sequences;
+  }
+
+  private Path pathFor(long sequence) {
+    return directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+  }
+}
@@ -0,0 +1,56 @@
+package com.arv.framework.adk.persistence;
+
+/**
+ * Limits of the in-memory tier of a {@link TieredSessionManager}.
+ */
+public class SessionTierConfig {
+
+  private int maxHotSessions = 10_000;
+  private long maxHotBytes = 256L * 1024 * 1024;
+
+  /**
+   * Creates a configuration with default values: at most 10,000 sessions and an
+   * estimated 256 MB in memory.
+   *
+   * @return a new SessionTierConfig
+   */
+  public static SessionTierConfig defaults() {
+    return new SessionTierConfig();
+  }
+
+  /**
+   * Sets the most sessions kept in memory.
+   *
+   * @param maxHotSessions the session count
+   * @return this config for method chaining
+   */
+  public SessionTierConfig withMaxHotSessions(int maxHotSessions) {
+    if (maxHotSessions <= 0) {
+      throw new IllegalArgumentException("Max hot sessions must be positive");
+    }
+    this.maxHotSessions = maxHotSessions;
+    return this;
+  }
+
+  /**
+   * Sets the most estimated heap the sessions in memory may use.
+   *
+   * @param maxHotBytes the limit in bytes
+   * @return this config for method chaining
+   */
+  public SessionTierConfig withMaxHotBytes(long maxHotBytes) {
+    if (maxHotBytes <= 0) {
+      throw new IllegalArgumentException("Max hot bytes must be positive");
+    }
+    this.maxHotBytes = maxHotBytes;
+    return this;
+  }
+
+  public int getMaxHotSessions() {
+    return maxHotSessions;
+  }
+
+  public long getMaxHotBytes() {
+    return maxHotBytes;
+  }
+}
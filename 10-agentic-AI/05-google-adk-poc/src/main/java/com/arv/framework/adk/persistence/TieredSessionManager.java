@@ -0,0 +1,499 @@
+package com.arv.framework.adk.persistence;
+
+import com.arv.framework.adk.impl.SessionExpiryTracker;
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.metrics.SessionTierStatistics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Session manager that keeps a bounded number of sessions in memory and spills the rest to disk.
+ * The in-memory (hot) tier is limited by session count and by an estimate of the heap its
+ * sessions use. When either limit is exceeded, the least recently used sessions are written
+ * to the disk tier with {@link SessionCodec} and dropped from memory. Any later call for a
+ * spilled session reads it back transparently, so every {@code ISessionManager} method behaves
+ * as it does on {@link SimpleSessionManager}. Spilled sessions stay in the user and state
+ * indexes, so they are counted per state without being read back, and are read back only
+ * when listed.
+ *
+ * <p>The disk tier is scratch space: it is emptied when the manager is created. Spilled
+ * sessions are not tracked for expiry until they are read back, and a session object held by
+ * a caller stops being managed once it is spilled, so keep references short-lived.
+ */
+@Slf4j
+public class TieredSessionManager extends SimpleSessionManager {
+
+  private static final String JMX_DOMAIN = "com.arv.framework.adk";
+  private static final int LOCK_STRIPES = 64;
+  private static final long SESSION_OVERHEAD_BYTES = 512L;
+  private static final long ENTRY_OVERHEAD_BYTES = 96L;
+  private static final long MESSAGE_OVERHEAD_BYTES = 160L;
+
+  private final SessionTierConfig config;
+  private final Path directory;
+  /** Hot sessions in access order, with their estimated size; guarded by itself. */
+  private final LinkedHashMap<String, long[]> lru = new LinkedHashMap<>(16, 0.75f, true);
+  private long hotBytes;
+  /** Spilled sessions and the state they were in. */
+  private final Map<String, SessionState> spilled = new ConcurrentHashMap<>();
+  private final Object[] locks = new Object[LOCK_STRIPES];
+  private final SessionTierStatistics statistics;
+  private volatile ObjectName mbeanName;
+
+  /**
+   * Creates a tiered session manager.
+   *
+   * @param directory the directory for spilled sessions; anything already in it is deleted
+   * @param config the limits of the in-memory tier
+   * @throws IOException if the directory cannot be prepared
+   */
+  public TieredSessionManager(Path directory, SessionTierConfig config) throws IOException {
+    this.config = config;
+    this.directory = Files.createDirectories(directory);
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new Object();
+    }
+    this.statistics = new SessionTierStatistics(this::getHotSessionCount,
+        this::getHotEstimatedBytes, spilled::size);
+    clearDirectory();
+  }
+
+  /**
+   * Gets the hit, miss and eviction statistics.
+   *
+   * @return the statistics
+   */
+  public SessionTierStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Publishes the statistics as an MXBean named
+   * {@code com.arv.framework.adk:type=SessionTiers,manager=<scope>}.
+   *
+   * @param scope distinguishes managers in one JVM
+   */
+  public synchronized void registerMBean(String scope) {
+    unregisterMBean();
+    try {
+      ObjectName name = new ObjectName(JMX_DOMAIN + ":type=SessionTiers,manager=" + ObjectName.quote(scope));
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (!server.isRegistered(name)) {
+        server.registerMBean(statistics, name);
+      }
+      mbeanName = name;
+    } catch (JMException e) {
+      log.warn("Failed to register session tier MBean: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Removes the MBean published by {@link #registerMBean}.
+   */
+  public synchronized void unregisterMBean() {
+    ObjectName name = mbeanName;
+    if (name == null) {
+      return;
+    }
+    mbeanName = null;
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      log.warn("Failed to unregister session tier MBean: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Checks whether a session is currently on disk.
+   *
+   * @param sessionId the session ID
+   * @return true if spilled
+   */
+  public boolean isSpilled(String sessionId) {
+    return spilled.containsKey(sessionId);
+  }
+
+  @Override
+  public ISession createSession(String sessionId, String userId) {
+    ISession session;
+    synchronized (lockFor(sessionId)) {
+      if (spilled.remove(sessionId) != null) {
+        deleteSpillFile(sessionId);
+      }
+      session = super.createSession(sessionId, userId);
+      admit(sessionId, estimateBytes(session));
+    }
+    evictIfNeeded(sessionId);
+    return session;
+  }
+
+  @Override
+  public Optional<ISession> getSession(String sessionId) {
+    return Optional.ofNullable(resident(sessionId));
+  }
+
+  @Override
+  public boolean endSession(String sessionId) {
+    synchronized (lockFor(sessionId)) {
+      if (spilled.remove(sessionId) != null) {
+        deleteSpillFile(sessionId);
+        unindexSession(sessionId);
+        return true;
+      }
+      forget(sessionId);
+      return super.endSession(sessionId);
+    }
+  }
+
+  @Override
+  public boolean releaseSession(String sessionId) {
+    synchronized (lockFor(sessionId)) {
+      if (spilled.remove(sessionId) != null) {
+        deleteSpillFile(sessionId);
+        unindexSession(sessionId);
+        return true;
+      }
+      forget(sessionId);
+      return super.releaseSession(sessionId);
+    }
+  }
+
+  @Override
+  public boolean isSessionActive(String sessionId) {
+    SessionState state = spilled.get(sessionId);
+    return state != null ? state.isActive() : super.isSessionActive(sessionId);
+  }
+
+  @Override
+  public boolean updateSessionContext(String sessionId, Map<String, Object> context) {
+    ISession session = resident(sessionId);
+    if (session == null || !super.updateSessionContext(sessionId, context)) {
+      return false;
+    }
+    resize(sessionId, estimateBytes(session));
+    return true;
+  }
+
+  @Override
+  public Map<String, Object> getSessionContext(String sessionId) {
+    resident(sessionId);
+    return super.getSessionContext(sessionId);
+  }
+
+  @Override
+  public boolean addMessage(String sessionId, IMessage message) {
+    if (resident(sessionId) == null || !super.addMessage(sessionId, message)) {
+      return false;
+    }
+    grow(sessionId, estimateBytes(message));
+    return true;
+  }
+
+  @Override
+  public List<IMessage> getSessionHistory(String sessionId) {
+    resident(sessionId);
+    return super.getSessionHistory(sessionId);
+  }
+
+  @Override
+  public List<IMessage> getRecentMessages(String sessionId, int count) {
+    resident(sessionId);
+    return super.getRecentMessages(sessionId, count);
+  }
+
+  @Override
+  public boolean clearHistory(String sessionId) {
+    ISession session = resident(sessionId);
+    if (session == null || !super.clearHistory(sessionId)) {
+      return false;
+    }
+    resize(sessionId, estimateBytes(session));
+    return true;
+  }
+
+  @Override
+  public int getMessageCount(String sessionId) {
+    resident(sessionId);
+    return super.getMessageCount(sessionId);
+  }
+
+  @Override
+  public int cleanupExpiredSessions() {
+    int removed = super.cleanupExpiredSessions();
+    synchronized (lru) {
+      Iterator<Map.Entry<String, long[]>> iterator = lru.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<String, long[]> entry = iterator.next();
+        if (!super.getSession(entry.getKey()).isPresent()) {
+          hotBytes -= entry.getValue()[0];
+          iterator.remove();
+        }
+      }
+    }
+    for (Map.Entry<String, SessionState> entry : spilled.entrySet()) {
+      SessionState state = entry.getValue();
+      if (!state.isActive() && state != SessionState.IDLE) {
+        synchronized (lockFor(entry.getKey())) {
+          if (spilled.remove(entry.getKey(), state)) {
+            deleteSpillFile(entry.getKey());
+            unindexSession(entry.getKey());
+            removed++;
+          }
+        }
+      }
+    }
+    return removed;
+  }
+
+  @Override
+  protected void sessionExpired(ISession session) {
+    synchronized (lockFor(session.getId())) {
+      super.sessionExpired(session);
+      if (!super.getSession(session.getId()).isPresent()) {
+        forget(session.getId());
+      }
+    }
+  }
+
+  /**
+   * Finds a session in memory, reading it back from disk if it was spilled.
+   *
+   * @return the session, or null if it exists in neither tier
+   */
+  private ISession resident(String sessionId) {
+    ISession session;
+    synchronized (lockFor(sessionId)) {
+      session = super.getSession(sessionId).orElse(null);
+      if (session != null) {
+        statistics.onHotHit();
+        touch(sessionId, session);
+        return session;
+      }
+      if (!spilled.containsKey(sessionId)) {
+        statistics.onMiss();
+        return null;
+      }
+      session = load(sessionId);
+      statistics.onDiskHit();
+    }
+    evictIfNeeded(sessionId);
+    return session;
+  }
+
+  private ISession load(String sessionId) {
+    Path path = spillPath(sessionId);
+    SimpleSession session;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      session = SessionCodec.readSession(in,
+          (id, userId) -> (SimpleSession) super.createSession(id, userId));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read spilled session " + sessionId, e);
+    }
+    spilled.remove(sessionId);
+    deleteSpillFile(sessionId);
+    admit(sessionId, estimateBytes(session));
+    return session;
+  }
+
+  /**
+   * Spills least recently used sessions until the hot tier is within its limits.
+   *
+   * @param keepId a session that must stay in memory, normally the one just used
+   */
+  private void evictIfNeeded(String keepId) {
+    while (true) {
+      String victim = null;
+      synchronized (lru) {
+        if (lru.size() <= config.getMaxHotSessions() && hotBytes <= config.getMaxHotBytes()) {
+          return;
+        }
+        for (String sessionId : lru.keySet()) {
+          if (!sessionId.equals(keepId)) {
+            victim = sessionId;
+            break;
+          }
+        }
+      }
+      if (victim == null) {
+        return;
+      }
+      spill(victim);
+    }
+  }
+
+  private void spill(String sessionId) {
+    synchronized (lockFor(sessionId)) {
+      ISession session = super.getSession(sessionId).orElse(null);
+      if (session == null) {
+        forget(sessionId);
+        return;
+      }
+      Path path = spillPath(sessionId);
+      try {
+        Files.createDirectories(path.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+          SessionCodec.writeSession(out, session);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to spill session " + sessionId, e);
+      }
+      spilled.put(sessionId, session.getState());
+      evictSession(session);
+      forget(sessionId);
+      SessionExpiryTracker tracker = getExpiryTracker();
+      if (tracker != null) {
+        tracker.untrack(sessionId);
+      }
+      statistics.onEviction();
+    }
+  }
+
+  private void admit(String sessionId, long bytes) {
+    synchronized (lru) {
+      long[] previous = lru.put(sessionId, new long[] {bytes});
+      hotBytes += bytes - (previous != null ? previous[0] : 0L);
+    }
+  }
+
+  private void touch(String sessionId, ISession session) {
+    synchronized (lru) {
+      if (lru.get(sessionId) != null) {
+        return;
+      }
+    }
+    admit(sessionId, estimateBytes(session));
+  }
+
+  private void grow(String sessionId, long bytes) {
+    synchronized (lru) {
+      long[] size = lru.get(sessionId);
+      if (size != null) {
+        size[0] += bytes;
+        hotBytes += bytes;
+      }
+    }
+    evictIfNeeded(sessionId);
+  }
+
+  private void resize(String sessionId, long bytes) {
+    synchronized (lru) {
+      long[] size = lru.get(sessionId);
+      if (size != null) {
+        hotBytes += bytes - size[0];
+        size[0] = bytes;
+      }
+    }
+    evictIfNeeded(sessionId);
+  }
+
+  private void forget(String sessionId) {
+    synchronized (lru) {
+      long[] size = lru.remove(sessionId);
+      if (size != null) {
+        hotBytes -= size[0];
+      }
+    }
+  }
+
+  private long getHotSessionCount() {
+    synchronized (lru) {
+      return lru.size();
+    }
+  }
+
+  private long getHotEstimatedBytes() {
+    synchronized (lru) {
+      return hotBytes;
+    }
+  }
+
+  /**
+   * Estimates the heap used by a session. Message sizes are added as messages arrive and
+   * not taken off when the history drops them, so estimates err on the high side.
+   */
+  private static long estimateBytes(ISession session) {
+    long bytes = SESSION_OVERHEAD_BYTES
+        + ENTRY_OVERHEAD_BYTES * (session.getContext().size() + session.getMetadata().size());
+    for (IMessage message : session.getMessageHistory()) {
+      bytes += estimateBytes(message);
+    }
+    return bytes;
+  }
+
+  private static long estimateBytes(IMessage message) {
+    String content = message.getContent();
+    return MESSAGE_OVERHEAD_BYTES + (content != null ? 2L * content.length() : 0L);
+  }
+
+  private Path spillPath(String sessionId) {
+    String name = hash(sessionId);
+    return directory.resolve(name.substring(0, 2)).resolve(name);
+  }
+
+  private void deleteSpillFile(String sessionId) {
+    try {
+      Files.deleteIfExists(spillPath(sessionId));
+    } catch (IOException e) {
+      log.warn("Failed to delete spilled session {}: {}", sessionId, e.getMessage());
+    }
+  }
+
+  private void clearDirectory() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      List<Path> paths = new ArrayList<>();
+      files.filter(path -> !path.equals(directory)).forEach(paths::add);
+      paths.sort(Comparator.reverseOrder());
+      for (Path path : paths) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  private static String hash(String sessionId) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(sessionId.getBytes(StandardCharsets.UTF_8));
+      StringBuilder name = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return name.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private Object lockFor(String sessionId) {
+    return locks[(sessionId.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+  }
+}
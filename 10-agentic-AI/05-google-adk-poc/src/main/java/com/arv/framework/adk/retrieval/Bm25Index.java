@@ -0,0 +1,195 @@
+package com.arv.framework.adk.retrieval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable Okapi BM25 index over a fixed set of documents.
+ * Documents are tokenized once into an inverted index, so scoring a query only
+ * touches the postings of its terms.
+ */
+public final class Bm25Index {
+
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+      "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "for", "from", "how",
+      "i", "if", "in", "is", "it", "me", "my", "of", "on", "or", "please", "that", "the",
+      "this", "to", "what", "when", "which", "with", "you"));
+
+  private final int documentCount;
+  private final Map<String, Postings> postings;
+  private final int[] documentLengths;
+  private final double averageLength;
+
+  /**
+   * Builds an index over documents identified by their position in the list.
+   *
+   * @param documents the document texts
+   */
+  public Bm25Index(List<String> documents) {
+    this.documentCount = documents.size();
+    this.documentLengths = new int[documentCount];
+    Map<String, Postings> index = new HashMap<>();
+    long totalLength = 0;
+
+    for (int doc = 0; doc < documentCount; doc++) {
+      List<String> terms = tokenize(documents.get(doc));
+      documentLengths[doc] = terms.size();
+      totalLength += terms.size();
+      for (String term : terms) {
+        index.computeIfAbsent(term, key -> new Postings()).add(doc);
+      }
+    }
+    this.postings = index;
+    this.averageLength = documentCount == 0 ? 0.0 : (double) totalLength / documentCount;
+  }
+
+  /**
+   * Gets the number of indexed documents.
+   *
+   * @return the document count
+   */
+  public int size() {
+    return documentCount;
+  }
+
+  /**
+   * Scores every document against a query.
+   *
+   * @param query the query text
+   * @return a score per document; documents sharing no term with the query score 0
+   */
+  public double[] score(String query) {
+    double[] scores = new double[documentCount];
+    for (String term : new HashSet<>(tokenize(query))) {
+      Postings termPostings = postings.get(term);
+      if (termPostings == null) {
+        continue;
+      }
+      double idf = Math.log(1.0 + (documentCount - termPostings.size + 0.5)
+          / (termPostings.size + 0.5));
+      for (int i = 0; i < termPostings.size; i++) {
+        int doc = termPostings.documents[i];
+        int frequency = termPostings.frequencies[i];
+        double norm = K1 * (1 - B + B * documentLengths[doc] / averageLength);
+        scores[doc] += idf * frequency * (K1 + 1) / (frequency + norm);
+      }
+    }
+    return scores;
+  }
+
+  /**
+   * Gets the positions of the highest scoring documents.
+   *
+   * @param scores a score per document
+   * @param k the maximum number of documents
+   * @return document positions with a positive score, best first
+   */
+  public static int[] topK(double[] scores, int k) {
+    PriorityQueue<Integer> heap = new PriorityQueue<>(
+        (left, right) -> Double.compare(scores[left], scores[right]));
+    for (int doc = 0; doc < scores.length; doc++) {
+      if (scores[doc] <= 0.0) {
+        continue;
+      }
+      if (heap.size() < k) {
+        heap.add(doc);
+      } else if (k > 0 && scores[doc] > scores[heap.peek()]) {
+        heap.poll();
+        heap.add(doc);
+      }
+    }
+    int[] result = new int[heap.size()];
+    for (int i = result.length - 1; i >= 0; i--) {
+      result[i] = heap.poll();
+    }
+    return result;
+  }
+
+  /**
+   * Splits text into lower-case terms, breaking camelCase and snake_case words,
+   * dropping stop words and numbers, and stripping common suffixes.
+   *
+   * @param text the text
+   * @return the terms
+   */
+  static List<String> tokenize(String text) {
+    List<String> terms = new ArrayList<>();
+    if (text == null) {
+      return terms;
+    }
+    String spaced = text.replaceAll("([a-z0-9])([A-Z])", "$1 $2");
+    for (String token : spaced.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+      if (token.isEmpty() || STOP_WORDS.contains(token) || isNumber(token)) {
+        continue;
+      }
+      terms.add(stem(token));
+    }
+    return terms;
+  }
+
+  /**
+   * Strips plural and verb suffixes so "multiplied" and "multiplies" match "multiply".
+   *
+   * @param token a lower-case token
+   * @return the stemmed token
+   */
+  private static String stem(String token) {
+    int length = token.length();
+    if (length > 4 && (token.endsWith("ied") || token.endsWith("ies"))) {
+      return token.substring(0, length - 3) + "y";
+    }
+    if (length > 5 && token.endsWith("ing")) {
+      return token.substring(0, length - 3);
+    }
+    if (length > 4 && token.endsWith("ed")) {
+      return token.substring(0, length - 2);
+    }
+    if (length > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+      return token.substring(0, length - 1);
+    }
+    return token;
+  }
+
+  private static boolean isNumber(String token) {
+    for (int i = 0; i < token.length(); i++) {
+      if (!Character.isDigit(token.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Documents containing one term, in increasing document order, with frequencies.
+   */
+  private static final class Postings {
+
+    private int[] documents = new int[2];
+    private int[] frequencies = new int[2];
+    private int size;
+
+    void add(int doc) {
+      if (size > 0 && documents[size - 1] == doc) {
+        frequencies[size - 1]++;
+        return;
+      }
+      if (size == documents.length) {
+        documents = Arrays.copyOf(documents, size * 2);
+        frequencies = Arrays.copyOf(frequencies, size * 2);
+      }
+      documents[size] = doc;
+      frequencies[size] = 1;
+      size++;
+    }
+  }
+}
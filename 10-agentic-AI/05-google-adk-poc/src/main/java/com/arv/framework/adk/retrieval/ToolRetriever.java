@@ -0,0 +1,293 @@
+package com.arv.framework.adk.retrieval;
+
+import com.arv.framework.adk.impl.ToolRegistrySnapshot;
+import com.arv.framework.adk.interfaces.core.IToolRegistry;
+import com.arv.framework.adk.interfaces.gemini.ITextEmbedder;
+import com.arv.framework.adk.interfaces.tool.IParameter;
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.interfaces.tool.IToolRetriever;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Selects the tools most relevant to a request using BM25 over tool metadata,
+ * optionally blended with embedding similarity.
+ * The index covers the enabled tools and is rebuilt lazily when the registry
+ * version changes. When there are no more enabled tools than the top-k limit,
+ * every enabled tool is selected. A query that shares no terms with any tool, such as a
+ * paraphrase without an embedder, falls back to every enabled tool; one that matches
+ * fewer than k tools is padded with unmatched tools in registration order.
+ */
+@Slf4j
+public class ToolRetriever implements IToolRetriever {
+
+  private static final int DEFAULT_TOP_K = 8;
+
+  private final IToolRegistry toolRegistry;
+  private final Set<String> pinnedTools = ConcurrentHashMap.newKeySet();
+  private volatile int topK = DEFAULT_TOP_K;
+  private volatile ITextEmbedder embedder;
+  private volatile double embeddingWeight;
+  private volatile Index index;
+
+  private final LongAdder selections = new LongAdder();
+  private final LongAdder selectedTools = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder rankings = new LongAdder();
+  private final LongAdder fallbacks = new LongAdder();
+
+  /**
+   * Creates a retriever over the enabled tools of a registry.
+   *
+   * @param toolRegistry the tool registry
+   */
+  public ToolRetriever(IToolRegistry toolRegistry) {
+    this.toolRegistry = toolRegistry;
+  }
+
+  /**
+   * Sets how many tools are selected by relevance, in addition to pinned tools.
+   *
+   * @param topK the number of tools
+   * @return this retriever for method chaining
+   */
+  public ToolRetriever withTopK(int topK) {
+    if (topK <= 0) {
+      throw new IllegalArgumentException("topK must be positive");
+    }
+    this.topK = topK;
+    return this;
+  }
+
+  /**
+   * Blends embedding similarity into the lexical score.
+   * BM25 scores are normalized to 0-1 and cosine similarity is added with the given weight.
+   *
+   * @param embedder the local text embedder
+   * @param weight the weight of the cosine similarity
+   * @return this retriever for method chaining
+   */
+  public ToolRetriever withEmbedder(ITextEmbedder embedder, double weight) {
+    this.embedder = embedder;
+    this.embeddingWeight = weight;
+    this.index = null;
+    return this;
+  }
+
+  @Override
+  public List<String> selectTools(String query) {
+    Index current = currentIndex();
+    Set<String> selected = new LinkedHashSet<>();
+
+    for (String pinned : pinnedTools) {
+      if (toolRegistry.isToolEnabled(pinned)) {
+        selected.add(pinned);
+      }
+    }
+
+    if (current.toolIds.length <= topK) {
+      for (String toolId : current.toolIds) {
+        selected.add(toolId);
+      }
+    } else {
+      double[] scores = current.score(query, embedder, embeddingWeight);
+      int[] ranked = Bm25Index.topK(scores, topK);
+      rankings.increment();
+      if (ranked.length == 0) {
+        fallbacks.increment();
+        log.debug("No tool matched the query; selecting all {} enabled tools", current.toolIds.length);
+        for (String toolId : current.toolIds) {
+          selected.add(toolId);
+        }
+      } else {
+        for (int doc : ranked) {
+          selected.add(current.toolIds[doc]);
+        }
+        for (int doc = 0, padded = ranked.length; doc < scores.length && padded < topK; doc++) {
+          if (scores[doc] <= 0.0) {
+            selected.add(current.toolIds[doc]);
+            padded++;
+          }
+        }
+      }
+    }
+
+    selections.increment();
+    selectedTools.add(selected.size());
+    log.debug("Selected {} of {} tools for query", selected.size(), current.toolIds.length);
+    return new ArrayList<>(selected);
+  }
+
+  @Override
+  public void pinTool(String toolId) {
+    pinnedTools.add(toolId);
+  }
+
+  @Override
+  public void unpinTool(String toolId) {
+    pinnedTools.remove(toolId);
+  }
+
+  @Override
+  public void recordToolCall(String toolId, boolean offered) {
+    if (offered) {
+      hits.increment();
+    } else {
+      misses.increment();
+      log.debug("LLM called tool {} which was not selected for the request", toolId);
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the share of recorded tool calls whose tool had been offered.
+   *
+   * @return the hit rate in the range 0-1, or 1 if no calls were recorded
+   */
+  public double getHitRate() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 1.0 : (double) hitCount / total;
+  }
+
+  /**
+   * Gets the number of ranked selections in which no tool matched the query, so every
+   * enabled tool was selected.
+   *
+   * @return the fallback count
+   */
+  public long getFallbackCount() {
+    return fallbacks.sum();
+  }
+
+  /**
+   * Gets the share of ranked selections that fell back to every enabled tool. A high
+   * rate means requests are worded unlike the tool metadata, and aliases or an embedder
+   * would help.
+   *
+   * @return the fallback rate in the range 0-1, or 0 if nothing was ranked
+   */
+  public double getFallbackRate() {
+    long count = rankings.sum();
+    return count == 0 ? 0.0 : (double) fallbacks.sum() / count;
+  }
+
+  /**
+   * Gets the average number of tools selected per request.
+   *
+   * @return the average selection size
+   */
+  public double getAverageSelectedTools() {
+    long count = selections.sum();
+    return count == 0 ? 0.0 : (double) selectedTools.sum() / count;
+  }
+
+  private Index currentIndex() {
+    long version = toolRegistry.getVersion();
+    Index current = index;
+    if (current == null || current.version != version) {
+      current = new Index(version, toolRegistry.getEnabledTools(), embedder);
+      index = current;
+    }
+    return current;
+  }
+
+  /**
+   * Builds the searchable text of a tool from its metadata.
+   *
+   * @param tool the tool
+   * @return the document text
+   */
+  static String toDocument(ITool tool) {
+    StringBuilder text = new StringBuilder();
+    text.append(tool.getId()).append(' ').append(tool.getName()).append(' ')
+        .append(tool.getDescription());
+    IToolMetadata metadata = tool.getMetadata();
+    if (metadata != null) {
+      for (IParameter parameter : metadata.getParameters()) {
+        text.append(' ').append(parameter.getName()).append(' ').append(parameter.getDescription());
+      }
+      Object aliases = metadata.getProperty(ToolRegistrySnapshot.ALIASES_PROPERTY);
+      if (aliases != null) {
+        text.append(' ').append(aliases);
+      }
+    }
+    return text.toString();
+  }
+
+  /**
+   * Search structures for one version of the registry.
+   */
+  private static final class Index {
+
+    private final long version;
+    private final String[] toolIds;
+    private final Bm25Index bm25;
+    private final float[][] vectors;
+
+    Index(long version, List<ITool> tools, ITextEmbedder embedder) {
+      this.version = version;
+      this.toolIds = new String[tools.size()];
+      List<String> documents = new ArrayList<>(tools.size());
+      for (int i = 0; i < tools.size(); i++) {
+        toolIds[i] = tools.get(i).getId();
+        documents.add(toDocument(tools.get(i)));
+      }
+      this.bm25 = new Bm25Index(documents);
+      if (embedder != null) {
+        vectors = new float[documents.size()][];
+        for (int i = 0; i < documents.size(); i++) {
+          vectors[i] = embedder.embed(documents.get(i));
+        }
+      } else {
+        vectors = null;
+      }
+    }
+
+    double[] score(String query, ITextEmbedder embedder, double weight) {
+      double[] scores = bm25.score(query);
+      if (vectors == null || embedder == null) {
+        return scores;
+      }
+      double max = 0.0;
+      for (double score : scores) {
+        max = Math.max(max, score);
+      }
+      float[] queryVector = embedder.embed(query);
+      for (int i = 0; i < scores.length; i++) {
+        double lexical = max > 0.0 ? scores[i] / max : 0.0;
+        scores[i] = lexical + weight * Math.max(0.0, cosine(queryVector, vectors[i]));
+      }
+      return scores;
+    }
+
+    private static double cosine(float[] left, float[] right) {
+      double dot = 0.0;
+      double leftNorm = 0.0;
+      double rightNorm = 0.0;
+      int length = Math.min(left.length, right.length);
+      for (int i = 0; i < length; i++) {
+        dot += left[i] * right[i];
+        leftNorm += left[i] * left[i];
+        rightNorm += right[i] * right[i];
+      }
+      return leftNorm == 0.0 || rightNorm == 0.0 ? 0.0 : dot / Math.sqrt(leftNorm * rightNorm);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.arv.framework.adk.tools;
+
+import com.arv.framework.adk.interfaces.tool.IToolCreator;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for tool creators.
+ * Subclasses need a public no-argument constructor so they can be listed in
+ * META-INF/services/com.arv.framework.adk.interfaces.tool.IToolCreator and found by
+ * ServiceLoader. Metadata is described once and cached, without creating a tool.
+ */
+public abstract class AbstractToolCreator implements IToolCreator {
+
+  private final String toolType;
+  private volatile IToolMetadata metadata;
+
+  /**
+   * Creates a tool creator.
+   *
+   * @param toolType the tool type, normally the tool ID
+   */
+  protected AbstractToolCreator(String toolType) {
+    this.toolType = toolType;
+  }
+
+  /**
+   * Describes the tools this creator makes.
+   *
+   * @return the tool metadata
+   */
+  protected abstract IToolMetadata describeTool();
+
+  @Override
+  public String getToolType() {
+    return toolType;
+  }
+
+  @Override
+  public IToolMetadata getToolMetadata() {
+    IToolMetadata result = metadata;
+    if (result == null) {
+      result = describeTool();
+      metadata = result;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean validateConfig(Map<String, Object> config) {
+    for (String key : getRequiredConfigKeys()) {
+      if (config == null || !config.containsKey(key)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public List<String> getRequiredConfigKeys() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<String> getOptionalConfigKeys() {
+    return Collections.emptyList();
+  }
+}
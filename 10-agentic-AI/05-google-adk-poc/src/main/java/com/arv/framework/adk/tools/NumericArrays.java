@@ -0,0 +1,228 @@
+package com.arv.framework.adk.tools;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Helpers for batch arithmetic over primitive arrays.
+ * Conversions unbox once at the boundary; reductions run as plain primitive loops
+ * and only widen to BigInteger after the first overflow.
+ */
+public final class NumericArrays {
+
+  private NumericArrays() {
+  }
+
+  /**
+   * Converts a parameter value to a long array.
+   * Accepts long/int arrays, lists or arrays of numbers, and strings such as
+   * {@code "[1, 2, 3]"} or {@code "1,2,3"}.
+   *
+   * @param value the parameter value
+   * @return the long array, or null if any element is not an integer
+   */
+  public static long[] toLongArray(Object value) {
+    if (value instanceof long[]) {
+      return (long[]) value;
+    }
+    if (value instanceof int[]) {
+      int[] ints = (int[]) value;
+      long[] longs = new long[ints.length];
+      for (int i = 0; i < ints.length; i++) {
+        longs[i] = ints[i];
+      }
+      return longs;
+    }
+
+    Object[] elements = toElements(value);
+    if (elements == null) {
+      return null;
+    }
+    long[] result = new long[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element instanceof Long || element instanceof Integer
+          || element instanceof Short || element instanceof Byte) {
+        result[i] = ((Number) element).longValue();
+      } else if (element instanceof String) {
+        try {
+          result[i] = Long.parseLong(((String) element).trim());
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      } else {
+        return null;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Converts a parameter value to a double array.
+   *
+   * @param value the parameter value
+   * @return the double array, or null if any element is not a number
+   */
+  public static double[] toDoubleArray(Object value) {
+    if (value instanceof double[]) {
+      return (double[]) value;
+    }
+    if (value instanceof long[]) {
+      long[] longs = (long[]) value;
+      double[] doubles = new double[longs.length];
+      for (int i = 0; i < longs.length; i++) {
+        doubles[i] = longs[i];
+      }
+      return doubles;
+    }
+
+    Object[] elements = toElements(value);
+    if (elements == null) {
+      return null;
+    }
+    double[] result = new double[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element instanceof Number) {
+        result[i] = ((Number) element).doubleValue();
+      } else if (element instanceof String) {
+        try {
+          result[i] = Double.parseDouble(((String) element).trim());
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      } else {
+        return null;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Sums integral values, widening to BigInteger on overflow.
+   *
+   * @param values the values
+   * @return the sum as a Long, or a BigInteger if it does not fit
+   */
+  public static Number sum(long[] values) {
+    long sum = 0;
+    for (int i = 0; i < values.length; i++) {
+      try {
+        sum = Math.addExact(sum, values[i]);
+      } catch (ArithmeticException e) {
+        BigInteger big = BigInteger.valueOf(sum);
+        for (int j = i; j < values.length; j++) {
+          big = big.add(BigInteger.valueOf(values[j]));
+        }
+        return narrow(big);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Multiplies integral values, widening to BigInteger on overflow.
+   *
+   * @param values the values
+   * @return the product as a Long, or a BigInteger if it does not fit
+   */
+  public static Number product(long[] values) {
+    long product = 1;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == 0) {
+        return 0L;
+      }
+      try {
+        product = Math.multiplyExact(product, values[i]);
+      } catch (ArithmeticException e) {
+        BigInteger big = BigInteger.valueOf(product);
+        for (int j = i; j < values.length; j++) {
+          if (values[j] == 0) {
+            return 0L;
+          }
+          big = big.multiply(BigInteger.valueOf(values[j]));
+        }
+        return narrow(big);
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Sums floating point values using compensated (Neumaier) summation.
+   *
+   * @param values the values
+   * @return the sum
+   */
+  public static double sum(double[] values) {
+    double sum = 0.0;
+    double compensation = 0.0;
+    for (double value : values) {
+      double next = sum + value;
+      if (Math.abs(sum) >= Math.abs(value)) {
+        compensation += (sum - next) + value;
+      } else {
+        compensation += (value - next) + sum;
+      }
+      sum = next;
+    }
+    return sum + compensation;
+  }
+
+  /**
+   * Multiplies floating point values.
+   *
+   * @param values the values
+   * @return the product
+   */
+  public static double product(double[] values) {
+    double product = 1.0;
+    for (double value : values) {
+      product *= value;
+    }
+    return product;
+  }
+
+  /**
+   * Formats a double result without a trailing ".0" for whole numbers.
+   *
+   * @param value the value
+   * @return the formatted value
+   */
+  public static String format(double value) {
+    if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+      return String.valueOf((long) value);
+    }
+    return String.valueOf(value);
+  }
+
+  private static Number narrow(BigInteger value) {
+    return value.bitLength() < Long.SIZE ? (Number) value.longValue() : value;
+  }
+
+  /**
+   * Unpacks lists, object arrays and list-like strings into elements.
+   *
+   * @param value the parameter value
+   * @return the elements, or null if the value is not array-like
+   */
+  private static Object[] toElements(Object value) {
+    if (value instanceof List) {
+      return ((List<?>) value).toArray();
+    }
+    if (value instanceof Object[]) {
+      return (Object[]) value;
+    }
+    if (value instanceof String) {
+      String text = ((String) value).trim();
+      if (text.startsWith("[") && text.endsWith("]")) {
+        text = text.substring(1, text.length() - 1).trim();
+      }
+      if (text.isEmpty()) {
+        return new Object[0];
+      }
+      return text.split("\\s*,\\s*");
+    }
+    return null;
+  }
+}
@@ -0,0 +1,416 @@
+package com.arv.framework.adk.tools;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash map that shares structure between versions (a hash array mapped trie).
+ * {@link #plus} and {@link #minus} return a new map in O(log32 n), copying only the path
+ * to the changed entry, and leave this map untouched. A map can therefore be published
+ * through a single reference and handed to any number of readers without copying.
+ * Null keys and values are not allowed, as in {@link Map#copyOf}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = 8;
+  private static final Object NOT_FOUND = new Object();
+  private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+  private final Node root;
+  private final int size;
+  private Set<Entry<K, V>> entrySet;
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Gets the empty map.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return the empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Gets a persistent map with the entries of another map, without copying if it already is one.
+   *
+   * @param map the entries
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return the persistent map
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> from(Map<? extends K, ? extends V> map) {
+    if (map instanceof PersistentHashMap) {
+      return (PersistentHashMap<K, V>) map;
+    }
+    return PersistentHashMap.<K, V>empty().plusAll(map);
+  }
+
+  /**
+   * Gets a map with an entry added or replaced.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the new map, or this map if it already maps key to value
+   */
+  public PersistentHashMap<K, V> plus(K key, V value) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+    boolean[] added = new boolean[1];
+    Node base = root != null ? root : BitmapNode.EMPTY;
+    Node updated = base.assoc(0, hash(key), key, value, added);
+    if (updated == root) {
+      return this;
+    }
+    return new PersistentHashMap<>(updated, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Gets a map with every entry of another map added or replaced.
+   *
+   * @param map the entries
+   * @return the new map
+   */
+  @SuppressWarnings("unchecked")
+  public PersistentHashMap<K, V> plusAll(Map<? extends K, ? extends V> map) {
+    if (root == null && map instanceof PersistentHashMap) {
+      return (PersistentHashMap<K, V>) map;
+    }
+    PersistentHashMap<K, V> result = this;
+    for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      result = result.plus(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Gets a map without an entry.
+   *
+   * @param key the key
+   * @return the new map, or this map if it has no such key
+   */
+  public PersistentHashMap<K, V> minus(Object key) {
+    if (key == null || root == null) {
+      return this;
+    }
+    Node updated = root.without(0, hash(key), key);
+    if (updated == root) {
+      return this;
+    }
+    return updated == null ? empty() : new PersistentHashMap<>(updated, size - 1);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (key == null || root == null) {
+      return null;
+    }
+    Object value = root.find(0, hash(key), key);
+    return value != NOT_FOUND ? (V) value : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key != null && root != null && root.find(0, hash(key), key) != NOT_FOUND;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    Set<Entry<K, V>> entries = entrySet;
+    if (entries == null) {
+      entries = new AbstractSet<Entry<K, V>>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          return new EntryIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+      entrySet = entries;
+    }
+    return entries;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int bitFor(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /**
+   * Trie node. Entries are stored as pairs in {@code array}: a key and its value, or a
+   * null key and a child node.
+   */
+  private abstract static class Node {
+
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    abstract Object find(int shift, int hash, Object key);
+
+    abstract Node assoc(int shift, int hash, Object key, Object value, boolean[] added);
+
+    /** Returns the node without the key, this node if absent, or null once empty. */
+    abstract Node without(int shift, int hash, Object key);
+  }
+
+  private static final class BitmapNode extends Node {
+
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+
+    BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+      Object storedKey = array[index];
+      if (storedKey == null) {
+        return ((Node) array[index + 1]).find(shift + BITS, hash, key);
+      }
+      return key.equals(storedKey) ? array[index + 1] : NOT_FOUND;
+    }
+
+    @Override
+    Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+      int bit = bitFor(hash, shift);
+      int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+      if ((bitmap & bit) == 0) {
+        Object[] grown = new Object[array.length + 2];
+        System.arraycopy(array, 0, grown, 0, index);
+        grown[index] = key;
+        grown[index + 1] = value;
+        System.arraycopy(array, index, grown, index + 2, array.length - index);
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, grown);
+      }
+
+      Object storedKey = array[index];
+      Object storedValue = array[index + 1];
+      if (storedKey == null) {
+        Node child = ((Node) storedValue).assoc(shift + BITS, hash, key, value, added);
+        return child == storedValue ? this : new BitmapNode(bitmap, with(array, index + 1, child));
+      }
+      if (key.equals(storedKey)) {
+        return value == storedValue ? this : new BitmapNode(bitmap, with(array, index + 1, value));
+      }
+      added[0] = true;
+      Node child = pair(shift + BITS, storedKey, storedValue, hash, key, value);
+      Object[] copy = with(array, index + 1, child);
+      copy[index] = null;
+      return new BitmapNode(bitmap, copy);
+    }
+
+    @Override
+    Node without(int shift, int hash, Object key) {
+      int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+      Object storedKey = array[index];
+      if (storedKey == null) {
+        Node child = (Node) array[index + 1];
+        Node updated = child.without(shift + BITS, hash, key);
+        if (updated == child) {
+          return this;
+        }
+        if (updated != null) {
+          return new BitmapNode(bitmap, with(array, index + 1, updated));
+        }
+      } else if (!key.equals(storedKey)) {
+        return this;
+      }
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] shrunk = new Object[array.length - 2];
+      System.arraycopy(array, 0, shrunk, 0, index);
+      System.arraycopy(array, index + 2, shrunk, index, array.length - index - 2);
+      return new BitmapNode(bitmap ^ bit, shrunk);
+    }
+
+    /**
+     * Creates the subtree holding two entries whose hashes agree up to this level.
+     */
+    private static Node pair(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+      int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+      }
+      boolean[] ignored = new boolean[1];
+      return EMPTY.assoc(shift, hash1, key1, value1, ignored)
+          .assoc(shift, hash2, key2, value2, ignored);
+    }
+  }
+
+  /**
+   * Holds entries whose keys have the same full hash.
+   */
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+
+    CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int index = indexOf(key);
+      return hash == this.hash && index >= 0 ? array[index + 1] : NOT_FOUND;
+    }
+
+    @Override
+    Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        // Push this node one level down next to the new entry
+        return new BitmapNode(bitFor(this.hash, shift), new Object[] {null, this})
+            .assoc(shift, hash, key, value, added);
+      }
+      int index = indexOf(key);
+      if (index >= 0) {
+        return array[index + 1] == value ? this : new CollisionNode(hash, with(array, index + 1, value));
+      }
+      Object[] grown = new Object[array.length + 2];
+      System.arraycopy(array, 0, grown, 0, array.length);
+      grown[array.length] = key;
+      grown[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, grown);
+    }
+
+    @Override
+    Node without(int shift, int hash, Object key) {
+      int index = hash == this.hash ? indexOf(key) : -1;
+      if (index < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      Object[] shrunk = new Object[array.length - 2];
+      System.arraycopy(array, 0, shrunk, 0, index);
+      System.arraycopy(array, index + 2, shrunk, index, array.length - index - 2);
+      return new CollisionNode(hash, shrunk);
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  private static Object[] with(Object[] array, int index, Object value) {
+    Object[] copy = array.clone();
+    copy[index] = value;
+    return copy;
+  }
+
+  /**
+   * Walks the trie depth first with an explicit stack.
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+    private final Object[][] arrays = new Object[MAX_DEPTH + 1][];
+    private final int[] positions = new int[MAX_DEPTH + 1];
+    private int depth = -1;
+    private Entry<K, V> next;
+
+    EntryIterator(Node root) {
+      if (root != null) {
+        depth = 0;
+        arrays[0] = root.array;
+      }
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      Entry<K, V> current = next;
+      if (current == null) {
+        throw new NoSuchElementException();
+      }
+      advance();
+      return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        Object[] array = arrays[depth];
+        int position = positions[depth];
+        if (position >= array.length) {
+          positions[depth] = 0;
+          depth--;
+          continue;
+        }
+        positions[depth] = position + 2;
+        Object key = array[position];
+        if (key != null) {
+          next = new SimpleImmutableEntry<>((K) key, (V) array[position + 1]);
+          return;
+        }
+        depth++;
+        arrays[depth] = ((Node) array[position + 1]).array;
+        positions[depth] = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,276 @@
+package com.arv.framework.adk.tools;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compact key/value store for the handful of entries a tool call or message carries.
+ * Entries live in parallel arrays searched linearly, which beats hashing for a
+ * few keys, and numbers can be stored in primitive slots without boxing.
+ * Not thread-safe, like the HashMaps it replaces.
+ */
+public final class SlotMap {
+
+  private static final byte OBJECT = 0;
+  private static final byte LONG = 1;
+  private static final byte DOUBLE = 2;
+
+  private static final int DEFAULT_CAPACITY = 4;
+
+  private String[] keys;
+  private Object[] objects;
+  private long[] bits;
+  private byte[] kinds;
+  private int size;
+
+  /**
+   * Creates an empty map with room for a few entries.
+   */
+  public SlotMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty map.
+   *
+   * @param capacity the number of entries to make room for
+   */
+  public SlotMap(int capacity) {
+    int initial = Math.max(1, capacity);
+    this.keys = new String[initial];
+    this.objects = new Object[initial];
+    this.bits = new long[initial];
+    this.kinds = new byte[initial];
+  }
+
+  /**
+   * Gets the number of entries.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether a key is present.
+   */
+  public boolean containsKey(String key) {
+    return indexOf(key) >= 0;
+  }
+
+  /**
+   * Gets a value, boxing primitive slots on demand.
+   */
+  public Object get(String key) {
+    int index = indexOf(key);
+    return index >= 0 ? valueAt(index) : null;
+  }
+
+  /**
+   * Gets an integral value without boxing.
+   */
+  public long getLong(String key, long defaultValue) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return defaultValue;
+    }
+    switch (kinds[index]) {
+      case LONG:
+        return bits[index];
+      case DOUBLE:
+        return (long) Double.longBitsToDouble(bits[index]);
+      default:
+        return toLong(objects[index], defaultValue);
+    }
+  }
+
+  /**
+   * Gets a floating point value without boxing.
+   */
+  public double getDouble(String key, double defaultValue) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return defaultValue;
+    }
+    switch (kinds[index]) {
+      case LONG:
+        return bits[index];
+      case DOUBLE:
+        return Double.longBitsToDouble(bits[index]);
+      default:
+        return toDouble(objects[index], defaultValue);
+    }
+  }
+
+  /**
+   * Checks whether a value is a number or a numeric string.
+   */
+  public boolean isNumeric(String key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return false;
+    }
+    if (kinds[index] != OBJECT) {
+      return true;
+    }
+    return !Double.isNaN(toDouble(objects[index], Double.NaN));
+  }
+
+  /**
+   * Stores a value as given; boxed numbers keep their type so callers see what they put.
+   */
+  public void put(String key, Object value) {
+    int index = slotFor(key);
+    kinds[index] = OBJECT;
+    objects[index] = value;
+    bits[index] = 0L;
+  }
+
+  /**
+   * Stores an integral value without boxing.
+   */
+  public void putLong(String key, long value) {
+    int index = slotFor(key);
+    kinds[index] = LONG;
+    objects[index] = null;
+    bits[index] = value;
+  }
+
+  /**
+   * Stores a floating point value without boxing.
+   */
+  public void putDouble(String key, double value) {
+    int index = slotFor(key);
+    kinds[index] = DOUBLE;
+    objects[index] = null;
+    bits[index] = Double.doubleToRawLongBits(value);
+  }
+
+  /**
+   * Removes an entry if present.
+   */
+  public void remove(String key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return;
+    }
+    int last = size - 1;
+    keys[index] = keys[last];
+    objects[index] = objects[last];
+    bits[index] = bits[last];
+    kinds[index] = kinds[last];
+    keys[last] = null;
+    objects[last] = null;
+    size = last;
+  }
+
+  /**
+   * Stores every entry of a map as given.
+   */
+  public void putAll(Map<String, Object> values) {
+    for (Map.Entry<String, Object> entry : values.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Removes every entry.
+   */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      keys[i] = null;
+      objects[i] = null;
+    }
+    size = 0;
+  }
+
+  /**
+   * Copies the entries into a new mutable map.
+   */
+  public Map<String, Object> toMap() {
+    if (size == 0) {
+      return new HashMap<>();
+    }
+    Map<String, Object> map = new HashMap<>(size * 2);
+    for (int i = 0; i < size; i++) {
+      map.put(keys[i], valueAt(i));
+    }
+    return map;
+  }
+
+  /**
+   * Copies the entries into a read-only map.
+   */
+  public Map<String, Object> toUnmodifiableMap() {
+    return size == 0 ? Collections.emptyMap() : Collections.unmodifiableMap(toMap());
+  }
+
+  private Object valueAt(int index) {
+    switch (kinds[index]) {
+      case LONG:
+        return bits[index];
+      case DOUBLE:
+        return Double.longBitsToDouble(bits[index]);
+      default:
+        return objects[index];
+    }
+  }
+
+  private int indexOf(String key) {
+    for (int i = 0; i < size; i++) {
+      String candidate = keys[i];
+      if (Objects.equals(candidate, key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int slotFor(String key) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      return index;
+    }
+    if (size == keys.length) {
+      int capacity = keys.length * 2;
+      keys = Arrays.copyOf(keys, capacity);
+      objects = Arrays.copyOf(objects, capacity);
+      bits = Arrays.copyOf(bits, capacity);
+      kinds = Arrays.copyOf(kinds, capacity);
+    }
+    keys[size] = key;
+    return size++;
+  }
+
+  private static long toLong(Object value, long defaultValue) {
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof String) {
+      String text = ((String) value).trim();
+      try {
+        return Long.parseLong(text);
+      } catch (NumberFormatException e) {
+        double parsed = toDouble(text, Double.NaN);
+        return Double.isNaN(parsed) ? defaultValue : (long) parsed;
+      }
+    }
+    return defaultValue;
+  }
+
+  private static double toDouble(Object value, double defaultValue) {
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    if (value instanceof String) {
+      try {
+        return Double.parseDouble(((String) value).trim());
+      } catch (NumberFormatException e) {
+        return defaultValue;
+      }
+    }
+    return defaultValue;
+  }
+}
@@ -1,25 +1,25 @@
 package com.arv.framework.adk.tools;
 
 import com.arv.framework.adk.interfaces.tool.IToolInput;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Implementation of IToolInput for tool execution input.
  * Contains parameters, session ID, and context for tool execution.
+ * Parameters are kept in compact slots with unboxed numbers. The context is an
+ * immutable persistent map, so a session's context snapshot is shared rather than copied.
  */
 public class ToolInput implements IToolInput {
   
-  private Map<String, Object> parameters;
+  private SlotMap parameters;
   private String sessionId;
-  private Map<String, Object> context;
+  private PersistentHashMap<String, Object> context = PersistentHashMap.empty();
   
   /**
    * Default constructor for ToolInput.
    */
   public ToolInput() {
-    this.parameters = new HashMap<>();
-    this.context = new HashMap<>();
+    this(new SlotMap(), null);
   }
   
   /**
@@ -28,18 +28,44 @@ public class ToolInput implements IToolInput {
    * @param sessionId the session ID
    */
   public ToolInput(String sessionId) {
-    this();
+    this(new SlotMap(), sessionId);
+  }
+  
+  private ToolInput(SlotMap parameters, String sessionId) {
+    this.parameters = parameters;
     this.sessionId = sessionId;
   }
   
+  /**
+   * Creates an input from a call's parameter map in a single pass.
+   * The {@code sessionId} entry, if present, becomes the session ID.
+   * 
+   * @param parameters the call parameters
+   * @return a new ToolInput
+   */
+  public static ToolInput fromParameters(Map<String, Object> parameters) {
+    SlotMap slots = new SlotMap(parameters.size());
+    String sessionId = null;
+    for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+      if ("sessionId".equals(entry.getKey())) {
+        sessionId = (String) entry.getValue();
+      } else {
+        slots.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return new ToolInput(slots, sessionId);
+  }
+  
   @Override
   public Map<String, Object> getParameters() {
-    return new HashMap<>(parameters);
+    return parameters.toMap();
   }
   
   @Override
   public void setParameters(Map<String, Object> parameters) {
-    this.parameters = new HashMap<>(parameters);
+    SlotMap slots = new SlotMap(parameters.size());
+    slots.putAll(parameters);
+    this.parameters = slots;
   }
   
   @Override
@@ -52,6 +78,41 @@ public class ToolInput implements IToolInput {
     parameters.put(key, value);
   }
   
+  /**
+   * Sets an integral parameter without boxing.
+   * 
+   * @param key the parameter key
+   * @param value the parameter value
+   */
+  public void setParameter(String key, long value) {
+    parameters.putLong(key, value);
+  }
+  
+  /**
+   * Sets a floating point parameter without boxing.
+   * 
+   * @param key the parameter key
+   * @param value the parameter value
+   */
+  public void setParameter(String key, double value) {
+    parameters.putDouble(key, value);
+  }
+  
+  @Override
+  public long getLongParameter(String key, long defaultValue) {
+    return parameters.getLong(key, defaultValue);
+  }
+  
+  @Override
+  public double getDoubleParameter(String key, double defaultValue) {
+    return parameters.getDouble(key, defaultValue);
+  }
+  
+  @Override
+  public boolean isNumericParameter(String key) {
+    return parameters.isNumeric(key);
+  }
+  
   @Override
   public String getSessionId() {
     return sessionId;
@@ -64,12 +125,12 @@ public class ToolInput implements IToolInput {
   
   @Override
   public Map<String, Object> getContext() {
-    return new HashMap<>(context);
+    return context;
   }
   
   @Override
   public void setContext(Map<String, Object> context) {
-    this.context = new HashMap<>(context);
+    this.context = context != null ? PersistentHashMap.from(context) : PersistentHashMap.empty();
   }
   
   @Override
@@ -79,7 +140,7 @@ public class ToolInput implements IToolInput {
   
   @Override
   public void setContextValue(String key, Object value) {
-    context.put(key, value);
+    context = value != null ? context.plus(key, value) : context.minus(key);
   }
   
   @Override
@@ -0,0 +1,156 @@
+package com.arv.framework.adk.tools;
+
+import com.arv.framework.adk.interfaces.tool.IToolPlan;
+import com.arv.framework.adk.interfaces.tool.IToolPlanStep;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of IToolPlan.
+ * Steps are kept in declaration order; the execution order is computed on demand.
+ */
+public class ToolPlan implements IToolPlan {
+
+  private final Map<String, IToolPlanStep> steps = new LinkedHashMap<>();
+
+  /**
+   * Adds a step to the plan.
+   *
+   * @param step the step to add
+   * @return this ToolPlan for method chaining
+   */
+  public ToolPlan addStep(IToolPlanStep step) {
+    if (steps.containsKey(step.getId())) {
+      throw new IllegalArgumentException("Duplicate plan step ID: " + step.getId());
+    }
+    steps.put(step.getId(), step);
+    return this;
+  }
+
+  /**
+   * Adds a step to the plan.
+   *
+   * @param id the step ID
+   * @param toolName the tool to execute
+   * @param arguments the step arguments, possibly containing references
+   * @param dependsOn explicit dependencies in addition to referenced steps
+   * @return this ToolPlan for method chaining
+   */
+  public ToolPlan addStep(String id, String toolName, Map<String, Object> arguments,
+      String... dependsOn) {
+    return addStep(new ToolPlanStep(id, toolName, arguments,
+        new LinkedHashSet<>(Arrays.asList(dependsOn))));
+  }
+
+  @Override
+  public List<IToolPlanStep> getSteps() {
+    return new ArrayList<>(steps.values());
+  }
+
+  @Override
+  public IToolPlanStep getStep(String stepId) {
+    return steps.get(stepId);
+  }
+
+  @Override
+  public List<IToolPlanStep> getExecutionOrder() {
+    Map<String, Integer> pending = new HashMap<>();
+    Map<String, List<String>> dependents = new HashMap<>();
+
+    for (IToolPlanStep step : steps.values()) {
+      pending.put(step.getId(), step.getDependencies().size());
+      for (String dependency : step.getDependencies()) {
+        if (!steps.containsKey(dependency)) {
+          throw new IllegalStateException("Step " + step.getId()
+              + " depends on unknown step: " + dependency);
+        }
+        dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(step.getId());
+      }
+    }
+
+    Deque<String> ready = new ArrayDeque<>();
+    for (IToolPlanStep step : steps.values()) {
+      if (step.getDependencies().isEmpty()) {
+        ready.add(step.getId());
+      }
+    }
+
+    List<IToolPlanStep> order = new ArrayList<>(steps.size());
+    while (!ready.isEmpty()) {
+      String stepId = ready.poll();
+      order.add(steps.get(stepId));
+      for (String dependent : dependents.getOrDefault(stepId, List.of())) {
+        if (pending.merge(dependent, -1, Integer::sum) == 0) {
+          ready.add(dependent);
+        }
+      }
+    }
+
+    if (order.size() != steps.size()) {
+      throw new IllegalStateException("Tool plan contains a dependency cycle");
+    }
+    return order;
+  }
+
+  /**
+   * Parses a plan from JSON of the form
+   * {@code {"steps":[{"id":"a","tool":"sum","arguments":{...},"depends_on":["b"]}]}}.
+   *
+   * @param json the plan JSON
+   * @return the parsed plan
+   */
+  public static ToolPlan fromJson(JsonNode json) {
+    JsonNode stepsNode = json.has("steps") ? json.get("steps") : json;
+    if (stepsNode == null || !stepsNode.isArray()) {
+      throw new IllegalArgumentException("Tool plan must contain a 'steps' array");
+    }
+
+    ToolPlan plan = new ToolPlan();
+    for (JsonNode stepNode : stepsNode) {
+      Map<String, Object> arguments = new LinkedHashMap<>();
+      JsonNode argumentsNode = stepNode.get("arguments");
+      if (argumentsNode != null) {
+        argumentsNode.fields().forEachRemaining(entry ->
+            arguments.put(entry.getKey(), toValue(entry.getValue())));
+      }
+
+      Set<String> dependsOn = new LinkedHashSet<>();
+      JsonNode dependsNode = stepNode.get("depends_on");
+      if (dependsNode != null && dependsNode.isArray()) {
+        dependsNode.forEach(node -> dependsOn.add(node.asText()));
+      }
+
+      plan.addStep(new ToolPlanStep(stepNode.path("id").asText(null),
+          stepNode.path("tool").asText(null), arguments, dependsOn));
+    }
+    return plan;
+  }
+
+  /**
+   * Converts a JSON argument into the Java value passed to tools.
+   *
+   * @param value the JSON value
+   * @return the converted value
+   */
+  private static Object toValue(JsonNode value) {
+    if (value.isIntegralNumber()) {
+      return value.asLong();
+    } else if (value.isNumber()) {
+      return value.asDouble();
+    } else if (value.isTextual()) {
+      return value.asText();
+    } else if (value.isBoolean()) {
+      return value.asBoolean();
+    }
+    return value.toString();
+  }
+}
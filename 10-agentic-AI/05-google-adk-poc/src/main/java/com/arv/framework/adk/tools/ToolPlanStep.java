@@ -0,0 +1,271 @@
+package com.arv.framework.adk.tools;
+
+import com.arv.framework.adk.interfaces.tool.IToolPlanStep;
+import com.arv.framework.adk.interfaces.tool.IToolResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of IToolPlanStep.
+ * String arguments may contain references to the data of earlier steps:
+ * <ul>
+ *   <li>{@code ${step}} - the whole result data of {@code step}</li>
+ *   <li>{@code ${step|regex:PATTERN}} - group 1 (or the whole match) of PATTERN</li>
+ *   <li>{@code ${step|json:$.path[0].field}} - a value selected from JSON result data</li>
+ * </ul>
+ */
+public class ToolPlanStep implements IToolPlanStep {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String REFERENCE_START = "${";
+  private static final String REGEX_PREFIX = "regex:";
+  private static final String JSON_PREFIX = "json:";
+
+  private final String id;
+  private final String toolName;
+  private final Map<String, Object> arguments;
+  private final Set<String> dependencies;
+
+  /**
+   * Constructor for ToolPlanStep.
+   *
+   * @param id the step ID
+   * @param toolName the tool to execute
+   * @param arguments the step arguments, possibly containing references
+   * @param dependsOn explicit dependencies in addition to referenced steps
+   */
+  public ToolPlanStep(String id, String toolName, Map<String, Object> arguments,
+      Set<String> dependsOn) {
+    if (id == null || id.trim().isEmpty()) {
+      throw new IllegalArgumentException("Plan step ID is required");
+    }
+    if (toolName == null || toolName.trim().isEmpty()) {
+      throw new IllegalArgumentException("Tool name is required for plan step: " + id);
+    }
+    this.id = id;
+    this.toolName = toolName;
+    this.arguments = arguments != null ? new LinkedHashMap<>(arguments) : new LinkedHashMap<>();
+
+    Set<String> deps = new LinkedHashSet<>();
+    if (dependsOn != null) {
+      deps.addAll(dependsOn);
+    }
+    for (Object value : this.arguments.values()) {
+      if (value instanceof String) {
+        for (Reference reference : parseReferences((String) value)) {
+          deps.add(reference.stepId);
+        }
+      }
+    }
+    this.dependencies = Collections.unmodifiableSet(deps);
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public String getToolName() {
+    return toolName;
+  }
+
+  @Override
+  public Map<String, Object> getArguments() {
+    return new HashMap<>(arguments);
+  }
+
+  @Override
+  public Set<String> getDependencies() {
+    return dependencies;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException if a referenced step is missing or extraction fails
+   */
+  @Override
+  public Map<String, Object> resolveArguments(Map<String, IToolResult> completed) {
+    Map<String, Object> resolved = new HashMap<>(arguments.size() + 1);
+    for (Map.Entry<String, Object> entry : arguments.entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof String) {
+        value = resolveValue((String) value, completed);
+      }
+      resolved.put(entry.getKey(), value);
+    }
+    return resolved;
+  }
+
+  /**
+   * Replaces references in a single string value.
+   *
+   * @param value the raw value
+   * @param completed results of completed steps
+   * @return the resolved value
+   */
+  private String resolveValue(String value, Map<String, IToolResult> completed) {
+    List<Reference> references = parseReferences(value);
+    if (references.isEmpty()) {
+      return value;
+    }
+
+    StringBuilder result = new StringBuilder(value.length());
+    int position = 0;
+    for (Reference reference : references) {
+      result.append(value, position, reference.start);
+      result.append(extract(reference, completed.get(reference.stepId)));
+      position = reference.end;
+    }
+    result.append(value, position, value.length());
+    return result.toString();
+  }
+
+  /**
+   * Extracts the referenced value from a step result.
+   *
+   * @param reference the reference
+   * @param result the result of the referenced step
+   * @return the extracted text
+   */
+  private String extract(Reference reference, IToolResult result) {
+    if (result == null || !result.isSuccess()) {
+      throw new IllegalStateException("Step " + reference.stepId + " has no successful result");
+    }
+    String data = result.getData() != null ? result.getData() : "";
+
+    if (reference.extractor == null) {
+      return data;
+    }
+
+    if (reference.extractor.startsWith(REGEX_PREFIX)) {
+      Pattern pattern = Pattern.compile(reference.extractor.substring(REGEX_PREFIX.length()));
+      Matcher matcher = pattern.matcher(data);
+      if (!matcher.find()) {
+        throw new IllegalStateException("Pattern " + pattern + " did not match output of step "
+            + reference.stepId);
+      }
+      return matcher.groupCount() >= 1 && matcher.group(1) != null ? matcher.group(1) : matcher.group();
+    }
+
+    if (reference.extractor.startsWith(JSON_PREFIX)) {
+      String path = reference.extractor.substring(JSON_PREFIX.length()).trim();
+      try {
+        JsonNode node = selectJsonPath(OBJECT_MAPPER.readTree(data), path);
+        if (node == null || node.isMissingNode()) {
+          throw new IllegalStateException("Path " + path + " not found in output of step "
+              + reference.stepId);
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+      } catch (IOException e) {
+        throw new IllegalStateException("Output of step " + reference.stepId + " is not JSON", e);
+      }
+    }
+
+    throw new IllegalStateException("Unknown extractor: " + reference.extractor);
+  }
+
+  /**
+   * Selects a node using the dot/index subset of JSONPath, e.g. {@code $.items[0].name}.
+   *
+   * @param root the root node
+   * @param path the path expression
+   * @return the selected node, or null if not found
+   */
+  static JsonNode selectJsonPath(JsonNode root, String path) {
+    String expression = path.startsWith("$") ? path.substring(1) : path;
+    JsonNode current = root;
+    int i = 0;
+    while (current != null && i < expression.length()) {
+      char c = expression.charAt(i);
+      if (c == '.') {
+        int end = i + 1;
+        while (end < expression.length() && expression.charAt(end) != '.'
+            && expression.charAt(end) != '[') {
+          end++;
+        }
+        current = current.get(expression.substring(i + 1, end));
+        i = end;
+      } else if (c == '[') {
+        int end = expression.indexOf(']', i);
+        if (end < 0) {
+          throw new IllegalStateException("Unterminated index in path: " + path);
+        }
+        String index = expression.substring(i + 1, end).trim();
+        if (index.startsWith("'") || index.startsWith("\"")) {
+          current = current.get(index.substring(1, index.length() - 1));
+        } else {
+          current = current.get(Integer.parseInt(index));
+        }
+        i = end + 1;
+      } else {
+        throw new IllegalStateException("Unsupported path syntax: " + path);
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Finds all {@code ${...}} references in a value. Braces inside a reference
+   * (for example regex quantifiers) are balanced.
+   *
+   * @param value the value to scan
+   * @return the references in order of appearance
+   */
+  static List<Reference> parseReferences(String value) {
+    List<Reference> references = new ArrayList<>();
+    int start = value.indexOf(REFERENCE_START);
+    while (start >= 0) {
+      int depth = 1;
+      int i = start + REFERENCE_START.length();
+      while (i < value.length() && depth > 0) {
+        char c = value.charAt(i);
+        if (c == '{') {
+          depth++;
+        } else if (c == '}') {
+          depth--;
+        }
+        i++;
+      }
+      if (depth != 0) {
+        break;
+      }
+      String body = value.substring(start + REFERENCE_START.length(), i - 1);
+      int separator = body.indexOf('|');
+      String stepId = separator >= 0 ? body.substring(0, separator).trim() : body.trim();
+      String extractor = separator >= 0 ? body.substring(separator + 1).trim() : null;
+      references.add(new Reference(stepId, extractor, start, i));
+      start = value.indexOf(REFERENCE_START, i);
+    }
+    return references;
+  }
+
+  /**
+   * A parsed reference to the output of another step.
+   */
+  static final class Reference {
+    final String stepId;
+    final String extractor;
+    final int start;
+    final int end;
+
+    Reference(String stepId, String extractor, int start, int end) {
+      this.stepId = stepId;
+      this.extractor = extractor;
+      this.start = start;
+      this.end = end;
+    }
+  }
+}
@@ -1,19 +1,21 @@
 package com.arv.framework.adk.tools;
 
 import com.arv.framework.adk.interfaces.tool.IToolResult;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 
 /**
  * Implementation of IToolResult for tool execution results.
  * Contains execution results, success status, and metadata.
+ * Metadata storage is only allocated when the first entry is added, and numeric
+ * metadata can be recorded without boxing.
  */
 public class ToolResult implements IToolResult {
   
   private boolean success;
   private String data;
   private String error;
-  private Map<String, Object> metadata;
+  private SlotMap metadata;
   private long executionTime;
   private long timestamp;
   
@@ -22,7 +24,6 @@ public class ToolResult implements IToolResult {
    */
   public ToolResult() {
     this.success = true;
-    this.metadata = new HashMap<>();
     this.timestamp = System.currentTimeMillis();
   }
   
@@ -96,24 +97,36 @@ public class ToolResult implements IToolResult {
     return error != null && !error.trim().isEmpty();
   }
   
+  /**
+   * Gets a read-only copy of the metadata. Numbers stored without boxing are boxed
+   * into the copy, so prefer {@link #getMetadataValue(String)} to read single entries.
+   * 
+   * @return the metadata map
+   */
   @Override
   public Map<String, Object> getMetadata() {
-    return new HashMap<>(metadata);
+    return metadata != null ? metadata.toUnmodifiableMap() : Collections.emptyMap();
   }
   
   @Override
   public void setMetadata(Map<String, Object> metadata) {
-    this.metadata = new HashMap<>(metadata);
+    if (metadata == null || metadata.isEmpty()) {
+      this.metadata = null;
+      return;
+    }
+    SlotMap slots = new SlotMap(metadata.size());
+    slots.putAll(metadata);
+    this.metadata = slots;
   }
   
   @Override
   public Object getMetadataValue(String key) {
-    return metadata.get(key);
+    return metadata != null ? metadata.get(key) : null;
   }
   
   @Override
   public void setMetadataValue(String key, Object value) {
-    metadata.put(key, value);
+    metadataSlots().put(key, value);
   }
   
   @Override
@@ -148,6 +161,30 @@ public class ToolResult implements IToolResult {
     return this;
   }
   
+  /**
+   * Adds integral metadata to the result without boxing.
+   * 
+   * @param key the metadata key
+   * @param value the metadata value
+   * @return this ToolResult for method chaining
+   */
+  public ToolResult withLongMetadata(String key, long value) {
+    metadataSlots().putLong(key, value);
+    return this;
+  }
+  
+  /**
+   * Adds floating point metadata to the result without boxing.
+   * 
+   * @param key the metadata key
+   * @param value the metadata value
+   * @return this ToolResult for method chaining
+   */
+  public ToolResult withDoubleMetadata(String key, double value) {
+    metadataSlots().putDouble(key, value);
+    return this;
+  }
+  
   /**
    * Sets the execution time based on start time.
    * 
@@ -158,4 +195,11 @@ public class ToolResult implements IToolResult {
     setExecutionTime(System.currentTimeMillis() - startTime);
     return this;
   }
+  
+  private SlotMap metadataSlots() {
+    if (metadata == null) {
+      metadata = new SlotMap();
+    }
+    return metadata;
+  }
 }
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.arv.adk.tools.SumTool;
+import com.arv.framework.adk.impl.ConnectAgent;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.gemini.ILlmService;
+import com.arv.framework.adk.metrics.AgentMetrics;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for agent-wide metrics.
+ */
+class AgentMetricsTest {
+
+  @Test
+  void testPercentilesIncludeP999() {
+    AgentMetrics metrics = new AgentMetrics();
+    for (long value = 1; value <= 10_000; value++) {
+      metrics.getToolLatencyHistogram().record(value * 1000L);
+    }
+
+    assertWithin(5_000, metrics.getToolP50LatencyMs());
+    assertWithin(9_900, metrics.getToolP99LatencyMs());
+    assertWithin(9_990, metrics.getToolP999LatencyMs());
+    assertEquals(10_000, metrics.getToolCallCount());
+    assertEquals(0, metrics.getErrorCount());
+  }
+
+  @Test
+  void testAgentRecordsTurnsToolsAndCacheHits() throws Exception {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(new SumTool());
+    ToolExecutionEngine engine = new ToolExecutionEngine(registry);
+    AgentMetrics metrics = new AgentMetrics();
+    engine.setMetrics(metrics);
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenReturn(
+        "{\"function_call\": {\"name\": \"sum\", \"arguments\": {\"a\": 1, \"b\": 2}}}",
+        "The sum is 3",
+        "Error: API call failed with status 500: boom");
+    SimpleSessionManager sessions = new SimpleSessionManager();
+    ConnectAgent agent = new ConnectAgent(llm, engine, sessions).withMetrics(metrics);
+    agent.startSession("s1");
+
+    assertEquals("The sum is 3", agent.processMessage("add 1 and 2", "s1"));
+    agent.processMessage("again", "s1");
+
+    assertEquals(2, metrics.getMessageCount());
+    assertEquals(3, metrics.getTurnCount());
+    assertEquals(1.5, metrics.getMeanTurnsPerMessage(), 0.001);
+    assertEquals(3, metrics.getLlmCallCount());
+    assertEquals(1, metrics.getToolCallCount());
+    assertEquals(1, metrics.getErrorCount());
+    assertEquals(1, metrics.getCacheMissCount());
+    assertEquals(2, metrics.getCacheHitCount());
+    assertEquals(0, metrics.getInFlightRequests());
+    assertEquals(1, metrics.getActiveSessions());
+    agent.startSession("s2");
+    assertTrue(sessions.getSession("s2").orElseThrow().transitionTo(SessionState.WAITING_FOR_INPUT));
+    assertEquals(2, metrics.getActiveSessions(), "Sessions waiting for input are active");
+
+    Map<String, Number> snapshot = metrics.snapshot();
+    assertEquals(2L, snapshot.get("message.count"));
+    assertEquals(1L, snapshot.get("tool.count"));
+    assertTrue(snapshot.containsKey("llm.p999_ms"));
+
+    metrics.registerMBean("metrics-test");
+    ObjectName name = new ObjectName("com.arv.framework.adk:type=AgentMetrics,agent=\"metrics-test\"");
+    assertEquals(3L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "TurnCount"));
+    metrics.unregisterMBean();
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+  }
+
+  private static void assertWithin(double expected, double actual) {
+    assertTrue(Math.abs(actual - expected) <= expected / 8,
+        "Expected about " + expected + " but was " + actual);
+  }
+}
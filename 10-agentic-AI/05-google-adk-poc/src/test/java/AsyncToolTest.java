@@ -0,0 +1,136 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.adk.tools.SumTool;
+import com.arv.adk.tools.WikipediaSearchTool;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.interfaces.tool.IAsyncTool;
+import com.arv.framework.adk.interfaces.tool.IToolInput;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.interfaces.tool.IToolResult;
+import com.arv.framework.adk.tools.ToolInput;
+import com.arv.framework.adk.tools.ToolMetadata;
+import com.arv.framework.adk.tools.ToolResult;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for asynchronous tool execution.
+ */
+class AsyncToolTest {
+
+  private SimpleToolRegistry registry;
+  private ToolExecutionEngine engine;
+  private EchoTool echo;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleToolRegistry();
+    echo = new EchoTool();
+    registry.registerTool(echo);
+    registry.registerTool(new SumTool());
+    engine = new ToolExecutionEngine(registry);
+  }
+
+  @Test
+  void testAsyncToolDoesNotBlockCaller() {
+    CompletableFuture<IToolResult> future = engine.executeToolAsync("echo", Map.of("text", "hi"));
+    assertFalse(future.isDone(), "The engine must not wait for the tool");
+
+    echo.pending.complete(ToolResult.success("hi"));
+    assertEquals("hi", future.join().getData());
+  }
+
+  @Test
+  void testSyncToolIsAdapted() {
+    IToolResult result = engine.executeToolAsync("sum", Map.of("a", 2L, "b", 3L)).join();
+    assertTrue(result.isSuccess());
+    assertEquals("5", result.getData());
+  }
+
+  @Test
+  void testNonStringQueryCompletesWithFailure() {
+    CompletableFuture<IToolResult> future = new WikipediaSearchTool()
+        .executeAsync(ToolInput.fromParameters(Map.of("query", 42)));
+
+    assertTrue(future.isDone());
+    assertFalse(future.join().isSuccess());
+  }
+
+  @Test
+  void testExceptionalCompletionBecomesFailure() {
+    CompletableFuture<IToolResult> future = engine.executeToolAsync("echo", Map.of("text", "hi"));
+    echo.pending.completeExceptionally(new IllegalStateException("connection reset"));
+
+    IToolResult result = future.join();
+    assertFalse(result.isSuccess());
+    assertEquals("Tool execution error: connection reset", result.getError());
+  }
+
+  @Test
+  void testSlowAsyncToolTimesOut() {
+    engine.setAsyncToolTimeoutMs(50);
+
+    IToolResult result = engine.executeToolAsync("echo", Map.of("text", "hi")).join();
+
+    assertFalse(result.isSuccess());
+    assertEquals(1, engine.getToolStatistics("echo").getTimeoutCount());
+    assertFalse(echo.pending.isDone(), "The tool's own future is not completed by the timeout");
+  }
+
+  /**
+   * Async tool whose result is completed by the test.
+   */
+  private static class EchoTool implements IAsyncTool {
+
+    private final CompletableFuture<IToolResult> pending = new CompletableFuture<>();
+
+    @Override
+    public CompletableFuture<IToolResult> executeAsync(IToolInput input) {
+      return pending;
+    }
+
+    @Override
+    public IToolResult execute(IToolInput input) {
+      return executeAsync(input).join();
+    }
+
+    @Override
+    public String getId() {
+      return "echo";
+    }
+
+    @Override
+    public String getName() {
+      return "Echo";
+    }
+
+    @Override
+    public String getDescription() {
+      return "Echoes its input";
+    }
+
+    @Override
+    public boolean isEnabled() {
+      return true;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+    }
+
+    @Override
+    public IToolMetadata getMetadata() {
+      return new ToolMetadata(getId(), getName(), getDescription());
+    }
+
+    @Override
+    public boolean validateInput(IToolInput input) {
+      return input.hasParameter("text");
+    }
+  }
+}
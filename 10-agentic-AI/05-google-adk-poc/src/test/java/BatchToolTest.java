@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.arv.adk.tools.MultiplyTool;
+import com.arv.adk.tools.SumTool;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.interfaces.tool.IToolResult;
+import com.arv.framework.adk.tools.ToolResult;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for batch execution of the arithmetic tools.
+ */
+class BatchToolTest {
+
+  private ToolExecutionEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(new SumTool());
+    registry.registerTool(new MultiplyTool());
+    engine = new ToolExecutionEngine(registry);
+  }
+
+  @Test
+  void testScalarResultMetadata() {
+    IToolResult sum = engine.executeTool("sum", Map.of("a", 1, "b", 2));
+    assertEquals(3, sum.getMetadataValue("result"));
+    assertEquals(1, sum.getMetadataValue("a"));
+
+    IToolResult product = engine.executeTool("multiply", Map.of("x", 3L, "y", 4L));
+    assertEquals(12L, product.getMetadataValue("result"));
+    assertEquals(3L, product.getMetadataValue("x"));
+
+    IToolResult result = ToolResult.success("ok").withMetadata(null, "none").withMetadata("k", 1);
+    assertEquals("none", result.getMetadataValue(null));
+    assertEquals(1, result.getMetadataValue("k"));
+  }
+
+  @Test
+  void testNonStringSessionIdIsInvalidInput() {
+    IToolResult result = engine.executeTool("sum", Map.of("a", 1, "b", 2, "sessionId", 42));
+
+    assertFalse(result.isSuccess());
+    assertEquals("Invalid input parameters for tool: sum", result.getError());
+    assertEquals(1, engine.getToolStatistics("sum").getFailureCount());
+    assertEquals(0, engine.getToolStatistics("sum").getInFlight());
+  }
+
+  @Test
+  void testSumOfLongArray() {
+    long[] values = new long[10_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i + 1;
+    }
+
+    IToolResult result = engine.executeBatch("sum", values);
+
+    assertEquals("50005000", result.getData());
+    assertEquals(10_000, result.getMetadataValue("count"));
+  }
+
+  @Test
+  void testOverflowWidensToBigInteger() {
+    IToolResult sum = engine.executeBatch("sum", new long[] {Long.MAX_VALUE, Long.MAX_VALUE, 2});
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1).add(BigInteger.TWO).toString(),
+        sum.getData());
+
+    IToolResult product = engine.executeBatch("multiply", new long[] {Long.MAX_VALUE, 4, 0});
+    assertEquals("0", product.getData());
+
+    IToolResult big = engine.executeBatch("multiply", new long[] {1L << 40, 1L << 40});
+    assertEquals(BigInteger.ONE.shiftLeft(80).toString(), big.getData());
+  }
+
+  @Test
+  void testListParameterThroughExecuteTool() {
+    IToolResult sum = engine.executeTool("sum", Map.of("values", List.of(1L, 2L, 3L, 4L)));
+    assertEquals("10", sum.getData());
+
+    IToolResult product = engine.executeTool("multiply", Map.of("values", List.of(1.5, 2L, 4L)));
+    assertEquals("12", product.getData());
+
+    IToolResult invalid = engine.executeTool("sum", Map.of("values", List.of("one", "two")));
+    assertFalse(invalid.isSuccess());
+  }
+
+  @Test
+  void testSchemaDeclaresArrayItems() {
+    @SuppressWarnings("unchecked")
+    Map<String, Object> properties = (Map<String, Object>)
+        ((Map<String, Object>) engine.getToolSchema("sum").get("parameters")).get("properties");
+
+    assertEquals(Map.of("type", "array", "items", Map.of("type", "number"),
+        "description", "List of numbers to add in a single call"), properties.get("values"));
+  }
+}
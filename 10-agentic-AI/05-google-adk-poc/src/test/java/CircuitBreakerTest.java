@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.adk.tools.MultiplyTool;
+import com.arv.adk.tools.SumTool;
+import com.arv.framework.adk.impl.CircuitBreakerConfig;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolCircuitBreaker;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.interfaces.enums.CircuitState;
+import com.arv.framework.adk.interfaces.tool.IToolResult;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for tool circuit breakers and fallbacks.
+ */
+class CircuitBreakerTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final CircuitBreakerConfig config = CircuitBreakerConfig.defaults()
+      .withSlidingWindowSize(4)
+      .withMinimumNumberOfCalls(2)
+      .withFailureRateThreshold(50)
+      .withSlowCallDurationMs(100)
+      .withOpenDurationMs(1000)
+      .withPermittedCallsInHalfOpenState(1);
+
+  @Test
+  void testOpensOnFailureRateAndRecoversThroughHalfOpen() {
+    ToolCircuitBreaker breaker = new ToolCircuitBreaker("tool", config, clock::get);
+
+    breaker.onFailure(1);
+    breaker.onFailure(1);
+    assertEquals(CircuitState.OPEN, breaker.getState());
+    assertFalse(breaker.tryAcquirePermission());
+
+    clock.addAndGet(1000);
+    assertTrue(breaker.tryAcquirePermission());
+    assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+    assertFalse(breaker.tryAcquirePermission(), "Only one trial call is permitted");
+
+    breaker.onSuccess(1);
+    assertEquals(CircuitState.CLOSED, breaker.getState());
+  }
+
+  @Test
+  void testCallsAdmittedBeforeStateChangeAreIgnored() {
+    ToolCircuitBreaker breaker = new ToolCircuitBreaker("tool", config, clock::get);
+    long closed = breaker.tryAcquirePermit();
+    breaker.onFailure(1);
+    breaker.onFailure(1);
+    clock.addAndGet(1000);
+    long trial = breaker.tryAcquirePermit();
+    assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+
+    breaker.releasePermit(closed);
+    assertEquals(ToolCircuitBreaker.NO_PERMIT, breaker.tryAcquirePermit(),
+        "Releasing a closed permit must not add a trial permit");
+    breaker.onFailure(closed, 1);
+    assertEquals(CircuitState.HALF_OPEN, breaker.getState(), "A call admitted while closed is not a trial");
+
+    breaker.onSuccess(trial, 1);
+    assertEquals(CircuitState.CLOSED, breaker.getState());
+  }
+
+  @Test
+  void testMinimumNumberOfCallsFitsInWindow() {
+    assertThrows(IllegalArgumentException.class,
+        () -> CircuitBreakerConfig.defaults().withSlidingWindowSize(4).withMinimumNumberOfCalls(5));
+    assertEquals(4, CircuitBreakerConfig.defaults().withSlidingWindowSize(4).getMinimumNumberOfCalls());
+  }
+
+  @Test
+  void testOpensOnSlowCallRate() {
+    ToolCircuitBreaker breaker = new ToolCircuitBreaker("tool",
+        config.withSlowCallRateThreshold(100), clock::get);
+
+    breaker.onSuccess(150);
+    breaker.onSuccess(150);
+
+    assertEquals(CircuitState.OPEN, breaker.getState());
+  }
+
+  @Test
+  void testOpenCircuitHidesToolAndUsesFallback() {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(new MultiplyTool());
+    registry.registerTool(new SumTool());
+    ToolExecutionEngine engine = new ToolExecutionEngine(registry, ForkJoinPool.commonPool(), config);
+
+    engine.executeTool("multiply", Map.of("x", "not a number", "y", 2L));
+    engine.executeTool("multiply", Map.of("x", "not a number", "y", 2L));
+
+    assertEquals(CircuitState.OPEN, engine.getCircuitState("multiply"));
+    assertFalse(engine.getAvailableToolNames().contains("multiply"));
+    assertTrue(engine.getAvailableToolNames().contains("sum"));
+
+    IToolResult rejected = engine.executeTool("multiply", Map.of("x", 2L, "y", 3L));
+    assertFalse(rejected.isSuccess());
+
+    assertTrue(engine.setFallbackTool("multiply", "sum"));
+    IToolResult fallback = engine.executeTool("multiply", Map.of("a", 2, "b", 3));
+    assertEquals("5", fallback.getData());
+  }
+}
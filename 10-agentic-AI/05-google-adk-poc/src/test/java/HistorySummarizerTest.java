@@ -0,0 +1,131 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.arv.framework.adk.impl.HistorySummarizer;
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.impl.SummarizationConfig;
+import com.arv.framework.adk.interfaces.gemini.ILlmService;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.mockito.ArgumentCaptor;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for background summarization of session histories.
+ */
+class HistorySummarizerTest {
+
+  private static final SummarizationConfig CONFIG = SummarizationConfig.defaults()
+      .withTriggerMessages(10)
+      .withKeepRecentMessages(4);
+
+  @Test
+  void testOlderMessagesAreFoldedIntoRollingSummary() {
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenReturn("first summary", "second summary");
+    List<Runnable> queued = new ArrayList<>();
+    Executor executor = queued::add;
+    HistorySummarizer summarizer = new HistorySummarizer(llm, CONFIG, executor);
+    SimpleSessionManager manager = new SimpleSessionManager().withHistorySummarizer(summarizer);
+    manager.createSession("s1");
+
+    for (int i = 0; i < 12; i++) {
+      manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "m" + i));
+    }
+    assertEquals(1, queued.size(), "A session is queued only once");
+    assertEquals(12, manager.getMessageCount("s1"), "Adding never waits for the summary");
+
+    queued.remove(0).run();
+    List<IMessage> history = manager.getSessionHistory("s1");
+    assertEquals(5, history.size());
+    assertEquals(SimpleMessage.TYPE_SUMMARY, history.get(0).getType());
+    assertEquals("first summary", history.get(0).getContent());
+    assertEquals(8, history.get(0).getMetadataValue(HistorySummarizer.SUMMARIZED_COUNT_KEY));
+    assertEquals("m8", history.get(1).getContent());
+
+    for (int i = 12; i < 17; i++) {
+      manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "m" + i));
+    }
+    queued.remove(0).run();
+    history = manager.getSessionHistory("s1");
+    assertEquals(5, history.size());
+    assertEquals("second summary", history.get(0).getContent());
+    assertEquals(13, history.get(0).getMetadataValue(HistorySummarizer.SUMMARIZED_COUNT_KEY));
+    assertEquals("m13", history.get(1).getContent());
+    verify(llm).generateResponse(contains("Summary so far: first summary"), anyMap());
+    assertEquals(2, summarizer.getCompactionCount());
+    assertEquals(0, summarizer.getPendingCount());
+  }
+
+  @Test
+  void testSummaryIsDiscardedWhenHistoryChanged() {
+    SimpleSession session = new SimpleSession("s1");
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenAnswer(invocation -> {
+      session.clearHistory();
+      session.addMessage(new SimpleMessage(SimpleMessage.SENDER_USER, "fresh"));
+      return "stale summary";
+    });
+    HistorySummarizer summarizer = new HistorySummarizer(llm, CONFIG, Runnable::run);
+    for (int i = 0; i < 10; i++) {
+      session.addMessage(new SimpleMessage(SimpleMessage.SENDER_USER, "m" + i));
+    }
+
+    assertFalse(summarizer.compact(session));
+    assertEquals(1, session.getMessageCount());
+    assertEquals("fresh", session.getMessageHistory().get(0).getContent());
+    assertEquals(0, summarizer.getCompactionCount());
+  }
+
+  @Test
+  void testErrorResponseLeavesHistoryAsIs() {
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenReturn("Error: HTTP 503");
+    HistorySummarizer summarizer = new HistorySummarizer(llm, CONFIG, Runnable::run);
+    SimpleSession session = new SimpleSession("s1");
+    for (int i = 0; i < 10; i++) {
+      session.addMessage(new SimpleMessage(SimpleMessage.SENDER_USER, "m" + i));
+    }
+
+    assertFalse(summarizer.compact(session));
+    assertEquals(10, session.getMessageCount());
+    assertEquals("m0", session.getMessageHistory().get(0).getContent());
+    assertEquals(1, summarizer.getFailureCount());
+  }
+
+  @Test
+  void testLongPromptKeepsPreviousSummary() {
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenReturn("next summary");
+    SummarizationConfig config = SummarizationConfig.defaults()
+        .withTriggerMessages(10)
+        .withKeepRecentMessages(4)
+        .withMaxPromptChars(200);
+    HistorySummarizer summarizer = new HistorySummarizer(llm, config, Runnable::run);
+    SimpleSession session = new SimpleSession("s1");
+    SimpleMessage previous = new SimpleMessage("sum", SimpleMessage.SENDER_AGENT, "PRIOR FACTS", 1L,
+        SimpleMessage.TYPE_SUMMARY);
+    session.addMessage(previous);
+    for (int i = 0; i < 9; i++) {
+      session.addMessage(new SimpleMessage(SimpleMessage.SENDER_USER, "message " + i + " " + "x".repeat(40)));
+    }
+
+    assertTrue(summarizer.compact(session));
+    ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+    verify(llm).generateResponse(prompt.capture(), anyMap());
+    assertTrue(prompt.getValue().contains("Summary so far: PRIOR FACTS"));
+    assertFalse(prompt.getValue().contains("message 0 "), "The oldest verbatim message is cut");
+    assertTrue(prompt.getValue().contains("message 4 "));
+  }
+}
@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.framework.adk.impl.SessionExpiryConfig;
+import com.arv.framework.adk.impl.SessionExpiryTracker;
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.persistence.OffHeapArena;
+import com.arv.framework.adk.persistence.OffHeapSessionManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for off-heap passivation of idle sessions.
+ */
+class OffHeapSessionTest {
+
+  @Test
+  void testIdleSessionIsPassivatedAndRestoredOnUse() {
+    SessionExpiryTracker tracker = new SessionExpiryTracker(SessionExpiryConfig.defaults()
+        .withIdleTimeoutMs(1000)
+        .withIdleExpiryMs(0)
+        .withTickMs(100));
+    OffHeapSessionManager manager = new OffHeapSessionManager();
+    manager.withSessionExpiry(tracker);
+
+    ISession session = manager.createSession("s1");
+    manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "hello"));
+    manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_AGENT, "hi"));
+    manager.updateSessionContext("s1", Map.of("city", "Pune"));
+
+    tracker.advanceTo(session.getLastActivityAt() + 1500);
+    assertEquals(SessionState.IDLE, session.getState());
+    assertTrue(manager.isPassivated("s1"));
+    assertEquals(0, session.getMessageCount(), "History should be off the heap");
+    assertTrue(session.getContext().isEmpty());
+    assertTrue(manager.getArena().getUsedBytes() > 0);
+
+    assertEquals(List.of("hello", "hi"), contents(manager.getSessionHistory("s1")));
+    assertEquals(Map.of("city", "Pune"), manager.getSessionContext("s1"));
+    assertFalse(manager.isPassivated("s1"));
+    assertEquals(0, manager.getArena().getUsedBytes());
+    assertEquals(SessionState.IDLE, session.getState(), "Reading does not count as activity");
+
+    manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "back"));
+    assertEquals(SessionState.ACTIVE, session.getState());
+    assertEquals(3, manager.getMessageCount("s1"));
+  }
+
+  @Test
+  void testSessionWithNonPrimitiveValuesStaysOnHeap() {
+    OffHeapSessionManager manager = new OffHeapSessionManager();
+    manager.createSession("s1");
+    manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "hello"));
+    Duration timeout = Duration.ofSeconds(30);
+    manager.updateSessionContext("s1", Map.of("timeout", timeout, "ratio", 0.5f));
+
+    assertFalse(manager.passivate("s1"));
+    assertFalse(manager.isPassivated("s1"));
+    assertEquals(timeout, manager.getSessionContext("s1").get("timeout"));
+    assertEquals(0.5f, manager.getSessionContext("s1").get("ratio"));
+
+    manager.updateSessionContext("s1", Map.of("timeout", 30_000L, "ratio", 0.5,
+        "tags", List.of("a", Map.of("b", 1))));
+    assertTrue(manager.passivate("s1"));
+    assertEquals(Map.of("timeout", 30_000L, "ratio", 0.5, "tags", List.of("a", Map.of("b", 1))),
+        manager.getSessionContext("s1"));
+  }
+
+  @Test
+  void testArenaAccountingAndLimit() {
+    OffHeapArena arena = new OffHeapArena(64, 128);
+    OffHeapArena.Block first = arena.store(new byte[] {1, 2, 3});
+    OffHeapArena.Block second = arena.store(new byte[62]);
+    assertEquals(2, arena.getChunkCount());
+    assertEquals(128, arena.getReservedBytes());
+    assertEquals(65, arena.getUsedBytes());
+    assertNull(arena.store(new byte[10]), "Arena is at its limit");
+
+    assertArrayEquals(new byte[] {1, 2, 3}, arena.read(first));
+    arena.free(first);
+    arena.free(first);
+    assertEquals(1, arena.getChunkCount());
+    assertEquals(62, arena.getUsedBytes());
+    arena.free(second);
+    assertEquals(1, arena.getChunkCount(), "The current chunk is kept for reuse");
+    assertEquals(0, arena.getBlockCount());
+
+    OffHeapSessionManager manager = new OffHeapSessionManager(new OffHeapArena(64, 64));
+    manager.createSession("big");
+    manager.addMessage("big", new SimpleMessage(SimpleMessage.SENDER_USER, "x".repeat(100)));
+    assertFalse(manager.passivate("big"), "Sessions that do not fit stay on the heap");
+    assertEquals(1, manager.getMessageCount("big"));
+  }
+
+  private static List<String> contents(List<IMessage> messages) {
+    return messages.stream().map(IMessage::getContent).collect(Collectors.toList());
+  }
+}
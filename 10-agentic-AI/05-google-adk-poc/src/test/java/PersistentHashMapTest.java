@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.tools.PersistentHashMap;
+import com.arv.framework.adk.tools.ToolInput;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the persistent map behind session and tool context.
+ */
+class PersistentHashMapTest {
+
+  @Test
+  void testMatchesHashMapIncludingCollisions() {
+    Random random = new Random(42);
+    Map<Object, Integer> expected = new HashMap<>();
+    PersistentHashMap<Object, Integer> map = PersistentHashMap.empty();
+    for (int i = 0; i < 20_000; i++) {
+      int n = random.nextInt(2000);
+      // "Aa" and "BB" share a hash code, so every pair of these keys collides
+      Object key = n % 3 == 0 ? "Aa".repeat(n % 4) + "BB".repeat(3 - n % 4) : (Object) n;
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.minus(key);
+      } else {
+        expected.put(key, i);
+        map = map.plus(key, i);
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    assertEquals(expected, map);
+    assertEquals(expected, new HashMap<>(map));
+    assertEquals(expected.hashCode(), map.hashCode());
+  }
+
+  @Test
+  void testVersionsAreIndependent() {
+    PersistentHashMap<String, Object> first = PersistentHashMap.<String, Object>empty().plus("a", 1);
+    PersistentHashMap<String, Object> second = first.plus("b", 2).minus("a");
+    assertEquals(Map.of("a", 1), first);
+    assertEquals(Map.of("b", 2), second);
+    assertSame(first, first.plus("a", first.get("a")));
+    assertSame(first, first.minus("missing"));
+    assertSame(first, PersistentHashMap.from(first));
+    assertThrows(UnsupportedOperationException.class, () -> first.put("c", 3));
+    assertThrows(NullPointerException.class, () -> first.plus("c", null));
+  }
+
+  @Test
+  void testSessionContextIsSharedSnapshot() {
+    SimpleSession session = new SimpleSession("s1");
+    session.updateContext(Map.of("city", "Pune", "step", 1));
+    Map<String, Object> snapshot = session.getContext();
+    assertSame(snapshot, session.getContext(), "Reads do not copy");
+
+    session.setContextValue("step", 2);
+    session.setContextValue("city", null);
+    assertEquals(Map.of("city", "Pune", "step", 1), snapshot);
+    assertEquals(Map.of("step", 2), session.getContext());
+
+    ToolInput input = new ToolInput("s1");
+    input.setContext(session.getContext());
+    assertSame(session.getContext(), input.getContext());
+    input.setContextValue("tool", "x");
+    assertEquals(Map.of("step", 2), session.getContext());
+    assertEquals(Map.of("step", 2, "tool", "x"), input.getContext());
+  }
+}
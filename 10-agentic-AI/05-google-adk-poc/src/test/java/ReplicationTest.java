@@ -0,0 +1,138 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.arv.framework.adk.cluster.LoopbackSessionTransport;
+import com.arv.framework.adk.cluster.ReplicatedSessionManager;
+import com.arv.framework.adk.cluster.ReplicationConfig;
+import com.arv.framework.adk.cluster.SessionStandby;
+import com.arv.framework.adk.impl.HistorySummarizer;
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.impl.SummarizationConfig;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.gemini.ILlmService;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for replicating sessions to hot standbys.
+ */
+class ReplicationTest {
+
+  @Test
+  void testChangesReachTheStandby() {
+    LoopbackSessionTransport transport = new LoopbackSessionTransport();
+    SessionStandby standby = new SessionStandby("b", transport, new SimpleSessionManager());
+    try (ReplicatedSessionManager primary = new ReplicatedSessionManager(transport).addStandby("b")) {
+      ISession session = primary.createSession("s1", "alice");
+      primary.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "hello"));
+      primary.updateSessionContext("s1", Map.of("lang", "en"));
+      session.transitionTo(SessionState.PROCESSING);
+      primary.createSession("s2", "bob");
+      primary.endSession("s2");
+      assertTrue(primary.awaitReplication(5000));
+
+      ISession copy = standby.getSessionManager().getSession("s1").orElseThrow();
+      assertEquals("alice", copy.getUserId());
+      assertEquals("hello", copy.getMessageHistory().get(0).getContent());
+      assertEquals("en", copy.getContext().get("lang"));
+      assertEquals(SessionState.PROCESSING, copy.getState());
+      assertFalse(standby.getSessionManager().getSession("s2").isPresent());
+      assertEquals(primary.getLastSequence(), standby.getAppliedSequence());
+    }
+  }
+
+  @Test
+  void testCompactedHistoryReachesTheStandby() {
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenReturn("the summary");
+    SummarizationConfig summarization = SummarizationConfig.defaults()
+        .withTriggerMessages(10)
+        .withKeepRecentMessages(4);
+    HistorySummarizer summarizer = new HistorySummarizer(llm, summarization, Runnable::run);
+    LoopbackSessionTransport transport = new LoopbackSessionTransport();
+    SessionStandby standby = new SessionStandby("b", transport, new SimpleSessionManager());
+    try (ReplicatedSessionManager primary = new ReplicatedSessionManager(transport).addStandby("b")) {
+      primary.withHistorySummarizer(summarizer);
+      primary.createSession("s1");
+      for (int i = 0; i < 11; i++) {
+        primary.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "m" + i));
+      }
+      assertTrue(primary.awaitReplication(5000));
+
+      assertEquals(1, summarizer.getCompactionCount());
+      List<IMessage> copy = standby.getSessionManager().getSessionHistory("s1");
+      assertEquals(List.of("the summary", "m6", "m7", "m8", "m9", "m10"),
+          copy.stream().map(IMessage::getContent).collect(Collectors.toList()));
+      assertEquals(SimpleMessage.TYPE_SUMMARY, copy.get(0).getType());
+    }
+  }
+
+  @Test
+  void testLateStandbyReceivesFullCopy() {
+    LoopbackSessionTransport transport = new LoopbackSessionTransport();
+    try (ReplicatedSessionManager primary = new ReplicatedSessionManager(transport)) {
+      for (int i = 0; i < 20; i++) {
+        primary.createSession("s" + i, "user" + (i % 3));
+        primary.addMessage("s" + i, new SimpleMessage(SimpleMessage.SENDER_USER, "m" + i));
+      }
+      SessionStandby standby = new SessionStandby("b", transport, new SimpleSessionManager());
+      primary.addStandby("b");
+      primary.addMessage("s0", new SimpleMessage(SimpleMessage.SENDER_AGENT, "reply"));
+      assertTrue(primary.awaitReplication(5000));
+
+      assertTrue(primary.getFullCopyCount() >= 1);
+      assertEquals(20, standby.getSessionManager().getSessionIds().size());
+      assertEquals(7, standby.getSessionManager().getSessionsByUser("user0").size());
+      assertEquals(2, standby.getSessionManager().getSession("s0").orElseThrow().getMessageHistory().size());
+    }
+  }
+
+  @Test
+  void testUnreachableStandbyCatchesUp() throws Exception {
+    LoopbackSessionTransport transport = new LoopbackSessionTransport();
+    SimpleSessionManager copies = new SimpleSessionManager();
+    SessionStandby standby = new SessionStandby("b", transport, copies);
+    ReplicationConfig config = ReplicationConfig.defaults().withMaxBatchRecords(4).withRetryIntervalMs(5);
+    try (ReplicatedSessionManager primary = new ReplicatedSessionManager(transport, config).addStandby("b")) {
+      primary.createSession("s1", "alice");
+      assertTrue(primary.awaitReplication(5000));
+      standby.close();
+      for (int i = 0; i < 10; i++) {
+        primary.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "m" + i));
+      }
+      assertFalse(primary.awaitReplication(100));
+
+      SessionStandby restarted = new SessionStandby("b", transport, copies);
+      assertTrue(primary.awaitReplication(5000));
+      assertEquals(10, copies.getSession("s1").orElseThrow().getMessageHistory().size());
+      assertEquals(primary.getLastSequence(), restarted.getAppliedSequence());
+    }
+  }
+
+  @Test
+  void testPromotedStandbyServesSessions() {
+    LoopbackSessionTransport transport = new LoopbackSessionTransport();
+    SessionStandby standby = new SessionStandby("b", transport, new SimpleSessionManager());
+    ReplicatedSessionManager primary = new ReplicatedSessionManager(transport).addStandby("b");
+    primary.createSession("s1", "alice");
+    primary.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "hello"));
+    assertTrue(primary.awaitReplication(5000));
+    primary.close();
+
+    SimpleSessionManager promoted = standby.promote();
+    assertTrue(promoted.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_AGENT, "hi")));
+    assertEquals(2, promoted.getSession("s1").orElseThrow().getMessageHistory().size());
+    assertThrows(IllegalStateException.class, () -> transport.send("b", new byte[] {0}));
+  }
+}
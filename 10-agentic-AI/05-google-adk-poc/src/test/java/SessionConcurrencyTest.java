@@ -0,0 +1,155 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.arv.framework.adk.impl.ConnectAgent;
+import com.arv.framework.adk.impl.SessionExpiryConfig;
+import com.arv.framework.adk.impl.SessionExpiryTracker;
+import com.arv.framework.adk.impl.SessionTurnGate;
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.enums.BusySessionPolicy;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.gemini.ILlmService;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.interfaces.tool.IToolExecutionEngine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for session state transitions and per-session turn control.
+ */
+class SessionConcurrencyTest {
+
+  @Test
+  void testStateChangesFollowLegalTransitions() {
+    SimpleSession session = new SimpleSession("s1");
+    assertTrue(session.compareAndSetState(SessionState.ACTIVE, SessionState.PROCESSING));
+    assertFalse(session.compareAndSetState(SessionState.ACTIVE, SessionState.WAITING_FOR_INPUT));
+    assertFalse(session.transitionTo(SessionState.IDLE), "A busy session cannot go idle");
+    assertTrue(session.transitionTo(SessionState.WAITING_FOR_INPUT));
+    assertTrue(session.isActive());
+    session.deactivate();
+    assertEquals(SessionState.TERMINATED, session.getState());
+    session.activate();
+    assertEquals(SessionState.TERMINATED, session.getState(), "Terminal states are final");
+
+    SessionExpiryTracker tracker = new SessionExpiryTracker(SessionExpiryConfig.defaults()
+        .withIdleTimeoutMs(1000)
+        .withIdleExpiryMs(0)
+        .withTickMs(100));
+    SimpleSession busy = new SimpleSession("s2");
+    tracker.track(busy);
+    busy.transitionTo(SessionState.PROCESSING);
+    tracker.advanceTo(busy.getLastActivityAt() + 1500);
+    assertEquals(SessionState.PROCESSING, busy.getState());
+    busy.compareAndSetState(SessionState.PROCESSING, SessionState.ACTIVE);
+    tracker.advanceTo(busy.getLastActivityAt() + 3000);
+    assertEquals(SessionState.IDLE, busy.getState());
+  }
+
+  @Test
+  void testQueuedTurnsNeverOverlap() throws Exception {
+    SessionTurnGate gate = new SessionTurnGate(BusySessionPolicy.QUEUE, 64);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Object>> results = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        String message = "m" + i;
+        results.add(pool.submit(() -> gate.process("s1", message, text -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          Thread.yield();
+          running.decrementAndGet();
+          return "re: " + text;
+        })));
+      }
+      for (int i = 0; i < 32; i++) {
+        assertEquals("re: m" + i, results.get(i).get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(1, maxRunning.get());
+    assertFalse(gate.isBusy("s1"));
+  }
+
+  @Test
+  void testBusySessionCoalescesOrRejects() throws Exception {
+    SessionTurnGate gate = new SessionTurnGate(BusySessionPolicy.COALESCE, 4);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> turns = new ArrayList<>();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      Future<Object> first = pool.submit(() -> gate.process("s1", "a", text -> {
+        await(release);
+        turns.add(text);
+        return "first";
+      }));
+      waitUntil(() -> gate.isBusy("s1"));
+      List<Future<Object>> later = new ArrayList<>();
+      for (String message : List.of("b", "c", "d")) {
+        later.add(pool.submit(() -> gate.process("s1", message, text -> {
+          turns.add(text);
+          return "merged";
+        })));
+        waitUntil(() -> gate.getQueuedCount() + gate.getCoalescedCount() == later.size());
+      }
+      release.countDown();
+      assertEquals("first", first.get(10, TimeUnit.SECONDS));
+      for (Future<Object> result : later) {
+        assertEquals("merged", result.get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(List.of("a", "b\nc\nd"), turns);
+      assertEquals(2, gate.getCoalescedCount());
+    } finally {
+      pool.shutdownNow();
+    }
+
+    SessionTurnGate rejecting = new SessionTurnGate(BusySessionPolicy.REJECT, 4);
+    Object nested = rejecting.process("s1", "a", text -> rejecting.process("s1", "b", inner -> "never"));
+    assertEquals(SessionTurnGate.BUSY_RESPONSE, nested);
+    assertEquals(1, rejecting.getRejectedCount());
+  }
+
+  @Test
+  void testAgentHoldsSessionInProcessingState() {
+    SimpleSessionManager sessions = new SimpleSessionManager();
+    ISession session = sessions.createSession("s1");
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenAnswer(invocation -> "state " + session.getState());
+    ConnectAgent agent = new ConnectAgent(llm, mock(IToolExecutionEngine.class), sessions);
+
+    assertEquals("state PROCESSING", agent.processMessage("hi", "s1"));
+    assertEquals(SessionState.ACTIVE, session.getState());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+}
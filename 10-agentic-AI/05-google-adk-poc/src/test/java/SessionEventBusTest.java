@@ -0,0 +1,141 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.framework.adk.events.SessionEventBus;
+import com.arv.framework.adk.events.SessionEventBusConfig;
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.enums.BackpressurePolicy;
+import com.arv.framework.adk.interfaces.enums.EventWaitStrategy;
+import com.arv.framework.adk.interfaces.enums.SessionEventType;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.ISession;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the session event bus.
+ */
+class SessionEventBusTest {
+
+  @Test
+  void testEveryHandlerSeesEveryEventInOrder() throws Exception {
+    for (EventWaitStrategy strategy : EventWaitStrategy.values()) {
+      SessionEventBus bus = new SessionEventBus(SessionEventBusConfig.defaults()
+          .withBufferSize(64)
+          .withWaitStrategy(strategy)
+          .withBackpressurePolicy(BackpressurePolicy.BLOCK)
+          .withMaxBatchSize(16));
+      List<Long> first = Collections.synchronizedList(new ArrayList<>());
+      List<String> second = Collections.synchronizedList(new ArrayList<>());
+      AtomicInteger batches = new AtomicInteger();
+      bus.subscribe("first", (event, sequence, endOfBatch) -> {
+        first.add(sequence);
+        if (endOfBatch) {
+          batches.incrementAndGet();
+        }
+      });
+      bus.subscribe("second", (event, sequence, endOfBatch) -> second.add(event.getToolName()));
+
+      Thread[] publishers = new Thread[4];
+      for (int p = 0; p < publishers.length; p++) {
+        String tool = "tool" + p;
+        publishers[p] = new Thread(() -> {
+          for (int i = 0; i < 500; i++) {
+            bus.publishToolExecuted("s1", tool, 10L, true);
+          }
+        });
+        publishers[p].start();
+      }
+      for (Thread publisher : publishers) {
+        publisher.join();
+      }
+      bus.close();
+
+      assertEquals(2000, bus.getPublishedCount(), strategy.name());
+      assertEquals(0, bus.getDroppedCount());
+      assertEquals(2000, first.size(), strategy.name());
+      assertEquals(2000, second.size(), strategy.name());
+      for (int i = 0; i < first.size(); i++) {
+        assertEquals(i, first.get(i).longValue());
+      }
+      assertTrue(batches.get() >= 2000 / 16, "Batches are capped by the batch size");
+    }
+  }
+
+  @Test
+  void testFullBufferDropsOrBlocks() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    SessionEventBus dropping = new SessionEventBus(SessionEventBusConfig.defaults().withBufferSize(4));
+    dropping.subscribe("slow", (event, sequence, endOfBatch) -> await(release));
+    int accepted = 0;
+    for (int i = 0; i < 10; i++) {
+      if (dropping.publishStateChanged("s1", SessionState.ACTIVE, SessionState.IDLE)) {
+        accepted++;
+      }
+    }
+    assertTrue(accepted <= 5, "At most one event in hand plus a full buffer");
+    assertEquals(10 - accepted, dropping.getDroppedCount());
+    release.countDown();
+    dropping.close();
+
+    CountDownLatch unblock = new CountDownLatch(1);
+    SessionEventBus blocking = new SessionEventBus(SessionEventBusConfig.defaults()
+        .withBufferSize(4)
+        .withBackpressurePolicy(BackpressurePolicy.BLOCK));
+    AtomicInteger handled = new AtomicInteger();
+    blocking.subscribe("slow", (event, sequence, endOfBatch) -> {
+      await(unblock);
+      handled.incrementAndGet();
+    });
+    CompletableFuture<Void> publisher = CompletableFuture.runAsync(() -> {
+      for (int i = 0; i < 10; i++) {
+        blocking.publishStateChanged("s1", SessionState.ACTIVE, SessionState.IDLE);
+      }
+    });
+    Thread.sleep(100);
+    assertFalse(publisher.isDone(), "The publisher waits for the handler");
+    unblock.countDown();
+    publisher.get(10, TimeUnit.SECONDS);
+    blocking.close();
+    assertEquals(10, handled.get());
+    assertEquals(0, blocking.getDroppedCount());
+  }
+
+  @Test
+  void testSessionManagerPublishesMessagesAndStateChanges() {
+    SessionEventBus bus = new SessionEventBus(SessionEventBusConfig.defaults()
+        .withWaitStrategy(EventWaitStrategy.BLOCKING));
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    bus.subscribe("audit", (event, sequence, endOfBatch) -> {
+      if (event.getType() == SessionEventType.MESSAGE_ADDED) {
+        events.add(event.getSessionId() + " " + event.getMessage().getContent());
+      } else {
+        events.add(event.getSessionId() + " " + event.getPreviousState() + "->" + event.getState());
+      }
+    });
+    SimpleSessionManager manager = new SimpleSessionManager().withEventBus(bus);
+    ISession session = manager.createSession("s1");
+    manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "hello"));
+    session.transitionTo(SessionState.PROCESSING);
+    manager.endSession("s1");
+    bus.close();
+
+    assertEquals(List.of("s1 hello", "s1 ACTIVE->PROCESSING", "s1 PROCESSING->TERMINATED"), events);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,131 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.framework.adk.impl.SessionExpiryConfig;
+import com.arv.framework.adk.impl.SessionExpiryTracker;
+import com.arv.framework.adk.impl.SimpleSession;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.impl.TimingWheel;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.interfaces.session.ISessionExpiryListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for timing-wheel driven session expiry.
+ */
+class SessionExpiryTest {
+
+  @Test
+  void testTimingWheelFiresOnTimeAcrossLevels() {
+    TimingWheel<Long> wheel = new TimingWheel<>(10, 0);
+    Random random = new Random(42);
+    List<TimingWheel.Timeout<Long>> cancelled = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      long deadline = 1 + random.nextInt(10_000_000);
+      TimingWheel.Timeout<Long> timeout = wheel.schedule(deadline, deadline);
+      if (i % 10 == 0) {
+        cancelled.add(timeout);
+      }
+    }
+    cancelled.forEach(wheel::cancel);
+
+    long[] now = new long[1];
+    List<Long> fired = new ArrayList<>();
+    for (now[0] = 0; now[0] <= 10_000_000; now[0] += 997) {
+      wheel.advance(now[0], timeout -> {
+        long deadline = timeout.getItem();
+        assertTrue(deadline <= now[0], "Fired early");
+        assertTrue(deadline > now[0] - 997 - 10, "Fired late");
+        fired.add(deadline);
+      });
+    }
+
+    assertEquals(1800, fired.size());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void testSessionsGoIdleThenExpire() {
+    SessionExpiryTracker tracker = new SessionExpiryTracker(SessionExpiryConfig.defaults()
+        .withIdleTimeoutMs(1000)
+        .withIdleExpiryMs(5000)
+        .withTickMs(100));
+    SimpleSessionManager manager = new SimpleSessionManager().withSessionExpiry(tracker);
+    List<String> events = new ArrayList<>();
+    tracker.addListener(new ISessionExpiryListener() {
+      @Override
+      public void onSessionIdle(ISession session) {
+        events.add("idle:" + session.getId());
+      }
+
+      @Override
+      public void onSessionExpired(ISession session) {
+        events.add("expired:" + session.getId());
+      }
+    });
+
+    ISession session = manager.createSession("s1");
+    long start = session.getLastActivityAt();
+
+    tracker.advanceTo(start + 500);
+    assertEquals(SessionState.ACTIVE, session.getState());
+
+    tracker.advanceTo(start + 1200);
+    assertEquals(SessionState.IDLE, session.getState());
+    assertTrue(manager.getSession("s1").isPresent());
+
+    assertEquals(1, tracker.advanceTo(start + 6200));
+    assertEquals(SessionState.EXPIRED, session.getState());
+    assertFalse(manager.getSession("s1").isPresent());
+    assertEquals(List.of("idle:s1", "expired:s1"), events);
+    assertEquals(0, tracker.getTrackedCount());
+  }
+
+  @Test
+  void testLongTurnIsNotExpiredMidTurn() {
+    SessionExpiryTracker tracker = new SessionExpiryTracker(SessionExpiryConfig.defaults()
+        .withIdleTimeoutMs(1000)
+        .withIdleExpiryMs(1000)
+        .withTickMs(100));
+    SimpleSessionManager manager = new SimpleSessionManager().withSessionExpiry(tracker);
+    ISession session = manager.createSession("s1");
+    long start = session.getLastActivityAt();
+    assertTrue(session.transitionTo(SessionState.PROCESSING));
+
+    assertEquals(0, tracker.advanceTo(start + 1500));
+    assertEquals(0, tracker.advanceTo(start + 3000));
+    assertEquals(SessionState.PROCESSING, session.getState());
+    assertTrue(manager.getSession("s1").isPresent());
+
+    // The turn ends and counts as activity
+    ((SimpleSession) session).restoreTimestamps(session.getCreatedAt(), start + 3000);
+    assertTrue(session.compareAndSetState(SessionState.PROCESSING, SessionState.ACTIVE));
+    assertEquals(0, tracker.advanceTo(start + 4200));
+    assertEquals(SessionState.IDLE, session.getState());
+    assertEquals(1, tracker.advanceTo(start + 5200));
+    assertEquals(SessionState.EXPIRED, session.getState());
+    assertFalse(manager.getSession("s1").isPresent());
+  }
+
+  @Test
+  void testLifetimeExpiresActiveSessionsAndEndedSessionsAreUntracked() {
+    SessionExpiryTracker tracker = new SessionExpiryTracker(SessionExpiryConfig.defaults()
+        .withMaxLifetimeMs(2000)
+        .withTickMs(100));
+    SimpleSessionManager manager = new SimpleSessionManager().withSessionExpiry(tracker);
+
+    ISession kept = manager.createSession("kept");
+    manager.createSession("ended");
+    manager.endSession("ended");
+    assertEquals(1, tracker.getTrackedCount());
+
+    assertEquals(1, tracker.advanceTo(kept.getCreatedAt() + 2100));
+    assertEquals(SessionState.EXPIRED, kept.getState());
+    assertFalse(manager.getSession("kept").isPresent());
+  }
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.arv.framework.adk.impl.MessageRingBuffer;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the bounded session message history.
+ */
+class SessionHistoryTest {
+
+  @Test
+  void testRecentMessagesAndArchiveOnOverflow() {
+    List<String> archived = new ArrayList<>();
+    SimpleSessionManager manager = new SimpleSessionManager()
+        .withHistoryCapacity(3)
+        .withMessageArchive((sessionId, message) -> archived.add(sessionId + ":" + message.getContent()));
+    manager.createSession("s1");
+
+    for (int i = 1; i <= 5; i++) {
+      manager.addMessage("s1", message("m" + i));
+    }
+
+    assertEquals(List.of("m3", "m4", "m5"), contents(manager.getSessionHistory("s1")));
+    assertEquals(List.of("m4", "m5"), contents(manager.getRecentMessages("s1", 2)));
+    assertEquals(List.of("m3", "m4", "m5"), contents(manager.getRecentMessages("s1", 10)));
+    assertEquals(List.of("s1:m1", "s1:m2"), archived);
+    assertEquals(3, manager.getMessageCount("s1"));
+
+    manager.clearHistory("s1");
+    assertTrue(manager.getSessionHistory("s1").isEmpty());
+    manager.addMessage("s1", message("m6"));
+    assertEquals(List.of("m6"), contents(manager.getSessionHistory("s1")));
+    assertEquals(2, archived.size(), "Cleared messages are not archived");
+  }
+
+  @Test
+  void testReadersSeeConsistentSuffixWhileWriterAppends() throws InterruptedException {
+    int capacity = 8;
+    IMessage[] messages = new IMessage[10_000];
+    for (int i = 0; i < messages.length; i++) {
+      messages[i] = message(String.valueOf(i));
+    }
+    MessageRingBuffer buffer = new MessageRingBuffer(capacity);
+    AtomicBoolean broken = new AtomicBoolean();
+
+    Thread writer = new Thread(() -> {
+      for (IMessage message : messages) {
+        buffer.append(message);
+      }
+    });
+    writer.start();
+    while (writer.isAlive()) {
+      List<IMessage> recent = buffer.recent(5);
+      for (int i = 1; i < recent.size(); i++) {
+        int previous = Integer.parseInt(recent.get(i - 1).getContent());
+        if (Integer.parseInt(recent.get(i).getContent()) != previous + 1) {
+          broken.set(true);
+        }
+      }
+    }
+    writer.join();
+
+    assertFalse(broken.get(), "Readers must only see consecutive messages");
+    assertEquals(List.of("9998", "9999"), contents(buffer.recent(2)));
+  }
+
+  private static IMessage message(String content) {
+    IMessage message = mock(IMessage.class);
+    when(message.getContent()).thenReturn(content);
+    return message;
+  }
+
+  private static List<String> contents(List<IMessage> messages) {
+    return messages.stream().map(IMessage::getContent).collect(Collectors.toList());
+  }
+}
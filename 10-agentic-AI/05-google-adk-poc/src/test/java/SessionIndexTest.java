@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.persistence.SessionTierConfig;
+import com.arv.framework.adk.persistence.TieredSessionManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the session indexes by user and state.
+ */
+class SessionIndexTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testIndexesFollowUserAndStateChanges() {
+    SimpleSessionManager manager = new SimpleSessionManager();
+    manager.createSession("s1", "alice");
+    manager.createSession("s2", "alice");
+    ISession s3 = manager.createSession("s3", "bob");
+    manager.createSession("s4");
+
+    assertEquals(Set.of("s1", "s2"), ids(manager.getSessionsByUser("alice")));
+    assertEquals(4, manager.getSessionCount(SessionState.ACTIVE));
+
+    s3.transitionTo(SessionState.PROCESSING);
+    s3.setUserId("alice");
+    assertEquals(3, manager.getSessionCount(SessionState.ACTIVE));
+    assertEquals(Set.of("s3"), ids(manager.getSessionsByState(SessionState.PROCESSING)));
+    assertEquals(List.of(), manager.getSessionsByUser("bob"));
+    assertEquals(4, manager.getActiveSessions().size());
+
+    assertEquals(3, manager.endSessionsByUser("alice"));
+    assertEquals(Set.of("s4"), ids(manager.getActiveSessions()));
+    assertEquals(0, manager.getSessionCount(SessionState.TERMINATED), "Ended sessions are removed");
+    assertFalse(s3.isActive());
+
+    ISession s4 = manager.getSession("s4").orElseThrow();
+    s4.setState(SessionState.ERROR);
+    assertEquals(1, manager.cleanupExpiredSessions());
+    assertEquals(0, manager.getSessionCount(SessionState.ERROR));
+
+    ISession replaced = manager.createSession("s5", "carol");
+    manager.createSession("s5", "dave");
+    replaced.setState(SessionState.PAUSED);
+    assertEquals(0, manager.getSessionCount(SessionState.PAUSED), "A replaced session is not indexed");
+    assertEquals(List.of(), manager.getSessionsByUser("carol"));
+    assertEquals(Set.of("s5"), ids(manager.getSessionsByUser("dave")));
+  }
+
+  @Test
+  void testSpilledSessionsStayIndexed() throws IOException {
+    TieredSessionManager manager = new TieredSessionManager(directory,
+        SessionTierConfig.defaults().withMaxHotSessions(1));
+    manager.createSession("s1", "alice");
+    manager.createSession("s2", "alice");
+    manager.createSession("s3", "bob");
+
+    assertTrue(manager.isSpilled("s1"));
+    assertEquals(3, manager.getSessionCount(SessionState.ACTIVE));
+    assertEquals(Set.of("s1", "s2"), ids(manager.getSessionsByUser("alice")));
+    assertEquals(3, manager.getActiveSessions().size());
+
+    assertEquals(2, manager.endSessionsByUser("alice"));
+    assertEquals(1, manager.getSessionCount(SessionState.ACTIVE));
+    assertEquals(Set.of("s3"), ids(manager.getActiveSessions()));
+  }
+
+  private static Set<String> ids(List<ISession> sessions) {
+    return sessions.stream().map(ISession::getId).collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,183 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.arv.framework.adk.impl.HistorySummarizer;
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.impl.SummarizationConfig;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.gemini.ILlmService;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.interfaces.session.ISession;
+import com.arv.framework.adk.persistence.JournalConfig;
+import com.arv.framework.adk.persistence.JournaledSessionManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the journaled session manager.
+ */
+class SessionJournalTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testSessionsSurviveRestart() throws IOException {
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory)) {
+      manager.createSession("s1", "alice");
+      manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "hello"));
+      manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_AGENT, "hi there"));
+      manager.updateSessionContext("s1", Map.of("city", "Pune", "turns", 2));
+      manager.setSessionState("s1", SessionState.WAITING_FOR_INPUT);
+      manager.createSession("s2");
+      manager.endSession("s2");
+    }
+
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory)) {
+      ISession session = manager.getSession("s1").orElseThrow();
+      assertEquals("alice", session.getUserId());
+      assertEquals(List.of("hello", "hi there"), contents(session.getMessageHistory()));
+      assertTrue(session.getMessageHistory().get(0).isFromUser());
+      assertEquals(Map.of("city", "Pune", "turns", 2), session.getContext());
+      assertEquals(SessionState.WAITING_FOR_INPUT, session.getState());
+      assertFalse(manager.getSession("s2").isPresent());
+    }
+  }
+
+  @Test
+  void testSnapshotCompactsJournalAndTornTailIsDiscarded() throws IOException {
+    JournalConfig config = JournalConfig.defaults()
+        .withSegmentSizeBytes(4096)
+        .withSnapshotEveryRecords(0);
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory, config)) {
+      manager.createSession("s1");
+      for (int i = 0; i < 200; i++) {
+        manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "message " + i));
+      }
+      int segmentsBefore = manager.getJournal().getSegmentCount();
+      manager.snapshot();
+      manager.snapshot();
+      assertTrue(manager.getJournal().getSegmentCount() < segmentsBefore, "Snapshot should drop covered segments");
+      manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "after snapshot"));
+      manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "torn"));
+    }
+
+    corruptLastRecord();
+
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory, config)) {
+      List<String> history = contents(manager.getSessionHistory("s1"));
+      assertEquals(201, history.size());
+      assertEquals("message 0", history.get(0));
+      assertEquals("after snapshot", history.get(200));
+      manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "resumed"));
+    }
+
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory, config)) {
+      List<String> history = contents(manager.getSessionHistory("s1"));
+      assertEquals(List.of("after snapshot", "resumed"), history.subList(200, 202));
+    }
+  }
+
+  @Test
+  void testCompactedHistorySurvivesRestart() throws IOException {
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenReturn("the summary");
+    SummarizationConfig summarization = SummarizationConfig.defaults()
+        .withTriggerMessages(10)
+        .withKeepRecentMessages(4);
+    HistorySummarizer summarizer = new HistorySummarizer(llm, summarization, Runnable::run);
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory)) {
+      manager.withHistorySummarizer(summarizer);
+      manager.createSession("s1");
+      for (int i = 0; i < 11; i++) {
+        manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "m" + i));
+      }
+      assertEquals(1, summarizer.getCompactionCount());
+    }
+
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory)) {
+      List<IMessage> history = manager.getSessionHistory("s1");
+      assertEquals(List.of("the summary", "m6", "m7", "m8", "m9", "m10"), contents(history));
+      assertEquals(SimpleMessage.TYPE_SUMMARY, history.get(0).getType());
+    }
+  }
+
+  @Test
+  void testSessionsCreatedDuringSnapshotsAreRecovered() throws Exception {
+    JournalConfig config = JournalConfig.defaults()
+        .withSegmentSizeBytes(4096)
+        .withSnapshotEveryRecords(0);
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory, config)) {
+      ExecutorService pool = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+          String prefix = "w" + w + "-";
+          writers.add(pool.submit(() -> {
+            for (int i = 0; i < 100; i++) {
+              manager.createSession(prefix + i);
+              manager.addMessage(prefix + i, new SimpleMessage(SimpleMessage.SENDER_USER, "hello " + i));
+            }
+          }));
+        }
+        for (Future<?> writer : writers) {
+          while (!writer.isDone()) {
+            manager.snapshot();
+          }
+          writer.get(10, TimeUnit.SECONDS);
+        }
+      } finally {
+        pool.shutdownNow();
+      }
+    }
+
+    try (JournaledSessionManager manager = new JournaledSessionManager(directory, config)) {
+      assertEquals(400, manager.getSessionIds().size());
+      for (int w = 0; w < 4; w++) {
+        for (int i = 0; i < 100; i++) {
+          assertEquals(List.of("hello " + i), contents(manager.getSessionHistory("w" + w + "-" + i)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Overwrites the tail of the newest journal record, as a crash mid-write would.
+   */
+  private void corruptLastRecord() throws IOException {
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.filter(path -> path.toString().endsWith(".journal"))
+          .max(Path::compareTo)
+          .orElseThrow();
+    }
+    byte[] bytes = Files.readAllBytes(segment);
+    int end = bytes.length - 1;
+    while (bytes[end] == 0) {
+      end--;
+    }
+    bytes[end] ^= 0x5A;
+    Files.write(segment, bytes);
+  }
+
+  private static List<String> contents(List<IMessage> messages) {
+    return messages.stream().map(IMessage::getContent).collect(Collectors.toList());
+  }
+}
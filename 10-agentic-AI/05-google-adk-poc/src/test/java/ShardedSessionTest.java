@@ -0,0 +1,227 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.framework.adk.cluster.ConsistentHashRing;
+import com.arv.framework.adk.cluster.LoopbackSessionTransport;
+import com.arv.framework.adk.cluster.ShardedSessionManager;
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.interfaces.cluster.ISessionTransport;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.ISession;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for consistent-hash session sharding.
+ */
+class ShardedSessionTest {
+
+  @Test
+  void testRingMovesOnlyKeysOfChangedNode() {
+    ConsistentHashRing ring = ConsistentHashRing.of(128, List.of("a", "b", "c"));
+    ConsistentHashRing grown = ring.withNode("d");
+    Map<String, Integer> counts = new HashMap<>();
+    int moved = 0;
+    for (int i = 0; i < 10_000; i++) {
+      String key = "session-" + i;
+      String before = ring.ownerOf(key);
+      String after = grown.ownerOf(key);
+      counts.merge(after, 1, Integer::sum);
+      if (!before.equals(after)) {
+        assertEquals("d", after, "Keys only move to the new node");
+        moved++;
+      }
+    }
+    assertTrue(moved > 1500 && moved < 3500, "About a quarter of the keys move: " + moved);
+    counts.values().forEach(count -> assertTrue(count > 1500 && count < 3500, "Balanced: " + counts));
+    assertEquals(ring.getNodes(), grown.withoutNode("d").getNodes());
+  }
+
+  @Test
+  void testSessionsAreRoutedAndRebalanced() {
+    LoopbackSessionTransport transport = new LoopbackSessionTransport();
+    List<ShardedSessionManager> nodes = new ArrayList<>();
+    for (String id : List.of("a", "b", "c")) {
+      nodes.add(new ShardedSessionManager(id, transport));
+    }
+    for (ShardedSessionManager node : nodes) {
+      node.setNodes(List.of("a", "b", "c"));
+    }
+    ShardedSessionManager entry = nodes.get(0);
+    for (int i = 0; i < 300; i++) {
+      entry.createSession("s" + i, "user" + i);
+      entry.addMessage("s" + i, new SimpleMessage(SimpleMessage.SENDER_USER, "hello " + i));
+      entry.updateSessionContext("s" + i, Map.of("n", i));
+    }
+    for (ShardedSessionManager node : nodes) {
+      for (String sessionId : node.getLocalSessionManager().getSessionIds()) {
+        assertEquals(node.getNodeId(), node.getOwner(sessionId));
+      }
+    }
+    assertEquals("hello 7", nodes.get(1).getSessionHistory("s7").get(0).getContent());
+    assertEquals(300, nodes.get(2).getActiveSessions().size());
+
+    ShardedSessionManager added = new ShardedSessionManager("d", transport);
+    added.setNodes(List.of("a", "b", "c", "d"));
+    long moved = 0;
+    for (ShardedSessionManager node : nodes) {
+      moved += node.addNode("d");
+    }
+    nodes.add(added);
+    assertEquals(moved, added.getLocalSessionManager().getSessionIds().size());
+    assertTrue(moved > 30 && moved < 130, "About a quarter of the sessions move: " + moved);
+
+    moved = nodes.get(1).leave();
+    for (ShardedSessionManager node : nodes) {
+      node.removeNode("b");
+    }
+    assertTrue(moved > 0);
+    assertTrue(nodes.get(1).getLocalSessionManager().getSessionIds().isEmpty());
+    for (int i = 0; i < 300; i++) {
+      assertEquals(1, added.getMessageCount("s" + i));
+      assertEquals(i, entry.getSessionContext("s" + i).get("n"));
+      assertEquals("user" + i, nodes.get(2).getSession("s" + i).get().getUserId());
+    }
+    assertTrue(entry.endSession("s7"));
+    assertFalse(added.getSession("s7").isPresent());
+  }
+
+  @Test
+  void testNodesHandingSessionsToEachOtherDoNotDeadlock() throws Exception {
+    CyclicBarrier bothSending = new CyclicBarrier(2);
+    AtomicInteger sends = new AtomicInteger();
+    ISessionTransport transport = new DelegatingTransport(new LoopbackSessionTransport()) {
+      @Override
+      public byte[] send(String nodeId, byte[] request) {
+        if (sends.getAndIncrement() < 2) {
+          try {
+            bothSending.await(5, TimeUnit.SECONDS);
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        }
+        return super.send(nodeId, request);
+      }
+    };
+    ShardedSessionManager a = new ShardedSessionManager("a", transport);
+    ShardedSessionManager b = new ShardedSessionManager("b", transport);
+    ConsistentHashRing both = a.getRing().withNode("b");
+    String toB = null;
+    String toA = null;
+    for (int i = 0; toA == null; i++) {
+      String sessionId = "s" + i;
+      if (toB == null && both.ownerOf(sessionId).equals("b")) {
+        toB = sessionId;
+      } else if (toB != null && both.ownerOf(sessionId).equals("a") && stripe(sessionId) == stripe(toB)) {
+        toA = sessionId;
+      }
+    }
+    a.createSession(toB);
+    b.createSession(toA);
+
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      Future<Integer> fromA = pool.submit(() -> a.setNodes(List.of("a", "b")));
+      Future<Integer> fromB = pool.submit(() -> b.setNodes(List.of("a", "b")));
+      assertEquals(1, fromA.get(10, TimeUnit.SECONDS));
+      assertEquals(1, fromB.get(10, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(List.of(toB), b.getLocalSessionManager().getSessionIds());
+    assertEquals(List.of(toA), a.getLocalSessionManager().getSessionIds());
+  }
+
+  @Test
+  void testHandedOverSessionIsNotEnded() {
+    LoopbackSessionTransport transport = new LoopbackSessionTransport();
+    ShardedSessionManager a = new ShardedSessionManager("a", transport);
+    ShardedSessionManager b = new ShardedSessionManager("b", transport);
+    b.setNodes(List.of("a", "b"));
+    String moving = null;
+    for (int i = 0; moving == null; i++) {
+      if (b.getRing().ownerOf("s" + i).equals("b")) {
+        moving = "s" + i;
+      }
+    }
+    ISession session = a.createSession(moving);
+
+    assertEquals(1, a.addNode("b"));
+    assertTrue(a.getLocalSessionManager().getSessionIds().isEmpty());
+    assertEquals(SessionState.ACTIVE, session.getState(), "The local copy is dropped, not ended");
+    assertTrue(b.isSessionActive(moving));
+  }
+
+  @Test
+  void testSessionChangedDuringHandOverIsSentAgain() {
+    AtomicInteger sends = new AtomicInteger();
+    List<ShardedSessionManager> nodes = new ArrayList<>();
+    String[] moving = new String[1];
+    ISessionTransport transport = new DelegatingTransport(new LoopbackSessionTransport()) {
+      @Override
+      public byte[] send(String nodeId, byte[] request) {
+        byte[] response = super.send(nodeId, request);
+        if (sends.getAndIncrement() == 0) {
+          nodes.get(0).addMessage(moving[0], new SimpleMessage(SimpleMessage.SENDER_USER, "late"));
+        }
+        return response;
+      }
+    };
+    ShardedSessionManager a = new ShardedSessionManager("a", transport);
+    ShardedSessionManager b = new ShardedSessionManager("b", transport);
+    nodes.add(a);
+    b.setNodes(List.of("a", "b"));
+    ConsistentHashRing both = b.getRing();
+    for (int i = 0; moving[0] == null; i++) {
+      if (both.ownerOf("s" + i).equals("b")) {
+        moving[0] = "s" + i;
+      }
+    }
+    a.createSession(moving[0]);
+
+    assertEquals(1, a.addNode("b"));
+    assertTrue(a.getLocalSessionManager().getSessionIds().isEmpty());
+    assertEquals("late", b.getLocalSessionManager().getSessionHistory(moving[0]).get(0).getContent());
+  }
+
+  private static int stripe(String sessionId) {
+    return (sessionId.hashCode() & Integer.MAX_VALUE) % 64;
+  }
+
+  /**
+   * Transport that forwards to another, for tests to intercept requests.
+   */
+  private static class DelegatingTransport implements ISessionTransport {
+    private final ISessionTransport delegate;
+
+    DelegatingTransport(ISessionTransport delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void bind(String nodeId, UnaryOperator<byte[]> handler) {
+      delegate.bind(nodeId, handler);
+    }
+
+    @Override
+    public void unbind(String nodeId) {
+      delegate.unbind(nodeId);
+    }
+
+    @Override
+    public byte[] send(String nodeId, byte[] request) {
+      return delegate.send(nodeId, request);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.persistence.SessionCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the compact message implementation.
+ */
+class SimpleMessageTest {
+
+  @Test
+  void testIdsAndInternedFields() {
+    String uuid = UUID.randomUUID().toString();
+    SimpleMessage message = new SimpleMessage(uuid, new String("user"), "hi", 5L, new String("text"));
+    assertEquals(uuid, message.getId());
+    assertSame(SimpleMessage.SENDER_USER, message.getSender());
+    assertSame(SimpleMessage.TYPE_TEXT, message.getType());
+    assertTrue(message.isFromUser());
+    assertEquals("msg-1", new SimpleMessage("msg-1", "agent", "x", 1L, "text").getId());
+    assertEquals("ABCDEFAB-0000-0000-0000-000000000000",
+        new SimpleMessage("ABCDEFAB-0000-0000-0000-000000000000", "agent", "x", 1L, "text").getId());
+  }
+
+  @Test
+  void testMetadataIsLazyAndUnboxed() {
+    SimpleMessage message = new SimpleMessage(SimpleMessage.SENDER_AGENT, "done");
+    assertTrue(message.getMetadata().isEmpty());
+    assertNull(message.getMetadataValue("tokens"));
+    message.setLongMetadata("tokens", 42);
+    message.setDoubleMetadata("score", 0.5);
+    message.setMetadataValue("model", "gemini");
+    assertEquals(42L, message.getLongMetadata("tokens", -1));
+    assertEquals(0.5, message.getDoubleMetadata("score", 0), 0.0);
+    assertEquals(-1L, message.getLongMetadata("missing", -1));
+    assertEquals(Map.of("tokens", 42L, "score", 0.5, "model", "gemini"), message.getMetadata());
+    message.setMetadataValue("model", null);
+    assertFalse(message.getMetadata().containsKey("model"));
+  }
+
+  @Test
+  void testContentCompactionAndCodecRoundTrip() throws IOException {
+    String text = "The user said “please retry” — " + "x".repeat(200);
+    SimpleMessage message = new SimpleMessage(SimpleMessage.SENDER_USER, text);
+    message.setLongMetadata("attempt", 2);
+    assertFalse(message.isContentCompacted());
+    message.compactContent();
+    assertTrue(message.isContentCompacted());
+    assertEquals(text, message.getContent());
+    assertEquals(text.length(), message.getLength());
+    assertFalse(new SimpleMessage(SimpleMessage.SENDER_USER, "plain café").compactContent()
+        .isContentCompacted(), "Latin-1 text is already one byte per character");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    SessionCodec.writeMessage(new DataOutputStream(bytes), message);
+    IMessage copy = SessionCodec.readMessage(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertTrue(((SimpleMessage) copy).isContentCompacted());
+    assertEquals(text, copy.getContent());
+    assertEquals(text.length(), copy.getLength());
+    assertEquals(message.getId(), copy.getId());
+    assertSame(SimpleMessage.SENDER_USER, copy.getSender());
+    assertEquals(2L, copy.getMetadataValue("attempt"));
+
+    String emoji = "ok 👍";
+    IMessage decoded = SimpleMessage.fromUtf8("m", "user", emoji.getBytes("UTF-8"), 1L, "text");
+    assertEquals(emoji, decoded.getContent());
+    assertEquals(emoji.length(), decoded.getLength());
+  }
+}
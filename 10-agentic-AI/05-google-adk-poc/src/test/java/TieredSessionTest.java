@@ -0,0 +1,94 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.framework.adk.impl.SimpleMessage;
+import com.arv.framework.adk.interfaces.enums.SessionState;
+import com.arv.framework.adk.interfaces.session.IMessage;
+import com.arv.framework.adk.metrics.SessionTierStatistics;
+import com.arv.framework.adk.persistence.SessionTierConfig;
+import com.arv.framework.adk.persistence.TieredSessionManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the tiered session manager.
+ */
+class TieredSessionTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testLeastRecentlyUsedSessionsSpillAndReload() throws IOException {
+    TieredSessionManager manager = new TieredSessionManager(directory,
+        SessionTierConfig.defaults().withMaxHotSessions(2));
+    manager.createSession("s1", "alice");
+    manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_USER, "hello"));
+    manager.updateSessionContext("s1", Map.of("city", "Pune"));
+    manager.createSession("s2");
+    manager.createSession("s3");
+
+    assertTrue(manager.isSpilled("s1"));
+    assertTrue(manager.isSessionActive("s1"));
+    assertEquals(2, manager.getStatistics().getHotSessionCount());
+
+    assertTrue(manager.addMessage("s1", new SimpleMessage(SimpleMessage.SENDER_AGENT, "hi")));
+    assertFalse(manager.isSpilled("s1"));
+    assertTrue(manager.isSpilled("s2"), "s2 is now the least recently used");
+    assertEquals(List.of("hello", "hi"), contents(manager.getSessionHistory("s1")));
+    assertEquals(Map.of("city", "Pune"), manager.getSessionContext("s1"));
+    assertEquals("alice", manager.getSession("s1").orElseThrow().getUserId());
+
+    assertEquals(3, manager.getActiveSessions().size());
+    assertTrue(manager.endSession("s3"));
+    assertFalse(manager.getSession("s3").isPresent());
+    assertFalse(manager.getSession("missing").isPresent());
+
+    SessionTierStatistics statistics = manager.getStatistics();
+    assertTrue(statistics.getDiskHits() >= 2);
+    assertEquals(2, statistics.getDiskMisses());
+    assertTrue(statistics.getEvictions() >= 2);
+    assertTrue(statistics.getHotHits() > 0);
+  }
+
+  @Test
+  void testByteLimitEvictsLargeSessions() throws IOException {
+    TieredSessionManager manager = new TieredSessionManager(directory,
+        SessionTierConfig.defaults().withMaxHotBytes(20_000));
+    manager.createSession("big");
+    for (int i = 0; i < 10; i++) {
+      manager.addMessage("big", new SimpleMessage(SimpleMessage.SENDER_USER, "x".repeat(1000)));
+    }
+    manager.createSession("small");
+    manager.addMessage("small", new SimpleMessage(SimpleMessage.SENDER_USER, "x".repeat(1000)));
+
+    assertTrue(manager.isSpilled("big"));
+    assertTrue(manager.getStatistics().getHotEstimatedBytes() <= 20_000);
+    assertEquals(10, manager.getMessageCount("big"));
+    assertTrue(manager.endSession("small"));
+  }
+
+  @Test
+  void testSpilledSessionMidTurnIsActiveAndKept() throws IOException {
+    TieredSessionManager manager = new TieredSessionManager(directory,
+        SessionTierConfig.defaults().withMaxHotSessions(1));
+    assertTrue(manager.createSession("busy").transitionTo(SessionState.PROCESSING));
+    manager.createSession("other");
+
+    assertTrue(manager.isSpilled("busy"));
+    assertTrue(manager.isSessionActive("busy"));
+    assertEquals(0, manager.cleanupExpiredSessions());
+    assertTrue(manager.isSpilled("busy"));
+    assertEquals(SessionState.PROCESSING, manager.getSession("busy").orElseThrow().getState());
+  }
+
+  private static List<String> contents(List<IMessage> messages) {
+    return messages.stream().map(IMessage::getContent).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,134 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.adk.tools.MultiplyTool;
+import com.arv.adk.tools.SumTool;
+import com.arv.framework.adk.impl.CircuitBreakerConfig;
+import com.arv.framework.adk.impl.ServiceLoaderToolFactory;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.interfaces.enums.ToolCategory;
+import com.arv.framework.adk.interfaces.tool.ITool;
+import com.arv.framework.adk.interfaces.tool.IToolMetadata;
+import com.arv.framework.adk.interfaces.tool.IToolResult;
+import com.arv.framework.adk.tools.AbstractToolCreator;
+import com.arv.framework.adk.tools.ToolInput;
+import com.arv.framework.adk.tools.ToolMetadata;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for ServiceLoader tool discovery and lazy tool creation.
+ */
+class ToolFactoryTest {
+
+  private final ServiceLoaderToolFactory factory = new ServiceLoaderToolFactory();
+
+  @Test
+  void testDiscoversBuiltInTools() {
+    assertTrue(factory.getAvailableToolTypes().containsAll(
+        List.of("sum", "multiply", "wikipedia_search", "google_search", "calculator")));
+    assertEquals("Wikipedia Search", factory.getToolMetadata("wikipedia_search").getName());
+    assertEquals("5", factory.createTool("sum")
+        .execute(ToolInput.fromParameters(Map.of("a", 2L, "b", 3L))).getData());
+  }
+
+  @Test
+  void testLazyToolIsCreatedOnFirstExecution() {
+    CountingCreator creator = new CountingCreator();
+    factory.registerToolCreator("counting", creator);
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    factory.registerLazyTools(registry);
+
+    ToolExecutionEngine engine = new ToolExecutionEngine(registry);
+    assertTrue(engine.getAvailableToolNames().contains("counting"));
+    assertEquals(1, registry.getToolsByCategory(ToolCategory.CUSTOM).size());
+    assertEquals(0, creator.created.get(), "Listing and indexing must not create the tool");
+
+    assertEquals("5", engine.executeTool("counting", Map.of("a", 2L, "b", 3L)).getData());
+    assertEquals("5", engine.executeTool("counting", Map.of("a", 2L, "b", 3L)).getData());
+    assertEquals(1, creator.created.get());
+  }
+
+  @Test
+  void testCreationFailureBecomesToolFailure() {
+    factory.registerToolCreator("broken", new AbstractToolCreator("broken") {
+      @Override
+      public ITool createTool(Map<String, Object> config) {
+        throw new IllegalStateException("missing credentials");
+      }
+
+      @Override
+      protected IToolMetadata describeTool() {
+        return new ToolMetadata("broken", "Broken", "Cannot be created");
+      }
+    });
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(factory.createLazyTool("broken"));
+
+    IToolResult result = new ToolExecutionEngine(registry).executeTool("broken", Map.of());
+
+    assertFalse(result.isSuccess());
+    assertEquals("Failed to create tool broken: missing credentials", result.getError());
+  }
+
+  @Test
+  void testLazyFallbackCreationFailureBecomesToolFailure() {
+    factory.registerToolCreator("broken", new AbstractToolCreator("broken") {
+      @Override
+      public ITool createTool(Map<String, Object> config) {
+        throw new IllegalStateException("missing credentials");
+      }
+
+      @Override
+      protected IToolMetadata describeTool() {
+        ToolMetadata metadata = new ToolMetadata("broken", "Broken", "Cannot be created");
+        metadata.setCategory(ToolCategory.UTILITY);
+        return metadata;
+      }
+    });
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(new MultiplyTool());
+    registry.registerTool(factory.createLazyTool("broken"));
+    ToolExecutionEngine engine = new ToolExecutionEngine(registry, ForkJoinPool.commonPool(),
+        CircuitBreakerConfig.defaults().withSlidingWindowSize(2).withMinimumNumberOfCalls(2));
+    engine.executeTool("multiply", Map.of("x", "not a number", "y", 2L));
+    engine.executeTool("multiply", Map.of("x", "not a number", "y", 2L));
+    assertTrue(engine.setFallbackTool("multiply", "broken"));
+
+    IToolResult result = engine.executeTool("multiply", Map.of("x", 2L, "y", 3L));
+
+    assertFalse(result.isSuccess());
+    assertEquals("Failed to create tool broken: missing credentials", result.getError());
+    assertEquals(1, engine.getToolStatistics("broken").getFailureCount());
+  }
+
+  /**
+   * Creator that counts the sum tools it creates.
+   */
+  private static class CountingCreator extends AbstractToolCreator {
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    CountingCreator() {
+      super("counting");
+    }
+
+    @Override
+    public ITool createTool(Map<String, Object> config) {
+      created.incrementAndGet();
+      return new SumTool();
+    }
+
+    @Override
+    protected IToolMetadata describeTool() {
+      ToolMetadata metadata = new ToolMetadata("counting", "Counting", "Adds numbers");
+      metadata.setCategory(ToolCategory.CUSTOM);
+      return metadata;
+    }
+  }
+}
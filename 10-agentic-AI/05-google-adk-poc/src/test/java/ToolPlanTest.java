@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.adk.tools.MultiplyTool;
+import com.arv.adk.tools.SumTool;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.interfaces.tool.IToolResult;
+import com.arv.framework.adk.tools.ToolPlan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for tool plan execution in ToolExecutionEngine.
+ * Uses the arithmetic tools so no network access is needed.
+ */
+class ToolPlanTest {
+
+  private ToolExecutionEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(new SumTool());
+    registry.registerTool(new MultiplyTool());
+    engine = new ToolExecutionEngine(registry);
+  }
+
+  @Test
+  void testDependentStepsAreChained() {
+    ToolPlan plan = new ToolPlan()
+        .addStep("add", "sum", Map.of("a", 2, "b", 3))
+        .addStep("double", "multiply", Map.of("x", "${add}", "y", 2L));
+
+    Map<String, IToolResult> results = engine.executePlan(plan, "test_session");
+
+    assertEquals("5", results.get("add").getData());
+    assertEquals("10", results.get("double").getData());
+  }
+
+  @Test
+  void testIndependentStepsAndRegexExtraction() throws Exception {
+    String json = "{\"steps\":["
+        + "{\"id\":\"a\",\"tool\":\"sum\",\"arguments\":{\"a\":20,\"b\":1}},"
+        + "{\"id\":\"b\",\"tool\":\"multiply\",\"arguments\":{\"x\":3,\"y\":4}},"
+        + "{\"id\":\"c\",\"tool\":\"multiply\","
+        + "\"arguments\":{\"x\":\"${a|regex:(\\\\d{2})}\",\"y\":\"${b}\"}}]}";
+    ToolPlan plan = ToolPlan.fromJson(new ObjectMapper().readTree(json));
+
+    Map<String, IToolResult> results = engine.executePlan(plan, null);
+
+    assertEquals("252", results.get("c").getData());
+  }
+
+  @Test
+  void testFailedDependencySkipsDependents() {
+    ToolPlan plan = new ToolPlan()
+        .addStep("missing", "no_such_tool", Map.of())
+        .addStep("after", "multiply", Map.of("x", "${missing}", "y", 2L));
+
+    Map<String, IToolResult> results = engine.executePlan(plan, null);
+
+    assertFalse(results.get("missing").isSuccess());
+    assertFalse(results.get("after").isSuccess());
+    assertTrue(results.get("after").getError().contains("missing"));
+  }
+
+  @Test
+  void testCycleIsRejected() {
+    ToolPlan plan = new ToolPlan()
+        .addStep("a", "sum", Map.of("a", "${b}", "b", 1))
+        .addStep("b", "sum", Map.of("a", "${a}", "b", 1));
+
+    Map<String, IToolResult> results = engine.executePlan(plan, null);
+
+    assertFalse(results.get("a").isSuccess());
+    assertTrue(results.get("a").getError().contains("cycle"));
+  }
+}
@@ -0,0 +1,162 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import com.arv.adk.tools.GoogleSearchTool;
+import com.arv.adk.tools.MultiplyTool;
+import com.arv.adk.tools.SumTool;
+import com.arv.adk.tools.WikipediaSearchTool;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.impl.ToolRegistryOverlay;
+import com.arv.framework.adk.impl.ToolRegistrySnapshot;
+import com.arv.framework.adk.interfaces.enums.ReturnType;
+import com.arv.framework.adk.interfaces.enums.ToolCategory;
+import com.arv.framework.adk.interfaces.tool.ITool;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the snapshot-based tool registry and its overlays.
+ */
+class ToolRegistryTest {
+
+  @Test
+  void testChangesPublishNewVersions() {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    assertEquals(0, registry.getVersion());
+
+    registry.registerTool(new SumTool());
+    registry.registerTool(new GoogleSearchTool());
+    assertEquals(2, registry.getVersion());
+    assertSame(registry.getEnabledTools(), registry.getEnabledTools(), "Reads must not allocate");
+
+    ToolRegistrySnapshot before = registry.getSnapshot();
+    assertTrue(registry.disableTool("google_search"));
+    assertEquals(3, registry.getVersion());
+    assertTrue(registry.disableTool("google_search"));
+    assertEquals(3, registry.getVersion(), "Unchanged state keeps the version");
+
+    assertTrue(before.isEnabled("google_search"), "Old snapshots are immutable");
+    assertEquals(List.of("sum"), ids(registry.getEnabledTools()));
+    assertEquals(List.of("google_search"), ids(registry.getDisabledTools()));
+
+    assertTrue(registry.unregisterTool("sum"));
+    assertFalse(registry.unregisterTool("sum"));
+    assertEquals(4, registry.getVersion());
+    assertEquals(1, registry.getToolCount());
+  }
+
+  @Test
+  void testEnabledStateIsOwnedByRegistry() {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(new GoogleSearchTool());
+
+    // GoogleSearchTool ignores setEnabled, but the registry still tracks the flag
+    registry.disableTool("google_search");
+
+    assertFalse(registry.isToolEnabled("google_search"));
+    assertTrue(registry.getEnabledTools().isEmpty());
+  }
+
+  @Test
+  void testIndexedLookups() {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    SumTool sum = new SumTool();
+    sum.getMetadata().setProperty(ToolRegistrySnapshot.ALIASES_PROPERTY, List.of("add", "Plus"));
+    registry.registerTools(List.of(sum, new MultiplyTool(), new GoogleSearchTool()));
+
+    assertSame(sum, registry.findToolByName("SUM").orElseThrow());
+    assertSame(sum, registry.findToolByName("plus").orElseThrow());
+    assertTrue(registry.findToolByName("divide").isEmpty());
+    assertEquals(List.of("sum", "multiply", "google_search"),
+        ids(registry.getToolsByCategory(ToolCategory.UTILITY)));
+    assertEquals(List.of("sum", "multiply"), ids(registry.getToolsByReturnType(ReturnType.INTEGER)));
+    assertTrue(registry.getToolsByCategory(ToolCategory.WEATHER).isEmpty());
+
+    registry.unregisterTool("sum");
+    assertTrue(registry.findToolByName("add").isEmpty());
+    assertEquals(List.of("multiply"), ids(registry.getToolsByReturnType(ReturnType.INTEGER)));
+  }
+
+  @Test
+  void testSingleChangesUpdateIndexesInPlace() {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    SumTool sum = spy(new SumTool());
+    sum.getMetadata().setProperty(ToolRegistrySnapshot.ALIASES_PROPERTY, "add");
+    MultiplyTool multiply = new MultiplyTool();
+    multiply.getMetadata().setProperty(ToolRegistrySnapshot.ALIASES_PROPERTY, "add, times");
+    registry.registerTool(sum);
+    clearInvocations(sum);
+
+    registry.registerTool(multiply);
+    registry.registerTool(new GoogleSearchTool());
+    registry.unregisterTool("google_search");
+    verify(sum, never()).getMetadata();
+
+    assertSame(sum, registry.findToolByName("add").orElseThrow(), "The first registered claim wins");
+    assertSame(multiply, registry.findToolByName("times").orElseThrow());
+    assertEquals(List.of("sum", "multiply"), ids(registry.getToolsByReturnType(ReturnType.INTEGER)));
+
+    SumTool replacement = new SumTool();
+    registry.registerTool(replacement);
+    assertEquals(List.of("sum", "multiply"), ids(registry.getToolsByCategory(ToolCategory.UTILITY)));
+    assertSame(multiply, registry.findToolByName("add").orElseThrow(), "Dropped aliases pass on");
+    assertSame(replacement, registry.findToolByName("sum").orElseThrow());
+
+    registry.unregisterTool("multiply");
+    assertTrue(registry.findToolByName("add").isEmpty());
+    assertEquals(List.of("sum"), ids(registry.getToolsByReturnType(ReturnType.INTEGER)));
+  }
+
+  @Test
+  void testOverlayRecordsOnlyLocalChanges() {
+    SimpleToolRegistry base = new SimpleToolRegistry();
+    base.registerTools(List.of(new SumTool(), new MultiplyTool(), new GoogleSearchTool()));
+    ToolRegistryOverlay tenant = new ToolRegistryOverlay(base);
+    ToolRegistryOverlay other = new ToolRegistryOverlay(base);
+
+    assertSame(base.getAllTools(), tenant.getAllTools(), "An empty overlay reads through");
+
+    assertTrue(tenant.unregisterTool("multiply"));
+    assertTrue(tenant.disableTool("google_search"));
+    assertTrue(tenant.registerTool(new WikipediaSearchTool()));
+
+    assertEquals(List.of("sum", "google_search", "wikipedia_search"), ids(tenant.getAllTools()));
+    assertEquals(List.of("sum", "wikipedia_search"), ids(tenant.getEnabledTools()));
+    assertFalse(tenant.findToolByName("multiply").isPresent());
+    assertTrue(base.isToolEnabled("google_search"), "The base registry is untouched");
+    assertEquals(3, other.getToolCount());
+    assertFalse(other.isToolRegistered("wikipedia_search"));
+
+    long version = tenant.getVersion();
+    base.unregisterTool("sum");
+    assertTrue(tenant.getVersion() > version, "Base changes move the overlay version");
+    assertEquals(List.of("google_search", "wikipedia_search"), ids(tenant.getAllTools()));
+
+    tenant.reset();
+    assertEquals(List.of("multiply", "google_search"), ids(tenant.getAllTools()));
+  }
+
+  @Test
+  void testOverlayEnginesShareBaseSchemas() {
+    SimpleToolRegistry base = new SimpleToolRegistry();
+    base.registerTool(new SumTool());
+
+    Map<String, Object> first = new ToolExecutionEngine(new ToolRegistryOverlay(base)).getToolSchema("sum");
+    Map<String, Object> second = new ToolExecutionEngine(new ToolRegistryOverlay(base)).getToolSchema("sum");
+
+    assertSame(first, second);
+  }
+
+  private static List<String> ids(List<ITool> tools) {
+    return tools.stream().map(ITool::getId).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.arv.adk.tools.GoogleSearchTool;
+import com.arv.adk.tools.MultiplyTool;
+import com.arv.adk.tools.SumTool;
+import com.arv.adk.tools.WikipediaSearchTool;
+import com.arv.framework.adk.impl.ConnectAgent;
+import com.arv.framework.adk.impl.SimpleSessionManager;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.interfaces.gemini.ILlmService;
+import com.arv.framework.adk.retrieval.ToolRetriever;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for relevance-based tool selection.
+ */
+class ToolRetrieverTest {
+
+  private SimpleToolRegistry registry;
+  private ToolRetriever retriever;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleToolRegistry();
+    registry.registerTools(List.of(new SumTool(), new MultiplyTool(), new GoogleSearchTool(),
+        new WikipediaSearchTool()));
+    retriever = new ToolRetriever(registry).withTopK(1);
+  }
+
+  @Test
+  void testSelectsMostRelevantTool() {
+    assertEquals(List.of("multiply"), retriever.selectTools("What is 6 multiplied by 7?"));
+    assertEquals(List.of("wikipedia_search"),
+        retriever.selectTools("Look up Tokyo on Wikipedia"));
+    assertEquals(List.of("sum"), retriever.selectTools("add 3 and 5"));
+  }
+
+  @Test
+  void testPinnedToolsAreAlwaysSelected() {
+    retriever.pinTool("google_search");
+
+    List<String> selected = retriever.selectTools("add 3 and 5");
+
+    assertEquals(List.of("google_search", "sum"), selected);
+  }
+
+  @Test
+  void testSmallRegistrySelectsEverything() {
+    ToolRetriever wide = new ToolRetriever(registry);
+
+    assertEquals(4, wide.selectTools("anything").size());
+
+    registry.disableTool("sum");
+    assertEquals(3, wide.selectTools("anything").size());
+  }
+
+  @Test
+  void testHitRate() {
+    retriever.recordToolCall("sum", true);
+    retriever.recordToolCall("sum", true);
+    retriever.recordToolCall("multiply", false);
+
+    assertEquals(2, retriever.getHitCount());
+    assertEquals(1, retriever.getMissCount());
+    assertTrue(Math.abs(retriever.getHitRate() - 2.0 / 3) < 1e-9);
+  }
+
+  @Test
+  void testAgentRecordsCallsAgainstOfferedTools() {
+    ILlmService llm = mock(ILlmService.class);
+    when(llm.generateResponse(any(), anyMap())).thenReturn(
+        "{\"function_call\": {\"name\": \"sum\", \"arguments\": {\"a\": 3, \"b\": 5}}}",
+        "{\"function_call\": {\"name\": \"multiply\", \"arguments\": {\"x\": 8, \"y\": 2}}}",
+        "The answer is 16");
+    ConnectAgent agent = new ConnectAgent(llm, new ToolExecutionEngine(registry), new SimpleSessionManager())
+        .withToolRetriever(retriever);
+    agent.startSession("s1");
+
+    agent.processMessage("add 3 and 5", "s1");
+
+    assertEquals(1, retriever.getHitCount());
+    assertEquals(1, retriever.getMissCount(), "multiply was not offered for an addition");
+  }
+
+  @Test
+  void testUnmatchedQueryFallsBackToAllTools() {
+    assertEquals(4, retriever.selectTools("how hot is it in Paris tomorrow").size());
+    assertEquals(List.of("sum"), retriever.selectTools("add 3 and 5"));
+
+    assertEquals(1, retriever.getFallbackCount());
+    assertEquals(0.5, retriever.getFallbackRate(), 1e-9);
+  }
+
+  @Test
+  void testPartialMatchesArePaddedToTopK() {
+    ToolRetriever three = new ToolRetriever(registry).withTopK(3);
+
+    List<String> selected = three.selectTools("Look up Tokyo on Wikipedia");
+    assertEquals(3, selected.size());
+    assertEquals("wikipedia_search", selected.get(0));
+    assertEquals(0, three.getFallbackCount());
+  }
+}
@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.arv.adk.tools.MultiplyTool;
+import com.arv.adk.tools.SumTool;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.metrics.LatencyHistogram;
+import com.arv.framework.adk.metrics.ToolStatistics;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for per-tool execution statistics.
+ */
+class ToolStatisticsTest {
+
+  @Test
+  void testHistogramPercentilesWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10_000; value++) {
+      histogram.record(value);
+    }
+
+    assertEquals(10_000, histogram.getCount());
+    assertEquals(10_000, histogram.getMax());
+    assertEquals(5000.5, histogram.getMean(), 0.001);
+    assertWithin(5_000, histogram.getPercentile(50));
+    assertWithin(9_500, histogram.getPercentile(95));
+    assertWithin(9_900, histogram.getPercentile(99));
+    assertEquals(1, histogram.getPercentile(0));
+  }
+
+  @Test
+  void testEngineRecordsOutcomes() throws Exception {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(new SumTool());
+    registry.registerTool(new MultiplyTool());
+    ToolExecutionEngine engine = new ToolExecutionEngine(registry);
+    engine.registerStatisticsMBeans("statistics-test");
+
+    engine.executeTool("sum", Map.of("a", 1L, "b", 2L));
+    engine.executeTool("sum", Map.of("a", 3L, "b", 4L));
+    engine.executeTool("sum", Map.of("a", "x", "b", 4L));
+    engine.executeTool("sum", Map.of("b", 4L));
+
+    ToolStatistics sum = engine.getToolStatistics("sum");
+    assertEquals(4, sum.getCallCount());
+    assertEquals(2, sum.getSuccessCount());
+    assertEquals(2, sum.getFailureCount());
+    assertEquals(0, sum.getInFlight());
+    assertEquals(3, sum.getLatencyHistogram().getCount());
+
+    registry.disableTool("multiply");
+    engine.executeTool("multiply", Map.of("x", 2L, "y", 3L));
+    assertEquals(1, engine.getToolStatistics("multiply").getRejectionCount());
+
+    ObjectName name = new ObjectName(
+        "com.arv.framework.adk:type=ToolStatistics,engine=\"statistics-test\",tool=\"sum\"");
+    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "SuccessCount"));
+    assertFalse(engine.getAllToolStatistics().isEmpty());
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(Math.abs(actual - expected) <= expected / 8,
+        "Expected about " + expected + " but was " + actual);
+  }
+}
@@ -0,0 +1,83 @@
+package com.arv.framework.adk.benchmark;
+
+import com.arv.adk.tools.MultiplyTool;
+import com.arv.adk.tools.SumTool;
+import com.arv.framework.adk.impl.SimpleToolRegistry;
+import com.arv.framework.adk.impl.ToolExecutionEngine;
+import com.arv.framework.adk.interfaces.tool.IToolResult;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark for the per-call cost of executeTool.
+ * Run the main method to get time and allocation per call (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolExecutionBenchmark {
+
+  private ToolExecutionEngine engine;
+  private Map<String, Object> sumParameters;
+  private Map<String, Object> multiplyParameters;
+
+  @Setup
+  public void setUp() {
+    SimpleToolRegistry registry = new SimpleToolRegistry();
+    registry.registerTool(new SumTool());
+    registry.registerTool(new MultiplyTool());
+    engine = new ToolExecutionEngine(registry);
+
+    sumParameters = new HashMap<>();
+    sumParameters.put("a", 3L);
+    sumParameters.put("b", 5L);
+    sumParameters.put("sessionId", "session-1");
+
+    multiplyParameters = new HashMap<>();
+    multiplyParameters.put("x", 6L);
+    multiplyParameters.put("y", 7L);
+    multiplyParameters.put("sessionId", "session-1");
+  }
+
+  @Benchmark
+  public IToolResult executeSum() {
+    return engine.executeTool("sum", sumParameters);
+  }
+
+  @Benchmark
+  public IToolResult executeMultiply() {
+    return engine.executeTool("multiply", multiplyParameters);
+  }
+
+  /**
+   * Runs the benchmark with the GC profiler.
+   *
+   * @param args unused
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(ToolExecutionBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build();
+    new Runner(options).run();
+  }
+}